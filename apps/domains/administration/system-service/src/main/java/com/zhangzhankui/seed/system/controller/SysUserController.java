@@ -1,14 +1,18 @@
 package com.zhangzhankui.seed.system.controller;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import com.zhangzhankui.seed.common.core.annotation.InnerAuth;
 import com.zhangzhankui.seed.common.core.annotation.Log;
 import com.zhangzhankui.seed.common.core.annotation.Log.BusinessType;
+import com.zhangzhankui.seed.common.core.cache.ICache;
+import com.zhangzhankui.seed.common.core.constant.CacheConstants;
 import com.zhangzhankui.seed.common.core.domain.ApiResult;
 import com.zhangzhankui.seed.common.core.domain.LoginUser;
 import com.zhangzhankui.seed.common.core.domain.PageQuery;
@@ -48,8 +52,12 @@ public class SysUserController extends BaseController {
   private final SysUserService userService;
   private final PasswordEncoder passwordEncoder;
   private final SysDeptMapper deptMapper;
+  private final ICache<String, Object> cache;
   private static final SysUserConverter CONVERTER = SysUserConverter.INSTANCE;
 
+  /** 部门缓存过期时间（分钟） */
+  private static final long DEPT_CACHE_MINUTES = 30;
+
   @InnerAuth
   @Operation(summary = "通过用户名获取用户信息（内部调用）")
   @GetMapping("/info/{username}")
@@ -87,12 +95,7 @@ public class SysUserController extends BaseController {
         .map(SysUser::getDeptId)
         .filter(Objects::nonNull)
         .collect(Collectors.toSet());
-    Map<Long, SysDept> deptMap = Map.of();
-    if (!deptIds.isEmpty()) {
-      deptMap = deptMapper.selectBatchIds(deptIds).stream()
-          .collect(Collectors.toMap(SysDept::getDeptId, d -> d, (a, b) -> a));
-    }
-    final Map<Long, SysDept> finalDeptMap = deptMap;
+    final Map<Long, SysDept> finalDeptMap = loadDepts(deptIds);
 
     // 转换为 VO，填充 deptName
     PageResult<SysUserVO> voPage = result.map(user -> {
@@ -103,6 +106,38 @@ public class SysUserController extends BaseController {
     return ApiResult.ok(voPage);
   }
 
+  /**
+   * 批量加载部门
+   *
+   * <p>先一次 MGET 读取缓存，未命中的部门再批量查库并一次 Pipeline 回填缓存
+   */
+  private Map<Long, SysDept> loadDepts(Set<Long> deptIds) {
+    if (deptIds.isEmpty()) {
+      return Map.of();
+    }
+    Map<Long, SysDept> deptMap = new HashMap<>();
+    Map<String, Object> cached = cache.getAll(
+        deptIds.stream().map(id -> CacheConstants.SYS_DEPT_KEY + id).toList());
+    cached.values().forEach(value -> {
+      if (value instanceof SysDept dept) {
+        deptMap.put(dept.getDeptId(), dept);
+      }
+    });
+
+    Set<Long> missing = deptIds.stream()
+        .filter(id -> !deptMap.containsKey(id))
+        .collect(Collectors.toSet());
+    if (!missing.isEmpty()) {
+      Map<String, Object> toCache = new HashMap<>();
+      for (SysDept dept : deptMapper.selectBatchIds(missing)) {
+        deptMap.put(dept.getDeptId(), dept);
+        toCache.put(CacheConstants.SYS_DEPT_KEY + dept.getDeptId(), dept);
+      }
+      cache.putAll(toCache, DEPT_CACHE_MINUTES, TimeUnit.MINUTES);
+    }
+    return deptMap;
+  }
+
   @Operation(summary = "用户详情")
   @GetMapping("/{userId}")
   public ApiResult<SysUserVO> getInfo(@PathVariable Long userId) {
@@ -1,5 +1,7 @@
 package com.zhangzhankui.seed.system.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -32,6 +34,21 @@ public interface SysUserRepository extends IRepository<SysUser, Long> {
    */
   boolean existsByUsername(String username);
 
+  /**
+   * 查询全部未删除用户的用户名
+   *
+   * @return 用户名列表
+   */
+  List<String> findAllUsernames();
+
+  /**
+   * 查询指定时间之后创建的用户名
+   *
+   * @param since 起始创建时间（含）
+   * @return 用户名列表
+   */
+  List<String> findUsernamesCreatedSince(LocalDateTime since);
+
   /**
    * 查询用户角色Key列表
    *
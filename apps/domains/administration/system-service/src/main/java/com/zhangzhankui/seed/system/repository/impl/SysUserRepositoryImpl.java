@@ -1,6 +1,8 @@
 package com.zhangzhankui.seed.system.repository.impl;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -47,6 +49,20 @@ public class SysUserRepositoryImpl
     return mapper.exists(wrapper);
   }
 
+  @Override
+  public List<String> findAllUsernames() {
+    LambdaQueryWrapper<SysUser> wrapper = new LambdaQueryWrapper<>();
+    wrapper.select(SysUser::getUsername);
+    return mapper.selectObjs(wrapper);
+  }
+
+  @Override
+  public List<String> findUsernamesCreatedSince(LocalDateTime since) {
+    LambdaQueryWrapper<SysUser> wrapper = new LambdaQueryWrapper<>();
+    wrapper.select(SysUser::getUsername).ge(SysUser::getCreateTime, since);
+    return mapper.selectObjs(wrapper);
+  }
+
   @Override
   public Set<String> findRoleKeysByUserId(Long userId) {
     Set<String> roles = mapper.selectRoleKeysByUserId(userId);
@@ -3,6 +3,7 @@ package com.zhangzhankui.seed.system.service;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.zhangzhankui.seed.common.redis.cache.CacheReloader;
 import com.zhangzhankui.seed.system.mapper.SysDeptMapper;
 import com.zhangzhankui.seed.system.mapper.SysMenuMapper;
 import com.zhangzhankui.seed.system.mapper.SysRoleMapper;
@@ -14,11 +15,14 @@ import org.springframework.stereotype.Service;
 /**
  * 仪表盘统计服务
  *
- * <p>封装统计逻辑，避免 Controller 直接注入 Mapper
+ * <p>封装统计逻辑，避免 Controller 直接注入 Mapper。
+ * 统计不依赖请求上下文，同时作为 dashboard 缓存的 {@link CacheReloader}，接近过期时在后台提前刷新
  */
 @Service
 @RequiredArgsConstructor
-public class DashboardService {
+public class DashboardService implements CacheReloader {
+
+  private static final String CACHE_NAME = "dashboard";
 
   private final SysUserMapper userMapper;
   private final SysDeptMapper deptMapper;
@@ -28,10 +32,26 @@ public class DashboardService {
   /**
    * 获取仪表盘统计数据
    *
+   * <p>sync = true：缓存过期时只有一个请求执行统计查询，其余请求等待并复用结果
+   *
    * @return 各实体数量统计（通过 @TableLogic 自动过滤已删除数据）
    */
-  @Cacheable(cacheNames = "dashboard", key = "'stats'")
+  @Cacheable(cacheNames = CACHE_NAME, key = "'stats'", sync = true)
   public Map<String, Long> getStats() {
+    return countStats();
+  }
+
+  @Override
+  public String cacheName() {
+    return CACHE_NAME;
+  }
+
+  @Override
+  public Object reload(Object key) {
+    return countStats();
+  }
+
+  private Map<String, Long> countStats() {
     Map<String, Long> stats = new HashMap<>();
     stats.put("users", userMapper.selectCount(null));
     stats.put("depts", deptMapper.selectCount(null));
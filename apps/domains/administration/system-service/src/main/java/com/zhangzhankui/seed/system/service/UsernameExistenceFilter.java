@@ -0,0 +1,281 @@
+package com.zhangzhankui.seed.system.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.zhangzhankui.seed.common.core.cache.ICache;
+import com.zhangzhankui.seed.common.core.constant.CacheConstants;
+import com.zhangzhankui.seed.system.repository.SysUserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 用户名存在性过滤器
+ *
+ * <p>用于在查询数据库前判断用户名“一定不存在”，避免不存在的用户名（撞库、拼写错误）每次都穿透到数据库：
+ *
+ * <ul>
+ *   <li>负缓存：数据库确认不存在的用户名短期记录在 Redis（{@code user:absent:用户名}）
+ *   <li>布隆过滤器（可选）：启动时由 sys_user 全量重建，新建用户时追加。未命中即一定不存在
+ * </ul>
+ *
+ * <p>布隆过滤器模式由 seed.system.user-filter.bloom 配置：{@code none}（默认，仅负缓存）、
+ * {@code redis}（Redisson RBloomFilter，多实例共享）、{@code memory}（进程内，仅适用于单实例部署，
+ * 其他实例新建的用户不会进入本实例的过滤器）。重建完成前过滤器不参与判断。
+ */
+@Slf4j
+@Component
+public class UsernameExistenceFilter {
+
+  /** Redis 布隆过滤器名称 */
+  static final String BLOOM_NAME = "user:bloom:username";
+
+  /** 重建后补录新用户时回看的时间，覆盖重建期间的写入与节点间时钟偏差 */
+  private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(1);
+
+  /** 布隆过滤器模式 */
+  public enum BloomMode {
+    NONE,
+    MEMORY,
+    REDIS
+  }
+
+  private final SysUserRepository userRepository;
+  private final ICache<String, Object> cache;
+  private final ObjectProvider<RedissonClient> redissonClient;
+  private final BloomMode bloomMode;
+  private final long expectedInsertions;
+  private final double falseProbability;
+  private final Duration absentTtl;
+
+  private volatile LocalBloomFilter localBloom;
+  private volatile boolean bloomReady;
+
+  public UsernameExistenceFilter(
+      SysUserRepository userRepository,
+      ICache<String, Object> cache,
+      ObjectProvider<RedissonClient> redissonClient,
+      @Value("${seed.system.user-filter.bloom:none}") String bloomMode,
+      @Value("${seed.system.user-filter.expected-insertions:100000}") long expectedInsertions,
+      @Value("${seed.system.user-filter.false-probability:0.01}") double falseProbability,
+      @Value("${seed.system.user-filter.absent-ttl:60s}") Duration absentTtl) {
+    this.userRepository = userRepository;
+    this.cache = cache;
+    this.redissonClient = redissonClient;
+    this.bloomMode = BloomMode.valueOf(bloomMode.toUpperCase(Locale.ROOT));
+    this.expectedInsertions = expectedInsertions;
+    this.falseProbability = falseProbability;
+    this.absentTtl = absentTtl;
+  }
+
+  /** 启动完成后从 sys_user 重建布隆过滤器 */
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    Thread.ofVirtual().name("username-bloom-rebuild").start(this::rebuild);
+  }
+
+  /**
+   * 重建布隆过滤器
+   *
+   * <p>新过滤器构建完成后整体替换旧过滤器，随后补录重建期间创建的用户
+   */
+  public void rebuild() {
+    if (bloomMode == BloomMode.NONE) {
+      return;
+    }
+    LocalDateTime startedAt = LocalDateTime.now();
+    try {
+      List<String> usernames = userRepository.findAllUsernames();
+      if (bloomMode == BloomMode.REDIS) {
+        rebuildRedis(usernames);
+      } else {
+        LocalBloomFilter bloom = new LocalBloomFilter(expectedInsertions, falseProbability);
+        usernames.forEach(bloom::add);
+        localBloom = bloom;
+      }
+      userRepository.findUsernamesCreatedSince(startedAt.minus(CATCH_UP_MARGIN))
+          .forEach(this::addToBloom);
+      bloomReady = true;
+      log.info("用户名布隆过滤器重建完成, mode: {}, count: {}", bloomMode, usernames.size());
+    } catch (Exception e) {
+      log.error("用户名布隆过滤器重建失败, 将仅使用负缓存", e);
+    }
+  }
+
+  private void rebuildRedis(List<String> usernames) {
+    RedissonClient client = redissonClient.getObject();
+    // 先写入临时过滤器再 RENAME 覆盖，重建期间其他节点仍使用完整的旧过滤器
+    RBloomFilter<String> building =
+        client.getBloomFilter(BLOOM_NAME + ":building:" + UUID.randomUUID());
+    building.tryInit(Math.max(expectedInsertions, usernames.size()), falseProbability);
+    building.add(usernames);
+    building.rename(BLOOM_NAME);
+  }
+
+  /**
+   * 判断用户名是否一定不存在
+   *
+   * <p>先查布隆过滤器（进程内模式不访问 Redis），可能存在时再查负缓存
+   *
+   * @param username 用户名
+   * @return true 表示一定不存在，可直接跳过数据库查询；false 表示可能存在
+   */
+  public boolean isDefinitelyAbsent(String username) {
+    if (username == null) {
+      return true;
+    }
+    if (!mightExistInBloom(username)) {
+      return true;
+    }
+    return cache.containsKey(CacheConstants.USER_ABSENT_KEY + username);
+  }
+
+  /**
+   * 记录数据库确认不存在的用户名
+   *
+   * @param username 用户名
+   */
+  public void markAbsent(String username) {
+    if (username != null) {
+      cache.put(CacheConstants.USER_ABSENT_KEY + username, Boolean.TRUE,
+          absentTtl.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * 记录已删除的用户名
+   *
+   * @param usernames 用户名
+   */
+  public void markAbsent(Collection<String> usernames) {
+    usernames.forEach(this::markAbsent);
+  }
+
+  /**
+   * 记录新建的用户名
+   *
+   * <p>立即加入布隆过滤器并清除负缓存；处于事务中时在提交后再清除一次，
+   * 防止提交前的并发查询重新写入负缓存
+   *
+   * @param username 用户名
+   */
+  public void markPresent(String username) {
+    addToBloom(username);
+    clearAbsent(username);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          clearAbsent(username);
+        }
+      });
+    }
+  }
+
+  private void clearAbsent(String username) {
+    cache.remove(CacheConstants.USER_ABSENT_KEY + username);
+  }
+
+  private boolean mightExistInBloom(String username) {
+    if (!bloomReady) {
+      return true;
+    }
+    try {
+      if (bloomMode == BloomMode.REDIS) {
+        return redissonClient.getObject().<String>getBloomFilter(BLOOM_NAME).contains(username);
+      }
+      return localBloom.mightContain(username);
+    } catch (Exception e) {
+      log.warn("查询用户名布隆过滤器失败, username: {}", username, e);
+      return true;
+    }
+  }
+
+  private void addToBloom(String username) {
+    try {
+      if (bloomMode == BloomMode.REDIS) {
+        redissonClient.getObject().<String>getBloomFilter(BLOOM_NAME).add(username);
+      } else if (bloomMode == BloomMode.MEMORY && localBloom != null) {
+        localBloom.add(username);
+      }
+    } catch (Exception e) {
+      // 加入失败会导致新用户被误判为不存在，标记未就绪直到下次重建
+      bloomReady = false;
+      log.error("加入用户名布隆过滤器失败, username: {}", username, e);
+    }
+  }
+
+  /** 进程内布隆过滤器（双重哈希，线程安全） */
+  static final class LocalBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    LocalBloomFilter(long expectedInsertions, double falseProbability) {
+      long n = Math.max(expectedInsertions, 1);
+      long m = (long) Math.ceil(-n * Math.log(falseProbability) / (Math.log(2) * Math.log(2)));
+      this.bitCount = Math.max(m, Long.SIZE);
+      this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+      this.bits = new AtomicLongArray((int) ((bitCount + Long.SIZE - 1) / Long.SIZE));
+    }
+
+    void add(String value) {
+      long hash1 = hash(value);
+      long hash2 = mix(hash1);
+      for (int i = 0; i < hashCount; i++) {
+        long index = Math.floorMod(hash1 + i * hash2, bitCount);
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+          current = bits.get(word);
+        } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+      }
+    }
+
+    boolean mightContain(String value) {
+      long hash1 = hash(value);
+      long hash2 = mix(hash1);
+      for (int i = 0; i < hashCount; i++) {
+        long index = Math.floorMod(hash1 + i * hash2, bitCount);
+        if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /** FNV-1a 64 */
+    private static long hash(String value) {
+      long hash = 0xcbf29ce484222325L;
+      for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+        hash ^= b;
+        hash *= 0x100000001b3L;
+      }
+      return mix(hash);
+    }
+
+    /** SplitMix64 终结函数 */
+    private static long mix(long z) {
+      z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+      z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+      return z ^ (z >>> 31);
+    }
+  }
+}
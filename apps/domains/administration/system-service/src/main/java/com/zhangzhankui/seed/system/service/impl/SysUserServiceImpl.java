@@ -13,6 +13,8 @@ import com.zhangzhankui.seed.common.core.domain.PageResult;
 import com.zhangzhankui.seed.common.core.exception.ServiceException;
 import com.zhangzhankui.seed.common.datasource.service.BaseApplicationService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -20,6 +22,8 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import com.zhangzhankui.seed.system.api.dto.SysUserDTO;
 import com.zhangzhankui.seed.system.api.dto.UserCredentialsDTO;
 import com.zhangzhankui.seed.system.api.vo.SysUserQueryVO;
@@ -27,11 +31,14 @@ import com.zhangzhankui.seed.system.converter.SysUserConverter;
 import com.zhangzhankui.seed.system.domain.SysUser;
 import com.zhangzhankui.seed.system.repository.SysUserRepository;
 import com.zhangzhankui.seed.system.service.SysUserService;
+import com.zhangzhankui.seed.system.service.UsernameExistenceFilter;
 
 /**
  * 用户服务实现
  *
  * <p>继承 BaseApplicationService，组合使用 SysUserRepository
+ *
+ * <p>按用户名查询前先经 {@link UsernameExistenceFilter} 判断，一定不存在的用户名不再查询数据库
  */
 @Slf4j
 @Service
@@ -42,11 +49,19 @@ public class SysUserServiceImpl
 
   private final SysUserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
+  private final UsernameExistenceFilter existenceFilter;
+  private final CacheManager cacheManager;
 
-  public SysUserServiceImpl(SysUserRepository userRepository, PasswordEncoder passwordEncoder) {
+  public SysUserServiceImpl(
+      SysUserRepository userRepository,
+      PasswordEncoder passwordEncoder,
+      UsernameExistenceFilter existenceFilter,
+      CacheManager cacheManager) {
     super(userRepository);
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
+    this.existenceFilter = existenceFilter;
+    this.cacheManager = cacheManager;
   }
 
   @Override
@@ -56,12 +71,26 @@ public class SysUserServiceImpl
 
   @Override
   public SysUser findByUsername(String username) {
-    return userRepository.findByUsername(username).orElse(null);
+    if (existenceFilter.isDefinitelyAbsent(username)) {
+      return null;
+    }
+    SysUser user = userRepository.findByUsername(username).orElse(null);
+    if (user == null) {
+      existenceFilter.markAbsent(username);
+    }
+    return user;
   }
 
   @Override
   public boolean existsByUsername(String username) {
-    return userRepository.existsByUsername(username);
+    if (existenceFilter.isDefinitelyAbsent(username)) {
+      return false;
+    }
+    boolean exists = userRepository.existsByUsername(username);
+    if (!exists) {
+      existenceFilter.markAbsent(username);
+    }
+    return exists;
   }
 
   /**
@@ -155,7 +184,32 @@ public class SysUserServiceImpl
   @Override
   public void softDelete(List<Long> userIds) {
     log.info("逻辑删除用户: {}", userIds);
+    List<String> usernames = userRepository.findAllById(userIds).stream()
+        .map(SysUser::getUsername)
+        .toList();
     userRepository.softDeleteByIds(userIds);
+    // 提交后再写负缓存与清除登录缓存：回滚时用户不会被误判为不存在，提交前的并发查询也无法重新写入旧值
+    afterCommit(() -> {
+      existenceFilter.markAbsent(usernames);
+      Cache loginCache = cacheManager.getCache(CacheConstants.USER_LOGIN_KEY);
+      if (loginCache != null) {
+        usernames.forEach(loginCache::evict);
+      }
+    });
+  }
+
+  /** 处于事务中时在提交后执行，否则立即执行 */
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
   }
 
   @Transactional
@@ -193,6 +247,7 @@ public class SysUserServiceImpl
     } catch (DataIntegrityViolationException e) {
       throw new ServiceException("用户名已存在");
     }
+    existenceFilter.markPresent(dto.username());
     log.info("创建用户成功: {}", dto.username());
   }
 
@@ -215,6 +270,7 @@ public class SysUserServiceImpl
     } catch (DataIntegrityViolationException e) {
       throw new ServiceException("用户名已存在");
     }
+    existenceFilter.markPresent(dto.username());
     log.info("创建 OAuth2 用户成功: {}", dto.username());
   }
 }
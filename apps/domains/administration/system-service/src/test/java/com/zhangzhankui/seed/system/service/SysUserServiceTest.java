@@ -4,12 +4,15 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import com.zhangzhankui.seed.common.core.constant.CacheConstants;
 import com.zhangzhankui.seed.common.core.domain.LoginUser;
 import com.zhangzhankui.seed.common.core.domain.PageQuery;
 import com.zhangzhankui.seed.common.core.domain.PageResult;
@@ -25,7 +28,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * 用户服务单元测试
@@ -41,6 +48,8 @@ class SysUserServiceTest {
 
   @Mock private SysUserRepository userRepository;
   @Mock private PasswordEncoder passwordEncoder;
+  @Mock private UsernameExistenceFilter existenceFilter;
+  @Mock private CacheManager cacheManager;
 
   private SysUserServiceImpl userService;
 
@@ -48,8 +57,9 @@ class SysUserServiceTest {
 
   @BeforeEach
   void setUp() {
-    // 通过构造器注入 Repository 和 PasswordEncoder
-    userService = new SysUserServiceImpl(userRepository, passwordEncoder);
+    // 通过构造器注入 Repository、PasswordEncoder 及用户名存在性过滤器
+    userService =
+        new SysUserServiceImpl(userRepository, passwordEncoder, existenceFilter, cacheManager);
 
     testUser = new SysUser();
     testUser.setUserId(1L);
@@ -331,4 +341,78 @@ class SysUserServiceTest {
       assertThat(userService.existsByUsername("newuser")).isFalse();
     }
   }
+
+  @Nested
+  @DisplayName("用户名存在性过滤")
+  class UsernameExistenceTests {
+
+    @Test
+    @DisplayName("一定不存在的用户名不应查询数据库")
+    void shouldSkipRepositoryWhenDefinitelyAbsent() {
+      // Arrange
+      given(existenceFilter.isDefinitelyAbsent("ghost")).willReturn(true);
+
+      // Act & Assert
+      assertThat(userService.findByUsername("ghost")).isNull();
+      assertThat(userService.existsByUsername("ghost")).isFalse();
+      verify(userRepository, never()).findByUsername("ghost");
+      verify(userRepository, never()).existsByUsername("ghost");
+    }
+
+    @Test
+    @DisplayName("数据库未查到的用户名应写入负缓存")
+    void shouldMarkAbsentWhenRepositoryMisses() {
+      // Arrange
+      given(userRepository.findByUsername("ghost")).willReturn(Optional.empty());
+
+      // Act
+      SysUser result = userService.findByUsername("ghost");
+
+      // Assert
+      assertThat(result).isNull();
+      verify(existenceFilter).markAbsent("ghost");
+    }
+
+    @Test
+    @DisplayName("逻辑删除应标记用户名不存在并清除登录缓存")
+    void shouldMarkAbsentAndEvictOnSoftDelete() {
+      // Arrange
+      Cache loginCache = mock(Cache.class);
+      given(userRepository.findAllById(List.of(1L))).willReturn(List.of(testUser));
+      given(cacheManager.getCache(CacheConstants.USER_LOGIN_KEY)).willReturn(loginCache);
+
+      // Act
+      userService.softDelete(List.of(1L));
+
+      // Assert
+      verify(userRepository).softDeleteByIds(List.of(1L));
+      verify(existenceFilter).markAbsent(List.of("admin"));
+      verify(loginCache).evict("admin");
+    }
+
+    @Test
+    @DisplayName("事务中逻辑删除应在提交后才标记不存在并清除登录缓存")
+    void shouldDeferSoftDeleteSideEffectsUntilCommit() {
+      // Arrange
+      Cache loginCache = mock(Cache.class);
+      given(userRepository.findAllById(List.of(1L))).willReturn(List.of(testUser));
+      given(cacheManager.getCache(CacheConstants.USER_LOGIN_KEY)).willReturn(loginCache);
+      TransactionSynchronizationManager.initSynchronization();
+      try {
+        // Act
+        userService.softDelete(List.of(1L));
+
+        // Assert
+        verify(existenceFilter, never()).markAbsent(List.of("admin"));
+        verify(loginCache, never()).evict("admin");
+
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(TransactionSynchronization::afterCommit);
+        verify(existenceFilter).markAbsent(List.of("admin"));
+        verify(loginCache).evict("admin");
+      } finally {
+        TransactionSynchronizationManager.clearSynchronization();
+      }
+    }
+  }
 }
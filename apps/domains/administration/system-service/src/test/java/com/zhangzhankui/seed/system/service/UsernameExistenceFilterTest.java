@@ -0,0 +1,151 @@
+package com.zhangzhankui.seed.system.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.zhangzhankui.seed.common.core.cache.ICache;
+import com.zhangzhankui.seed.common.core.constant.CacheConstants;
+import com.zhangzhankui.seed.system.repository.SysUserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UsernameExistenceFilter 单元测试")
+class UsernameExistenceFilterTest {
+
+  @Mock private SysUserRepository userRepository;
+  @Mock private ICache<String, Object> cache;
+  @Mock private ObjectProvider<RedissonClient> redissonClient;
+
+  private UsernameExistenceFilter filter(String bloomMode) {
+    return new UsernameExistenceFilter(
+        userRepository, cache, redissonClient, bloomMode, 1000, 0.01, Duration.ofSeconds(60));
+  }
+
+  @Nested
+  @DisplayName("负缓存")
+  class NegativeCacheTests {
+
+    @Test
+    @DisplayName("负缓存命中时应判定一定不存在")
+    void shouldBeAbsentWhenMarked() {
+      given(cache.containsKey(CacheConstants.USER_ABSENT_KEY + "ghost")).willReturn(true);
+
+      assertThat(filter("none").isDefinitelyAbsent("ghost")).isTrue();
+    }
+
+    @Test
+    @DisplayName("未启用布隆过滤器且负缓存未命中时应判定可能存在")
+    void shouldMightExistWithoutBloom() {
+      assertThat(filter("none").isDefinitelyAbsent("admin")).isFalse();
+    }
+
+    @Test
+    @DisplayName("标记不存在应按配置的过期时间写入负缓存")
+    void shouldWriteAbsentWithTtl() {
+      filter("none").markAbsent("ghost");
+
+      verify(cache).put(
+          CacheConstants.USER_ABSENT_KEY + "ghost", Boolean.TRUE, 60_000L, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    @DisplayName("新建用户应清除负缓存")
+    void shouldClearAbsentOnCreate() {
+      filter("none").markPresent("newuser");
+
+      verify(cache).remove(CacheConstants.USER_ABSENT_KEY + "newuser");
+    }
+  }
+
+  @Nested
+  @DisplayName("进程内布隆过滤器")
+  class MemoryBloomTests {
+
+    @Test
+    @DisplayName("重建前不应参与判断")
+    void shouldNotFilterBeforeRebuild() {
+      assertThat(filter("memory").isDefinitelyAbsent("ghost")).isFalse();
+    }
+
+    @Test
+    @DisplayName("重建后不在库中的用户名应判定一定不存在")
+    void shouldFilterAfterRebuild() {
+      List<String> usernames = new ArrayList<>();
+      for (int i = 0; i < 500; i++) {
+        usernames.add("user" + i);
+      }
+      given(userRepository.findAllUsernames()).willReturn(usernames);
+      given(userRepository.findUsernamesCreatedSince(any())).willReturn(List.of("late"));
+      UsernameExistenceFilter filter = filter("memory");
+
+      filter.rebuild();
+
+      assertThat(usernames).noneMatch(filter::isDefinitelyAbsent);
+      assertThat(filter.isDefinitelyAbsent("late")).isFalse();
+      long absent = 0;
+      for (int i = 0; i < 1000; i++) {
+        if (filter.isDefinitelyAbsent("ghost" + i)) {
+          absent++;
+        }
+      }
+      // 误判率 1%，绝大多数不存在的用户名应被过滤
+      assertThat(absent).isGreaterThan(950);
+    }
+
+    @Test
+    @DisplayName("布隆过滤器判定不存在时不应再查询负缓存")
+    void shouldSkipNegativeCacheWhenBloomRejects() {
+      given(userRepository.findAllUsernames()).willReturn(new ArrayList<>(List.of("admin")));
+      given(userRepository.findUsernamesCreatedSince(any())).willReturn(List.of());
+      UsernameExistenceFilter filter = filter("memory");
+      filter.rebuild();
+
+      assertThat(filter.isDefinitelyAbsent("ghost")).isTrue();
+      assertThat(filter.isDefinitelyAbsent("admin")).isFalse();
+
+      verify(cache, never()).containsKey(CacheConstants.USER_ABSENT_KEY + "ghost");
+      verify(cache).containsKey(CacheConstants.USER_ABSENT_KEY + "admin");
+    }
+
+    @Test
+    @DisplayName("重建后新建的用户应立即可见")
+    void shouldSeeCreatedUser() {
+      given(userRepository.findAllUsernames()).willReturn(new ArrayList<>());
+      given(userRepository.findUsernamesCreatedSince(any())).willReturn(List.of());
+      UsernameExistenceFilter filter = filter("memory");
+      filter.rebuild();
+
+      filter.markPresent("newuser");
+
+      assertThat(filter.isDefinitelyAbsent("newuser")).isFalse();
+    }
+
+    @Test
+    @DisplayName("重建失败时应仅使用负缓存")
+    void shouldFallBackWhenRebuildFails() {
+      given(userRepository.findAllUsernames()).willThrow(new IllegalStateException("db down"));
+      UsernameExistenceFilter filter = filter("memory");
+
+      filter.rebuild();
+
+      assertThat(filter.isDefinitelyAbsent("ghost")).isFalse();
+      verify(cache).containsKey(eq(CacheConstants.USER_ABSENT_KEY + "ghost"));
+    }
+  }
+}
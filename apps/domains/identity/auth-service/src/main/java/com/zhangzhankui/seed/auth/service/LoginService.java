@@ -1,5 +1,6 @@
 package com.zhangzhankui.seed.auth.service;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import com.zhangzhankui.seed.auth.config.LoginSecurityConfig;
@@ -117,15 +118,11 @@ public class LoginService {
     String ip = ServletUtils.getClientIp();
     String key = CacheConstants.LOGIN_ERROR_KEY + "ip:" + ip;
 
-    Long count = redisUtils.increment(key);
+    Long count = redisUtils.increment(key, securityConfig.getIpRateLimitWindow(), TimeUnit.SECONDS);
     if (count == null) {
       return;
     }
 
-    if (count == 1L) {
-      redisUtils.expire(key, securityConfig.getIpRateLimitWindow(), TimeUnit.SECONDS);
-    }
-
     if (count > securityConfig.getIpRateLimitMax()) {
       log.warn("IP {} 登录请求过于频繁，已被限流", ip);
       throw new ServiceException("请求过于频繁，请稍后重试");
@@ -149,20 +146,19 @@ public class LoginService {
   private void recordLoginFailure(String username) {
     String countKey = CacheConstants.PWD_ERR_CNT_KEY + username;
 
-    Long failCount = redisUtils.increment(countKey);
+    Long failCount = redisUtils.increment(
+        countKey, securityConfig.getFailCountResetDuration(), TimeUnit.MINUTES);
     if (failCount == null) {
       failCount = 1L;
     }
 
-    if (failCount == 1L) {
-      redisUtils.expire(countKey, securityConfig.getFailCountResetDuration(), TimeUnit.MINUTES);
-    }
-
     if (failCount >= securityConfig.getMaxFailAttempts()) {
-      // 锁定账户
+      // 锁定账户，两条写入合并发送，返回前确认锁定已生效
       String lockKey = CacheConstants.PWD_ERR_CNT_KEY + "lock:" + username;
-      redisUtils.set(lockKey, "1", securityConfig.getLockDuration(), TimeUnit.MINUTES);
-      redisUtils.delete(countKey);
+      CompletableFuture.allOf(
+              redisUtils.setAsync(lockKey, "1", securityConfig.getLockDuration(), TimeUnit.MINUTES),
+              redisUtils.deleteAsync(countKey))
+          .join();
 
       log.warn("用户 {} 登录失败次数过多，账户已被锁定 {} 分钟", username, securityConfig.getLockDuration());
       throw new ServiceException("登录失败次数过多，账户已被锁定 " + securityConfig.getLockDuration() + " 分钟");
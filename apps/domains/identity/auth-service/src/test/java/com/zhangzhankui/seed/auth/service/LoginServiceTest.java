@@ -3,6 +3,7 @@ package com.zhangzhankui.seed.auth.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -10,6 +11,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import com.zhangzhankui.seed.auth.config.LoginSecurityConfig;
@@ -152,7 +154,7 @@ class LoginServiceTest {
         @DisplayName("getUserCredentials 返回 FAIL 时抛出 UserException")
         void shouldThrowExceptionWhenCredentialsFail() {
             when(redisUtils.hasKey(anyString())).thenReturn(false);
-            when(redisUtils.increment(anyString())).thenReturn(1L);
+            when(redisUtils.increment(anyString(), anyLong(), any(TimeUnit.class))).thenReturn(1L);
             when(remoteUserService.getUserCredentials(anyString()))
                 .thenReturn(ApiResult.fail("用户不存在"));
 
@@ -165,7 +167,7 @@ class LoginServiceTest {
         @DisplayName("getUserCredentials 返回成功但 data 为 null 时抛出 UserException")
         void shouldThrowExceptionWhenLoginUserIsNull() {
             when(redisUtils.hasKey(anyString())).thenReturn(false);
-            when(redisUtils.increment(anyString())).thenReturn(1L);
+            when(redisUtils.increment(anyString(), anyLong(), any(TimeUnit.class))).thenReturn(1L);
             when(remoteUserService.getUserCredentials(anyString()))
                 .thenReturn(ApiResult.ok(null));
 
@@ -178,7 +180,7 @@ class LoginServiceTest {
         @DisplayName("密码验证失败时抛出 UserException")
         void shouldThrowExceptionWhenPasswordMismatch() {
             when(redisUtils.hasKey(anyString())).thenReturn(false);
-            when(redisUtils.increment(anyString())).thenReturn(1L);
+            when(redisUtils.increment(anyString(), anyLong(), any(TimeUnit.class))).thenReturn(1L);
             when(remoteUserService.getUserCredentials(anyString()))
                 .thenReturn(ApiResult.ok(mockCredentials));
             when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
@@ -192,7 +194,7 @@ class LoginServiceTest {
         @DisplayName("凭据验证失败时记录失败次数")
         void shouldRecordFailureWhenCredentialsFail() {
             when(redisUtils.hasKey(anyString())).thenReturn(false);
-            when(redisUtils.increment(anyString())).thenReturn(1L);
+            when(redisUtils.increment(anyString(), anyLong(), any(TimeUnit.class))).thenReturn(1L);
             when(remoteUserService.getUserCredentials(anyString()))
                 .thenReturn(ApiResult.fail("用户不存在"));
 
@@ -200,7 +202,7 @@ class LoginServiceTest {
                 loginService.login("admin", "wrong");
             } catch (UserException ignored) {}
 
-            verify(redisUtils, atLeastOnce()).increment(contains("pwd_err_cnt:"));
+            verify(redisUtils).increment(contains("pwd_err_cnt:admin"), eq(30L), eq(TimeUnit.MINUTES));
         }
     }
 
@@ -254,6 +256,27 @@ class LoginServiceTest {
                 .isInstanceOf(ServiceException.class)
                 .hasMessageContaining("锁定");
         }
+
+        @Test
+        @DisplayName("失败次数达到上限时写入锁定标记并清除计数")
+        void shouldLockAccountWhenMaxAttemptsReached() {
+            when(redisUtils.hasKey(anyString())).thenReturn(false);
+            when(redisUtils.increment(anyString(), anyLong(), any(TimeUnit.class))).thenReturn(5L);
+            when(redisUtils.setAsync(anyString(), any(), anyLong(), any(TimeUnit.class)))
+                .thenReturn(CompletableFuture.completedFuture(true));
+            when(redisUtils.deleteAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(true));
+            when(remoteUserService.getUserCredentials(anyString()))
+                .thenReturn(ApiResult.fail("用户不存在"));
+
+            assertThatThrownBy(() -> loginService.login("admin", "wrong"))
+                .isInstanceOf(ServiceException.class)
+                .hasMessageContaining("锁定 30 分钟");
+
+            verify(redisUtils).setAsync(
+                contains("pwd_err_cnt:lock:admin"), eq("1"), eq(30L), eq(TimeUnit.MINUTES));
+            verify(redisUtils).deleteAsync(contains("pwd_err_cnt:admin"));
+        }
     }
 
     @Nested
@@ -265,7 +288,7 @@ class LoginServiceTest {
         void shouldThrowExceptionWhenIpExceedsRateLimit() {
             when(securityConfig.isIpRateLimitEnabled()).thenReturn(true);
             when(securityConfig.getIpRateLimitMax()).thenReturn(10);
-            when(redisUtils.increment(anyString())).thenReturn(11L);
+            when(redisUtils.increment(anyString(), anyLong(), any(TimeUnit.class))).thenReturn(11L);
 
             assertThatThrownBy(() -> loginService.login("admin", "password"))
                 .isInstanceOf(ServiceException.class)
@@ -283,7 +306,7 @@ class LoginServiceTest {
             String longUsername = "a".repeat(200);
 
             when(redisUtils.hasKey(anyString())).thenReturn(false);
-            when(redisUtils.increment(anyString())).thenReturn(1L);
+            when(redisUtils.increment(anyString(), anyLong(), any(TimeUnit.class))).thenReturn(1L);
             when(remoteUserService.getUserCredentials(anyString()))
                 .thenReturn(ApiResult.ok(null));
 
@@ -297,7 +320,7 @@ class LoginServiceTest {
             String specialUsername = "user@domain.com";
 
             when(redisUtils.hasKey(anyString())).thenReturn(false);
-            when(redisUtils.increment(anyString())).thenReturn(1L);
+            when(redisUtils.increment(anyString(), anyLong(), any(TimeUnit.class))).thenReturn(1L);
             when(remoteUserService.getUserCredentials(anyString()))
                 .thenReturn(ApiResult.ok(null));
 
@@ -311,7 +334,7 @@ class LoginServiceTest {
             String unicodeUsername = "用户名测试";
 
             when(redisUtils.hasKey(anyString())).thenReturn(false);
-            when(redisUtils.increment(anyString())).thenReturn(1L);
+            when(redisUtils.increment(anyString(), anyLong(), any(TimeUnit.class))).thenReturn(1L);
             when(remoteUserService.getUserCredentials(anyString()))
                 .thenReturn(ApiResult.ok(null));
 
@@ -0,0 +1,197 @@
+package com.zhangzhankui.seed.common.web.aspect;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zhangzhankui.seed.common.core.annotation.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 近似限流的本地许可租约
+ *
+ * <p>每个限流 key 在本节点保留一批从 Redis 预取的许可，请求到来时用原子计数扣减，不访问 Redis。
+ * 余量降到批大小的 1/4 时在后台续租，余量耗尽时由一个请求同步续租，其余请求等待同一次续租的结果。
+ *
+ * <p>批大小按本节点的流量自适应：一批许可在有效期内用到需要续租时翻倍，过期时仍有剩余则减半，
+ * 上限为 count × tolerance，流量大的节点分到较大的份额。许可的有效期为一个限流周期，
+ * 因此每个节点多放行（跨周期使用上一周期的许可）或少放行（预取未用完）的请求数都不超过批大小上限。
+ *
+ * <p>Redis 只发放了部分许可时停止后台续租；一个许可都没有发放时，在限流额度恢复一批所需的时间
+ * （time × 批大小上限 / count）内直接在本地拒绝，超限期间也不会每个请求都访问 Redis
+ */
+@Slf4j
+final class RateLimitLeases {
+
+  /** 余量不高于批大小的 1/RENEW_DIVISOR 时后台续租 */
+  private static final int RENEW_DIVISOR = 4;
+
+  private static final long MAX_KEYS = 100_000;
+
+  private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+  private final RemoteAcquire remote;
+  private final Executor executor;
+  private final Cache<String, Lease> leases = Caffeine.newBuilder()
+      .maximumSize(MAX_KEYS)
+      .expireAfterAccess(IDLE_TIMEOUT)
+      .build();
+
+  RateLimitLeases(RemoteAcquire remote, Executor executor) {
+    this.remote = remote;
+    this.executor = executor;
+  }
+
+  /**
+   * 扣减一个许可
+   *
+   * @param key 限流 key
+   * @param rateLimiter 限流配置
+   * @return 是否放行
+   */
+  boolean tryAcquire(String key, RateLimiter rateLimiter) {
+    Lease lease = leases.get(key, k -> new Lease());
+    long now = System.nanoTime();
+    lease.expireIfNeeded(now);
+    if (lease.tryTake()) {
+      if (lease.shouldRenew()) {
+        renew(key, rateLimiter, lease, true);
+      }
+      return true;
+    }
+    if (now - lease.retryAt < 0) {
+      return false;
+    }
+    // 本地许可耗尽：同步续租，并发请求共用同一次续租
+    try {
+      renew(key, rateLimiter, lease, false).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+    return lease.tryTake();
+  }
+
+  /** 预取的最大许可数，即单节点误差上限 */
+  static long maxBatch(RateLimiter rateLimiter) {
+    return Math.max(1, (long) (rateLimiter.count() * rateLimiter.tolerance()));
+  }
+
+  /**
+   * 向 Redis 续租，同一 key 同一时刻只有一次续租
+   *
+   * @param async 是否在后台执行，否则由当前线程执行
+   * @return 续租结果
+   */
+  private CompletableFuture<Void> renew(
+      String key, RateLimiter rateLimiter, Lease lease, boolean async) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    CompletableFuture<Void> inflight = lease.inflight.compareAndExchange(null, future);
+    if (inflight != null) {
+      return inflight;
+    }
+    long maxBatch = maxBatch(rateLimiter);
+    long batch = lease.nextBatch(maxBatch);
+    Runnable task = () -> {
+      long start = System.nanoTime();
+      try {
+        Long granted = remote.acquire(key, rateLimiter, batch);
+        long ttl = rateLimiter.timeUnit().toNanos(rateLimiter.time());
+        long backoff = ttl / Math.max(rateLimiter.count(), 1) * maxBatch;
+        lease.grant(granted != null ? granted : 0, batch, start, ttl, backoff);
+        lease.inflight.set(null);
+        future.complete(null);
+      } catch (RuntimeException e) {
+        lease.inflight.set(null);
+        if (async) {
+          log.error("限流许可续租失败, key: {}", key, e);
+        }
+        future.completeExceptionally(e);
+      }
+    };
+    if (async) {
+      executor.execute(task);
+    } else {
+      task.run();
+    }
+    return future;
+  }
+
+  /** 执行限流脚本，返回发放的许可数 */
+  @FunctionalInterface
+  interface RemoteAcquire {
+
+    Long acquire(String key, RateLimiter rateLimiter, long permits);
+  }
+
+  /** 单个限流 key 在本节点的许可 */
+  private static final class Lease {
+
+    private final AtomicLong tokens = new AtomicLong();
+    private final AtomicReference<CompletableFuture<Void>> inflight = new AtomicReference<>();
+
+    /** 下一次续租的批大小，只在持有续租权时修改 */
+    private volatile long batch = 1;
+
+    /** 上一批许可过期时仍有剩余 */
+    private volatile boolean shrink;
+
+    /** 本地许可的到期时间（{@link System#nanoTime()}），0 表示没有许可 */
+    private volatile long expiresAt;
+
+    /** 上次续租未发放全部许可，不再后台续租 */
+    private volatile boolean drained;
+
+    /** 许可耗尽后再次访问 Redis 的最早时间 */
+    private volatile long retryAt = System.nanoTime();
+
+    boolean tryTake() {
+      return tokens.getAndUpdate(t -> t > 0 ? t - 1 : t) > 0;
+    }
+
+    boolean shouldRenew() {
+      return !drained && tokens.get() <= batch / RENEW_DIVISOR && inflight.get() == null;
+    }
+
+    /** 过期时丢弃剩余许可，仍有剩余说明批过大，下次续租减半 */
+    void expireIfNeeded(long now) {
+      long deadline = expiresAt;
+      if (deadline != 0 && now - deadline >= 0 && tokens.getAndSet(0) > 0) {
+        shrink = true;
+      }
+    }
+
+    /** 计算本次续租的批大小：上一批过期时有剩余则减半，否则说明已用完，翻倍 */
+    long nextBatch(long maxBatch) {
+      long next = shrink ? batch / 2 : batch * 2;
+      shrink = false;
+      batch = Math.min(Math.max(next, 1), maxBatch);
+      return batch;
+    }
+
+    /**
+     * 记录续租结果
+     *
+     * @param requested 申请的许可数
+     * @param start 发出请求的时间
+     * @param ttl 许可有效期
+     * @param backoff 没有发放许可时本地拒绝的时间
+     */
+    void grant(long granted, long requested, long start, long ttl, long backoff) {
+      expiresAt = start + ttl;
+      drained = granted < requested;
+      if (granted > 0) {
+        tokens.addAndGet(granted);
+      } else {
+        retryAt = start + backoff;
+      }
+    }
+  }
+}
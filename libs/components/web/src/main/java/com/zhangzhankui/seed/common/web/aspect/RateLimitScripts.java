@@ -0,0 +1,107 @@
+package com.zhangzhankui.seed.common.web.aspect;
+
+import com.zhangzhankui.seed.common.core.annotation.RateLimiter;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * 限流 Lua 脚本
+ *
+ * <p>三种算法的参数一致：KEYS[1] 为限流 key，ARGV 依次为 count、窗口毫秒数、令牌桶容量、申请的许可数；
+ * 返回实际发放的许可数（0 到申请数之间），被拒绝的请求不计数。
+ * 脚本通过 {@link RedisScript} 执行，每次调用一次 EVALSHA（脚本未缓存时回退 EVAL）。
+ * 滑动窗口与令牌桶使用 Redis 服务端时间（TIME），不受各节点时钟偏差影响，要求 Redis 5 及以上
+ */
+final class RateLimitScripts {
+
+  /** 固定窗口：窗口内累计计数，首次写入时设置过期时间 */
+  private static final String FIXED_WINDOW_LUA =
+      "local limit = tonumber(ARGV[1])\n"
+          + "local permits = tonumber(ARGV[4])\n"
+          + "local current = tonumber(redis.call('get', KEYS[1]) or '0')\n"
+          + "local granted = math.min(permits, limit - current)\n"
+          + "if granted <= 0 then\n"
+          + "  return 0\n"
+          + "end\n"
+          + "if redis.call('incrby', KEYS[1], granted) == granted then\n"
+          + "  redis.call('pexpire', KEYS[1], ARGV[2])\n"
+          + "end\n"
+          + "return granted";
+
+  /** 滑动窗口：保存当前与上一窗口的计数，上一窗口按剩余比例折算 */
+  private static final String SLIDING_WINDOW_LUA =
+      "local limit = tonumber(ARGV[1])\n"
+          + "local window = tonumber(ARGV[2])\n"
+          + "local permits = tonumber(ARGV[4])\n"
+          + "local time = redis.call('time')\n"
+          + "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n"
+          + "local index = math.floor(now / window)\n"
+          + "local data = redis.call('hmget', KEYS[1], 'index', 'current', 'previous')\n"
+          + "local stored = tonumber(data[1])\n"
+          + "local current = tonumber(data[2]) or 0\n"
+          + "local previous = tonumber(data[3]) or 0\n"
+          + "if stored ~= index then\n"
+          + "  if stored == index - 1 then\n"
+          + "    previous = current\n"
+          + "  else\n"
+          + "    previous = 0\n"
+          + "  end\n"
+          + "  current = 0\n"
+          + "end\n"
+          + "local weight = (window - now % window) / window\n"
+          + "local granted = math.min(permits, math.floor(limit - previous * weight - current))\n"
+          + "if granted < 0 then\n"
+          + "  granted = 0\n"
+          + "end\n"
+          + "redis.call('hset', KEYS[1], 'index', index, 'current', current + granted,"
+          + " 'previous', previous)\n"
+          + "redis.call('pexpire', KEYS[1], window * 2)\n"
+          + "return granted";
+
+  /** 令牌桶：按经过的时间补充令牌，首次访问时桶是满的 */
+  private static final String TOKEN_BUCKET_LUA =
+      "local rate = tonumber(ARGV[1])\n"
+          + "local window = tonumber(ARGV[2])\n"
+          + "local capacity = tonumber(ARGV[3])\n"
+          + "local permits = tonumber(ARGV[4])\n"
+          + "local time = redis.call('time')\n"
+          + "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n"
+          + "local data = redis.call('hmget', KEYS[1], 'tokens', 'ts')\n"
+          + "local tokens = tonumber(data[1]) or capacity\n"
+          + "local ts = tonumber(data[2]) or now\n"
+          + "tokens = math.min(capacity, tokens + math.max(now - ts, 0) * rate / window)\n"
+          + "local granted = math.min(permits, math.floor(tokens))\n"
+          + "if granted < 0 then\n"
+          + "  granted = 0\n"
+          + "end\n"
+          + "redis.call('hset', KEYS[1], 'tokens', tokens - granted, 'ts', now)\n"
+          + "redis.call('pexpire', KEYS[1], math.ceil(capacity * window / rate))\n"
+          + "return granted";
+
+  private static final RedisScript<Long> FIXED_WINDOW = script(FIXED_WINDOW_LUA);
+  private static final RedisScript<Long> SLIDING_WINDOW = script(SLIDING_WINDOW_LUA);
+  private static final RedisScript<Long> TOKEN_BUCKET = script(TOKEN_BUCKET_LUA);
+
+  private RateLimitScripts() {}
+
+  /**
+   * 算法对应的脚本
+   *
+   * @param algorithm 限流算法
+   * @return 脚本
+   */
+  static RedisScript<Long> of(RateLimiter.Algorithm algorithm) {
+    return switch (algorithm) {
+      case FIXED_WINDOW -> FIXED_WINDOW;
+      case SLIDING_WINDOW -> SLIDING_WINDOW;
+      case TOKEN_BUCKET -> TOKEN_BUCKET;
+    };
+  }
+
+  private static RedisScript<Long> script(String lua) {
+    DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+    script.setScriptText(lua);
+    script.setResultType(Long.class);
+    return script;
+  }
+}
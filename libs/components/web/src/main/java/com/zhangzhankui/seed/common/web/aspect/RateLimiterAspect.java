@@ -14,10 +14,16 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
-/** 限流切面 */
+/**
+ * 限流切面
+ *
+ * <p>按 {@link RateLimiter#algorithm()} 选择固定窗口、滑动窗口或令牌桶脚本，每次请求执行一次 Lua 脚本；
+ * {@link RateLimiter#approximate()} 为 true 时从本地预取的许可中扣减，见 {@link RateLimitLeases}
+ */
 @Slf4j
 @Aspect
 @Component
@@ -26,40 +32,62 @@ public class RateLimiterAspect {
 
   private final RedisTemplate<String, Object> redisTemplate;
 
-  /** Lua 脚本：原子递增并设置过期时间 */
-  private static final String RATE_LIMITER_LUA =
-      "local current = redis.call('incr', KEYS[1])\n"
-          + "if current == 1 then\n"
-          + "  redis.call('expire', KEYS[1], ARGV[1])\n"
-          + "end\n"
-          + "return current";
+  /** 脚本参数按字符串传入，不经过 RedisTemplate 的值序列化器 */
+  private static final RedisSerializer<String> ARGS_SERIALIZER = RedisSerializer.string();
 
-  private static final DefaultRedisScript<Long> RATE_LIMITER_SCRIPT;
+  private static final RedisSerializer<Long> RESULT_SERIALIZER =
+      new GenericToStringSerializer<>(Long.class);
 
-  static {
-    RATE_LIMITER_SCRIPT = new DefaultRedisScript<>();
-    RATE_LIMITER_SCRIPT.setScriptText(RATE_LIMITER_LUA);
-    RATE_LIMITER_SCRIPT.setResultType(Long.class);
-  }
+  /** 近似模式的本地许可，续租在虚拟线程中执行 */
+  private final RateLimitLeases leases = new RateLimitLeases(
+      this::acquire, task -> Thread.ofVirtual().name("rate-limit-renew").start(task));
 
   @Before("@annotation(rateLimiter)")
   public void doBefore(JoinPoint point, RateLimiter rateLimiter) {
     String key = getCombineKey(rateLimiter, point);
-    long time = rateLimiter.timeUnit().toSeconds(rateLimiter.time());
-    int count = rateLimiter.count();
+    if (rateLimiter.approximate()) {
+      if (!leases.tryAcquire(key, rateLimiter)) {
+        log.warn("限流触发（近似模式），key={}, algorithm={}, count={}",
+            key, rateLimiter.algorithm(), rateLimiter.count());
+        throw new ServiceException(rateLimiter.message());
+      }
+      return;
+    }
 
-    Long current =
-        redisTemplate.execute(RATE_LIMITER_SCRIPT, Collections.singletonList(key), time);
-    if (current == null) {
+    Long granted = acquire(key, rateLimiter, 1);
+    if (granted == null) {
       throw new ServiceException("服务器繁忙，请稍后重试");
     }
 
-    if (current > count) {
-      log.warn("限流触发，key={}, count={}, current={}", key, count, current);
+    if (granted < 1) {
+      log.warn("限流触发，key={}, algorithm={}, count={}",
+          key, rateLimiter.algorithm(), rateLimiter.count());
       throw new ServiceException(rateLimiter.message());
     }
   }
 
+  /**
+   * 执行限流脚本
+   *
+   * @param key 限流 key
+   * @param rateLimiter 限流配置
+   * @param permits 申请的许可数
+   * @return 实际发放的许可数
+   */
+  private Long acquire(String key, RateLimiter rateLimiter, long permits) {
+    long window = rateLimiter.timeUnit().toMillis(rateLimiter.time());
+    int capacity = rateLimiter.capacity() > 0 ? rateLimiter.capacity() : rateLimiter.count();
+    return redisTemplate.execute(
+        RateLimitScripts.of(rateLimiter.algorithm()),
+        ARGS_SERIALIZER,
+        RESULT_SERIALIZER,
+        Collections.singletonList(key),
+        String.valueOf(rateLimiter.count()),
+        String.valueOf(window),
+        String.valueOf(capacity),
+        String.valueOf(permits));
+  }
+
   private String getCombineKey(RateLimiter rateLimiter, JoinPoint point) {
     StringBuilder key = new StringBuilder(CacheConstants.RATE_LIMIT_KEY);
 
@@ -88,6 +116,15 @@ public class RateLimiterAspect {
       }
     }
 
+    // 不同算法的数据结构不同，使用各自的 key
+    switch (rateLimiter.algorithm()) {
+      case SLIDING_WINDOW -> key.append(":sw");
+      case TOKEN_BUCKET -> key.append(":tb");
+      default -> {
+        // 固定窗口沿用原有 key
+      }
+    }
+
     return key.toString();
   }
 }
@@ -0,0 +1,140 @@
+package com.zhangzhankui.seed.common.web.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import com.zhangzhankui.seed.common.core.annotation.RateLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("RateLimitLeases 单元测试")
+class RateLimitLeasesTest {
+
+  private static RateLimiter annotation(String method) throws NoSuchMethodException {
+    return Limited.class.getDeclaredMethod(method).getAnnotation(RateLimiter.class);
+  }
+
+  @Test
+  @DisplayName("本地扣减应把 Redis 调用次数降低两个数量级以上")
+  void shouldReduceRemoteCalls() throws Exception {
+    FakeRedis redis = new FakeRedis(10_000);
+    RateLimitLeases leases = new RateLimitLeases(redis, Runnable::run);
+    RateLimiter rateLimiter = annotation("busy");
+
+    int allowed = 0;
+    for (int i = 0; i < 10_000; i++) {
+      if (leases.tryAcquire("busy", rateLimiter)) {
+        allowed++;
+      }
+    }
+
+    assertThat(allowed).isEqualTo(10_000);
+    assertThat(redis.requests).hasSizeLessThan(100);
+  }
+
+  @Test
+  @DisplayName("预取的许可数不应超过 count × tolerance")
+  void shouldCapBatchAtTolerance() throws Exception {
+    FakeRedis redis = new FakeRedis(10_000);
+    RateLimitLeases leases = new RateLimitLeases(redis, Runnable::run);
+    RateLimiter rateLimiter = annotation("busy");
+
+    for (int i = 0; i < 10_000; i++) {
+      leases.tryAcquire("busy", rateLimiter);
+    }
+
+    assertThat(RateLimitLeases.maxBatch(rateLimiter)).isEqualTo(500);
+    assertThat(redis.requests).allMatch(permits -> permits <= 500).contains(500L);
+  }
+
+  @Test
+  @DisplayName("单节点放行总数不应超过 Redis 发放的许可，超限后在本地拒绝")
+  void shouldNotExceedGrantedPermits() throws Exception {
+    FakeRedis redis = new FakeRedis(100);
+    RateLimitLeases leases = new RateLimitLeases(redis, Runnable::run);
+    RateLimiter rateLimiter = annotation("small");
+
+    int allowed = 0;
+    for (int i = 0; i < 150; i++) {
+      if (leases.tryAcquire("small", rateLimiter)) {
+        allowed++;
+      }
+    }
+
+    assertThat(allowed).isEqualTo(100);
+    // 超限后不再每个请求都访问 Redis
+    assertThat(redis.requests).hasSizeLessThan(20).endsWith(10L);
+  }
+
+  @Test
+  @DisplayName("过期的许可应丢弃并缩小下一批")
+  void shouldDropExpiredPermits() throws Exception {
+    FakeRedis redis = new FakeRedis(10_000);
+    RateLimitLeases leases = new RateLimitLeases(redis, Runnable::run);
+    RateLimiter rateLimiter = annotation("shortWindow");
+    // 第一次同步续租 2 个，第二次扣减后后台续租 4 个
+    leases.tryAcquire("short", rateLimiter);
+    leases.tryAcquire("short", rateLimiter);
+    assertThat(redis.requests).containsExactly(2L, 4L);
+
+    TimeUnit.MILLISECONDS.sleep(80);
+    leases.tryAcquire("short", rateLimiter);
+
+    assertThat(redis.requests).containsExactly(2L, 4L, 2L);
+  }
+
+  @Test
+  @DisplayName("同步续租失败时应抛出异常")
+  void shouldPropagateRemoteFailure() throws Exception {
+    RateLimitLeases leases = new RateLimitLeases((key, rateLimiter, permits) -> {
+      throw new IllegalStateException("redis down");
+    }, Runnable::run);
+    RateLimiter rateLimiter = annotation("small");
+
+    assertThatThrownBy(() -> leases.tryAcquire("small", rateLimiter))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("redis down");
+  }
+
+  /** 模拟 Redis 中的许可总量 */
+  private static final class FakeRedis implements RateLimitLeases.RemoteAcquire {
+
+    private final List<Long> requests = new CopyOnWriteArrayList<>();
+    private long available;
+
+    FakeRedis(long available) {
+      this.available = available;
+    }
+
+    @Override
+    public synchronized Long acquire(String key, RateLimiter rateLimiter, long permits) {
+      requests.add(permits);
+      long granted = Math.min(permits, available);
+      available -= granted;
+      return granted;
+    }
+  }
+
+  /** 携带限流注解的方法 */
+  private static final class Limited {
+
+    @RateLimiter(key = "busy", count = 10_000, approximate = true)
+    void busy() {}
+
+    @RateLimiter(key = "small", count = 100, approximate = true, tolerance = 0.1)
+    void small() {}
+
+    @RateLimiter(
+        key = "short",
+        time = 50,
+        timeUnit = TimeUnit.MILLISECONDS,
+        count = 100,
+        approximate = true,
+        tolerance = 0.5)
+    void shortWindow() {}
+  }
+}
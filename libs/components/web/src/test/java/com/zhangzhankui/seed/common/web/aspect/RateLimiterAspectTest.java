@@ -0,0 +1,148 @@
+package com.zhangzhankui.seed.common.web.aspect;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import com.zhangzhankui.seed.common.core.annotation.RateLimiter;
+import com.zhangzhankui.seed.common.core.exception.ServiceException;
+import org.aspectj.lang.JoinPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RateLimiterAspect 单元测试")
+class RateLimiterAspectTest {
+
+  @Mock private RedisTemplate<String, Object> redisTemplate;
+  @Mock private JoinPoint point;
+
+  @InjectMocks private RateLimiterAspect aspect;
+
+  private static RateLimiter annotation(String method) throws NoSuchMethodException {
+    return Limited.class.getDeclaredMethod(method).getAnnotation(RateLimiter.class);
+  }
+
+  private static RedisSerializer<?> anyArgsSerializer() {
+    return any();
+  }
+
+  private static RedisSerializer<Long> anyResultSerializer() {
+    return any();
+  }
+
+  private void givenGranted(long granted) {
+    given(redisTemplate.execute(
+            ArgumentMatchers.<RedisScript<Long>>any(),
+            anyArgsSerializer(),
+            anyResultSerializer(),
+            anyList(),
+            any(Object[].class)))
+        .willReturn(granted);
+  }
+
+  @Test
+  @DisplayName("固定窗口应以字符串参数执行脚本并沿用原有 key")
+  void shouldExecuteFixedWindowScript() throws Exception {
+    givenGranted(1);
+
+    aspect.doBefore(point, annotation("fixed"));
+
+    verify(redisTemplate).execute(
+        eq(RateLimitScripts.of(RateLimiter.Algorithm.FIXED_WINDOW)),
+        anyArgsSerializer(),
+        anyResultSerializer(),
+        eq(List.of("rate_limit:login")),
+        eq("5"), eq("60000"), eq("5"), eq("1"));
+  }
+
+  @Test
+  @DisplayName("令牌桶应传入突发容量并使用独立 key")
+  void shouldExecuteTokenBucketScript() throws Exception {
+    givenGranted(1);
+
+    aspect.doBefore(point, annotation("bucket"));
+
+    verify(redisTemplate).execute(
+        eq(RateLimitScripts.of(RateLimiter.Algorithm.TOKEN_BUCKET)),
+        anyArgsSerializer(),
+        anyResultSerializer(),
+        eq(List.of("rate_limit:search:tb")),
+        eq("10"), eq("1000"), eq("20"), eq("1"));
+  }
+
+  @Test
+  @DisplayName("未发放许可时应抛出限流异常")
+  void shouldRejectWhenNotGranted() throws Exception {
+    givenGranted(0);
+    RateLimiter rateLimiter = annotation("sliding");
+
+    assertThatThrownBy(() -> aspect.doBefore(point, rateLimiter))
+        .isInstanceOf(ServiceException.class)
+        .hasMessage("访问过于频繁，请稍后重试");
+  }
+
+  @Test
+  @DisplayName("发放许可时应放行")
+  void shouldPassWhenGranted() throws Exception {
+    givenGranted(1);
+    RateLimiter rateLimiter = annotation("sliding");
+
+    assertThatCode(() -> aspect.doBefore(point, rateLimiter)).doesNotThrowAnyException();
+  }
+
+  @Test
+  @DisplayName("近似模式应批量预取许可")
+  void shouldLeaseBatchInApproximateMode() throws Exception {
+    givenGranted(2);
+
+    aspect.doBefore(point, annotation("approximate"));
+
+    verify(redisTemplate).execute(
+        eq(RateLimitScripts.of(RateLimiter.Algorithm.TOKEN_BUCKET)),
+        anyArgsSerializer(),
+        anyResultSerializer(),
+        eq(List.of("rate_limit:feed:tb")),
+        eq("1000"), eq("1000"), eq("1000"), eq("2"));
+  }
+
+  /** 携带限流注解的方法 */
+  private static final class Limited {
+
+    @RateLimiter(key = "login", count = 5)
+    void fixed() {}
+
+    @RateLimiter(key = "export", count = 5, algorithm = RateLimiter.Algorithm.SLIDING_WINDOW)
+    void sliding() {}
+
+    @RateLimiter(
+        key = "search",
+        time = 1,
+        count = 10,
+        capacity = 20,
+        algorithm = RateLimiter.Algorithm.TOKEN_BUCKET)
+    void bucket() {}
+
+    @RateLimiter(
+        key = "feed",
+        time = 1,
+        count = 1000,
+        algorithm = RateLimiter.Algorithm.TOKEN_BUCKET,
+        approximate = true)
+    void approximate() {}
+  }
+}
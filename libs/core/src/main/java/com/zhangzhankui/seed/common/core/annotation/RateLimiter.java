@@ -7,7 +7,11 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.util.concurrent.TimeUnit;
 
-/** 限流注解 */
+/**
+ * 限流注解
+ *
+ * <p>在 {@link #time()} 内最多允许 {@link #count()} 次请求，具体的计数方式由 {@link #algorithm()} 决定
+ */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
@@ -28,6 +32,24 @@ public @interface RateLimiter {
   /** 时间单位 */
   TimeUnit timeUnit() default TimeUnit.SECONDS;
 
+  /** 限流算法，默认固定窗口 */
+  Algorithm algorithm() default Algorithm.FIXED_WINDOW;
+
+  /** 令牌桶容量（允许的突发请求数），仅 TOKEN_BUCKET 生效，不大于 0 时等于 count */
+  int capacity() default 0;
+
+  /**
+   * 近似模式：各节点从 Redis 批量预取许可在本地扣减，余量不足时异步续租，Redis 往返次数降为原来的 1/批大小。
+   * 适用于高并发、允许少量误差的接口
+   */
+  boolean approximate() default false;
+
+  /**
+   * 近似模式的误差上限（占 count 的比例），单个节点预取的许可数不超过 count × tolerance，
+   * 每个节点多放行或少放行的请求数也不超过该值
+   */
+  double tolerance() default 0.05;
+
   /** 提示信息 */
   String message() default "访问过于频繁，请稍后重试";
 
@@ -40,4 +62,14 @@ public @interface RateLimiter {
     /** 根据用户ID进行限流 */
     USER
   }
+
+  /** 限流算法枚举 */
+  enum Algorithm {
+    /** 固定窗口计数，窗口边界前后最多可通过 2 倍请求 */
+    FIXED_WINDOW,
+    /** 滑动窗口计数，按当前窗口已过去的比例折算上一窗口的计数，消除边界突增 */
+    SLIDING_WINDOW,
+    /** 令牌桶，按 count/time 的速率匀速补充令牌，最多积累 capacity 个 */
+    TOKEN_BUCKET
+  }
 }
@@ -0,0 +1,146 @@
+package com.zhangzhankui.seed.common.core.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步缓存接口
+ *
+ * <p>{@link ICache} 的非阻塞版本，所有操作立即返回 {@link CompletionStage}，
+ * 调用方可同时发出多个缓存操作再组合结果，不占用调用线程等待网络往返
+ *
+ * <pre>
+ * CompletableFuture&lt;Object&gt; a = cache.get(k1).toCompletableFuture();
+ * CompletableFuture&lt;Object&gt; b = cache.get(k2).toCompletableFuture();
+ * a.thenCombine(b, (x, y) -&gt; ...);
+ * </pre>
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+public interface AsyncCache<K, V> {
+
+  /**
+   * 获取缓存值
+   *
+   * @param key 键
+   * @return 值，不存在时完成为 null
+   */
+  CompletionStage<V> get(K key);
+
+  /**
+   * 批量获取缓存值
+   *
+   * <p>默认并发发出逐个获取，实现类应覆盖为一次网络往返（如 Redis MGET）
+   *
+   * @param keys 键集合
+   * @return 存在的键值对，不存在的键不包含在结果中
+   */
+  default CompletionStage<Map<K, V>> getAll(Collection<K> keys) {
+    List<K> keyList = new ArrayList<>(keys);
+    List<CompletableFuture<V>> futures = new ArrayList<>(keyList.size());
+    for (K key : keyList) {
+      futures.add(get(key).toCompletableFuture());
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+        .thenApply(ignored -> {
+          Map<K, V> result = new LinkedHashMap<>();
+          for (int i = 0; i < keyList.size(); i++) {
+            V value = futures.get(i).join();
+            if (value != null) {
+              result.put(keyList.get(i), value);
+            }
+          }
+          return result;
+        });
+  }
+
+  /**
+   * 设置缓存
+   *
+   * @param key 键
+   * @param value 值
+   * @return 写入完成
+   */
+  CompletionStage<Void> put(K key, V value);
+
+  /**
+   * 设置缓存（带过期时间）
+   *
+   * @param key 键
+   * @param value 值
+   * @param timeout 过期时间
+   * @param timeUnit 时间单位
+   * @return 写入完成
+   */
+  CompletionStage<Void> put(K key, V value, long timeout, TimeUnit timeUnit);
+
+  /**
+   * 如果不存在则设置（带过期时间）
+   *
+   * @param key 键
+   * @param value 值
+   * @param timeout 过期时间
+   * @param timeUnit 时间单位
+   * @return 是否设置成功
+   */
+  CompletionStage<Boolean> putIfAbsent(K key, V value, long timeout, TimeUnit timeUnit);
+
+  /**
+   * 删除缓存
+   *
+   * @param key 键
+   * @return 是否删除成功
+   */
+  CompletionStage<Boolean> remove(K key);
+
+  /**
+   * 批量删除
+   *
+   * @param keys 键集合
+   * @return 删除数量
+   */
+  CompletionStage<Long> remove(Collection<K> keys);
+
+  /**
+   * 判断是否存在
+   *
+   * @param key 键
+   * @return 是否存在
+   */
+  CompletionStage<Boolean> containsKey(K key);
+
+  /**
+   * 设置过期时间
+   *
+   * @param key 键
+   * @param timeout 过期时间
+   * @param timeUnit 时间单位
+   * @return 是否设置成功
+   */
+  CompletionStage<Boolean> expire(K key, long timeout, TimeUnit timeUnit);
+
+  /**
+   * 获取过期时间
+   *
+   * @param key 键
+   * @param timeUnit 时间单位
+   * @return 过期时间，-1表示永不过期，-2表示键不存在
+   */
+  CompletionStage<Long> getExpire(K key, TimeUnit timeUnit);
+
+  /**
+   * 递增
+   *
+   * @param key 键
+   * @param delta 增量
+   * @return 递增后的值
+   */
+  CompletionStage<Long> increment(K key, long delta);
+}
@@ -1,7 +1,10 @@
 package com.zhangzhankui.seed.common.core.cache;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * 缓存接口
@@ -33,6 +36,48 @@ public interface ICache<K, V> {
     return value != null ? value : defaultValue;
   }
 
+  /**
+   * 获取缓存值，不存在时回源加载并写入缓存
+   *
+   * <p>默认实现不做并发控制，实现类应覆盖为同一 key 只有一个调用方回源，其余调用方等待并复用结果
+   *
+   * @param key 键
+   * @param loader 回源加载，返回 null 时不写入缓存
+   * @param timeout 过期时间
+   * @param timeUnit 时间单位
+   * @return 缓存值或回源结果
+   */
+  default V get(K key, Supplier<? extends V> loader, long timeout, TimeUnit timeUnit) {
+    V value = get(key);
+    if (value != null) {
+      return value;
+    }
+    value = loader.get();
+    if (value != null) {
+      put(key, value, timeout, timeUnit);
+    }
+    return value;
+  }
+
+  /**
+   * 批量获取缓存值
+   *
+   * <p>默认逐个获取，实现类应覆盖为一次网络往返（如 Redis MGET）
+   *
+   * @param keys 键集合
+   * @return 存在的键值对，不存在的键不包含在结果中
+   */
+  default Map<K, V> getAll(Collection<K> keys) {
+    Map<K, V> result = new LinkedHashMap<>();
+    for (K key : keys) {
+      V value = get(key);
+      if (value != null) {
+        result.put(key, value);
+      }
+    }
+    return result;
+  }
+
   /**
    * 设置缓存
    *
@@ -51,6 +96,19 @@ public interface ICache<K, V> {
    */
   void put(K key, V value, long timeout, TimeUnit timeUnit);
 
+  /**
+   * 批量设置缓存（带过期时间）
+   *
+   * <p>默认逐个设置，实现类应覆盖为一次网络往返（如 Redis Pipeline）
+   *
+   * @param map 键值对
+   * @param timeout 过期时间
+   * @param timeUnit 时间单位
+   */
+  default void putAll(Map<K, V> map, long timeout, TimeUnit timeUnit) {
+    map.forEach((key, value) -> put(key, value, timeout, timeUnit));
+  }
+
   /**
    * 如果不存在则设置
    *
@@ -95,6 +153,21 @@ public interface ICache<K, V> {
    */
   boolean containsKey(K key);
 
+  /**
+   * 判断是否全部存在
+   *
+   * @param keys 键集合
+   * @return 是否全部存在，空集合返回 true
+   */
+  default boolean containsAll(Collection<K> keys) {
+    for (K key : keys) {
+      if (!containsKey(key)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * 设置过期时间
    *
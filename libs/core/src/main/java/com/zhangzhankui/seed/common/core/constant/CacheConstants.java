@@ -17,4 +17,10 @@ public interface CacheConstants {
 
   /** 用户登录缓存 redis key */
   String USER_LOGIN_KEY = "user:login:";
+
+  /** 不存在的用户名（负缓存）redis key */
+  String USER_ABSENT_KEY = "user:absent:";
+
+  /** 部门缓存 redis key */
+  String SYS_DEPT_KEY = "sys:dept:";
 }
@@ -0,0 +1,28 @@
+package com.zhangzhankui.seed.common.core.exception;
+
+import java.io.Serial;
+
+import lombok.Getter;
+
+/**
+ * 防护令牌已失效异常
+ *
+ * <p>锁租约过期后已被其他持有者重新获取，原持有者的令牌小于最新令牌，受保护的写入必须放弃
+ */
+@Getter
+public class FencingTokenException extends ServiceException {
+
+  @Serial private static final long serialVersionUID = 1L;
+
+  /** 锁键 */
+  private final String lockKey;
+
+  /** 失效的令牌 */
+  private final long token;
+
+  public FencingTokenException(String lockKey, long token) {
+    super(409, "操作已失效，请重试", "stale fencing token " + token + " for lock " + lockKey);
+    this.lockKey = lockKey;
+    this.token = token;
+  }
+}
@@ -1,8 +1,15 @@
 package com.zhangzhankui.seed.common.core.lock;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
 import java.util.function.Supplier;
 
+import com.zhangzhankui.seed.common.core.exception.FencingTokenException;
+
 /**
  * 分布式锁接口
  *
@@ -58,6 +65,128 @@ public interface IDistributedLock {
    */
   void unlock(String lockKey);
 
+  /**
+   * 尝试获取锁并返回防护令牌（fencing token）
+   *
+   * <p>令牌与锁一同保存在锁服务中，每次获取单调递增。租约过期后锁可能已被其他持有者获取，
+   * 受保护的写入应携带令牌并通过 {@link #checkToken} 校验，或由存储端拒绝小于已写入令牌的请求，
+   * 从而可以使用较短的租约而不会出现两个持有者同时写入。释放使用 {@link #unlock(String)}
+   *
+   * <p>只有本方法会递增令牌，{@link #tryLock}、{@link #lock} 等获取同一把锁时令牌不变，旧令牌仍会通过校验，
+   * 因此受令牌保护的锁键，所有获取方都必须使用本方法（或 {@link #executeWithToken}）。
+   * 令牌计数器按锁键常驻，不随锁释放或过期删除，锁键中的业务标识应有界。
+   *
+   * @param lockKey 锁键
+   * @param waitTime 等待时间
+   * @param leaseTime 锁持有时间（过期自动释放）
+   * @param unit 时间单位
+   * @return 令牌，获取失败返回 null
+   */
+  Long tryLockWithToken(String lockKey, long waitTime, long leaseTime, TimeUnit unit);
+
+  /**
+   * 令牌是否仍是该锁最新签发的令牌
+   *
+   * @param lockKey 锁键
+   * @param token {@link #tryLockWithToken} 返回的令牌
+   * @return 令牌不小于最新令牌时为 true
+   */
+  boolean isTokenValid(String lockKey, long token);
+
+  /**
+   * 受保护写入前校验令牌
+   *
+   * <p>校验与写入之间仍有时间窗口，需要严格保证时应把令牌一并写入存储，
+   * 由存储端条件更新（如 {@code WHERE fence_token < #{token}}）拒绝过期令牌
+   *
+   * @param lockKey 锁键
+   * @param token 令牌
+   * @throws FencingTokenException 令牌已失效
+   */
+  default void checkToken(String lockKey, long token) {
+    if (!isTokenValid(lockKey, token)) {
+      throw new FencingTokenException(lockKey, token);
+    }
+  }
+
+  /**
+   * 在带令牌的锁保护下执行操作
+   *
+   * @param lockKey 锁键
+   * @param waitTime 等待时间
+   * @param leaseTime 锁持有时间
+   * @param unit 时间单位
+   * @param action 要执行的操作，参数为令牌
+   * @return 执行结果，获取锁失败返回 null
+   */
+  default <T> T executeWithToken(
+      String lockKey, long waitTime, long leaseTime, TimeUnit unit, LongFunction<T> action) {
+    Long token = tryLockWithToken(lockKey, waitTime, leaseTime, unit);
+    if (token == null) {
+      return null;
+    }
+    try {
+      return action.apply(token);
+    } finally {
+      unlock(lockKey);
+    }
+  }
+
+  /**
+   * 尝试一次性获取多个锁
+   *
+   * <p>key 去重后按字典序获取，所有调用方顺序一致，不会相互死锁；任一获取失败时释放已获取的锁，
+   * 返回 false 时不持有其中任何一个锁。等待时间为全部 key 共享的总时间
+   *
+   * @param lockKeys 锁键
+   * @param waitTime 总等待时间
+   * @param leaseTime 锁持有时间（过期自动释放）
+   * @param unit 时间单位
+   * @return 是否全部获取成功
+   */
+  default boolean tryLockAll(
+      Collection<String> lockKeys, long waitTime, long leaseTime, TimeUnit unit) {
+    List<String> keys = sortedKeys(lockKeys);
+    long deadline = System.nanoTime() + unit.toNanos(Math.max(waitTime, 0));
+    long leaseMillis = leaseTime < 0 ? leaseTime : unit.toMillis(leaseTime);
+    List<String> acquired = new ArrayList<>(keys.size());
+    for (String key : keys) {
+      long remaining = TimeUnit.NANOSECONDS.toMillis(Math.max(deadline - System.nanoTime(), 0));
+      if (!tryLock(key, remaining, leaseMillis, TimeUnit.MILLISECONDS)) {
+        unlockAll(acquired);
+        return false;
+      }
+      acquired.add(key);
+    }
+    return true;
+  }
+
+  /**
+   * 释放多个锁
+   *
+   * <p>按获取顺序的逆序释放，单个锁释放失败不影响其余锁，全部处理后抛出第一个异常
+   *
+   * @param lockKeys 锁键
+   */
+  default void unlockAll(Collection<String> lockKeys) {
+    List<String> keys = sortedKeys(lockKeys);
+    RuntimeException failure = null;
+    for (int i = keys.size() - 1; i >= 0; i--) {
+      try {
+        unlock(keys.get(i));
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
   /**
    * 判断是否持有锁
    *
@@ -74,6 +203,62 @@ public interface IDistributedLock {
    */
   boolean isHeldByCurrentThread(String lockKey);
 
+  /**
+   * 获取公平锁
+   *
+   * <p>按照请求顺序分配锁，与 {@link #tryLock} 使用同一把锁
+   *
+   * @param lockKey 锁键
+   * @param waitTime 等待时间
+   * @param leaseTime 锁持有时间
+   * @param unit 时间单位
+   * @return 是否获取成功
+   */
+  boolean tryFairLock(String lockKey, long waitTime, long leaseTime, TimeUnit unit);
+
+  /**
+   * 释放公平锁（当前线程未持有时忽略）
+   *
+   * @param lockKey 锁键
+   */
+  void unlockFairLock(String lockKey);
+
+  /**
+   * 获取读锁
+   *
+   * @param lockKey 锁键
+   * @param waitTime 等待时间
+   * @param leaseTime 锁持有时间
+   * @param unit 时间单位
+   * @return 是否获取成功
+   */
+  boolean tryReadLock(String lockKey, long waitTime, long leaseTime, TimeUnit unit);
+
+  /**
+   * 获取写锁
+   *
+   * @param lockKey 锁键
+   * @param waitTime 等待时间
+   * @param leaseTime 锁持有时间
+   * @param unit 时间单位
+   * @return 是否获取成功
+   */
+  boolean tryWriteLock(String lockKey, long waitTime, long leaseTime, TimeUnit unit);
+
+  /**
+   * 释放读锁（当前线程未持有时忽略）
+   *
+   * @param lockKey 锁键
+   */
+  void unlockReadLock(String lockKey);
+
+  /**
+   * 释放写锁（当前线程未持有时忽略）
+   *
+   * @param lockKey 锁键
+   */
+  void unlockWriteLock(String lockKey);
+
   /**
    * 在锁保护下执行操作（无返回值）
    *
@@ -138,4 +323,44 @@ public interface IDistributedLock {
     }
     return null;
   }
+
+  /**
+   * 在多个锁保护下执行操作
+   *
+   * @param lockKeys 锁键
+   * @param waitTime 总等待时间
+   * @param leaseTime 锁持有时间
+   * @param unit 时间单位
+   * @param supplier 要执行的操作
+   * @return 执行结果，获取锁失败返回 null
+   * @see #tryLockAll(Collection, long, long, TimeUnit)
+   */
+  default <T> T executeWithLocks(
+      Collection<String> lockKeys,
+      long waitTime,
+      long leaseTime,
+      TimeUnit unit,
+      Supplier<T> supplier) {
+    if (tryLockAll(lockKeys, waitTime, leaseTime, unit)) {
+      try {
+        return supplier.get();
+      } finally {
+        unlockAll(lockKeys);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * 去重并按字典序排列锁键
+   *
+   * @param lockKeys 锁键
+   * @return 排序后的锁键
+   */
+  static List<String> sortedKeys(Collection<String> lockKeys) {
+    if (lockKeys == null) {
+      throw new IllegalArgumentException("lockKeys cannot be null");
+    }
+    return new ArrayList<>(new TreeSet<>(lockKeys));
+  }
 }
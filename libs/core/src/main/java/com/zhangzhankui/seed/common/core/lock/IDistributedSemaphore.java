@@ -0,0 +1,92 @@
+package com.zhangzhankui.seed.common.core.lock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 分布式信号量接口
+ *
+ * <p>限制集群内同时执行某类操作的数量（至多 N 个），与 {@link IDistributedLock} 的互斥（恰好 1 个）互补。
+ * 每个许可都带租约，持有者崩溃后许可在租约到期时自动归还
+ */
+public interface IDistributedSemaphore {
+
+  /**
+   * 设置许可总数（仅在信号量尚未初始化时生效）
+   *
+   * @param name 信号量名称
+   * @param permits 许可总数
+   * @return 是否设置成功，已初始化时返回 false
+   */
+  boolean trySetPermits(String name, int permits);
+
+  /**
+   * 尝试获取许可
+   *
+   * @param name 信号量名称
+   * @param permits 许可数量
+   * @param waitTime 等待时间
+   * @param leaseTime 许可租约（必须大于 0，到期自动归还）
+   * @param unit 时间单位
+   * @return 获取到的许可，失败返回 null
+   */
+  SemaphorePermits tryAcquire(
+      String name, int permits, long waitTime, long leaseTime, TimeUnit unit);
+
+  /**
+   * 尝试获取一个许可
+   *
+   * @param name 信号量名称
+   * @param waitTime 等待时间
+   * @param leaseTime 许可租约
+   * @param unit 时间单位
+   * @return 获取到的许可，失败返回 null
+   */
+  default SemaphorePermits tryAcquire(String name, long waitTime, long leaseTime, TimeUnit unit) {
+    return tryAcquire(name, 1, waitTime, leaseTime, unit);
+  }
+
+  /**
+   * 释放许可
+   *
+   * @param permits {@link #tryAcquire} 返回的许可
+   */
+  void release(SemaphorePermits permits);
+
+  /**
+   * 当前可用许可数
+   *
+   * @param name 信号量名称
+   * @return 可用许可数
+   */
+  int availablePermits(String name);
+
+  /**
+   * 在许可保护下执行操作
+   *
+   * @param name 信号量名称
+   * @param permits 许可数量
+   * @param waitTime 等待时间
+   * @param leaseTime 许可租约
+   * @param unit 时间单位
+   * @param supplier 要执行的操作
+   * @return 执行结果，获取许可失败返回 null
+   */
+  default <T> T executeWithPermits(
+      String name,
+      int permits,
+      long waitTime,
+      long leaseTime,
+      TimeUnit unit,
+      Supplier<T> supplier) {
+    SemaphorePermits acquired = tryAcquire(name, permits, waitTime, leaseTime, unit);
+    if (acquired == null) {
+      return null;
+    }
+    try {
+      return supplier.get();
+    } finally {
+      release(acquired);
+    }
+  }
+}
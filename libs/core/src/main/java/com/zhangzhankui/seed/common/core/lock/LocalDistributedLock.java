@@ -0,0 +1,531 @@
+package com.zhangzhankui.seed.common.core.lock;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 进程内的分布式锁实现
+ *
+ * <p>适用于单实例部署与测试，语义与 Redisson 实现一致：可重入、租约到期自动释放、公平锁、读写锁与防护令牌，
+ * 不产生网络往返。锁状态按 key 的哈希分布在固定数量的分段上，每个分段由一把 {@link ReentrantLock} 保护，
+ * 等待线程在分段的 {@link Condition} 上等待释放或最早的租约到期；租约在下次访问该 key 时惰性回收，不需要后台线程。
+ *
+ * <p>普通锁、公平锁与带令牌的锁共用同一把锁，读写锁独立。锁状态在无持有者与等待者时移除，
+ * 防护令牌按 key 常驻内存。
+ *
+ * <p>seed.lock.mode=local 或未引入 Redisson 时由 {@link LockAutoConfiguration} 自动注册
+ */
+@Slf4j
+public class LocalDistributedLock implements IDistributedLock {
+
+  private static final int DEFAULT_STRIPES = 64;
+
+  /** 未指定租约（leaseTime 小于 0）时的到期时间 */
+  private static final long NEVER = Long.MAX_VALUE;
+
+  private final Stripe[] stripes;
+
+  public LocalDistributedLock() {
+    this(DEFAULT_STRIPES);
+  }
+
+  /**
+   * @param concurrency 分段数量，向上取整为 2 的幂
+   */
+  public LocalDistributedLock(int concurrency) {
+    if (concurrency <= 0) {
+      throw new IllegalArgumentException("concurrency must be positive");
+    }
+    int size = Integer.highestOneBit(Math.max(concurrency - 1, 1)) << 1;
+    this.stripes = new Stripe[size];
+    for (int i = 0; i < size; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  @Override
+  public boolean tryLock(String lockKey, long waitTime, long leaseTime, TimeUnit unit) {
+    return tryExclusive(lockKey, waitTime, leaseTime, unit, false, false, "获取分布式锁") != null;
+  }
+
+  @Override
+  public void lock(String lockKey, long leaseTime, TimeUnit unit) {
+    Thread current = Thread.currentThread();
+    long leaseNanos = leaseNanos(leaseTime, unit);
+    Stripe stripe = stripe(lockKey);
+    try {
+      await(stripe, stripe.exclusive, lockKey, Exclusive::new, NEVER, false,
+          (state, now) -> state.tryAcquire(current, now, leaseNanos, false));
+    } catch (InterruptedException e) {
+      // 不可中断等待不会抛出
+      throw new IllegalStateException(e);
+    }
+    log.debug("成功获取分布式锁（阻塞）: {}", lockKey);
+  }
+
+  @Override
+  public void unlock(String lockKey) {
+    Stripe stripe = stripe(lockKey);
+    stripe.lock.lock();
+    try {
+      Exclusive state = stripe.exclusive.get(lockKey);
+      if (state == null || !state.release(Thread.currentThread(), System.nanoTime())) {
+        log.warn("尝试释放非当前线程持有的锁或锁已过期自动释放: {}", lockKey);
+        return;
+      }
+      stripe.changed.signalAll();
+      stripe.removeIfIdle(stripe.exclusive, lockKey, state);
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  @Override
+  public Long tryLockWithToken(String lockKey, long waitTime, long leaseTime, TimeUnit unit) {
+    return tryExclusive(lockKey, waitTime, leaseTime, unit, true, false, "获取带令牌的分布式锁");
+  }
+
+  @Override
+  public boolean isTokenValid(String lockKey, long token) {
+    Stripe stripe = stripe(lockKey);
+    stripe.lock.lock();
+    try {
+      Long current = stripe.tokens.get(lockKey);
+      return current != null && token >= current;
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean isLocked(String lockKey) {
+    return withExclusive(lockKey, (state, now) -> state.isHeld(now));
+  }
+
+  @Override
+  public boolean isHeldByCurrentThread(String lockKey) {
+    Thread current = Thread.currentThread();
+    return withExclusive(lockKey, (state, now) -> state.isHeldBy(current, now));
+  }
+
+  @Override
+  public boolean tryFairLock(String lockKey, long waitTime, long leaseTime, TimeUnit unit) {
+    return tryExclusive(lockKey, waitTime, leaseTime, unit, false, true, "获取公平锁") != null;
+  }
+
+  @Override
+  public void unlockFairLock(String lockKey) {
+    if (isHeldByCurrentThread(lockKey)) {
+      unlock(lockKey);
+    }
+  }
+
+  @Override
+  public boolean tryReadLock(String lockKey, long waitTime, long leaseTime, TimeUnit unit) {
+    Thread current = Thread.currentThread();
+    long leaseNanos = leaseNanos(leaseTime, unit);
+    return tryAwait(lockKey, "获取读锁", stripe -> stripe.readWrite, ReadWrite::new,
+        waitTime, unit, (state, now) -> state.tryRead(current, now, leaseNanos));
+  }
+
+  @Override
+  public boolean tryWriteLock(String lockKey, long waitTime, long leaseTime, TimeUnit unit) {
+    Thread current = Thread.currentThread();
+    long leaseNanos = leaseNanos(leaseTime, unit);
+    return tryAwait(lockKey, "获取写锁", stripe -> stripe.readWrite, ReadWrite::new,
+        waitTime, unit, (state, now) -> state.tryWrite(current, now, leaseNanos));
+  }
+
+  @Override
+  public void unlockReadLock(String lockKey) {
+    releaseReadWrite(lockKey, true);
+  }
+
+  @Override
+  public void unlockWriteLock(String lockKey) {
+    releaseReadWrite(lockKey, false);
+  }
+
+  /**
+   * 获取普通锁或公平锁
+   *
+   * @return 令牌（不需要令牌时为 0），失败返回 null
+   */
+  private Long tryExclusive(
+      String lockKey,
+      long waitTime,
+      long leaseTime,
+      TimeUnit unit,
+      boolean withToken,
+      boolean fair,
+      String action) {
+    Thread current = Thread.currentThread();
+    long leaseNanos = leaseNanos(leaseTime, unit);
+    long[] token = new long[1];
+    boolean acquired = tryAwait(lockKey, action, stripe -> stripe.exclusive, Exclusive::new,
+        waitTime, unit, (state, now) -> {
+          if (!state.tryAcquire(current, now, leaseNanos, fair)) {
+            return false;
+          }
+          if (withToken) {
+            // 已持有分段锁，令牌递增与获取原子完成
+            token[0] = stripe(lockKey).tokens.merge(lockKey, 1L, Long::sum);
+          }
+          return true;
+        });
+    return acquired ? token[0] : null;
+  }
+
+  /** 在等待时间内获取，被中断时恢复中断标记并返回 false */
+  private <S extends State> boolean tryAwait(
+      String lockKey,
+      String action,
+      Function<Stripe, Map<String, S>> states,
+      Supplier<S> factory,
+      long waitTime,
+      TimeUnit unit,
+      Attempt<S> attempt) {
+    Stripe stripe = stripe(lockKey);
+    try {
+      boolean acquired = await(stripe, states.apply(stripe), lockKey, factory,
+          unit.toNanos(Math.max(waitTime, 0)), true, attempt);
+      if (acquired) {
+        log.debug("成功{}: {}", action, lockKey);
+      } else {
+        log.debug("{}失败: {}", action, lockKey);
+      }
+      return acquired;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("{}被中断: {}", action, lockKey, e);
+      return false;
+    }
+  }
+
+  /**
+   * 持有分段锁反复尝试，失败时等待释放信号或最早的租约到期
+   *
+   * @param waitNanos 等待时间，{@link #NEVER} 表示一直等待
+   * @param interruptible 是否响应中断，不响应时在获取后恢复中断标记
+   */
+  private <S extends State> boolean await(
+      Stripe stripe,
+      Map<String, S> states,
+      String lockKey,
+      Supplier<S> factory,
+      long waitNanos,
+      boolean interruptible,
+      Attempt<S> attempt) throws InterruptedException {
+    Thread current = Thread.currentThread();
+    boolean interrupted = false;
+    long start = System.nanoTime();
+    stripe.lock.lock();
+    S state = states.computeIfAbsent(lockKey, k -> factory.get());
+    state.waiters++;
+    try {
+      while (true) {
+        long now = System.nanoTime();
+        if (attempt.test(state, now)) {
+          return true;
+        }
+        long remaining = waitNanos == NEVER ? NEVER : waitNanos - (now - start);
+        if (remaining <= 0) {
+          return false;
+        }
+        long expiry = state.nextExpiry();
+        long sleep = expiry == NEVER ? remaining : Math.min(remaining, Math.max(expiry - now, 1));
+        try {
+          stripe.changed.awaitNanos(sleep);
+        } catch (InterruptedException e) {
+          if (interruptible) {
+            throw e;
+          }
+          interrupted = true;
+        }
+      }
+    } finally {
+      state.waiters--;
+      if (state.leave(current)) {
+        // 公平队列的队首变化，唤醒后续等待者
+        stripe.changed.signalAll();
+      }
+      stripe.removeIfIdle(states, lockKey, state);
+      stripe.lock.unlock();
+      if (interrupted) {
+        current.interrupt();
+      }
+    }
+  }
+
+  private boolean withExclusive(String lockKey, Attempt<Exclusive> query) {
+    Stripe stripe = stripe(lockKey);
+    stripe.lock.lock();
+    try {
+      Exclusive state = stripe.exclusive.get(lockKey);
+      return state != null && query.test(state, System.nanoTime());
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  private void releaseReadWrite(String lockKey, boolean read) {
+    Stripe stripe = stripe(lockKey);
+    stripe.lock.lock();
+    try {
+      ReadWrite state = stripe.readWrite.get(lockKey);
+      Thread current = Thread.currentThread();
+      long now = System.nanoTime();
+      if (state != null
+          && (read ? state.releaseRead(current, now) : state.releaseWrite(current, now))) {
+        stripe.changed.signalAll();
+        stripe.removeIfIdle(stripe.readWrite, lockKey, state);
+      }
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  private Stripe stripe(String lockKey) {
+    int h = lockKey.hashCode();
+    return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+  }
+
+  private static long leaseNanos(long leaseTime, TimeUnit unit) {
+    return leaseTime < 0 ? -1 : unit.toNanos(leaseTime);
+  }
+
+  private static long expiresAt(long now, long leaseNanos) {
+    return leaseNanos < 0 ? NEVER : now + leaseNanos;
+  }
+
+  /** 锁分段，map 只在持有 lock 时访问 */
+  private static final class Stripe {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<String, Exclusive> exclusive = new HashMap<>();
+    private final Map<String, ReadWrite> readWrite = new HashMap<>();
+    private final Map<String, Long> tokens = new HashMap<>();
+
+    <S extends State> void removeIfIdle(Map<String, S> states, String lockKey, S state) {
+      if (state.waiters == 0 && state.isFree(System.nanoTime())) {
+        states.remove(lockKey, state);
+      }
+    }
+  }
+
+  /** 持有分段锁时尝试获取 */
+  @FunctionalInterface
+  private interface Attempt<S> {
+
+    boolean test(S state, long now);
+  }
+
+  /** 单个 key 的锁状态，只在持有分段锁时访问 */
+  private abstract static class State {
+
+    int waiters;
+
+    /** 没有未过期的持有者 */
+    abstract boolean isFree(long now);
+
+    /** 最早的租约到期时间，没有时为 {@link #NEVER} */
+    abstract long nextExpiry();
+
+    /**
+     * 等待结束（获取成功、超时或中断）
+     *
+     * @return 是否需要唤醒其他等待者
+     */
+    boolean leave(Thread thread) {
+      return false;
+    }
+  }
+
+  /** 普通锁、公平锁与带令牌的锁 */
+  private static final class Exclusive extends State {
+
+    private Thread owner;
+    private int holds;
+    private long expiresAt;
+
+    /** 公平锁的等待队列，首次使用时创建 */
+    private ArrayDeque<Thread> queue;
+
+    boolean tryAcquire(Thread current, long now, long leaseNanos, boolean fair) {
+      expire(now);
+      if (owner == current) {
+        holds++;
+        expiresAt = expiresAt(now, leaseNanos);
+        return true;
+      }
+      if (fair) {
+        if (queue == null) {
+          queue = new ArrayDeque<>();
+        }
+        if (!queue.contains(current)) {
+          queue.addLast(current);
+        }
+      }
+      if (owner != null || (fair && queue.peekFirst() != current)) {
+        return false;
+      }
+      owner = current;
+      holds = 1;
+      expiresAt = expiresAt(now, leaseNanos);
+      return true;
+    }
+
+    /**
+     * 释放一层重入
+     *
+     * @return 当前线程持有且未过期
+     */
+    boolean release(Thread current, long now) {
+      expire(now);
+      if (owner != current) {
+        return false;
+      }
+      if (--holds == 0) {
+        owner = null;
+      }
+      return true;
+    }
+
+    boolean isHeld(long now) {
+      expire(now);
+      return owner != null;
+    }
+
+    boolean isHeldBy(Thread current, long now) {
+      expire(now);
+      return owner == current;
+    }
+
+    @Override
+    boolean isFree(long now) {
+      return !isHeld(now) && (queue == null || queue.isEmpty());
+    }
+
+    @Override
+    long nextExpiry() {
+      return owner != null ? expiresAt : NEVER;
+    }
+
+    @Override
+    boolean leave(Thread thread) {
+      return queue != null && queue.remove(thread);
+    }
+
+    private void expire(long now) {
+      if (owner != null && expiresAt != NEVER && now - expiresAt >= 0) {
+        owner = null;
+        holds = 0;
+      }
+    }
+  }
+
+  /** 读写锁：写锁独占，读锁可由多个线程同时持有；持有写锁的线程可以再获取读锁 */
+  private static final class ReadWrite extends State {
+
+    private Thread writer;
+    private int writeHolds;
+    private long writeExpiresAt;
+    private final Map<Thread, ReadHold> readers = new HashMap<>();
+
+    boolean tryRead(Thread current, long now, long leaseNanos) {
+      expire(now);
+      if (writer != null && writer != current) {
+        return false;
+      }
+      ReadHold hold = readers.computeIfAbsent(current, t -> new ReadHold());
+      hold.count++;
+      hold.expiresAt = expiresAt(now, leaseNanos);
+      return true;
+    }
+
+    boolean tryWrite(Thread current, long now, long leaseNanos) {
+      expire(now);
+      if (writer == current) {
+        writeHolds++;
+        writeExpiresAt = expiresAt(now, leaseNanos);
+        return true;
+      }
+      if (writer != null || !readers.isEmpty()) {
+        return false;
+      }
+      writer = current;
+      writeHolds = 1;
+      writeExpiresAt = expiresAt(now, leaseNanos);
+      return true;
+    }
+
+    boolean releaseRead(Thread current, long now) {
+      expire(now);
+      ReadHold hold = readers.get(current);
+      if (hold == null) {
+        return false;
+      }
+      if (--hold.count == 0) {
+        readers.remove(current);
+      }
+      return true;
+    }
+
+    boolean releaseWrite(Thread current, long now) {
+      expire(now);
+      if (writer != current) {
+        return false;
+      }
+      if (--writeHolds == 0) {
+        writer = null;
+      }
+      return true;
+    }
+
+    @Override
+    boolean isFree(long now) {
+      expire(now);
+      return writer == null && readers.isEmpty();
+    }
+
+    @Override
+    long nextExpiry() {
+      long next = writer != null ? writeExpiresAt : NEVER;
+      for (ReadHold hold : readers.values()) {
+        next = Math.min(next, hold.expiresAt);
+      }
+      return next;
+    }
+
+    private void expire(long now) {
+      if (writer != null && writeExpiresAt != NEVER && now - writeExpiresAt >= 0) {
+        writer = null;
+        writeHolds = 0;
+      }
+      Iterator<ReadHold> it = readers.values().iterator();
+      while (it.hasNext()) {
+        long expiresAt = it.next().expiresAt;
+        if (expiresAt != NEVER && now - expiresAt >= 0) {
+          it.remove();
+        }
+      }
+    }
+  }
+
+  /** 单个线程持有的读锁 */
+  private static final class ReadHold {
+
+    private int count;
+    private long expiresAt;
+  }
+}
@@ -0,0 +1,21 @@
+package com.zhangzhankui.seed.common.core.lock;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/** 分布式锁自动配置 */
+@AutoConfiguration
+public class LockAutoConfiguration {
+
+  /**
+   * 进程内分布式锁（seed.lock.mode=local 或未引入 Redisson 实现时使用）
+   *
+   * <p>Redisson 实现通过组件扫描注册，先于自动配置处理，存在时本实现不生效
+   */
+  @Bean
+  @ConditionalOnMissingBean(IDistributedLock.class)
+  public IDistributedLock localDistributedLock() {
+    return new LocalDistributedLock();
+  }
+}
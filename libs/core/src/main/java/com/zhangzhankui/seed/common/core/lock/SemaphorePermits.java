@@ -0,0 +1,21 @@
+package com.zhangzhankui.seed.common.core.lock;
+
+import java.util.List;
+
+/**
+ * 从分布式信号量获取的一组许可
+ *
+ * @param name 信号量名称
+ * @param ids 许可 ID，由实现签发，释放时原样交回
+ */
+public record SemaphorePermits(String name, List<String> ids) {
+
+  public SemaphorePermits {
+    ids = List.copyOf(ids);
+  }
+
+  /** 许可数量 */
+  public int size() {
+    return ids.size();
+  }
+}
@@ -0,0 +1,215 @@
+package com.zhangzhankui.seed.common.core.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.zhangzhankui.seed.common.core.exception.FencingTokenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("LocalDistributedLock 单元测试")
+class LocalDistributedLockTest {
+
+  private LocalDistributedLock distributedLock;
+
+  @BeforeEach
+  void setUp() {
+    distributedLock = new LocalDistributedLock(4);
+  }
+
+  /** 在另一个线程中执行并等待结果 */
+  private static <T> T inOtherThread(Supplier<T> action) {
+    return CompletableFuture.supplyAsync(action, r -> new Thread(r).start()).join();
+  }
+
+  @Nested
+  @DisplayName("普通锁")
+  class ExclusiveTest {
+
+    @Test
+    @DisplayName("其他线程持有时应获取失败，释放后可获取")
+    void shouldExcludeOtherThreads() {
+      assertThat(distributedLock.tryLock("order:1", 0, 10, TimeUnit.SECONDS)).isTrue();
+      assertThat(distributedLock.isLocked("order:1")).isTrue();
+      assertThat(distributedLock.isHeldByCurrentThread("order:1")).isTrue();
+      assertThat(inOtherThread(() -> distributedLock.tryLock("order:1", 0, 10, TimeUnit.SECONDS)))
+          .isFalse();
+
+      distributedLock.unlock("order:1");
+
+      assertThat(distributedLock.isLocked("order:1")).isFalse();
+      assertThat(inOtherThread(() -> distributedLock.tryLock("order:1", 0, 10, TimeUnit.SECONDS)))
+          .isTrue();
+    }
+
+    @Test
+    @DisplayName("同一线程应可重入，释放相同次数后解锁")
+    void shouldBeReentrant() {
+      distributedLock.lock("order:1", 10, TimeUnit.SECONDS);
+      assertThat(distributedLock.tryLock("order:1", 0, 10, TimeUnit.SECONDS)).isTrue();
+
+      distributedLock.unlock("order:1");
+      assertThat(distributedLock.isLocked("order:1")).isTrue();
+      distributedLock.unlock("order:1");
+      assertThat(distributedLock.isLocked("order:1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("租约到期后其他线程应可获取")
+    void shouldExpireLease() throws InterruptedException {
+      assertThat(distributedLock.tryLock("order:1", 0, 20, TimeUnit.MILLISECONDS)).isTrue();
+
+      assertThat(inOtherThread(() -> distributedLock.tryLock("order:1", 1, 10, TimeUnit.SECONDS)))
+          .isTrue();
+      assertThat(distributedLock.isHeldByCurrentThread("order:1")).isFalse();
+      // 过期后释放不影响新的持有者
+      distributedLock.unlock("order:1");
+      assertThat(distributedLock.isLocked("order:1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("等待中的线程应在释放后获取")
+    void shouldWakeWaiterOnUnlock() throws Exception {
+      distributedLock.lock("order:1");
+      CountDownLatch started = new CountDownLatch(1);
+      CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+        started.countDown();
+        return distributedLock.tryLock("order:1", 5, 10, TimeUnit.SECONDS);
+      }, r -> new Thread(r).start());
+      started.await();
+      Thread.sleep(20);
+
+      distributedLock.unlock("order:1");
+
+      assertThat(waiter.get(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("同一分段的不同 key 互不影响")
+    void shouldNotBlockOtherKeysInStripe() {
+      LocalDistributedLock singleStripe = new LocalDistributedLock(1);
+      assertThat(singleStripe.tryLock("a", 0, 10, TimeUnit.SECONDS)).isTrue();
+
+      assertThat(inOtherThread(() -> singleStripe.tryLock("b", 0, 10, TimeUnit.SECONDS))).isTrue();
+    }
+
+    @Test
+    @DisplayName("tryLockAll 失败时不应持有任何锁")
+    void shouldRollbackTryLockAll() {
+      inOtherThread(() -> distributedLock.tryLock("b", 0, 10, TimeUnit.SECONDS));
+
+      assertThat(distributedLock.tryLockAll(List.of("a", "b"), 0, 10, TimeUnit.SECONDS)).isFalse();
+      assertThat(distributedLock.isLocked("a")).isFalse();
+    }
+  }
+
+  @Nested
+  @DisplayName("防护令牌")
+  class TokenTest {
+
+    @Test
+    @DisplayName("每次获取的令牌应递增，旧令牌失效")
+    void shouldIssueIncreasingTokens() {
+      Long first = distributedLock.tryLockWithToken("order:1", 0, 10, TimeUnit.SECONDS);
+      distributedLock.unlock("order:1");
+      Long second = distributedLock.tryLockWithToken("order:1", 0, 10, TimeUnit.SECONDS);
+
+      assertThat(second).isGreaterThan(first);
+      assertThat(distributedLock.isTokenValid("order:1", second)).isTrue();
+      assertThatThrownBy(() -> distributedLock.checkToken("order:1", first))
+          .isInstanceOf(FencingTokenException.class);
+    }
+
+    @Test
+    @DisplayName("未签发过令牌的锁应视为无效")
+    void shouldRejectUnknownLock() {
+      assertThat(distributedLock.isTokenValid("order:1", 1)).isFalse();
+    }
+  }
+
+  @Nested
+  @DisplayName("公平锁")
+  class FairTest {
+
+    @Test
+    @DisplayName("应按请求顺序分配")
+    void shouldGrantInRequestOrder() throws Exception {
+      assertThat(distributedLock.tryFairLock("queue", 0, 10, TimeUnit.SECONDS)).isTrue();
+      List<String> order = new CopyOnWriteArrayList<>();
+      CompletableFuture<?>[] waiters = new CompletableFuture<?>[3];
+      for (int i = 0; i < waiters.length; i++) {
+        String name = "t" + i;
+        waiters[i] = CompletableFuture.runAsync(() -> {
+          if (distributedLock.tryFairLock("queue", 5, 10, TimeUnit.SECONDS)) {
+            order.add(name);
+            distributedLock.unlockFairLock("queue");
+          }
+        }, r -> new Thread(r).start());
+        // 等待前一个线程进入队列
+        Thread.sleep(30);
+      }
+
+      distributedLock.unlockFairLock("queue");
+      CompletableFuture.allOf(waiters).get(5, TimeUnit.SECONDS);
+
+      assertThat(order).containsExactly("t0", "t1", "t2");
+    }
+
+    @Test
+    @DisplayName("未持有时释放应忽略")
+    void shouldIgnoreUnlockWhenNotHeld() {
+      distributedLock.unlockFairLock("queue");
+
+      assertThat(distributedLock.isLocked("queue")).isFalse();
+    }
+  }
+
+  @Nested
+  @DisplayName("读写锁")
+  class ReadWriteTest {
+
+    @Test
+    @DisplayName("读锁可共享，与写锁互斥")
+    void shouldShareReadLocks() {
+      assertThat(distributedLock.tryReadLock("config", 0, 10, TimeUnit.SECONDS)).isTrue();
+      assertThat(inOtherThread(() -> distributedLock.tryReadLock("config", 0, 10, TimeUnit.SECONDS)))
+          .isTrue();
+      assertThat(inOtherThread(() -> distributedLock.tryWriteLock("config", 0, 10, TimeUnit.SECONDS)))
+          .isFalse();
+    }
+
+    @Test
+    @DisplayName("写锁释放后其他线程可获取读锁")
+    void shouldReleaseWriteLock() {
+      assertThat(distributedLock.tryWriteLock("config", 0, 10, TimeUnit.SECONDS)).isTrue();
+      // 持有写锁的线程可以再获取读锁
+      assertThat(distributedLock.tryReadLock("config", 0, 10, TimeUnit.SECONDS)).isTrue();
+      assertThat(inOtherThread(() -> distributedLock.tryReadLock("config", 0, 10, TimeUnit.SECONDS)))
+          .isFalse();
+
+      distributedLock.unlockReadLock("config");
+      distributedLock.unlockWriteLock("config");
+
+      assertThat(inOtherThread(() -> distributedLock.tryReadLock("config", 0, 10, TimeUnit.SECONDS)))
+          .isTrue();
+    }
+
+    @Test
+    @DisplayName("读写锁与普通锁相互独立")
+    void shouldBeIndependentOfExclusiveLock() {
+      assertThat(distributedLock.tryWriteLock("config", 0, 10, TimeUnit.SECONDS)).isTrue();
+
+      assertThat(inOtherThread(() -> distributedLock.tryLock("config", 0, 10, TimeUnit.SECONDS)))
+          .isTrue();
+    }
+  }
+}
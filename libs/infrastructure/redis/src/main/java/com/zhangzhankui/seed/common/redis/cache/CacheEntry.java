@@ -0,0 +1,28 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 提前刷新缓存的存储包装
+ *
+ * <p>记录回源耗时与过期时刻，供 {@link RefreshAheadCache} 按 XFetch 算法决定是否提前刷新，
+ * 也供 {@link JitteredTtlFunction} 计算写入 Redis 的过期时间。
+ *
+ * <p>类不能声明为 final：序列化器仅为非 final 类型写入类型信息，否则读取时无法还原为本类。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEntry {
+
+  /** 缓存值 */
+  private Object value;
+
+  /** 回源耗时（毫秒） */
+  private long delta;
+
+  /** 过期时刻（毫秒时间戳） */
+  private long expiresAt;
+}
@@ -0,0 +1,141 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+
+/**
+ * 近端缓存失效消息总线
+ *
+ * <p>各节点的 L1 缓存按区域（Spring Cache 名称或 {@code ICache}）注册到总线。写入、删除、修改过期时间时，
+ * 通过 Redis Pub/Sub 广播失效消息，其他节点收到后丢弃对应的 L1 条目，下次读取时回源 Redis。
+ *
+ * <p>消息格式：{@code 操作|节点ID|区域|键}，本节点发出的消息会被忽略。
+ */
+@Slf4j
+public class CacheInvalidationBus implements MessageListener, InitializingBean, DisposableBean {
+
+  private static final char OP_EVICT = 'E';
+  private static final char OP_CLEAR = 'C';
+  private static final String SEPARATOR = "|";
+
+  private final RedisConnectionFactory connectionFactory;
+  private final String topic;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final Map<String, Cache<String, Object>> regions = new ConcurrentHashMap<>();
+  private RedisMessageListenerContainer container;
+
+  public CacheInvalidationBus(@NonNull RedisConnectionFactory connectionFactory, @NonNull String topic) {
+    this.connectionFactory = connectionFactory;
+    this.topic = topic;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(this, new ChannelTopic(topic));
+    container.afterPropertiesSet();
+    container.start();
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    if (container != null) {
+      container.destroy();
+    }
+  }
+
+  /**
+   * 注册区域的本地缓存
+   *
+   * @param region 区域名称
+   * @param localCache 本地缓存
+   */
+  public void register(@NonNull String region, @NonNull Cache<String, Object> localCache) {
+    regions.put(region, localCache);
+  }
+
+  /**
+   * 广播单个键失效
+   *
+   * @param region 区域名称
+   * @param key 键
+   */
+  public void publishEvict(@NonNull String region, @NonNull String key) {
+    publish(OP_EVICT + SEPARATOR + nodeId + SEPARATOR + region + SEPARATOR + key);
+  }
+
+  /**
+   * 批量广播键失效（Pipeline 一次往返）
+   *
+   * @param region 区域名称
+   * @param keys 键集合
+   */
+  public void publishEvict(@NonNull String region, @NonNull Collection<String> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    byte[] channel = topic.getBytes(StandardCharsets.UTF_8);
+    try (RedisConnection connection = connectionFactory.getConnection()) {
+      connection.openPipeline();
+      for (String key : keys) {
+        String payload = OP_EVICT + SEPARATOR + nodeId + SEPARATOR + region + SEPARATOR + key;
+        connection.publish(channel, payload.getBytes(StandardCharsets.UTF_8));
+      }
+      connection.closePipeline();
+    } catch (Exception e) {
+      log.warn("批量广播缓存失效消息失败, region: {}, keys: {}", region, keys, e);
+    }
+  }
+
+  /**
+   * 广播整个区域失效
+   *
+   * @param region 区域名称
+   */
+  public void publishClear(@NonNull String region) {
+    publish(OP_CLEAR + SEPARATOR + nodeId + SEPARATOR + region + SEPARATOR);
+  }
+
+  @Override
+  public void onMessage(@NonNull Message message, byte[] pattern) {
+    String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+    if (parts.length < 4 || nodeId.equals(parts[1])) {
+      return;
+    }
+    Cache<String, Object> localCache = regions.get(parts[2]);
+    if (localCache == null) {
+      return;
+    }
+    if (parts[0].charAt(0) == OP_CLEAR) {
+      localCache.invalidateAll();
+    } else {
+      localCache.invalidate(parts[3]);
+    }
+  }
+
+  private void publish(String payload) {
+    try (RedisConnection connection = connectionFactory.getConnection()) {
+      connection.publish(
+          topic.getBytes(StandardCharsets.UTF_8), payload.getBytes(StandardCharsets.UTF_8));
+    } catch (Exception e) {
+      // 广播失败不影响主流程，其他节点的 L1 条目将在 TTL 到期后自然失效
+      log.warn("广播缓存失效消息失败: {}", payload, e);
+    }
+  }
+}
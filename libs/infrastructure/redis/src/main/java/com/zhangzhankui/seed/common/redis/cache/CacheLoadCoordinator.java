@@ -0,0 +1,152 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.zhangzhankui.seed.common.core.lock.IDistributedLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+
+/**
+ * 缓存回源协调器（防缓存击穿）
+ *
+ * <p>热点 key 过期时，保证同一时刻只有一个调用方执行回源：
+ *
+ * <ul>
+ *   <li>进程内：同一 key 的并发调用共享同一个 {@link CompletableFuture}（single-flight）
+ *   <li>跨节点：通过 {@link IDistributedLock} 获取短期租约，未获得租约的节点轮询 Redis 等待新值
+ * </ul>
+ *
+ * <p>租约持有者异常退出时，租约到期自动释放；等待超时的节点自行回源，避免请求无限挂起。
+ * 分布式锁不可用时降级为仅进程内合并。
+ */
+@Slf4j
+public class CacheLoadCoordinator {
+
+  /** 回源租约 key 前缀 */
+  public static final String LEASE_PREFIX = "cache:load:";
+
+  /** 租约时长，超过后其他节点可接管回源 */
+  private static final long LEASE_MILLIS = 10_000;
+
+  /** 未获得租约时等待新值的最长时间 */
+  private static final long WAIT_MILLIS = 3_000;
+
+  /** 等待期间轮询 Redis 的间隔 */
+  private static final long POLL_MILLIS = 50;
+
+  private final IDistributedLock distributedLock;
+  private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+  public CacheLoadCoordinator(@NonNull IDistributedLock distributedLock) {
+    this.distributedLock = distributedLock;
+  }
+
+  /**
+   * 合并回源
+   *
+   * @param key 缓存 key，同时作为合并与租约的粒度
+   * @param lookup 读取缓存当前值，不存在返回 null
+   * @param loader 回源加载
+   * @param store 写入缓存
+   * @return 缓存值或回源结果
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T load(
+      @NonNull String key,
+      @NonNull Supplier<T> lookup,
+      @NonNull Supplier<T> loader,
+      @NonNull Consumer<T> store) {
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+    if (existing != null) {
+      return (T) await(existing);
+    }
+    try {
+      T value = loadWithLease(key, lookup, loader, store);
+      future.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, future);
+    }
+  }
+
+  private <T> T loadWithLease(
+      String key, Supplier<T> lookup, Supplier<T> loader, Consumer<T> store) {
+    String leaseKey = LEASE_PREFIX + key;
+    long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+    while (true) {
+      boolean leased;
+      try {
+        leased = distributedLock.tryLock(leaseKey, 0, LEASE_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (Exception e) {
+        log.warn("获取回源租约失败，降级为本地回源, key: {}", key, e);
+        return loadAndStore(lookup, loader, store);
+      }
+      if (leased) {
+        try {
+          return loadAndStore(lookup, loader, store);
+        } finally {
+          distributedLock.unlock(leaseKey);
+        }
+      }
+      // 其他节点正在回源，等待其写入新值
+      if (!sleep()) {
+        return loadAndStore(lookup, loader, store);
+      }
+      T value = lookup.get();
+      if (value != null) {
+        return value;
+      }
+      if (System.currentTimeMillis() >= deadline) {
+        log.warn("等待其他节点回源超时，自行回源, key: {}", key);
+        return loadAndStore(lookup, loader, store);
+      }
+    }
+  }
+
+  private <T> T loadAndStore(Supplier<T> lookup, Supplier<T> loader, Consumer<T> store) {
+    // 获得租约前其他节点可能已写入新值
+    T value = lookup.get();
+    if (value != null) {
+      return value;
+    }
+    value = loader.get();
+    if (value != null) {
+      store.accept(value);
+    }
+    return value;
+  }
+
+  private static Object await(CompletableFuture<Object> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private static boolean sleep() {
+    try {
+      Thread.sleep(POLL_MILLIS);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * 提前刷新的回源函数
+ *
+ * <p>注册为 Spring Bean 后，同名缓存接近过期的命中会在后台虚拟线程中调用 {@link #reload(Object)}。
+ * 调用发生在原始请求返回之后，没有请求、登录用户与事务上下文，实现只能依赖 key 计算新值，
+ * 且必须可以安全地重复执行。未注册回源函数的缓存不做提前刷新，到期后由 {@code @Cacheable} 正常回源。
+ */
+public interface CacheReloader {
+
+  /**
+   * @return 负责刷新的 Spring Cache 名称
+   */
+  @NonNull
+  String cacheName();
+
+  /**
+   * 按 key 重新计算缓存值
+   *
+   * @param key 缓存 key
+   * @return 新值，null 表示不刷新
+   * @throws Exception 回源失败，保留旧值
+   */
+  @Nullable
+  Object reload(@NonNull Object key) throws Exception;
+}
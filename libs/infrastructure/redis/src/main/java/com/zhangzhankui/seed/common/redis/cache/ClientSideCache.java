@@ -0,0 +1,267 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.zhangzhankui.seed.common.redis.config.CacheProperties;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Redis 服务端辅助的客户端缓存（RESP3 CLIENT TRACKING，BCAST 模式）
+ *
+ * <p>在一条独立的 Lettuce 连接上对配置的 key 前缀开启广播模式跟踪，任意客户端修改匹配的 key 时，
+ * Redis 都会向该连接推送 invalidate 消息。匹配前缀的读取结果保存在本地，收到失效消息前直接返回本地值。
+ *
+ * <p>读取与失效之间的竞争通过占位符解决：回源前写入唯一占位符，回源结束后仅当占位符仍在时才替换为值，
+ * 期间到达的失效消息会删除占位符，使本次结果不被缓存。跟踪连接断开期间无法收到失效消息，
+ * 此时清空本地数据并直接读取 Redis，重连后重新开启跟踪。
+ *
+ * <p>要求 Redis 6+ 且连接协商为 RESP3，仅支持单机 Lettuce 连接；条件不满足时自动退化为直接读取。
+ */
+@Slf4j
+public class ClientSideCache implements AutoCloseable {
+
+  private static final String INVALIDATE = "invalidate";
+
+  private final boolean enabled;
+  private final String[] prefixes;
+  private final Cache<String, Object> values;
+  private final Cache<String, Object> hashes;
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter invalidations;
+
+  private volatile boolean active;
+  private volatile StatefulRedisConnection<String, String> connection;
+
+  public ClientSideCache(
+      @NonNull CacheProperties.Tracking properties, @NonNull MeterRegistry meterRegistry) {
+    this.enabled = properties.isEnabled() && !properties.getPrefixes().isEmpty();
+    this.prefixes = properties.getPrefixes().toArray(new String[0]);
+    this.values = LocalCaches.create(properties.getMaximumSize(), properties.getTtl());
+    this.hashes = LocalCaches.create(properties.getMaximumSize(), properties.getTtl());
+    this.hits = Counter.builder("redis.client.cache.requests")
+        .description("Redis 客户端缓存读取次数")
+        .tag("result", "hit")
+        .register(meterRegistry);
+    this.misses = Counter.builder("redis.client.cache.requests")
+        .description("Redis 客户端缓存读取次数")
+        .tag("result", "miss")
+        .register(meterRegistry);
+    this.invalidations = Counter.builder("redis.client.cache.invalidations")
+        .description("Redis 推送的客户端缓存失效 key 数量")
+        .register(meterRegistry);
+  }
+
+  /**
+   * 建立跟踪连接并开启 CLIENT TRACKING
+   *
+   * @param connectionFactory 连接工厂，仅支持单机 Lettuce
+   */
+  public void start(@NonNull RedisConnectionFactory connectionFactory) {
+    if (!enabled) {
+      return;
+    }
+    if (!(connectionFactory instanceof LettuceConnectionFactory lettuce)
+        || !(lettuce.getNativeClient() instanceof RedisClient client)) {
+      log.warn("客户端缓存仅支持单机 Lettuce 连接，已禁用");
+      return;
+    }
+    try {
+      client.addListener(new RedisConnectionStateListener() {
+        @Override
+        public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress address) {
+          if (handler == connection) {
+            // 重连后服务端已丢失跟踪状态，需要重新开启
+            enableTracking();
+          }
+        }
+
+        @Override
+        public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+          if (handler == connection) {
+            deactivate();
+          }
+        }
+      });
+      connection = client.connect(StringCodec.UTF8);
+      connection.addListener(this::onPush);
+      connection.sync().clientTracking(trackingArgs());
+      active = true;
+      log.info("Redis 客户端缓存已开启, prefixes: {}", (Object) prefixes);
+    } catch (Exception e) {
+      // 常见原因：Redis 版本低于 6 或未协商 RESP3
+      log.warn("开启 Redis 客户端缓存失败，已禁用", e);
+      close();
+    }
+  }
+
+  /**
+   * key 是否由客户端缓存管理
+   *
+   * @param key Redis 中的实际 key
+   */
+  public boolean tracks(@NonNull String key) {
+    if (!enabled) {
+      return false;
+    }
+    for (String prefix : prefixes) {
+      if (key.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * 读取 String 值，匹配前缀的 key 优先使用本地值
+   *
+   * @param key Redis 中的实际 key
+   * @param remote 从 Redis 读取
+   * @return 值，不存在返回 null
+   */
+  public <T> T get(@NonNull String key, @NonNull Supplier<T> remote) {
+    if (!active || !tracks(key)) {
+      return remote.get();
+    }
+    return load(values.asMap(), key, remote);
+  }
+
+  /**
+   * 读取 Hash 字段，匹配前缀的 key 优先使用本地值
+   *
+   * @param key Redis 中的实际 key
+   * @param hashKey 字段
+   * @param remote 从 Redis 读取
+   * @return 值，不存在返回 null
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T hGet(@NonNull String key, @NonNull String hashKey, @NonNull Supplier<T> remote) {
+    if (!active || !tracks(key)) {
+      return remote.get();
+    }
+    Map<String, Object> fields =
+        (Map<String, Object>) hashes.get(key, k -> new ConcurrentHashMap<String, Object>());
+    return load(fields, hashKey, remote);
+  }
+
+  /**
+   * 丢弃本地值（本节点修改 key 后立即调用，不等待服务端推送）
+   *
+   * @param key Redis 中的实际 key
+   */
+  public void invalidate(@NonNull String key) {
+    values.invalidate(key);
+    hashes.invalidate(key);
+  }
+
+  /** 丢弃全部本地值 */
+  public void invalidateAll() {
+    values.invalidateAll();
+    hashes.invalidateAll();
+  }
+
+  @Override
+  public void close() {
+    active = false;
+    if (connection != null) {
+      connection.close();
+      connection = null;
+    }
+    invalidateAll();
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T load(Map<String, Object> map, String key, Supplier<T> remote) {
+    Object cached = map.get(key);
+    if (cached != null && !(cached instanceof Loading)) {
+      hits.increment();
+      return (T) cached;
+    }
+    misses.increment();
+    Loading token = new Loading();
+    boolean owner = map.putIfAbsent(key, token) == null;
+    T value = remote.get();
+    if (owner) {
+      if (value != null) {
+        map.replace(key, token, value);
+      } else {
+        map.remove(key, token);
+      }
+    }
+    return value;
+  }
+
+  private void onPush(PushMessage message) {
+    if (!INVALIDATE.equals(message.getType())) {
+      return;
+    }
+    List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+    Object keys = content.size() > 1 ? content.get(1) : null;
+    onInvalidate(keys instanceof List<?> list ? list : null);
+  }
+
+  /**
+   * 处理失效推送
+   *
+   * @param keys 失效的 key，null 表示服务端执行了 FLUSHDB/FLUSHALL
+   */
+  void onInvalidate(@Nullable List<?> keys) {
+    if (keys == null) {
+      invalidateAll();
+      return;
+    }
+    for (Object key : keys) {
+      invalidate(String.valueOf(key));
+    }
+    invalidations.increment(keys.size());
+  }
+
+  void activate() {
+    active = enabled;
+  }
+
+  private void deactivate() {
+    active = false;
+    invalidateAll();
+  }
+
+  private void enableTracking() {
+    StatefulRedisConnection<String, String> current = connection;
+    if (current == null) {
+      return;
+    }
+    invalidateAll();
+    current.async().clientTracking(trackingArgs()).whenComplete((result, error) -> {
+      if (error != null) {
+        log.warn("重新开启 Redis 客户端缓存失败", error);
+      } else {
+        activate();
+      }
+    });
+  }
+
+  private TrackingArgs trackingArgs() {
+    return TrackingArgs.Builder.enabled().bcast().prefixes(prefixes);
+  }
+
+  /** 回源中的占位符，每次回源唯一 */
+  private static final class Loading {}
+}
@@ -0,0 +1,111 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Spring Cache 的代数失效装饰器
+ *
+ * <p>缓存 key 前缀嵌入命名空间代数（见 {@link NamespaceGenerations}），{@link #clear()} 与
+ * {@link #invalidate()} 改为递增代数，不再 SCAN 整个缓存。其余操作原样委托。
+ */
+public class GenerationalCache implements Cache {
+
+  private final Cache delegate;
+  private final NamespaceGenerations generations;
+  private final String namespace;
+
+  /**
+   * @param delegate 被装饰的缓存，其 key 前缀须为 {@code generations.versionedPrefix(namespace)}
+   * @param generations 命名空间代数
+   * @param namespace 命名空间（不含代数的 key 前缀）
+   */
+  public GenerationalCache(
+      @NonNull Cache delegate,
+      @NonNull NamespaceGenerations generations,
+      @NonNull String namespace) {
+    this.delegate = delegate;
+    this.generations = generations;
+    this.namespace = namespace;
+  }
+
+  @Override
+  @NonNull
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  @NonNull
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  @Nullable
+  public ValueWrapper get(@NonNull Object key) {
+    return delegate.get(key);
+  }
+
+  @Override
+  @Nullable
+  public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+    return delegate.get(key, type);
+  }
+
+  @Override
+  @Nullable
+  public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+    return delegate.get(key, valueLoader);
+  }
+
+  @Override
+  @Nullable
+  public CompletableFuture<?> retrieve(@NonNull Object key) {
+    return delegate.retrieve(key);
+  }
+
+  @Override
+  @NonNull
+  public <T> CompletableFuture<T> retrieve(
+      @NonNull Object key, @NonNull Supplier<CompletableFuture<T>> valueLoader) {
+    return delegate.retrieve(key, valueLoader);
+  }
+
+  @Override
+  public void put(@NonNull Object key, @Nullable Object value) {
+    delegate.put(key, value);
+  }
+
+  @Override
+  @Nullable
+  public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+    return delegate.putIfAbsent(key, value);
+  }
+
+  @Override
+  public void evict(@NonNull Object key) {
+    delegate.evict(key);
+  }
+
+  @Override
+  public boolean evictIfPresent(@NonNull Object key) {
+    return delegate.evictIfPresent(key);
+  }
+
+  @Override
+  public void clear() {
+    generations.bump(namespace);
+  }
+
+  @Override
+  public boolean invalidate() {
+    generations.bump(namespace);
+    return true;
+  }
+}
@@ -0,0 +1,251 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.zhangzhankui.seed.common.redis.config.CacheProperties;
+import org.springframework.lang.NonNull;
+
+/**
+ * 热点 key 探测与本地副本
+ *
+ * <p>按采样率把读取的 key 计入 Count-Min Sketch，估算访问次数超过阈值的 key 判定为热点，
+ * 其值在本地保留一个短期副本，后续读取不再访问 Redis，避免单个分片与连接被少数 key 打满。
+ * Sketch 每个统计窗口整体减半，冷却后的 key 自动退出热点列表。
+ *
+ * <p>本节点写入、删除时同步丢弃本地副本；其他节点的修改最多在副本存活时间内不可见，
+ * 因此仅适用于允许秒级滞后的读多写少数据。
+ */
+public class HotKeyDetector {
+
+  /** Sketch 行数（哈希函数个数） */
+  private static final int DEPTH = 4;
+
+  private final boolean enabled;
+  private final Set<String> keyPrefixes;
+  private final double sampleRate;
+  private final long threshold;
+  private final long windowNanos;
+  private final int topK;
+  private final CountMinSketch sketch;
+  private final Cache<String, Object> replicas;
+  private final Map<String, Long> hotKeys = new ConcurrentHashMap<>();
+  private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+
+  public HotKeyDetector(@NonNull CacheProperties.HotKey properties) {
+    this.enabled = properties.isEnabled();
+    this.keyPrefixes = Set.copyOf(properties.getKeyPrefixes());
+    this.sampleRate = Math.min(1.0, Math.max(properties.getSampleRate(), 0.0001));
+    this.threshold = properties.getThreshold();
+    this.windowNanos = properties.getWindow().toNanos();
+    this.topK = properties.getTopK();
+    this.sketch = new CountMinSketch(properties.getSketchWidth());
+    this.replicas = LocalCaches.create(properties.getMaximumSize(), properties.getLocalTtl());
+  }
+
+  /**
+   * 读取 key，热点 key 优先使用本地副本
+   *
+   * @param key Redis 中的实际 key
+   * @param remote 从 Redis 读取
+   * @return 值，不存在返回 null
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T read(@NonNull String key, @NonNull Supplier<T> remote) {
+    if (!enabled || !matches(key)) {
+      return remote.get();
+    }
+    Object replica = replicas.getIfPresent(key);
+    if (replica != null) {
+      return (T) replica;
+    }
+    T value = remote.get();
+    if (record(key) && value != null) {
+      replicas.put(key, value);
+    }
+    return value;
+  }
+
+  /**
+   * 丢弃本地副本（本节点写入或删除 key 后调用）
+   *
+   * @param key Redis 中的实际 key
+   */
+  public void invalidate(@NonNull String key) {
+    if (enabled) {
+      replicas.invalidate(key);
+    }
+  }
+
+  /** 丢弃全部本地副本 */
+  public void invalidateAll() {
+    if (enabled) {
+      replicas.invalidateAll();
+    }
+  }
+
+  /**
+   * 当前热点 key
+   *
+   * @return 按估算访问次数降序排列
+   */
+  public List<HotKey> hotKeys() {
+    List<HotKey> result = new ArrayList<>(hotKeys.size());
+    hotKeys.forEach((key, estimate) ->
+        result.add(new HotKey(key, estimate, replicas.getIfPresent(key) != null)));
+    result.sort(Comparator.comparingLong(HotKey::estimate).reversed());
+    return result;
+  }
+
+  /**
+   * 记录一次访问
+   *
+   * @return 是否为热点 key
+   */
+  boolean record(String key) {
+    rollWindow();
+    if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+      return hotKeys.containsKey(key);
+    }
+    long estimate = (long) (sketch.increment(key) / sampleRate);
+    if (estimate < threshold) {
+      return false;
+    }
+    if (hotKeys.size() < topK || hotKeys.containsKey(key)) {
+      hotKeys.put(key, estimate);
+    }
+    return true;
+  }
+
+  private boolean matches(String key) {
+    if (keyPrefixes.isEmpty()) {
+      return true;
+    }
+    for (String prefix : keyPrefixes) {
+      if (key.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** 窗口到期时 Sketch 减半，并移除已冷却的热点 key */
+  private void rollWindow() {
+    long start = windowStart.get();
+    long now = System.nanoTime();
+    if (now - start < windowNanos || !windowStart.compareAndSet(start, now)) {
+      return;
+    }
+    sketch.halve();
+    hotKeys.replaceAll((key, estimate) -> (long) (sketch.estimate(key) / sampleRate));
+    hotKeys.values().removeIf(estimate -> estimate < threshold);
+  }
+
+  /**
+   * 热点 key
+   *
+   * @param key Redis 中的实际 key
+   * @param estimate 当前窗口估算访问次数
+   * @param replicated 是否持有本地副本
+   */
+  public record HotKey(String key, long estimate, boolean replicated) {}
+
+  /**
+   * Count-Min Sketch（线程安全，估算值只会偏大）
+   *
+   * <p>每行使用不同种子的 64 位 MurmurHash3 独立计算下标，两个 key 只在某一行碰撞时不会在其他行同时碰撞，
+   * 取各行最小值才能压低误差；若各行共用同一个 32 位 hashCode，hashCode 相同的 key 在全部行都会碰撞
+   */
+  static final class CountMinSketch {
+
+    /** 各行哈希种子 */
+    private static final long[] SEEDS = {
+      0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private static final long C1 = 0x87C37B91114253D5L;
+    private static final long C2 = 0x4CF5AD432745937FL;
+
+    private final int width;
+    private final AtomicLongArray counters;
+
+    CountMinSketch(int width) {
+      this.width = Integer.highestOneBit(Math.max(width, 16));
+      this.counters = new AtomicLongArray(DEPTH * this.width);
+    }
+
+    long increment(String key) {
+      long min = Long.MAX_VALUE;
+      for (int row = 0; row < DEPTH; row++) {
+        min = Math.min(min, counters.incrementAndGet(index(row, key)));
+      }
+      return min;
+    }
+
+    long estimate(String key) {
+      long min = Long.MAX_VALUE;
+      for (int row = 0; row < DEPTH; row++) {
+        min = Math.min(min, counters.get(index(row, key)));
+      }
+      return min;
+    }
+
+    void halve() {
+      for (int i = 0; i < counters.length(); i++) {
+        counters.getAndUpdate(i, count -> count >>> 1);
+      }
+    }
+
+    private int index(int row, String key) {
+      return row * width + (int) (hash(key, SEEDS[row]) & (width - 1));
+    }
+
+    /** MurmurHash3 x64 的 64 位变体，按 UTF-16 字符每 4 个（64 位）一块混合，不分配字节数组 */
+    static long hash(String key, long seed) {
+      long h = seed;
+      int length = key.length();
+      int blocks = length & ~3;
+      for (int i = 0; i < blocks; i += 4) {
+        long k = key.charAt(i)
+            | (long) key.charAt(i + 1) << 16
+            | (long) key.charAt(i + 2) << 32
+            | (long) key.charAt(i + 3) << 48;
+        h ^= mixK(k);
+        h = Long.rotateLeft(h, 27) * 5 + 0x52DCE729;
+      }
+      long tail = 0;
+      for (int i = length - 1; i >= blocks; i--) {
+        tail = tail << 16 | key.charAt(i);
+      }
+      if (blocks < length) {
+        h ^= mixK(tail);
+      }
+      h ^= length;
+      return fmix(h);
+    }
+
+    private static long mixK(long k) {
+      k *= C1;
+      k = Long.rotateLeft(k, 31);
+      return k * C2;
+    }
+
+    private static long fmix(long h) {
+      h ^= h >>> 33;
+      h *= 0xFF51AFD7ED558CCDL;
+      h ^= h >>> 33;
+      h *= 0xC4CEB9FE1A85EC53L;
+      h ^= h >>> 33;
+      return h;
+    }
+  }
+}
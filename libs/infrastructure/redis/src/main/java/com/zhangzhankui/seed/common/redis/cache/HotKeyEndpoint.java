@@ -0,0 +1,28 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.NonNull;
+
+/**
+ * 热点 key Actuator 端点
+ *
+ * <p>{@code GET /actuator/hotkeys} 返回当前统计窗口内的热点 key 及估算访问次数，
+ * 需在 management.endpoints.web.exposure.include 中开放
+ */
+@Endpoint(id = "hotkeys")
+public class HotKeyEndpoint {
+
+  private final HotKeyDetector hotKeyDetector;
+
+  public HotKeyEndpoint(@NonNull HotKeyDetector hotKeyDetector) {
+    this.hotKeyDetector = hotKeyDetector;
+  }
+
+  @ReadOperation
+  public List<HotKeyDetector.HotKey> hotKeys() {
+    return hotKeyDetector.hotKeys();
+  }
+}
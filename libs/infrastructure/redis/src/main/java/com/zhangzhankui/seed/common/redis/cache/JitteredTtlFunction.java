@@ -0,0 +1,55 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * 带随机抖动的缓存过期时间
+ *
+ * <p>实际过期时间在 {@code [ttl * (1 - jitter), ttl]} 之间均匀分布，避免同一批写入的条目同时过期。
+ * 值为 {@link CacheEntry} 时使用其记录的过期时刻，保证 Redis 过期时间与提前刷新的判断一致。
+ */
+public class JitteredTtlFunction implements RedisCacheWriter.TtlFunction {
+
+  private final Duration ttl;
+  private final double jitter;
+
+  /**
+   * @param ttl 基准过期时间
+   * @param jitter 抖动比例，取值 0~1，0 表示不抖动
+   */
+  public JitteredTtlFunction(@NonNull Duration ttl, double jitter) {
+    this.ttl = ttl;
+    this.jitter = Math.max(0, Math.min(1, jitter));
+  }
+
+  @Override
+  @NonNull
+  public Duration getTimeToLive(@NonNull Object key, @Nullable Object value) {
+    if (value instanceof CacheEntry entry) {
+      if (entry.getExpiresAt() == Long.MAX_VALUE) {
+        return Duration.ZERO;
+      }
+      return Duration.ofMillis(Math.max(1, entry.getExpiresAt() - System.currentTimeMillis()));
+    }
+    return next();
+  }
+
+  /**
+   * 生成一个抖动后的过期时间
+   *
+   * @return 过期时间，基准时间非正数（永不过期）时原样返回
+   */
+  public Duration next() {
+    if (jitter == 0 || ttl.isZero() || ttl.isNegative()) {
+      return ttl;
+    }
+    long millis = ttl.toMillis();
+    long reduction = (long) (millis * jitter * ThreadLocalRandom.current().nextDouble());
+    return Duration.ofMillis(millis - reduction);
+  }
+}
@@ -0,0 +1,70 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import java.time.Duration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.lang.NonNull;
+
+/**
+ * 进程内 L1 缓存工具
+ *
+ * <p>基于 Caffeine 构建按容量（W-TinyLFU）与存活时间双重淘汰的本地缓存，支持单条目自定义过期时间
+ */
+public final class LocalCaches {
+
+  private LocalCaches() {}
+
+  /**
+   * 创建本地缓存
+   *
+   * @param maximumSize 最大条目数
+   * @param ttl 默认存活时间（写入后计时）
+   * @return 本地缓存
+   */
+  public static Cache<String, Object> create(long maximumSize, @NonNull Duration ttl) {
+    long ttlNanos = ttl.toNanos();
+    return Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfter(new Expiry<String, Object>() {
+          @Override
+          public long expireAfterCreate(String key, Object value, long currentTime) {
+            return ttlNanos;
+          }
+
+          @Override
+          public long expireAfterUpdate(
+              String key, Object value, long currentTime, long currentDuration) {
+            return ttlNanos;
+          }
+
+          @Override
+          public long expireAfterRead(
+              String key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .build();
+  }
+
+  /**
+   * 写入本地缓存并指定存活时间
+   *
+   * <p>调用方应传入 L1 默认存活时间与 Redis 条目过期时间中较小者，避免 L1 条目比原始条目活得更久
+   *
+   * @param cache 本地缓存
+   * @param key 键
+   * @param value 值
+   * @param ttl 存活时间
+   */
+  public static void put(
+      @NonNull Cache<String, Object> cache,
+      @NonNull String key,
+      @NonNull Object value,
+      @NonNull Duration ttl) {
+    cache.policy().expireVariably().ifPresentOrElse(
+        policy -> policy.put(key, value, ttl),
+        () -> cache.put(key, value));
+  }
+}
@@ -0,0 +1,229 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.zhangzhankui.seed.common.redis.utils.RedisKeyScanner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.NonNull;
+import reactor.core.publisher.Mono;
+
+/**
+ * 缓存命名空间代数（generation）
+ *
+ * <p>命名空间内的 key 嵌入当前代数：{@code 命名空间 + "v" + 代数 + ":" + key}。清空命名空间只需 INCR 代数，
+ * 旧代数的 key 不再被访问，O(1) 完成失效；旧 key 随后在后台通过 SCAN + UNLINK 回收。
+ * 代数 0（从未清空）沿用不带代数的原始前缀，启用代数前写入的 key 与未升级的节点仍读写同一个 key。
+ *
+ * <p>代数保存在 Redis（{@code cache:gen:命名空间}），本地按刷新间隔缓存，避免每次访问都多一次往返。
+ * 其他节点递增代数后，本节点最多在一个刷新间隔内仍读写旧代数。
+ *
+ * <p>{@link #versionedKeyAsync} 供非阻塞调用方使用：本地缓存过期时经 {@link ReactiveStringRedisTemplate} 读取，
+ * 同一命名空间并发的读取共用一次请求，与同步读取共享同一份本地缓存。
+ */
+@Slf4j
+public class NamespaceGenerations {
+
+  /** 代数计数器 key 前缀 */
+  private static final String KEY_PREFIX = "cache:gen:";
+
+  private final StringRedisTemplate redisTemplate;
+  private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+  private final RedisKeyScanner keyScanner;
+  private final long refreshNanos;
+  private final Executor reclaimExecutor;
+  private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+  private final Map<String, Mono<Long>> loading = new ConcurrentHashMap<>();
+
+  /**
+   * @param redisTemplate Redis 模板
+   * @param reactiveRedisTemplate 非阻塞读取代数使用的模板
+   * @param keyScanner 回收旧代数使用的批量删除
+   * @param refreshInterval 本地缓存代数的刷新间隔，决定节点间失效的最大延迟
+   */
+  public NamespaceGenerations(
+      @NonNull StringRedisTemplate redisTemplate,
+      @NonNull ReactiveStringRedisTemplate reactiveRedisTemplate,
+      @NonNull RedisKeyScanner keyScanner,
+      @NonNull Duration refreshInterval) {
+    this(redisTemplate, reactiveRedisTemplate, keyScanner, refreshInterval,
+        task -> Thread.ofVirtual().name("cache-reclaim").start(task));
+  }
+
+  NamespaceGenerations(
+      StringRedisTemplate redisTemplate,
+      ReactiveStringRedisTemplate reactiveRedisTemplate,
+      RedisKeyScanner keyScanner,
+      Duration refreshInterval,
+      Executor reclaimExecutor) {
+    this.redisTemplate = redisTemplate;
+    this.reactiveRedisTemplate = reactiveRedisTemplate;
+    this.keyScanner = keyScanner;
+    this.refreshNanos = refreshInterval.toNanos();
+    this.reclaimExecutor = reclaimExecutor;
+  }
+
+  /**
+   * 获取命名空间当前代数
+   *
+   * @param namespace 命名空间
+   * @return 当前代数，从未清空过为 0
+   */
+  public long current(@NonNull String namespace) {
+    long now = System.nanoTime();
+    Snapshot snapshot = snapshots.get(namespace);
+    if (snapshot != null && now - snapshot.loadedAt() < refreshNanos) {
+      return snapshot.generation();
+    }
+    long generation = load(namespace, snapshot);
+    snapshots.put(namespace, new Snapshot(generation, now));
+    return generation;
+  }
+
+  /**
+   * 获取带当前代数的 key 前缀
+   *
+   * @param namespace 命名空间
+   * @return 如 {@code sys:dept:v3:}，代数为 0 时为 {@code sys:dept:}
+   */
+  public String versionedPrefix(@NonNull String namespace) {
+    return versionedPrefix(namespace, current(namespace));
+  }
+
+  /**
+   * 将命名空间内的 key 替换为带当前代数的实际 key
+   *
+   * @param key 逻辑 key
+   * @param namespaces 启用代数的命名空间
+   * @return 如 {@code sys:dept:1} 替换为 {@code sys:dept:v3:1}，不在命名空间内的 key 原样返回
+   */
+  public String versionedKey(@NonNull String key, @NonNull Collection<String> namespaces) {
+    for (String namespace : namespaces) {
+      if (key.startsWith(namespace)) {
+        return versionedPrefix(namespace) + key.substring(namespace.length());
+      }
+    }
+    return key;
+  }
+
+  /**
+   * 非阻塞获取命名空间当前代数
+   *
+   * @param namespace 命名空间
+   * @return 当前代数，本地缓存未过期时不访问 Redis
+   */
+  public Mono<Long> currentAsync(@NonNull String namespace) {
+    return Mono.defer(() -> {
+      Snapshot snapshot = snapshots.get(namespace);
+      if (snapshot != null && System.nanoTime() - snapshot.loadedAt() < refreshNanos) {
+        return Mono.just(snapshot.generation());
+      }
+      return loading.computeIfAbsent(namespace, ns -> loadAsync(ns, snapshot));
+    });
+  }
+
+  /**
+   * 非阻塞地将命名空间内的 key 替换为带当前代数的实际 key
+   *
+   * @param key 逻辑 key
+   * @param namespaces 启用代数的命名空间
+   * @return 实际 key，不在命名空间内的 key 原样返回且不访问 Redis
+   */
+  public Mono<String> versionedKeyAsync(
+      @NonNull String key, @NonNull Collection<String> namespaces) {
+    for (String namespace : namespaces) {
+      if (key.startsWith(namespace)) {
+        return currentAsync(namespace).map(
+            generation -> versionedPrefix(namespace, generation) + key.substring(namespace.length()));
+      }
+    }
+    return Mono.just(key);
+  }
+
+  /**
+   * 递增代数使命名空间整体失效，并在后台回收上一代的 key
+   *
+   * @param namespace 命名空间
+   * @return 递增后的代数
+   */
+  public long bump(@NonNull String namespace) {
+    Long next = redisTemplate.opsForValue().increment(KEY_PREFIX + namespace);
+    long generation = next != null ? next : current(namespace) + 1;
+    snapshots.put(namespace, new Snapshot(generation, System.nanoTime()));
+    long stale = generation - 1;
+    reclaimExecutor.execute(() -> reclaim(namespace, stale));
+    return generation;
+  }
+
+  private long load(String namespace, Snapshot previous) {
+    try {
+      String value = redisTemplate.opsForValue().get(KEY_PREFIX + namespace);
+      return value != null ? Long.parseLong(value) : 0L;
+    } catch (Exception e) {
+      // Redis 不可用时沿用上次的代数，后续访问本身也会失败并由调用方降级
+      log.warn("读取缓存代数失败, namespace: {}", namespace, e);
+      return previous != null ? previous.generation() : 0L;
+    }
+  }
+
+  /** 读取结果写入本地缓存后移除进行中的请求，之后的调用方直接使用本地缓存 */
+  private Mono<Long> loadAsync(String namespace, Snapshot previous) {
+    return reactiveRedisTemplate.opsForValue().get(KEY_PREFIX + namespace)
+        .map(Long::parseLong)
+        .defaultIfEmpty(0L)
+        .onErrorResume(e -> {
+          log.warn("读取缓存代数失败, namespace: {}", namespace, e);
+          return Mono.just(previous != null ? previous.generation() : 0L);
+        })
+        .doOnNext(generation ->
+            snapshots.put(namespace, new Snapshot(generation, System.nanoTime())))
+        .doFinally(signal -> loading.remove(namespace))
+        .cache();
+  }
+
+  private void reclaim(String namespace, long generation) {
+    String pattern = escape(versionedPrefix(namespace, generation)) + "*";
+    try {
+      long reclaimed;
+      if (generation == 0) {
+        // 代数 0 的前缀即命名空间本身，匹配结果包含新代数的 key，需要排除
+        Pattern versioned = Pattern.compile(Pattern.quote(namespace) + "v\\d+:.*", Pattern.DOTALL);
+        try (Stream<String> keys = keyScanner.scan(pattern)) {
+          reclaimed = keyScanner.unlink(
+              keys.filter(key -> !versioned.matcher(key).matches()).iterator(), null);
+        }
+      } else {
+        reclaimed = keyScanner.unlink(pattern, null);
+      }
+      log.debug("回收旧代数缓存完成, pattern: {}, count: {}", pattern, reclaimed);
+    } catch (Exception e) {
+      // 回收失败不影响正确性，旧 key 已不可达，带过期时间的条目会自然清除
+      log.warn("回收旧代数缓存失败, pattern: {}", pattern, e);
+    }
+  }
+
+  private static String versionedPrefix(String namespace, long generation) {
+    return generation == 0 ? namespace : namespace + "v" + generation + ":";
+  }
+
+  /** 转义 glob 特殊字符，使命名空间按字面匹配 */
+  static String escape(String literal) {
+    StringBuilder builder = new StringBuilder(literal.length());
+    for (char c : literal.toCharArray()) {
+      if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+        builder.append('\\');
+      }
+      builder.append(c);
+    }
+    return builder.toString();
+  }
+
+  private record Snapshot(long generation, long loadedAt) {}
+}
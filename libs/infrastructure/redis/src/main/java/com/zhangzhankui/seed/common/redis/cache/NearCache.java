@@ -0,0 +1,204 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Spring Cache 的两级近端缓存装饰器
+ *
+ * <p>在 {@code RedisCache} 之前加一层进程内 L1，命中时无网络往返与反序列化开销。
+ * 写入与失效会同步广播到 {@link CacheInvalidationBus}，保证各节点 L1 最终一致。
+ *
+ * <p>L1 以 {@code String.valueOf(key)} 作为键，与 {@code RedisCache} 对简单类型 key 的转换方式一致。
+ */
+public class NearCache implements org.springframework.cache.Cache {
+
+  private final org.springframework.cache.Cache delegate;
+  private final CacheInvalidationBus invalidationBus;
+  private final Cache<String, Object> localCache;
+  private final Duration localTtl;
+
+  public NearCache(
+      @NonNull org.springframework.cache.Cache delegate,
+      @NonNull CacheInvalidationBus invalidationBus,
+      long maximumSize,
+      @NonNull Duration localTtl) {
+    this.delegate = delegate;
+    this.invalidationBus = invalidationBus;
+    this.localTtl = localTtl;
+    this.localCache = LocalCaches.create(maximumSize, localTtl);
+    invalidationBus.register(delegate.getName(), localCache);
+  }
+
+  @Override
+  @NonNull
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  @NonNull
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  @Nullable
+  public ValueWrapper get(@NonNull Object key) {
+    String localKey = localKey(key);
+    Object local = localCache.getIfPresent(localKey);
+    if (local != null) {
+      return new SimpleValueWrapper(fromStore(local));
+    }
+    ValueWrapper wrapper = delegate.get(key);
+    if (wrapper != null) {
+      storeLocal(localKey, wrapper.get());
+    }
+    return wrapper;
+  }
+
+  @Override
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+    ValueWrapper wrapper = get(key);
+    Object value = wrapper != null ? wrapper.get() : null;
+    if (value != null && type != null && !type.isInstance(value)) {
+      throw new IllegalStateException(
+          "Cached value is not of required type [" + type.getName() + "]: " + value);
+    }
+    return (T) value;
+  }
+
+  @Override
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+    String localKey = localKey(key);
+    Object local = localCache.getIfPresent(localKey);
+    if (local != null) {
+      return (T) fromStore(local);
+    }
+    T value = delegate.get(key, valueLoader);
+    storeLocal(localKey, value);
+    return value;
+  }
+
+  @Override
+  @Nullable
+  public CompletableFuture<?> retrieve(@NonNull Object key) {
+    String localKey = localKey(key);
+    Object local = localCache.getIfPresent(localKey);
+    if (local != null) {
+      return CompletableFuture.completedFuture(fromStore(local));
+    }
+    CompletableFuture<?> future = delegate.retrieve(key);
+    return future != null ? future.thenApply(value -> {
+      if (value != null) {
+        storeLocal(localKey, unwrap(value));
+      }
+      return value;
+    }) : null;
+  }
+
+  @Override
+  @NonNull
+  @SuppressWarnings("unchecked")
+  public <T> CompletableFuture<T> retrieve(
+      @NonNull Object key, @NonNull Supplier<CompletableFuture<T>> valueLoader) {
+    String localKey = localKey(key);
+    Object local = localCache.getIfPresent(localKey);
+    if (local != null) {
+      return CompletableFuture.completedFuture((T) fromStore(local));
+    }
+    return delegate.retrieve(key, valueLoader).thenApply(value -> {
+      storeLocal(localKey, value);
+      return value;
+    });
+  }
+
+  @Override
+  public void put(@NonNull Object key, @Nullable Object value) {
+    delegate.put(key, value);
+    String localKey = localKey(key);
+    storeLocal(localKey, value);
+    invalidationBus.publishEvict(getName(), localKey);
+  }
+
+  @Override
+  @Nullable
+  public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+    ValueWrapper existing = delegate.putIfAbsent(key, value);
+    String localKey = localKey(key);
+    if (existing == null) {
+      storeLocal(localKey, value);
+      invalidationBus.publishEvict(getName(), localKey);
+    } else {
+      storeLocal(localKey, existing.get());
+    }
+    return existing;
+  }
+
+  @Override
+  public void evict(@NonNull Object key) {
+    delegate.evict(key);
+    evictLocal(key);
+  }
+
+  @Override
+  public boolean evictIfPresent(@NonNull Object key) {
+    boolean evicted = delegate.evictIfPresent(key);
+    evictLocal(key);
+    return evicted;
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+    clearLocal();
+  }
+
+  @Override
+  public boolean invalidate() {
+    boolean invalidated = delegate.invalidate();
+    clearLocal();
+    return invalidated;
+  }
+
+  private void storeLocal(String localKey, @Nullable Object value) {
+    LocalCaches.put(localCache, localKey, value != null ? value : NullValue.INSTANCE, localTtl);
+  }
+
+  private void evictLocal(Object key) {
+    String localKey = localKey(key);
+    localCache.invalidate(localKey);
+    invalidationBus.publishEvict(getName(), localKey);
+  }
+
+  private void clearLocal() {
+    localCache.invalidateAll();
+    invalidationBus.publishClear(getName());
+  }
+
+  private static String localKey(Object key) {
+    return String.valueOf(key);
+  }
+
+  @Nullable
+  private static Object fromStore(Object stored) {
+    return stored == NullValue.INSTANCE ? null : stored;
+  }
+
+  @Nullable
+  private static Object unwrap(@Nullable Object value) {
+    return value instanceof ValueWrapper wrapper ? wrapper.get() : value;
+  }
+}
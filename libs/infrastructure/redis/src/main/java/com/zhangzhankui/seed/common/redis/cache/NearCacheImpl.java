@@ -0,0 +1,261 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.zhangzhankui.seed.common.core.cache.ICache;
+import org.springframework.lang.NonNull;
+
+/**
+ * 两级近端缓存（进程内 L1 + Redis L2）
+ *
+ * <p>读取先查 L1，未命中再回源 Redis 并回填 L1；写入、删除、修改过期时间时同步更新 L1，
+ * 并通过 {@link CacheInvalidationBus} 通知其他节点丢弃旧值。
+ *
+ * <p>仅 key 以配置前缀开头的条目进入 L1，其余操作直接透传给 {@link RedisCacheImpl}。
+ * L1 条目的存活时间不超过配置值，也不超过写入时指定的 Redis 过期时间。
+ */
+public class NearCacheImpl implements ICache<String, Object> {
+
+  /** {@code ICache} 在失效总线上的区域名称 */
+  public static final String REGION = "ICache";
+
+  private final RedisCacheImpl redisCache;
+  private final CacheInvalidationBus invalidationBus;
+  private final Cache<String, Object> localCache;
+  private final Set<String> keyPrefixes;
+  private final Duration localTtl;
+
+  public NearCacheImpl(
+      @NonNull RedisCacheImpl redisCache,
+      @NonNull CacheInvalidationBus invalidationBus,
+      @NonNull Set<String> keyPrefixes,
+      long maximumSize,
+      @NonNull Duration localTtl) {
+    this.redisCache = redisCache;
+    this.invalidationBus = invalidationBus;
+    this.keyPrefixes = Set.copyOf(keyPrefixes);
+    this.localTtl = localTtl;
+    this.localCache = LocalCaches.create(maximumSize, localTtl);
+    invalidationBus.register(REGION, localCache);
+  }
+
+  @Override
+  public Object get(@NonNull String key) {
+    if (!isNear(key)) {
+      return redisCache.get(key);
+    }
+    Object value = localCache.getIfPresent(key);
+    if (value != null) {
+      return value;
+    }
+    value = redisCache.get(key);
+    if (value != null) {
+      localCache.put(key, value);
+    }
+    return value;
+  }
+
+  @Override
+  public Object get(
+      @NonNull String key,
+      @NonNull Supplier<?> loader,
+      long timeout,
+      @NonNull TimeUnit timeUnit) {
+    if (!isNear(key)) {
+      return redisCache.get(key, loader, timeout, timeUnit);
+    }
+    Object value = localCache.getIfPresent(key);
+    if (value != null) {
+      return value;
+    }
+    value = redisCache.get(key, loader, timeout, timeUnit);
+    if (value != null) {
+      Duration ttl = min(localTtl, Duration.ofNanos(timeUnit.toNanos(timeout)));
+      LocalCaches.put(localCache, key, value, ttl);
+    }
+    return value;
+  }
+
+  @Override
+  public Map<String, Object> getAll(@NonNull Collection<String> keys) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    List<String> misses = new ArrayList<>();
+    for (String key : keys) {
+      Object value = isNear(key) ? localCache.getIfPresent(key) : null;
+      if (value != null) {
+        result.put(key, value);
+      } else {
+        misses.add(key);
+      }
+    }
+    if (!misses.isEmpty()) {
+      Map<String, Object> loaded = redisCache.getAll(misses);
+      loaded.forEach((key, value) -> {
+        if (isNear(key)) {
+          localCache.put(key, value);
+        }
+      });
+      result.putAll(loaded);
+    }
+    return result;
+  }
+
+  @Override
+  public void put(@NonNull String key, Object value) {
+    redisCache.put(key, value);
+    if (isNear(key)) {
+      refreshLocal(key, value, localTtl);
+    }
+  }
+
+  @Override
+  public void put(@NonNull String key, Object value, long timeout, @NonNull TimeUnit timeUnit) {
+    redisCache.put(key, value, timeout, timeUnit);
+    if (isNear(key)) {
+      refreshLocal(key, value, min(localTtl, Duration.ofNanos(timeUnit.toNanos(timeout))));
+    }
+  }
+
+  @Override
+  public void putAll(
+      @NonNull Map<String, Object> map, long timeout, @NonNull TimeUnit timeUnit) {
+    redisCache.putAll(map, timeout, timeUnit);
+    Duration ttl = min(localTtl, Duration.ofNanos(timeUnit.toNanos(timeout)));
+    List<String> nearKeys = new ArrayList<>();
+    map.forEach((key, value) -> {
+      if (isNear(key)) {
+        if (value == null) {
+          localCache.invalidate(key);
+        } else {
+          LocalCaches.put(localCache, key, value, ttl);
+        }
+        nearKeys.add(key);
+      }
+    });
+    invalidationBus.publishEvict(REGION, nearKeys);
+  }
+
+  @Override
+  public boolean putIfAbsent(@NonNull String key, Object value) {
+    boolean success = redisCache.putIfAbsent(key, value);
+    if (success && isNear(key)) {
+      refreshLocal(key, value, localTtl);
+    }
+    return success;
+  }
+
+  @Override
+  public boolean putIfAbsent(
+      @NonNull String key, Object value, long timeout, @NonNull TimeUnit timeUnit) {
+    boolean success = redisCache.putIfAbsent(key, value, timeout, timeUnit);
+    if (success && isNear(key)) {
+      refreshLocal(key, value, min(localTtl, Duration.ofNanos(timeUnit.toNanos(timeout))));
+    }
+    return success;
+  }
+
+  @Override
+  public boolean remove(@NonNull String key) {
+    boolean removed = redisCache.remove(key);
+    evictLocal(key);
+    return removed;
+  }
+
+  @Override
+  public long remove(@NonNull Collection<String> keys) {
+    long removed = redisCache.remove(keys);
+    List<String> nearKeys = keys.stream().filter(this::isNear).toList();
+    localCache.invalidateAll(nearKeys);
+    invalidationBus.publishEvict(REGION, nearKeys);
+    return removed;
+  }
+
+  @Override
+  public boolean containsKey(@NonNull String key) {
+    if (isNear(key) && localCache.getIfPresent(key) != null) {
+      return true;
+    }
+    return redisCache.containsKey(key);
+  }
+
+  @Override
+  public boolean containsAll(@NonNull Collection<String> keys) {
+    return redisCache.containsAll(keys);
+  }
+
+  @Override
+  public boolean expire(@NonNull String key, long timeout, @NonNull TimeUnit timeUnit) {
+    boolean success = redisCache.expire(key, timeout, timeUnit);
+    evictLocal(key);
+    return success;
+  }
+
+  @Override
+  public long getExpire(@NonNull String key, @NonNull TimeUnit timeUnit) {
+    return redisCache.getExpire(key, timeUnit);
+  }
+
+  @Override
+  public void clear() {
+    redisCache.clear();
+    localCache.invalidateAll();
+    invalidationBus.publishClear(REGION);
+  }
+
+  /**
+   * 清空命名空间
+   *
+   * <p>Redis 侧递增代数，本节点丢弃该前缀的 L1 条目，其他节点整体丢弃 L1
+   *
+   * @param namespace 命名空间
+   * @see RedisCacheImpl#clearNamespace(String)
+   */
+  public void clearNamespace(@NonNull String namespace) {
+    redisCache.clearNamespace(namespace);
+    localCache.asMap().keySet().removeIf(key -> key.startsWith(namespace));
+    invalidationBus.publishClear(REGION);
+  }
+
+  @Override
+  public long size() {
+    return redisCache.size();
+  }
+
+  private boolean isNear(String key) {
+    for (String prefix : keyPrefixes) {
+      if (key.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void refreshLocal(String key, Object value, Duration ttl) {
+    if (value == null) {
+      localCache.invalidate(key);
+    } else {
+      LocalCaches.put(localCache, key, value, ttl);
+    }
+    invalidationBus.publishEvict(REGION, key);
+  }
+
+  private void evictLocal(String key) {
+    if (isNear(key)) {
+      localCache.invalidate(key);
+      invalidationBus.publishEvict(REGION, key);
+    }
+  }
+
+  private static Duration min(Duration a, Duration b) {
+    return a.compareTo(b) <= 0 ? a : b;
+  }
+}
@@ -0,0 +1,234 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import com.zhangzhankui.seed.common.core.cache.AsyncCache;
+import com.zhangzhankui.seed.common.redis.config.CacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.lang.NonNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * AsyncCache 接口的 Redis 实现
+ *
+ * <p>基于 {@link ReactiveRedisTemplate}（Lettuce 非阻塞命令），与 {@link RedisCacheImpl}
+ * 使用相同的序列化格式与命名空间代数，两者读写的是同一份数据。
+ *
+ * <p>与 {@link RedisCacheImpl} 一致，Redis 异常时记录日志并以默认值完成，不向调用方抛出。
+ * 写入与删除会同步丢弃本实例的热点副本与客户端缓存。
+ * 命名空间代数在订阅时经 {@link NamespaceGenerations#versionedKeyAsync} 解析，
+ * 本地缓存过期时以非阻塞命令从 Redis 读取，不会在调用线程（包括 Reactor 事件循环）上阻塞。
+ */
+@Slf4j
+public class ReactiveRedisCacheImpl implements AsyncCache<String, Object> {
+
+  private final ReactiveRedisTemplate<String, Object> redisTemplate;
+  private final NamespaceGenerations namespaceGenerations;
+  private final CacheProperties cacheProperties;
+  private final HotKeyDetector hotKeyDetector;
+  private final ClientSideCache clientSideCache;
+
+  public ReactiveRedisCacheImpl(
+      @NonNull ReactiveRedisTemplate<String, Object> redisTemplate,
+      @NonNull NamespaceGenerations namespaceGenerations,
+      @NonNull CacheProperties cacheProperties,
+      @NonNull HotKeyDetector hotKeyDetector,
+      @NonNull ClientSideCache clientSideCache) {
+    this.redisTemplate = redisTemplate;
+    this.namespaceGenerations = namespaceGenerations;
+    this.cacheProperties = cacheProperties;
+    this.hotKeyDetector = hotKeyDetector;
+    this.clientSideCache = clientSideCache;
+  }
+
+  @Override
+  public CompletionStage<Object> get(@NonNull String key) {
+    return versioned(key)
+        .flatMap(redisKey -> redisTemplate.opsForValue().get(redisKey))
+        .onErrorResume(e -> {
+          log.error("获取缓存失败, key: {}", key, e);
+          return Mono.empty();
+        })
+        .toFuture();
+  }
+
+  /** 使用 MGET 一次往返获取全部值 */
+  @Override
+  public CompletionStage<Map<String, Object>> getAll(@NonNull Collection<String> keys) {
+    List<String> keyList = new ArrayList<>(keys);
+    if (keyList.isEmpty()) {
+      return CompletableFuture.completedFuture(new LinkedHashMap<>());
+    }
+    return versioned(keyList)
+        .flatMap(redisKeys -> redisTemplate.opsForValue().multiGet(redisKeys))
+        .map(values -> {
+          Map<String, Object> result = new LinkedHashMap<>();
+          for (int i = 0; i < keyList.size(); i++) {
+            Object value = values.get(i);
+            if (value != null) {
+              result.put(keyList.get(i), value);
+            }
+          }
+          return result;
+        })
+        .onErrorResume(e -> {
+          log.error("批量获取缓存失败, keys: {}", keys, e);
+          return Mono.just(new LinkedHashMap<>());
+        })
+        .toFuture();
+  }
+
+  @Override
+  public CompletionStage<Void> put(@NonNull String key, Object value) {
+    return versioned(key)
+        .flatMap(redisKey -> redisTemplate.opsForValue().set(redisKey, value)
+            .doOnSuccess(ignored -> evictLocal(redisKey)))
+        .onErrorResume(e -> {
+          log.error("设置缓存失败, key: {}", key, e);
+          return Mono.empty();
+        })
+        .then()
+        .toFuture();
+  }
+
+  @Override
+  public CompletionStage<Void> put(
+      @NonNull String key, Object value, long timeout, @NonNull TimeUnit timeUnit) {
+    return versioned(key)
+        .flatMap(redisKey -> redisTemplate.opsForValue()
+            .set(redisKey, value, toDuration(timeout, timeUnit))
+            .doOnSuccess(ignored -> evictLocal(redisKey)))
+        .onErrorResume(e -> {
+          log.error("设置缓存失败, key: {}, timeout: {}", key, timeout, e);
+          return Mono.empty();
+        })
+        .then()
+        .toFuture();
+  }
+
+  @Override
+  public CompletionStage<Boolean> putIfAbsent(
+      @NonNull String key, Object value, long timeout, @NonNull TimeUnit timeUnit) {
+    return versioned(key)
+        .flatMap(redisKey -> redisTemplate.opsForValue()
+            .setIfAbsent(redisKey, value, toDuration(timeout, timeUnit)))
+        .onErrorResume(e -> {
+          log.error("设置缓存失败, key: {}", key, e);
+          return Mono.just(false);
+        })
+        .toFuture();
+  }
+
+  @Override
+  public CompletionStage<Boolean> remove(@NonNull String key) {
+    return versioned(key)
+        .flatMap(redisKey -> {
+          evictLocal(redisKey);
+          return redisTemplate.delete(redisKey);
+        })
+        .map(deleted -> deleted > 0)
+        .onErrorResume(e -> {
+          log.error("删除缓存失败, key: {}", key, e);
+          return Mono.just(false);
+        })
+        .toFuture();
+  }
+
+  @Override
+  public CompletionStage<Long> remove(@NonNull Collection<String> keys) {
+    if (keys.isEmpty()) {
+      return CompletableFuture.completedFuture(0L);
+    }
+    return versioned(keys)
+        .flatMap(redisKeys -> {
+          redisKeys.forEach(this::evictLocal);
+          return redisTemplate.delete(Flux.fromIterable(redisKeys));
+        })
+        .onErrorResume(e -> {
+          log.error("批量删除缓存失败, keys: {}", keys, e);
+          return Mono.just(0L);
+        })
+        .toFuture();
+  }
+
+  @Override
+  public CompletionStage<Boolean> containsKey(@NonNull String key) {
+    return versioned(key)
+        .flatMap(redisTemplate::hasKey)
+        .onErrorResume(e -> {
+          log.error("检查缓存存在失败, key: {}", key, e);
+          return Mono.just(false);
+        })
+        .toFuture();
+  }
+
+  @Override
+  public CompletionStage<Boolean> expire(
+      @NonNull String key, long timeout, @NonNull TimeUnit timeUnit) {
+    return versioned(key)
+        .flatMap(redisKey -> {
+          evictLocal(redisKey);
+          return redisTemplate.expire(redisKey, toDuration(timeout, timeUnit));
+        })
+        .onErrorResume(e -> {
+          log.error("设置过期时间失败, key: {}", key, e);
+          return Mono.just(false);
+        })
+        .toFuture();
+  }
+
+  @Override
+  public CompletionStage<Long> getExpire(@NonNull String key, @NonNull TimeUnit timeUnit) {
+    // 不存在的 key 完成为空，永不过期的 key 返回 Duration.ZERO
+    return versioned(key)
+        .flatMap(redisTemplate::getExpire)
+        .map(ttl -> ttl.isZero() ? -1L : timeUnit.convert(ttl))
+        .defaultIfEmpty(-2L)
+        .onErrorResume(e -> {
+          log.error("获取过期时间失败, key: {}", key, e);
+          return Mono.just(-2L);
+        })
+        .toFuture();
+  }
+
+  @Override
+  public CompletionStage<Long> increment(@NonNull String key, long delta) {
+    return versioned(key)
+        .flatMap(redisKey -> redisTemplate.opsForValue().increment(redisKey, delta)
+            .doOnSuccess(ignored -> evictLocal(redisKey)))
+        .onErrorResume(e -> {
+          log.error("递增操作失败, key: {}", key, e);
+          return Mono.just(0L);
+        })
+        .toFuture();
+  }
+
+  private void evictLocal(String redisKey) {
+    hotKeyDetector.invalidate(redisKey);
+    clientSideCache.invalidate(redisKey);
+  }
+
+  /** 在订阅时解析带代数的 key，代数需要从 Redis 读取时不阻塞调用线程 */
+  private Mono<String> versioned(String key) {
+    return Mono.defer(() -> namespaceGenerations.versionedKeyAsync(
+        key, cacheProperties.getGeneration().getNamespaces()));
+  }
+
+  private Mono<List<String>> versioned(Collection<String> keys) {
+    return Flux.fromIterable(keys).concatMap(this::versioned).collectList();
+  }
+
+  private static Duration toDuration(long timeout, TimeUnit timeUnit) {
+    return Duration.ofNanos(timeUnit.toNanos(timeout));
+  }
+}
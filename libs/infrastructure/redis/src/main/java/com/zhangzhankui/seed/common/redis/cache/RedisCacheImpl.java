@@ -1,24 +1,44 @@
 package com.zhangzhankui.seed.common.redis.cache;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import com.zhangzhankui.seed.common.core.cache.ICache;
+import com.zhangzhankui.seed.common.redis.config.CacheProperties;
+import com.zhangzhankui.seed.common.redis.utils.RedisKeyScanner;
+import com.zhangzhankui.seed.common.redis.utils.SlotBatchExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.connection.RedisConnection;
-import org.springframework.data.redis.core.Cursor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
 /**
  * ICache 接口的 Redis 实现
  *
  * <p>基于 Spring Data Redis 实现统一缓存接口，支持泛型操作
+ *
+ * <p>key 以 seed.cache.generation.namespaces 中的前缀开头时，实际 key 嵌入命名空间代数
+ * （如 {@code sys:dept:1} 存储为 {@code sys:dept:v3:1}），可通过 {@link #clearNamespace} 整体失效
+ *
+ * <p>启用 seed.cache.hot-key 时，{@link #get(String)} 经 {@link HotKeyDetector} 计数，
+ * 热点 key 从本地副本读取；启用 seed.cache.tracking 时，跟踪前缀下的 key 由 {@link ClientSideCache}
+ * 缓存在本地并由 Redis 推送失效。本实例的写入与删除会同步丢弃本地值
  */
 @Slf4j
 @Component
@@ -26,21 +46,80 @@ import org.springframework.stereotype.Component;
 public class RedisCacheImpl implements ICache<String, Object> {
 
   private final RedisTemplate<String, Object> redisTemplate;
+  private final CacheLoadCoordinator loadCoordinator;
+  private final NamespaceGenerations namespaceGenerations;
+  private final RedisKeyScanner keyScanner;
+  private final CacheProperties cacheProperties;
+  private final HotKeyDetector hotKeyDetector;
+  private final ClientSideCache clientSideCache;
+  private final SlotBatchExecutor slotBatchExecutor;
 
   @Override
   public Object get(@NonNull String key) {
     try {
-      return redisTemplate.opsForValue().get(key);
+      String redisKey = versioned(key);
+      Supplier<Object> remote = () -> redisTemplate.opsForValue().get(redisKey);
+      return clientSideCache.tracks(redisKey)
+          ? clientSideCache.get(redisKey, remote)
+          : hotKeyDetector.read(redisKey, remote);
     } catch (Exception e) {
       log.error("获取缓存失败, key: {}", key, e);
       return null;
     }
   }
 
+  /** 同一 key 进程内合并回源，跨节点通过分布式租约保证只有一个节点回源 */
+  @Override
+  public Object get(
+      @NonNull String key,
+      @NonNull Supplier<?> loader,
+      long timeout,
+      @NonNull TimeUnit timeUnit) {
+    Object value = get(key);
+    if (value != null) {
+      return value;
+    }
+    return loadCoordinator.load(
+        key, () -> get(key), loader::get, loaded -> put(key, loaded, timeout, timeUnit));
+  }
+
+  /** 使用 MGET 获取全部值，单机一次往返，Cluster 每个主节点一次 Pipeline 往返 */
+  @Override
+  public Map<String, Object> getAll(@NonNull Collection<String> keys) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    if (keys.isEmpty()) {
+      return result;
+    }
+    try {
+      Map<String, String> originalKeys = new LinkedHashMap<>();
+      for (String key : keys) {
+        originalKeys.put(versioned(key), key);
+      }
+      // Cluster 模式下每个槽位一条 MGET，同一主节点的 MGET 合并为一次 Pipeline
+      Map<String, Object> found = new HashMap<>();
+      slotBatchExecutor.execute(
+          redisTemplate,
+          originalKeys.keySet(),
+          (ops, group) -> ops.opsForValue().multiGet(group),
+          (group, values) -> collect(group, values, found));
+      originalKeys.forEach((redisKey, key) -> {
+        Object value = found.get(redisKey);
+        if (value != null) {
+          result.put(key, value);
+        }
+      });
+    } catch (Exception e) {
+      log.error("批量获取缓存失败, keys: {}", keys, e);
+    }
+    return result;
+  }
+
   @Override
   public void put(@NonNull String key, Object value) {
     try {
-      redisTemplate.opsForValue().set(key, value);
+      String redisKey = versioned(key);
+      redisTemplate.opsForValue().set(redisKey, value);
+      evictLocal(redisKey);
     } catch (Exception e) {
       log.error("设置缓存失败, key: {}", key, e);
     }
@@ -49,16 +128,43 @@ public class RedisCacheImpl implements ICache<String, Object> {
   @Override
   public void put(@NonNull String key, Object value, long timeout, @NonNull TimeUnit timeUnit) {
     try {
-      redisTemplate.opsForValue().set(key, value, timeout, timeUnit);
+      String redisKey = versioned(key);
+      redisTemplate.opsForValue().set(redisKey, value, timeout, timeUnit);
+      evictLocal(redisKey);
     } catch (Exception e) {
       log.error("设置缓存失败, key: {}, timeout: {}", key, timeout, e);
     }
   }
 
+  /** 使用 Pipeline 批量执行 SET EX，一次往返写入全部值 */
+  @Override
+  public void putAll(
+      @NonNull Map<String, Object> map, long timeout, @NonNull TimeUnit timeUnit) {
+    if (map.isEmpty()) {
+      return;
+    }
+    try {
+      redisTemplate.executePipelined(new SessionCallback<Object>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <K, V> Object execute(@NonNull RedisOperations<K, V> operations)
+            throws DataAccessException {
+          RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+          map.forEach((key, value) ->
+              ops.opsForValue().set(versioned(key), value, timeout, timeUnit));
+          return null;
+        }
+      });
+      map.keySet().forEach(key -> evictLocal(versioned(key)));
+    } catch (Exception e) {
+      log.error("批量设置缓存失败, keys: {}", map.keySet(), e);
+    }
+  }
+
   @Override
   public boolean putIfAbsent(@NonNull String key, Object value) {
     try {
-      return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value));
+      return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(versioned(key), value));
     } catch (Exception e) {
       log.error("设置缓存失败, key: {}", key, e);
       return false;
@@ -70,7 +176,7 @@ public class RedisCacheImpl implements ICache<String, Object> {
       @NonNull String key, Object value, long timeout, @NonNull TimeUnit timeUnit) {
     try {
       return Boolean.TRUE.equals(
-          redisTemplate.opsForValue().setIfAbsent(key, value, timeout, timeUnit));
+          redisTemplate.opsForValue().setIfAbsent(versioned(key), value, timeout, timeUnit));
     } catch (Exception e) {
       log.error("设置缓存失败, key: {}", key, e);
       return false;
@@ -80,7 +186,9 @@ public class RedisCacheImpl implements ICache<String, Object> {
   @Override
   public boolean remove(@NonNull String key) {
     try {
-      return Boolean.TRUE.equals(redisTemplate.delete(key));
+      String redisKey = versioned(key);
+      evictLocal(redisKey);
+      return Boolean.TRUE.equals(redisTemplate.delete(redisKey));
     } catch (Exception e) {
       log.error("删除缓存失败, key: {}", key, e);
       return false;
@@ -90,8 +198,9 @@ public class RedisCacheImpl implements ICache<String, Object> {
   @Override
   public long remove(@NonNull Collection<String> keys) {
     try {
-      Long deleted = redisTemplate.delete(keys);
-      return deleted != null ? deleted : 0L;
+      List<String> redisKeys = versioned(keys);
+      redisKeys.forEach(this::evictLocal);
+      return slotBatchExecutor.sum(redisTemplate, redisKeys, RedisOperations::delete);
     } catch (Exception e) {
       log.error("批量删除缓存失败, keys: {}", keys, e);
       return 0L;
@@ -101,17 +210,36 @@ public class RedisCacheImpl implements ICache<String, Object> {
   @Override
   public boolean containsKey(@NonNull String key) {
     try {
-      return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+      return Boolean.TRUE.equals(redisTemplate.hasKey(versioned(key)));
     } catch (Exception e) {
       log.error("检查缓存存在失败, key: {}", key, e);
       return false;
     }
   }
 
+  /** 使用多 key EXISTS 检查，单机一次往返，Cluster 每个主节点一次 Pipeline 往返 */
+  @Override
+  public boolean containsAll(@NonNull Collection<String> keys) {
+    if (keys.isEmpty()) {
+      return true;
+    }
+    try {
+      Set<String> distinct = new LinkedHashSet<>(versioned(keys));
+      long existing =
+          slotBatchExecutor.sum(redisTemplate, distinct, RedisOperations::countExistingKeys);
+      return existing == distinct.size();
+    } catch (Exception e) {
+      log.error("批量检查缓存存在失败, keys: {}", keys, e);
+      return false;
+    }
+  }
+
   @Override
   public boolean expire(@NonNull String key, long timeout, @NonNull TimeUnit timeUnit) {
     try {
-      return Boolean.TRUE.equals(redisTemplate.expire(key, timeout, timeUnit));
+      String redisKey = versioned(key);
+      evictLocal(redisKey);
+      return Boolean.TRUE.equals(redisTemplate.expire(redisKey, timeout, timeUnit));
     } catch (Exception e) {
       log.error("设置过期时间失败, key: {}", key, e);
       return false;
@@ -121,7 +249,7 @@ public class RedisCacheImpl implements ICache<String, Object> {
   @Override
   public long getExpire(@NonNull String key, @NonNull TimeUnit timeUnit) {
     try {
-      Long expire = redisTemplate.getExpire(key, timeUnit);
+      Long expire = redisTemplate.getExpire(versioned(key), timeUnit);
       return expire != null ? expire : -2L;
     } catch (Exception e) {
       log.error("获取过期时间失败, key: {}", key, e);
@@ -129,14 +257,18 @@ public class RedisCacheImpl implements ICache<String, Object> {
     }
   }
 
+  /**
+   * 清空所有缓存
+   *
+   * <p>扫描并删除整个数据库（含各命名空间的代数计数器）；只需失效单个命名空间时使用 {@link #clearNamespace}
+   */
   @Override
   public void clear() {
     log.warn("清空所有缓存操作被调用，请确认这是预期行为");
     try {
-      Set<String> keys = scanKeys("*");
-      if (!keys.isEmpty()) {
-        redisTemplate.delete(keys);
-      }
+      evictAllLocal();
+      long deleted = keyScanner.unlink("*", count -> log.info("清空缓存进度, 已删除: {}", count));
+      log.warn("清空所有缓存完成, 删除数量: {}", deleted);
     } catch (Exception e) {
       log.error("清空缓存失败", e);
     }
@@ -159,21 +291,15 @@ public class RedisCacheImpl implements ICache<String, Object> {
   /**
    * 使用 SCAN 命令安全地扫描匹配的 key（不会阻塞 Redis）
    *
+   * <p>结果全部收集到内存，匹配数量较大时应使用 {@link RedisKeyScanner#scan} 流式处理
+   *
    * @param pattern 模式，如 "user:*"
    * @return 匹配的 key 集合
    */
   public Set<String> scanKeys(@NonNull String pattern) {
     Set<String> keys = new HashSet<>();
-    try {
-      ScanOptions options = ScanOptions.scanOptions().match(pattern).count(1000).build();
-      redisTemplate.execute((RedisConnection connection) -> {
-        try (Cursor<byte[]> cursor = connection.scan(options)) {
-          while (cursor.hasNext()) {
-            keys.add(new String(cursor.next()));
-          }
-        }
-        return null;
-      });
+    try (Stream<String> stream = keyScanner.scan(pattern)) {
+      stream.forEach(keys::add);
     } catch (Exception e) {
       log.error("扫描 key 失败, pattern: {}", pattern, e);
     }
@@ -181,39 +307,102 @@ public class RedisCacheImpl implements ICache<String, Object> {
   }
 
   /**
-   * 按模式删除缓存（使用 SCAN 安全扫描）
+   * 按模式删除缓存（SCAN 流式扫描，分批 UNLINK）
+   *
+   * <p>模式恰为 {@code 命名空间*} 时改为递增代数，不扫描 keyspace，返回值为 0
    *
    * @param pattern 模式，如 "user:*"
    * @return 删除数量
    */
   public long removeByPattern(@NonNull String pattern) {
-    try {
-      Set<String> keys = scanKeys(pattern);
-      if (!keys.isEmpty()) {
-        Long deleted = redisTemplate.delete(keys);
-        return deleted != null ? deleted : 0L;
+    for (String namespace : cacheProperties.getGeneration().getNamespaces()) {
+      if (pattern.equals(namespace + "*")) {
+        clearNamespace(namespace);
+        return 0L;
       }
-      return 0L;
+    }
+    try {
+      evictAllLocal();
+      return keyScanner.unlink(pattern, null);
     } catch (Exception e) {
       log.error("按模式删除缓存失败, pattern: {}", pattern, e);
       return 0L;
     }
   }
 
+  /**
+   * 清空命名空间（O(1)）
+   *
+   * <p>递增命名空间代数，旧代数的 key 立即不可见，并在后台回收
+   *
+   * @param namespace 命名空间，须在 seed.cache.generation.namespaces 中配置
+   */
+  public void clearNamespace(@NonNull String namespace) {
+    if (!cacheProperties.getGeneration().getNamespaces().contains(namespace)) {
+      throw new IllegalArgumentException("namespace is not generation-versioned: " + namespace);
+    }
+    try {
+      namespaceGenerations.bump(namespace);
+    } catch (Exception e) {
+      log.error("清空缓存命名空间失败, namespace: {}", namespace, e);
+    }
+  }
+
   /**
    * 递增
    *
+   * <p>每次调用一次网络往返，可容忍短暂延迟的高频计数使用
+   * {@link com.zhangzhankui.seed.common.redis.utils.BufferedCounter}
+   *
    * @param key 键
    * @param delta 增量
    * @return 递增后的值
    */
   public long increment(@NonNull String key, long delta) {
     try {
-      Long result = redisTemplate.opsForValue().increment(key, delta);
+      String redisKey = versioned(key);
+      Long result = redisTemplate.opsForValue().increment(redisKey, delta);
+      evictLocal(redisKey);
       return result != null ? result : 0L;
     } catch (Exception e) {
       log.error("递增操作失败, key: {}", key, e);
       return 0L;
     }
   }
+
+  /** 丢弃本实例持有的本地值（热点副本与客户端缓存） */
+  private void evictLocal(String redisKey) {
+    hotKeyDetector.invalidate(redisKey);
+    clientSideCache.invalidate(redisKey);
+  }
+
+  /** MGET 同一槽位的 key，返回存在的值 */
+  private static void collect(
+      List<String> redisKeys, @Nullable List<?> values, Map<String, Object> found) {
+    if (values != null) {
+      for (int i = 0; i < redisKeys.size(); i++) {
+        if (values.get(i) != null) {
+          found.put(redisKeys.get(i), values.get(i));
+        }
+      }
+    }
+  }
+
+  private void evictAllLocal() {
+    hotKeyDetector.invalidateAll();
+    clientSideCache.invalidateAll();
+  }
+
+  /** 命名空间内的 key 替换为带当前代数的实际 key */
+  private String versioned(String key) {
+    return namespaceGenerations.versionedKey(key, cacheProperties.getGeneration().getNamespaces());
+  }
+
+  private List<String> versioned(Collection<String> keys) {
+    List<String> result = new ArrayList<>(keys.size());
+    for (String key : keys) {
+      result.add(versioned(key));
+    }
+    return result;
+  }
 }
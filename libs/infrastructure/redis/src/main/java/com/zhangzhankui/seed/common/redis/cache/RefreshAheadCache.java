@@ -0,0 +1,232 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Spring Cache 的提前刷新（refresh-ahead）装饰器
+ *
+ * <p>条目以 {@link CacheEntry} 形式存储，记录回源耗时 delta 与过期时刻 expiry。
+ * 每次经 {@link #get(Object, Callable)} 命中时按 XFetch 算法判断是否提前刷新：
+ *
+ * <pre>
+ * now - delta * beta * ln(random()) >= expiry
+ * </pre>
+ *
+ * <p>越接近过期、回源越慢，刷新概率越高。需要刷新时在虚拟线程中调用注册的 {@link CacheReloader}，
+ * 调用方立即拿到当前值，热点 key 不会因到期集中回源而出现延迟尖刺。
+ *
+ * <p>后台刷新不会复用 {@code @Cacheable(sync = true)} 的回源函数：它捕获的是原始调用，
+ * 在请求返回后执行时已没有请求、登录用户与事务上下文。未注册 CacheReloader 时只做解包，不提前刷新。
+ * 刷新结果经最外层缓存（如 {@link NearCache}）写入，各层与其他节点的 L1 同步更新。
+ */
+@Slf4j
+public class RefreshAheadCache implements Cache {
+
+  private final Cache delegate;
+  private final JitteredTtlFunction ttlFunction;
+  private final double beta;
+  @Nullable private final CacheReloader reloader;
+
+  /** 刷新中的 key 及其回源耗时，回源完成前为 0 */
+  private final Map<Object, Long> refreshing = new ConcurrentHashMap<>();
+
+  /** 刷新结果的写入入口，默认为自身，外层有其他装饰器时由 {@link SeedCacheManager} 设置 */
+  private volatile Cache refreshTarget = this;
+
+  /**
+   * @param delegate 被装饰的缓存
+   * @param ttlFunction 过期时间（含抖动）
+   * @param beta XFetch 系数，越大越倾向提前刷新，1.0 为推荐值
+   * @param reloader 后台刷新的回源函数，为 null 时不提前刷新
+   */
+  public RefreshAheadCache(
+      @NonNull Cache delegate,
+      @NonNull JitteredTtlFunction ttlFunction,
+      double beta,
+      @Nullable CacheReloader reloader) {
+    this.delegate = delegate;
+    this.ttlFunction = ttlFunction;
+    this.beta = beta;
+    this.reloader = reloader;
+  }
+
+  /**
+   * 设置刷新结果的写入入口
+   *
+   * @param refreshTarget 包装本缓存的最外层缓存
+   */
+  void setRefreshTarget(@NonNull Cache refreshTarget) {
+    this.refreshTarget = refreshTarget;
+  }
+
+  @Override
+  @NonNull
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  @NonNull
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  @Nullable
+  public ValueWrapper get(@NonNull Object key) {
+    ValueWrapper wrapper = delegate.get(key);
+    if (wrapper != null && wrapper.get() instanceof CacheEntry entry) {
+      return new SimpleValueWrapper(entry.getValue());
+    }
+    return wrapper;
+  }
+
+  @Override
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+    ValueWrapper wrapper = get(key);
+    Object value = wrapper != null ? wrapper.get() : null;
+    if (value != null && type != null && !type.isInstance(value)) {
+      throw new IllegalStateException(
+          "Cached value is not of required type [" + type.getName() + "]: " + value);
+    }
+    return (T) value;
+  }
+
+  @Override
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+    ValueWrapper wrapper = delegate.get(key);
+    if (wrapper != null) {
+      if (wrapper.get() instanceof CacheEntry entry) {
+        if (reloader != null && shouldRefresh(entry)) {
+          refreshAsync(key, reloader);
+        }
+        return (T) entry.getValue();
+      }
+      return (T) wrapper.get();
+    }
+    Object loaded = delegate.get(key, () -> load(valueLoader));
+    return (T) unwrap(loaded);
+  }
+
+  @Override
+  @Nullable
+  public CompletableFuture<?> retrieve(@NonNull Object key) {
+    CompletableFuture<?> future = delegate.retrieve(key);
+    return future != null ? future.thenApply(RefreshAheadCache::unwrap) : null;
+  }
+
+  @Override
+  @NonNull
+  @SuppressWarnings("unchecked")
+  public <T> CompletableFuture<T> retrieve(
+      @NonNull Object key, @NonNull Supplier<CompletableFuture<T>> valueLoader) {
+    return delegate.retrieve(key, valueLoader).thenApply(value -> (T) unwrap(value));
+  }
+
+  /** 刷新中的 key 沿用本次回源耗时，保证下一轮仍能按 XFetch 提前刷新 */
+  @Override
+  public void put(@NonNull Object key, @Nullable Object value) {
+    delegate.put(key, wrap(value, refreshing.getOrDefault(key, 0L)));
+  }
+
+  @Override
+  @Nullable
+  public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+    ValueWrapper existing = delegate.putIfAbsent(key, wrap(value, 0));
+    return existing != null ? new SimpleValueWrapper(unwrap(existing.get())) : null;
+  }
+
+  @Override
+  public void evict(@NonNull Object key) {
+    delegate.evict(key);
+  }
+
+  @Override
+  public boolean evictIfPresent(@NonNull Object key) {
+    return delegate.evictIfPresent(key);
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+  }
+
+  @Override
+  public boolean invalidate() {
+    return delegate.invalidate();
+  }
+
+  /** XFetch：-ln(random) 服从指数分布，使刷新时刻在过期前随机分散 */
+  boolean shouldRefresh(CacheEntry entry) {
+    if (entry.getExpiresAt() == Long.MAX_VALUE) {
+      return false;
+    }
+    double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+    double gap = -entry.getDelta() * beta * Math.log(random);
+    return System.currentTimeMillis() + gap >= entry.getExpiresAt();
+  }
+
+  private void refreshAsync(Object key, CacheReloader reloader) {
+    if (refreshing.putIfAbsent(key, 0L) != null) {
+      return;
+    }
+    Thread.ofVirtual().name("cache-refresh-" + getName()).start(() -> {
+      try {
+        long start = System.currentTimeMillis();
+        Object value = reloader.reload(key);
+        if (value != null) {
+          refreshing.put(key, System.currentTimeMillis() - start);
+          refreshTarget.put(key, value);
+        }
+      } catch (Exception e) {
+        // 刷新失败保留旧值，条目到期后由正常回源兜底
+        log.warn("缓存提前刷新失败, cache: {}, key: {}", getName(), key, e);
+      } finally {
+        refreshing.remove(key);
+      }
+    });
+  }
+
+  @Nullable
+  private Object load(Callable<?> valueLoader) throws Exception {
+    long start = System.currentTimeMillis();
+    Object value = valueLoader.call();
+    return wrap(value, System.currentTimeMillis() - start);
+  }
+
+  @Nullable
+  private Object wrap(@Nullable Object value, long delta) {
+    if (value == null) {
+      return null;
+    }
+    Duration ttl = ttlFunction.next();
+    long expiresAt = ttl.isZero() || ttl.isNegative()
+        ? Long.MAX_VALUE
+        : System.currentTimeMillis() + ttl.toMillis();
+    return new CacheEntry(value, delta, expiresAt);
+  }
+
+  @Nullable
+  private static Object unwrap(@Nullable Object value) {
+    if (value instanceof ValueWrapper wrapper) {
+      value = wrapper.get();
+    }
+    return value instanceof CacheEntry entry ? entry.getValue() : value;
+  }
+}
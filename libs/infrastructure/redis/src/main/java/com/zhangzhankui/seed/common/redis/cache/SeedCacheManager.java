@@ -0,0 +1,96 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.zhangzhankui.seed.common.redis.config.CacheProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * 按缓存名称装饰的 CacheManager
+ *
+ * <p>包装 {@code RedisCacheManager}，key 前缀列在 seed.cache.generation.namespaces 中的缓存经
+ * {@link GenerationalCache} 把清空改为递增命名空间代数，
+ * 同步回源（{@code sync = true}）经 {@link SingleFlightCache} 跨节点合并；根据 {@link CacheProperties} 为指定的缓存名称叠加提前刷新、近端缓存（L1）等能力。
+ * 提前刷新使用同名的 {@link CacheReloader} 回源，结果经最外层缓存写入。
+ * 装饰结果按名称缓存，保证同名缓存只有一个 L1 实例。
+ */
+public class SeedCacheManager implements CacheManager {
+
+  private final CacheManager delegate;
+  private final CacheProperties properties;
+  private final CacheLoadCoordinator loadCoordinator;
+  private final NamespaceGenerations generations;
+  @Nullable private final CacheInvalidationBus invalidationBus;
+  private final Map<String, CacheReloader> reloaders = new ConcurrentHashMap<>();
+  private final Map<String, Cache> decorated = new ConcurrentHashMap<>();
+
+  public SeedCacheManager(
+      @NonNull CacheManager delegate,
+      @NonNull CacheProperties properties,
+      @NonNull CacheLoadCoordinator loadCoordinator,
+      @NonNull NamespaceGenerations generations,
+      @Nullable CacheInvalidationBus invalidationBus,
+      @NonNull List<CacheReloader> reloaders) {
+    this.delegate = delegate;
+    this.properties = properties;
+    this.loadCoordinator = loadCoordinator;
+    this.generations = generations;
+    this.invalidationBus = invalidationBus;
+    for (CacheReloader reloader : reloaders) {
+      if (this.reloaders.putIfAbsent(reloader.cacheName(), reloader) != null) {
+        throw new IllegalStateException(
+            "Duplicate CacheReloader for cache: " + reloader.cacheName());
+      }
+    }
+  }
+
+  @Override
+  @Nullable
+  public Cache getCache(@NonNull String name) {
+    Cache cache = decorated.get(name);
+    if (cache != null) {
+      return cache;
+    }
+    Cache target = delegate.getCache(name);
+    if (target == null) {
+      return null;
+    }
+    return decorated.computeIfAbsent(name, key -> decorate(target));
+  }
+
+  @Override
+  @NonNull
+  public Collection<String> getCacheNames() {
+    return delegate.getCacheNames();
+  }
+
+  private Cache decorate(Cache target) {
+    String name = target.getName();
+    Cache cache = properties.isGenerational(name)
+        ? new GenerationalCache(target, generations, properties.keyPrefixOf(name))
+        : target;
+    cache = new SingleFlightCache(cache, loadCoordinator);
+    RefreshAheadCache refreshAhead = null;
+    if (properties.isRefreshAhead(name)) {
+      JitteredTtlFunction ttlFunction =
+          new JitteredTtlFunction(properties.ttlOf(name), properties.getTtlJitter());
+      refreshAhead = new RefreshAheadCache(
+          cache, ttlFunction, properties.getRefreshAhead().getBeta(), reloaders.get(name));
+      cache = refreshAhead;
+    }
+    if (invalidationBus != null && properties.isNear(name)) {
+      cache = new NearCache(cache, invalidationBus,
+          properties.nearMaximumSizeOf(name), properties.getNear().getTtl());
+    }
+    if (refreshAhead != null) {
+      refreshAhead.setRefreshTarget(cache);
+    }
+    return cache;
+  }
+}
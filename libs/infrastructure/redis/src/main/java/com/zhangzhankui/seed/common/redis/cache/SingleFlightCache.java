@@ -0,0 +1,121 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Spring Cache 的防击穿装饰器
+ *
+ * <p>{@code @Cacheable(sync = true)} 会调用 {@link #get(Object, Callable)}。{@code RedisCache}
+ * 自带的同步只在单个 JVM 内按缓存串行，本装饰器改为按 key 合并，并通过 {@link CacheLoadCoordinator}
+ * 的分布式租约保证多节点同一时刻只有一个节点回源。其余操作原样委托。
+ */
+public class SingleFlightCache implements Cache {
+
+  private final Cache delegate;
+  private final CacheLoadCoordinator loadCoordinator;
+
+  public SingleFlightCache(
+      @NonNull Cache delegate, @NonNull CacheLoadCoordinator loadCoordinator) {
+    this.delegate = delegate;
+    this.loadCoordinator = loadCoordinator;
+  }
+
+  @Override
+  @NonNull
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  @NonNull
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  @Nullable
+  public ValueWrapper get(@NonNull Object key) {
+    return delegate.get(key);
+  }
+
+  @Override
+  @Nullable
+  public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+    return delegate.get(key, type);
+  }
+
+  @Override
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+    ValueWrapper cached = delegate.get(key);
+    if (cached != null) {
+      return (T) cached.get();
+    }
+    ValueWrapper loaded = loadCoordinator.load(
+        getName() + "::" + key,
+        () -> delegate.get(key),
+        () -> new SimpleValueWrapper(call(key, valueLoader)),
+        wrapper -> delegate.put(key, wrapper.get()));
+    return (T) loaded.get();
+  }
+
+  @Override
+  @Nullable
+  public CompletableFuture<?> retrieve(@NonNull Object key) {
+    return delegate.retrieve(key);
+  }
+
+  @Override
+  @NonNull
+  public <T> CompletableFuture<T> retrieve(
+      @NonNull Object key, @NonNull Supplier<CompletableFuture<T>> valueLoader) {
+    return delegate.retrieve(key, valueLoader);
+  }
+
+  @Override
+  public void put(@NonNull Object key, @Nullable Object value) {
+    delegate.put(key, value);
+  }
+
+  @Override
+  @Nullable
+  public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+    return delegate.putIfAbsent(key, value);
+  }
+
+  @Override
+  public void evict(@NonNull Object key) {
+    delegate.evict(key);
+  }
+
+  @Override
+  public boolean evictIfPresent(@NonNull Object key) {
+    return delegate.evictIfPresent(key);
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+  }
+
+  @Override
+  public boolean invalidate() {
+    return delegate.invalidate();
+  }
+
+  private static <T> T call(Object key, Callable<T> valueLoader) {
+    try {
+      return valueLoader.call();
+    } catch (Exception e) {
+      throw new ValueRetrievalException(key, valueLoader, e);
+    }
+  }
+}
@@ -0,0 +1,472 @@
+package com.zhangzhankui.seed.common.redis.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.zhangzhankui.seed.common.core.constant.CacheConstants;
+import com.zhangzhankui.seed.common.redis.serializer.ValueCodec;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 缓存配置
+ *
+ * <pre>
+ * seed:
+ *   cache:
+ *     codec: smile
+ *     compression-threshold: 2KB
+ *     ttl: 1h
+ *     ttl-jitter: 0.1
+ *     refresh-ahead:
+ *       cache-names:
+ *         - dashboard
+ *     near:
+ *       enabled: true
+ *       maximum-size: 10000
+ *       ttl: 30s
+ *       cache-names:
+ *         - "user:login:"
+ *       key-prefixes:
+ *         - "user:login:"
+ *     scan:
+ *       count: 1000
+ *       unlink-batch-size: 500
+ *       max-unlink-rate: 50000
+ *       cluster-parallelism: 4
+ *     hot-key:
+ *       enabled: true
+ *       threshold: 1000
+ *       window: 10s
+ *       sample-rate: 0.1
+ *       local-ttl: 1s
+ *     tracking:
+ *       enabled: true
+ *       prefixes:
+ *         - "user:login:"
+ *     key-prefixes:
+ *       - "rate_limit:"
+ *       - "user:login:"
+ *     metrics:
+ *       enabled: true
+ *     key-space:
+ *       enabled: true
+ *       interval: 6h
+ *       max-keys-per-second: 5000
+ *       sample-ratio: 0.1
+ *     counter:
+ *       flush-interval: 1s
+ *       flush-threshold: 10000
+ *     pipelining:
+ *       enabled: true
+ *       window: 2ms
+ *       batch-size: 64
+ *     generation:
+ *       refresh-interval: 1s
+ *       namespaces:
+ *         - "sys:dept:"
+ *     specs:
+ *       dashboard:
+ *         ttl: 10m
+ *         refresh-ahead: true
+ *       "[user:login:]":
+ *         ttl: 30m
+ *         near-maximum-size: 5000
+ * </pre>
+ *
+ * <p>specs 按缓存名称覆盖全局配置，未配置的项沿用全局值
+ */
+@Data
+@ConfigurationProperties(prefix = "seed.cache")
+public class CacheProperties {
+
+  /**
+   * 值写入编码格式
+   *
+   * <p>读取始终兼容 JSON 与 Smile，滚动升级时应在全部节点升级后再切换为 smile
+   */
+  private ValueCodec codec = ValueCodec.JSON;
+
+  /** 序列化结果超过该大小时使用 LZ4 压缩，未配置表示不压缩 */
+  private DataSize compressionThreshold;
+
+  /** Spring Cache 默认过期时间 */
+  private Duration ttl = Duration.ofHours(1);
+
+  /**
+   * 过期时间随机抖动比例（0~1）
+   *
+   * <p>实际过期时间在 {@code [ttl * (1 - ttlJitter), ttl]} 之间，避免同一批写入的条目同时过期
+   */
+  private double ttlJitter = 0.1;
+
+  /** 提前刷新配置 */
+  private RefreshAhead refreshAhead = new RefreshAhead();
+
+  /** 近端缓存（进程内 L1 + Redis L2）配置 */
+  private Near near = new Near();
+
+  /** key 扫描与批量删除配置 */
+  private Scan scan = new Scan();
+
+  /** 命名空间代数配置 */
+  private Generation generation = new Generation();
+
+  /** 热点 key 探测配置 */
+  private HotKey hotKey = new HotKey();
+
+  /** 客户端缓存（RESP3 CLIENT TRACKING）配置 */
+  private Tracking tracking = new Tracking();
+
+  /** 写回式计数器配置 */
+  private Counter counter = new Counter();
+
+  /** 自动 Pipeline 写入配置 */
+  private Pipelining pipelining = new Pipelining();
+
+  /**
+   * key 前缀（命名空间）
+   *
+   * <p>命令指标与 key 空间分析按最长前缀归类，未匹配的 key 归入 other。
+   * 默认为 CacheConstants 中的前缀、Sa-Token（token-name 为 Authorization）、分布式锁
+   * 与防护令牌计数器（Redisson 保存为 redisson_lock_token:{lock:key}，不过期）
+   */
+  private Set<String> keyPrefixes = new LinkedHashSet<>(List.of(
+      CacheConstants.RATE_LIMIT_KEY,
+      CacheConstants.REPEAT_SUBMIT_KEY,
+      CacheConstants.USER_LOGIN_KEY,
+      CacheConstants.USER_ABSENT_KEY,
+      CacheConstants.PWD_ERR_CNT_KEY,
+      CacheConstants.LOGIN_ERROR_KEY,
+      CacheConstants.SYS_DEPT_KEY,
+      "Authorization:",
+      "lock:",
+      "redisson_lock_token:"));
+
+  /** Redis 命令指标配置 */
+  private Metrics metrics = new Metrics();
+
+  /** key 空间内存分析配置 */
+  private KeySpace keySpace = new KeySpace();
+
+  /** 按 Spring Cache 名称的独立配置 */
+  private Map<String, Spec> specs = new LinkedHashMap<>();
+
+  /**
+   * 缓存命名空间（不含代数的 key 前缀）
+   *
+   * @param cacheName 缓存名称
+   * @return specs 中的 key-prefix，未配置时为 {@code 缓存名称::}
+   */
+  public String keyPrefixOf(String cacheName) {
+    Spec spec = specs.get(cacheName);
+    return spec != null && spec.getKeyPrefix() != null ? spec.getKeyPrefix() : cacheName + "::";
+  }
+
+  /**
+   * 缓存是否启用命名空间代数
+   *
+   * @param cacheName 缓存名称
+   * @return key 前缀列在 generation.namespaces 中时为 true
+   */
+  public boolean isGenerational(String cacheName) {
+    return generation.getNamespaces().contains(keyPrefixOf(cacheName));
+  }
+
+  /**
+   * 缓存过期时间
+   *
+   * @param cacheName 缓存名称
+   * @return specs 中的配置，未配置时返回全局 ttl
+   */
+  public Duration ttlOf(String cacheName) {
+    Spec spec = specs.get(cacheName);
+    return spec != null && spec.getTtl() != null ? spec.getTtl() : ttl;
+  }
+
+  /**
+   * 是否启用提前刷新
+   *
+   * @param cacheName 缓存名称
+   * @return specs 中的配置，未配置时按 refresh-ahead.cache-names 判断
+   */
+  public boolean isRefreshAhead(String cacheName) {
+    Spec spec = specs.get(cacheName);
+    if (spec != null && spec.getRefreshAhead() != null) {
+      return spec.getRefreshAhead();
+    }
+    return refreshAhead.getCacheNames().contains(cacheName);
+  }
+
+  /**
+   * 是否启用近端缓存（仍需 near.enabled=true）
+   *
+   * @param cacheName 缓存名称
+   * @return specs 中配置了 L1 大小或名称在 near.cache-names 中
+   */
+  public boolean isNear(String cacheName) {
+    Spec spec = specs.get(cacheName);
+    return (spec != null && spec.getNearMaximumSize() != null)
+        || near.getCacheNames().contains(cacheName);
+  }
+
+  /**
+   * 近端缓存 L1 最大条目数
+   *
+   * @param cacheName 缓存名称
+   * @return specs 中的配置，未配置时返回 near.maximum-size
+   */
+  public long nearMaximumSizeOf(String cacheName) {
+    Spec spec = specs.get(cacheName);
+    return spec != null && spec.getNearMaximumSize() != null
+        ? spec.getNearMaximumSize()
+        : near.getMaximumSize();
+  }
+
+  /** key 扫描与批量删除配置 */
+  @Data
+  public static class Scan {
+
+    /** SCAN 的 COUNT 提示，越大往返越少、单次阻塞越长 */
+    private int count = 1000;
+
+    /** 每条 UNLINK 命令的 key 数量 */
+    private int unlinkBatchSize = 500;
+
+    /** 每秒最多删除的 key 数量，小于等于 0 表示不限速 */
+    private double maxUnlinkRate;
+
+    /** Cluster 模式下多 key 命令同时执行 Pipeline 的主节点数上限 */
+    private int clusterParallelism = 4;
+  }
+
+  /**
+   * 命名空间代数配置
+   *
+   * <p>key 前缀（Spring Cache 为缓存的 key-prefix，默认 {@code 缓存名称::}）列在 namespaces 中时，
+   * 实际 key 嵌入代数，可通过 {@code clearNamespace} 或 {@code Cache.clear()} 以 O(1) 方式整体失效；
+   * 未列出的缓存保持原始前缀，不读取代数
+   */
+  @Data
+  public static class Generation {
+
+    /** 本地缓存代数的刷新间隔，决定其他节点清空命名空间后本节点的最大感知延迟 */
+    private Duration refreshInterval = Duration.ofSeconds(1);
+
+    /** 启用代数的 key 前缀，对 {@code ICache} 与 Spring Cache 均生效 */
+    private Set<String> namespaces = new LinkedHashSet<>();
+  }
+
+  /**
+   * 热点 key 探测配置
+   *
+   * <p>对 {@code RedisCacheImpl.get} 与 {@code RedisUtils.get} 读取的 key 计数，
+   * 窗口内估算访问次数超过阈值的 key 在本地保留短期副本
+   */
+  @Data
+  public static class HotKey {
+
+    /** 是否启用 */
+    private boolean enabled;
+
+    /** 参与探测的 key 前缀，为空表示全部 key */
+    private Set<String> keyPrefixes = new LinkedHashSet<>();
+
+    /** 统计窗口内判定为热点的访问次数 */
+    private long threshold = 1000;
+
+    /** 统计窗口，每个窗口结束时计数减半 */
+    private Duration window = Duration.ofSeconds(10);
+
+    /** 采样率（0~1），计数按采样率放大，降低高并发下的计数开销 */
+    private double sampleRate = 0.1;
+
+    /** 本地副本存活时间，决定其他节点修改后本节点的最大滞后 */
+    private Duration localTtl = Duration.ofSeconds(1);
+
+    /** 本地副本最大条目数 */
+    private long maximumSize = 1000;
+
+    /** Count-Min Sketch 每行计数器个数（取 2 的幂） */
+    private int sketchWidth = 4096;
+
+    /** 热点列表最多保留的 key 数量 */
+    private int topK = 100;
+  }
+
+  /**
+   * 客户端缓存（RESP3 CLIENT TRACKING）配置
+   *
+   * <p>{@code RedisCacheImpl.get}、{@code RedisUtils.get/hGet} 读取匹配前缀的 key 时使用本地值，
+   * 由 Redis 推送失效消息保证一致。需要 Redis 6+ 与 RESP3
+   */
+  @Data
+  public static class Tracking {
+
+    /** 是否启用 */
+    private boolean enabled;
+
+    /** 跟踪的 key 前缀（BCAST PREFIX），为空时不启用 */
+    private Set<String> prefixes = new LinkedHashSet<>();
+
+    /** 本地最大条目数 */
+    private long maximumSize = 10_000;
+
+    /** 本地条目存活时间，作为失效消息丢失时的兜底 */
+    private Duration ttl = Duration.ofMinutes(5);
+  }
+
+  /**
+   * 写回式计数器配置
+   *
+   * <p>{@code BufferedCounter} 在本地累加增量，按间隔或事件数批量以 INCRBY 写入 Redis
+   */
+  @Data
+  public static class Counter {
+
+    /** 刷新间隔，决定 Redis 中计数的最大滞后 */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /** 累计事件数达到该值时立即刷新 */
+    private long flushThreshold = 10_000;
+
+    /** 连续多少次刷新没有增量后释放该 key 的本地计数器 */
+    private int idleFlushes = 60;
+
+    /** 严格模式，每次累加直接执行 INCRBY，不做缓冲 */
+    private boolean strict;
+  }
+
+  /**
+   * 自动 Pipeline 写入配置
+   *
+   * <p>{@code PipelinedWriter} 在独立连接上缓冲写入命令，按窗口或批大小一次性发送
+   */
+  @Data
+  public static class Pipelining {
+
+    /** 是否启用，未启用时 RedisUtils 的异步写入退化为同步执行 */
+    private boolean enabled;
+
+    /** 首条命令入队后等待合并的时间，决定单条写入的最大额外延迟 */
+    private Duration window = Duration.ofMillis(2);
+
+    /** 缓冲命令数达到该值时立即发送 */
+    private int batchSize = 64;
+  }
+
+  /**
+   * Redis 命令指标配置
+   *
+   * <p>RedisTemplate 与分布式锁的每条命令按命令名、key 前缀与结果记录到 redis.commands 计时器，
+   * 获取连接的等待时间记录到 redis.connection.acquire，分布式锁的等待与持有时间记录到 lock.*，
+   * 需要应用中存在 MeterRegistry
+   */
+  @Data
+  public static class Metrics {
+
+    /** 是否启用 */
+    private boolean enabled = true;
+  }
+
+  /**
+   * key 空间内存分析配置
+   *
+   * <p>后台 SCAN 全部 key，按 key-prefixes 统计数量，并对采样的 key 执行 MEMORY USAGE 估算字节数与 TTL 分布
+   */
+  @Data
+  public static class KeySpace {
+
+    /** 是否定时分析，未启用时仍可通过 keyspace 端点手动触发 */
+    private boolean enabled;
+
+    /** 应用启动后首次分析的延迟 */
+    private Duration initialDelay = Duration.ofMinutes(5);
+
+    /** 两次分析之间的间隔 */
+    private Duration interval = Duration.ofHours(6);
+
+    /** 每秒最多遍历的 key 数量，小于等于 0 表示不限速 */
+    private double maxKeysPerSecond = 5000;
+
+    /** 执行 MEMORY USAGE 的 key 比例（0~1） */
+    private double sampleRatio = 0.1;
+
+    /** MEMORY USAGE 对集合类型的采样元素数 */
+    private int memoryUsageSamples = 5;
+
+    /** 每个前缀保留的最大 key 数量 */
+    private int topN = 10;
+  }
+
+  /** 单个缓存的配置，未设置的项沿用全局配置 */
+  @Data
+  public static class Spec {
+
+    /** 过期时间 */
+    private Duration ttl;
+
+    /** 是否缓存 null 值（防止不存在的数据反复回源），默认不缓存 */
+    private boolean cacheNullValues;
+
+    /** Redis key 前缀（命名空间），默认 {@code 缓存名称::}，实际前缀会追加代数 */
+    private String keyPrefix;
+
+    /** 值写入编码格式 */
+    private ValueCodec codec;
+
+    /** 近端缓存 L1 最大条目数，配置后该缓存启用 L1 */
+    private Long nearMaximumSize;
+
+    /** 是否启用提前刷新 */
+    private Boolean refreshAhead;
+  }
+
+  /** 提前刷新配置 */
+  @Data
+  public static class RefreshAhead {
+
+    /**
+     * 启用提前刷新的 Spring Cache 名称
+     *
+     * <p>仅对 {@code @Cacheable(sync = true)} 且注册了同名 {@code CacheReloader} 的缓存生效，
+     * 接近过期的命中会在后台调用 CacheReloader 回源
+     */
+    private Set<String> cacheNames = new LinkedHashSet<>();
+
+    /** XFetch 系数，越大越倾向提前刷新 */
+    private double beta = 1.0;
+  }
+
+  /** 近端缓存配置 */
+  @Data
+  public static class Near {
+
+    /** 是否启用近端缓存，启用后通过 Redis Pub/Sub 在节点间广播失效消息 */
+    private boolean enabled;
+
+    /** 每个缓存区域 L1 的最大条目数 */
+    private long maximumSize = 10_000;
+
+    /**
+     * L1 条目存活时间
+     *
+     * <p>作为失效消息丢失（如 Pub/Sub 连接断开）时的兜底，决定节点间数据最大不一致窗口
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+
+    /** 启用 L1 的 Spring Cache 名称（{@code @Cacheable} 的 cacheNames） */
+    private Set<String> cacheNames = new LinkedHashSet<>();
+
+    /** 经 {@code ICache} 访问时启用 L1 的 key 前缀，为空表示不启用 */
+    private Set<String> keyPrefixes = new LinkedHashSet<>();
+
+    /** 失效消息广播频道 */
+    private String topic = "seed:cache:invalidate";
+  }
+}
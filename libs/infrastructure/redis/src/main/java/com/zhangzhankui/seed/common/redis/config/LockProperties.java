@@ -0,0 +1,70 @@
+package com.zhangzhankui.seed.common.redis.config;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 分布式锁与信号量配置
+ *
+ * <pre>
+ * seed:
+ *   lock:
+ *     mode: redisson
+ *     metrics:
+ *       key-prefixes: [order:]
+ *       percentile-histogram: false
+ *     semaphore:
+ *       idle-timeout: 500ms
+ *       max-idle-permits: 8
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "seed.lock")
+public class LockProperties {
+
+  /** 分布式锁实现，local 时使用进程内的 LocalDistributedLock，适用于单实例部署与测试 */
+  private Mode mode = Mode.REDISSON;
+
+  /** 锁竞争指标 */
+  private Metrics metrics = new Metrics();
+
+  /** 分布式信号量 */
+  private Semaphore semaphore = new Semaphore();
+
+  public enum Mode {
+    REDISSON,
+    LOCAL
+  }
+
+  /**
+   * 锁竞争指标配置
+   *
+   * <p>是否记录由 seed.cache.metrics.enabled 决定
+   */
+  @Data
+  public static class Metrics {
+
+    /**
+     * 锁键前缀（不含 lock:），匹配的锁按前缀归为同一名称；
+     * 锁键含用户名等非数字标识时需要配置，回源租约已按 seed.cache.key-prefixes 自动归类
+     */
+    private Set<String> keyPrefixes = new LinkedHashSet<>();
+
+    /** 计时器是否发布百分位直方图，每个名称与结果各增加数十个桶序列 */
+    private boolean percentileHistogram;
+  }
+
+  @Data
+  public static class Semaphore {
+
+    /** 释放的许可在本地保留的时间，期间同一信号量的获取直接复用，为 0 时立即归还 Redis */
+    private Duration idleTimeout = Duration.ofMillis(500);
+
+    /** 每个信号量在本地保留的空闲许可上限 */
+    private int maxIdlePermits = 8;
+  }
+}
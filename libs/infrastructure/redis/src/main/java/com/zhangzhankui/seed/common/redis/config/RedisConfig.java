@@ -1,44 +1,126 @@
 package com.zhangzhankui.seed.common.redis.config;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import com.fasterxml.jackson.annotation.PropertyAccessor;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
-import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.zhangzhankui.seed.common.core.lock.IDistributedLock;
+import com.zhangzhankui.seed.common.redis.cache.CacheInvalidationBus;
+import com.zhangzhankui.seed.common.redis.cache.CacheLoadCoordinator;
+import com.zhangzhankui.seed.common.redis.cache.CacheReloader;
+import com.zhangzhankui.seed.common.redis.cache.ClientSideCache;
+import com.zhangzhankui.seed.common.redis.cache.HotKeyDetector;
+import com.zhangzhankui.seed.common.redis.cache.HotKeyEndpoint;
+import com.zhangzhankui.seed.common.redis.cache.JitteredTtlFunction;
+import com.zhangzhankui.seed.common.redis.cache.NamespaceGenerations;
+import com.zhangzhankui.seed.common.redis.cache.NearCacheImpl;
+import com.zhangzhankui.seed.common.redis.cache.ReactiveRedisCacheImpl;
+import com.zhangzhankui.seed.common.redis.cache.RedisCacheImpl;
+import com.zhangzhankui.seed.common.redis.cache.SeedCacheManager;
+import com.zhangzhankui.seed.common.redis.lock.LockContentionEndpoint;
+import com.zhangzhankui.seed.common.redis.lock.LockMetrics;
+import com.zhangzhankui.seed.common.redis.serializer.ValueCodec;
+import com.zhangzhankui.seed.common.redis.utils.BufferedCounter;
+import com.zhangzhankui.seed.common.redis.utils.InstrumentedRedisTemplate;
+import com.zhangzhankui.seed.common.redis.utils.KeyPrefixes;
+import com.zhangzhankui.seed.common.redis.utils.KeySpaceAnalyzer;
+import com.zhangzhankui.seed.common.redis.utils.KeySpaceEndpoint;
+import com.zhangzhankui.seed.common.redis.utils.PipelinedWriter;
+import com.zhangzhankui.seed.common.redis.utils.RedisCommandMetrics;
+import com.zhangzhankui.seed.common.redis.utils.RedisKeyScanner;
+import com.zhangzhankui.seed.common.redis.utils.SlotBatchExecutor;
+import com.zhangzhankui.seed.common.redis.serializer.VersionedRedisSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /** Redis 配置 */
 @EnableCaching
 @AutoConfiguration
+@EnableConfigurationProperties({CacheProperties.class, LockProperties.class})
 public class RedisConfig {
 
+  /**
+   * Redis 命令指标
+   *
+   * <p>命令按 seed.cache.key-prefixes 归类，seed.cache.metrics.enabled=false 时不记录
+   */
+  @Bean
+  public RedisCommandMetrics redisCommandMetrics(
+      CacheProperties cacheProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+    return new RedisCommandMetrics(
+        meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+        new KeyPrefixes(cacheProperties.getKeyPrefixes()),
+        cacheProperties.getMetrics().isEnabled());
+  }
+
+  /**
+   * 分布式锁竞争指标
+   *
+   * <p>获取等待时间、持有时间与失败次数按锁键前缀或模板记录，回源租约按 seed.cache.key-prefixes 归类，
+   * seed.cache.metrics.enabled=false 时不记录
+   */
+  @Bean
+  public LockMetrics lockMetrics(
+      CacheProperties cacheProperties,
+      LockProperties lockProperties,
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    Set<String> prefixes = new LinkedHashSet<>(lockProperties.getMetrics().getKeyPrefixes());
+    prefixes.add(CacheLoadCoordinator.LEASE_PREFIX);
+    cacheProperties.getKeyPrefixes()
+        .forEach(prefix -> prefixes.add(CacheLoadCoordinator.LEASE_PREFIX + prefix));
+    return new LockMetrics(
+        meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+        new KeyPrefixes(prefixes),
+        cacheProperties.getMetrics().isEnabled(),
+        lockProperties.getMetrics().isPercentileHistogram());
+  }
+
+  /**
+   * RedisTemplate
+   *
+   * <p>每条命令的耗时按命令名与 key 前缀记录到 redis.commands，获取连接的等待时间记录到
+   * redis.connection.acquire
+   */
   @Bean
-  public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
-    RedisTemplate<String, Object> template = new RedisTemplate<>();
+  public RedisTemplate<String, Object> redisTemplate(
+      RedisConnectionFactory connectionFactory,
+      CacheProperties cacheProperties,
+      RedisCommandMetrics redisCommandMetrics) {
+    RedisTemplate<String, Object> template = new InstrumentedRedisTemplate<>(redisCommandMetrics);
     template.setConnectionFactory(connectionFactory);
 
-    Jackson2JsonRedisSerializer<Object> serializer = createJsonSerializer();
+    VersionedRedisSerializer serializer = createValueSerializer(cacheProperties);
     StringRedisSerializer stringSerializer = new StringRedisSerializer();
 
     // Key 使用 String 序列化
     template.setKeySerializer(stringSerializer);
     template.setHashKeySerializer(stringSerializer);
 
-    // Value 使用 JSON 序列化
+    // Value 使用带版本头的 JSON/Smile 序列化
     template.setValueSerializer(serializer);
     template.setHashValueSerializer(serializer);
 
@@ -46,43 +128,324 @@ public class RedisConfig {
     return template;
   }
 
+  /**
+   * ReactiveRedisTemplate
+   *
+   * <p>与 RedisTemplate 使用相同的 key/value 序列化，基于 Lettuce 非阻塞命令，
+   * 供 {@link ReactiveRedisCacheImpl} 与 RedisUtils 的异步读取使用
+   */
+  @Bean
+  public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(
+      ReactiveRedisConnectionFactory connectionFactory, CacheProperties cacheProperties) {
+    StringRedisSerializer stringSerializer = new StringRedisSerializer();
+    VersionedRedisSerializer serializer = createValueSerializer(cacheProperties);
+    RedisSerializationContext<String, Object> context = RedisSerializationContext
+        .<String, Object>newSerializationContext(stringSerializer)
+        .value(serializer)
+        .hashKey(stringSerializer)
+        .hashValue(serializer)
+        .build();
+    return new ReactiveRedisTemplate<>(connectionFactory, context);
+  }
+
+  /**
+   * 异步缓存（AsyncCache 实现）
+   *
+   * <p>基于 Lettuce 非阻塞命令，与 RedisTemplate 使用相同的 key/value 序列化，可与 ICache 混用
+   */
+  @Bean
+  public ReactiveRedisCacheImpl reactiveRedisCache(
+      ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+      CacheProperties cacheProperties,
+      NamespaceGenerations namespaceGenerations,
+      HotKeyDetector hotKeyDetector,
+      ClientSideCache clientSideCache) {
+    return new ReactiveRedisCacheImpl(
+        reactiveRedisTemplate,
+        namespaceGenerations,
+        cacheProperties,
+        hotKeyDetector,
+        clientSideCache);
+  }
+
   /**
    * 配置 CacheManager 支持 @Cacheable 注解
-   * 允许动态创建缓存，缓存 TTL 默认 1 小时
+   * 允许动态创建缓存，缓存 TTL 默认 1 小时，并按 seed.cache.ttl-jitter 随机缩短避免集中过期
    * 使用与 RedisTemplate 相同的序列化器，确保一致性
+   * seed.cache.specs.{name} 可按缓存名称覆盖 TTL、null 值缓存、key 前缀、编码格式
+   * 启用近端缓存时，seed.cache.near.cache-names 中的缓存会叠加进程内 L1
+   * sync = true 的回源按 key 跨节点合并，防止热点 key 过期时缓存击穿
+   * seed.cache.refresh-ahead.cache-names 中的缓存在接近过期时经同名的 CacheReloader 后台提前刷新
+   * key 前缀嵌入命名空间代数，清空缓存只需递增代数，旧 key 在后台回收
+   */
+  @Bean
+  public CacheManager cacheManager(
+      RedisConnectionFactory connectionFactory,
+      CacheProperties cacheProperties,
+      CacheLoadCoordinator cacheLoadCoordinator,
+      NamespaceGenerations namespaceGenerations,
+      ObjectProvider<CacheInvalidationBus> invalidationBus,
+      ObjectProvider<CacheReloader> cacheReloaders) {
+    Map<String, RedisCacheConfiguration> initialConfigurations = new LinkedHashMap<>();
+    cacheProperties.getSpecs().forEach((name, spec) -> initialConfigurations.put(
+        name, createCacheConfiguration(cacheProperties, namespaceGenerations, spec)));
+
+    RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+        .cacheDefaults(createCacheConfiguration(
+            cacheProperties, namespaceGenerations, new CacheProperties.Spec()))
+        .withInitialCacheConfigurations(initialConfigurations)
+        .build();
+    redisCacheManager.afterPropertiesSet();
+    return new SeedCacheManager(
+        redisCacheManager,
+        cacheProperties,
+        cacheLoadCoordinator,
+        namespaceGenerations,
+        invalidationBus.getIfAvailable(),
+        cacheReloaders.orderedStream().toList());
+  }
+
+  /**
+   * key 流式扫描与批量删除
+   *
+   * <p>SCAN COUNT、UNLINK 批大小与删除限速由 seed.cache.scan 配置，Cluster 模式下扫描全部主节点
    */
   @Bean
-  public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-    Jackson2JsonRedisSerializer<Object> serializer = createJsonSerializer();
+  public RedisKeyScanner redisKeyScanner(
+      RedisConnectionFactory connectionFactory,
+      CacheProperties cacheProperties,
+      SlotBatchExecutor slotBatchExecutor) {
+    CacheProperties.Scan scan = cacheProperties.getScan();
+    return new RedisKeyScanner(
+        new StringRedisTemplate(connectionFactory),
+        scan.getCount(),
+        scan.getUnlinkBatchSize(),
+        scan.getMaxUnlinkRate(),
+        slotBatchExecutor);
+  }
+
+  /**
+   * 按槽位拆分的多 key 命令执行器
+   *
+   * <p>连接工厂为 Redis Cluster 时，多 key 命令按槽位分组、按主节点 Pipeline 执行，
+   * 同时执行的节点数由 seed.cache.scan.cluster-parallelism 限制；SCAN 依次遍历每个主节点
+   */
+  @Bean
+  public SlotBatchExecutor slotBatchExecutor(
+      RedisConnectionFactory connectionFactory, CacheProperties cacheProperties) {
+    boolean cluster =
+        connectionFactory instanceof LettuceConnectionFactory lettuce && lettuce.isClusterAware();
+    return new SlotBatchExecutor(
+        cluster ? connectionFactory : null, cacheProperties.getScan().getClusterParallelism());
+  }
+
+  /**
+   * key 空间内存分析
+   *
+   * <p>seed.cache.key-space.enabled=true 时按间隔在后台分析，key 按 seed.cache.key-prefixes 归类
+   */
+  @Bean(destroyMethod = "close")
+  public KeySpaceAnalyzer keySpaceAnalyzer(
+      RedisConnectionFactory connectionFactory,
+      RedisKeyScanner redisKeyScanner,
+      CacheProperties cacheProperties) {
+    KeySpaceAnalyzer analyzer = new KeySpaceAnalyzer(
+        redisKeyScanner,
+        new StringRedisTemplate(connectionFactory),
+        new KeyPrefixes(cacheProperties.getKeyPrefixes()),
+        cacheProperties.getKeySpace());
+    analyzer.start();
+    return analyzer;
+  }
+
+  /**
+   * 写回式计数器
+   *
+   * <p>刷新间隔、触发刷新的事件数与严格模式由 seed.cache.counter 配置，应用关闭时写入剩余增量
+   */
+  @Bean(destroyMethod = "close")
+  public BufferedCounter bufferedCounter(
+      RedisTemplate<String, Object> redisTemplate, CacheProperties cacheProperties) {
+    CacheProperties.Counter counter = cacheProperties.getCounter();
+    return new BufferedCounter(
+        redisTemplate,
+        counter.getFlushInterval(),
+        counter.getFlushThreshold(),
+        counter.getIdleFlushes(),
+        counter.isStrict());
+  }
+
+  /**
+   * 自动 Pipeline 写入
+   *
+   * <p>seed.cache.pipelining.enabled=true 时在独立连接上按窗口与批大小合并发送写入命令，
+   * 值序列化与 RedisTemplate 一致
+   */
+  @Bean(destroyMethod = "close")
+  public PipelinedWriter pipelinedWriter(
+      RedisConnectionFactory connectionFactory,
+      CacheProperties cacheProperties,
+      RedisCommandMetrics redisCommandMetrics) {
+    PipelinedWriter writer = new PipelinedWriter(
+        cacheProperties.getPipelining(),
+        createValueSerializer(cacheProperties),
+        redisCommandMetrics);
+    writer.start(connectionFactory);
+    return writer;
+  }
+
+  /**
+   * 缓存命名空间代数
+   *
+   * <p>本地缓存代数的刷新间隔由 seed.cache.generation.refresh-interval 配置
+   */
+  @Bean
+  public NamespaceGenerations namespaceGenerations(
+      RedisConnectionFactory connectionFactory,
+      ReactiveRedisConnectionFactory reactiveConnectionFactory,
+      RedisKeyScanner redisKeyScanner,
+      CacheProperties cacheProperties) {
+    return new NamespaceGenerations(
+        new StringRedisTemplate(connectionFactory),
+        new ReactiveStringRedisTemplate(reactiveConnectionFactory),
+        redisKeyScanner,
+        cacheProperties.getGeneration().getRefreshInterval());
+  }
+
+  /**
+   * 缓存回源协调器
+   *
+   * <p>进程内按 key 合并回源，跨节点通过分布式锁租约保证同一时刻只有一个节点回源
+   */
+  @Bean
+  public CacheLoadCoordinator cacheLoadCoordinator(IDistributedLock distributedLock) {
+    return new CacheLoadCoordinator(distributedLock);
+  }
+
+  /**
+   * 热点 key 探测
+   *
+   * <p>seed.cache.hot-key.enabled=true 时，RedisCacheImpl 与 RedisUtils 读取的热点 key 保留本地短期副本
+   */
+  @Bean
+  public HotKeyDetector hotKeyDetector(CacheProperties cacheProperties) {
+    return new HotKeyDetector(cacheProperties.getHotKey());
+  }
+
+  /**
+   * Redis 客户端缓存（RESP3 CLIENT TRACKING）
+   *
+   * <p>seed.cache.tracking.enabled=true 时在独立连接上按前缀开启广播跟踪，
+   * 命中、未命中与失效次数发布为 redis.client.cache.* 指标
+   */
+  @Bean(destroyMethod = "close")
+  public ClientSideCache clientSideCache(
+      RedisConnectionFactory connectionFactory,
+      CacheProperties cacheProperties,
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    ClientSideCache clientSideCache = new ClientSideCache(
+        cacheProperties.getTracking(), meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    clientSideCache.start(connectionFactory);
+    return clientSideCache;
+  }
+
+  /**
+   * 近端缓存失效消息总线
+   *
+   * <p>seed.cache.near.enabled=true 时启用
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "seed.cache.near", name = "enabled", havingValue = "true")
+  public CacheInvalidationBus cacheInvalidationBus(
+      RedisConnectionFactory connectionFactory, CacheProperties cacheProperties) {
+    return new CacheInvalidationBus(connectionFactory, cacheProperties.getNear().getTopic());
+  }
+
+  /**
+   * 两级近端缓存（ICache 实现）
+   *
+   * <p>key 以 seed.cache.near.key-prefixes 开头的条目经过进程内 L1，其余直接访问 Redis。
+   * 启用后作为首选的 ICache 注入
+   */
+  @Bean
+  @Primary
+  @ConditionalOnProperty(prefix = "seed.cache.near", name = "enabled", havingValue = "true")
+  public NearCacheImpl nearCache(
+      RedisCacheImpl redisCacheImpl,
+      CacheInvalidationBus cacheInvalidationBus,
+      CacheProperties cacheProperties) {
+    CacheProperties.Near near = cacheProperties.getNear();
+    return new NearCacheImpl(
+        redisCacheImpl,
+        cacheInvalidationBus,
+        near.getKeyPrefixes(),
+        near.getMaximumSize(),
+        near.getTtl());
+  }
+
+  /**
+   * 按缓存配置创建 RedisCacheConfiguration
+   *
+   * @param cacheProperties 全局配置
+   * @param namespaceGenerations 命名空间代数，嵌入 generation.namespaces 中缓存的 key 前缀
+   * @param spec 单个缓存的配置，未设置的项沿用全局配置
+   */
+  private RedisCacheConfiguration createCacheConfiguration(
+      CacheProperties cacheProperties,
+      NamespaceGenerations namespaceGenerations,
+      CacheProperties.Spec spec) {
+    Duration ttl = spec.getTtl() != null ? spec.getTtl() : cacheProperties.getTtl();
+    ValueCodec codec = spec.getCodec() != null ? spec.getCodec() : cacheProperties.getCodec();
 
     RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-        .entryTtl(Duration.ofHours(1))
+        .entryTtl(new JitteredTtlFunction(ttl, cacheProperties.getTtlJitter()))
         .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
-        .disableCachingNullValues();
-
-    return RedisCacheManager.builder(connectionFactory)
-        .cacheDefaults(config)
-        .build();
+        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+            createValueSerializer(cacheProperties, codec)))
+        .computePrefixWith(cacheName -> cacheProperties.isGenerational(cacheName)
+            ? namespaceGenerations.versionedPrefix(cacheProperties.keyPrefixOf(cacheName))
+            : cacheProperties.keyPrefixOf(cacheName));
+    if (!spec.isCacheNullValues()) {
+      config = config.disableCachingNullValues();
+    }
+    return config;
   }
 
   /**
-   * 创建带类型安全白名单的 JSON 序列化器
+   * 创建带类型安全白名单的值序列化器
+   *
+   * <p>按 seed.cache.codec 选择写入格式，超过 seed.cache.compression-threshold 的值使用 LZ4 压缩
    */
-  private Jackson2JsonRedisSerializer<Object> createJsonSerializer() {
-    ObjectMapper mapper = new ObjectMapper();
-    mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
-    PolymorphicTypeValidator ptv = BasicPolymorphicTypeValidator.builder()
-        .allowIfBaseType("com.zhangzhankui.seed.")
-        .allowIfBaseType("java.util.")
-        .allowIfBaseType("java.lang.")
-        .allowIfBaseType("java.time.")
-        .build();
-    mapper.activateDefaultTyping(
-        ptv,
-        ObjectMapper.DefaultTyping.NON_FINAL,
-        JsonTypeInfo.As.PROPERTY);
-    mapper.registerModule(new JavaTimeModule());
-    return new Jackson2JsonRedisSerializer<>(mapper, Object.class);
+  private VersionedRedisSerializer createValueSerializer(CacheProperties cacheProperties) {
+    return createValueSerializer(cacheProperties, cacheProperties.getCodec());
+  }
+
+  private VersionedRedisSerializer createValueSerializer(
+      CacheProperties cacheProperties, ValueCodec codec) {
+    int threshold = cacheProperties.getCompressionThreshold() == null
+        ? 0
+        : (int) cacheProperties.getCompressionThreshold().toBytes();
+    return new VersionedRedisSerializer(codec, threshold);
+  }
+
+  /** Redis 相关 Actuator 端点，应用引入 actuator 时注册 */
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnClass(Endpoint.class)
+  static class EndpointConfiguration {
+
+    @Bean
+    public HotKeyEndpoint hotKeyEndpoint(HotKeyDetector hotKeyDetector) {
+      return new HotKeyEndpoint(hotKeyDetector);
+    }
+
+    @Bean
+    public KeySpaceEndpoint keySpaceEndpoint(KeySpaceAnalyzer keySpaceAnalyzer) {
+      return new KeySpaceEndpoint(keySpaceAnalyzer);
+    }
+
+    @Bean
+    public LockContentionEndpoint lockContentionEndpoint(LockMetrics lockMetrics) {
+      return new LockContentionEndpoint(lockMetrics);
+    }
   }
 }
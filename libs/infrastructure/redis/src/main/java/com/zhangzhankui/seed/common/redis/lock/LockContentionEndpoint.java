@@ -0,0 +1,31 @@
+package com.zhangzhankui.seed.common.redis.lock;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * 分布式锁竞争 Actuator 端点
+ *
+ * <p>{@code GET /actuator/locks?limit=20} 按锁键模板返回竞争最激烈的锁，
+ * 需在 management.endpoints.web.exposure.include 中开放
+ */
+@Endpoint(id = "locks")
+public class LockContentionEndpoint {
+
+  private static final int DEFAULT_LIMIT = 20;
+
+  private final LockMetrics lockMetrics;
+
+  public LockContentionEndpoint(@NonNull LockMetrics lockMetrics) {
+    this.lockMetrics = lockMetrics;
+  }
+
+  @ReadOperation
+  public List<LockMetrics.Contention> contended(@Nullable Integer limit) {
+    return lockMetrics.topContended(limit != null && limit > 0 ? limit : DEFAULT_LIMIT);
+  }
+}
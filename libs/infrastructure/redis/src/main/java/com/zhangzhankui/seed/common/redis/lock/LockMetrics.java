@@ -0,0 +1,268 @@
+package com.zhangzhankui.seed.common.redis.lock;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import com.zhangzhankui.seed.common.redis.utils.KeyPrefixes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.lang.NonNull;
+
+/**
+ * 分布式锁竞争指标
+ *
+ * <ul>
+ *   <li>{@code lock.acquire}：获取锁的等待时间（含本地排队），标签 name、outcome（acquired/timeout/interrupted/error）
+ *   <li>{@code lock.hold}：从获取到释放的持有时间，标签 name
+ *   <li>{@code lock.acquire.failures}：获取失败次数，标签 name、reason（timeout/interrupted/error）
+ * </ul>
+ *
+ * <p>name 优先取锁键匹配的最长前缀（如 {@code cache:load:user:login:}），未匹配时取锁键的模板：
+ * 数字、UUID 与长十六进制段替换为 {@code {id}}，如 {@code order:123} 归为 {@code order:{id}}；
+ * 用户名等非数字标识无法识别，需要为其配置前缀。名称数量超过 {@value #MAX_TEMPLATES} 后归入 other。
+ * 每个名称最多对应 8 个计量器，计时器默认只发布次数、总和与最大值，百分位直方图需显式开启。
+ * 同一份数据按名称累计，供 {@link LockContentionEndpoint} 列出竞争最激烈的锁。
+ */
+public class LockMetrics {
+
+  /** 超出模板数量上限的锁名 */
+  public static final String OTHER = "other";
+
+  /** 等待超过该时间的获取视为发生竞争 */
+  static final long CONTENDED_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  static final int MAX_TEMPLATES = 100;
+
+  private static final Pattern UUID = Pattern.compile(
+      "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+  /** 以分隔符（或首尾）为边界的纯数字段、16 位以上十六进制段 */
+  private static final Pattern ID = Pattern.compile(
+      "(?<![^:_\\-./,])(?:\\d+|[0-9a-fA-F]{16,})(?![^:_\\-./,])");
+
+  private static final String ID_PLACEHOLDER = "{id}";
+
+  private final MeterRegistry meterRegistry;
+  private final KeyPrefixes keyPrefixes;
+  private final boolean enabled;
+  private final boolean percentileHistogram;
+  private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+  /** 不按前缀归类，不发布百分位直方图 */
+  public LockMetrics(@NonNull MeterRegistry meterRegistry, boolean enabled) {
+    this(meterRegistry, new KeyPrefixes(List.of()), enabled, false);
+  }
+
+  /**
+   * @param keyPrefixes 锁键前缀（不含 lock:），匹配的锁键按前缀记录
+   * @param enabled 是否记录
+   * @param percentileHistogram 计时器是否发布百分位直方图
+   */
+  public LockMetrics(
+      @NonNull MeterRegistry meterRegistry,
+      @NonNull KeyPrefixes keyPrefixes,
+      boolean enabled,
+      boolean percentileHistogram) {
+    this.meterRegistry = meterRegistry;
+    this.keyPrefixes = keyPrefixes;
+    this.enabled = enabled;
+    this.percentileHistogram = percentileHistogram;
+  }
+
+  /**
+   * 锁键模板
+   *
+   * @param lockKey 业务锁键（不含 lock: 前缀）
+   * @return 将标识段替换为 {id} 后的模板
+   */
+  public static String normalize(@NonNull String lockKey) {
+    String normalized = UUID.matcher(lockKey).replaceAll(ID_PLACEHOLDER);
+    return ID.matcher(normalized).replaceAll(ID_PLACEHOLDER);
+  }
+
+  /**
+   * 记录一次获取
+   *
+   * @param lockKey 业务锁键
+   * @param startNanos 开始等待的时间（{@link System#nanoTime()}）
+   * @param outcome 结果
+   */
+  public void recordAcquire(@NonNull String lockKey, long startNanos, @NonNull Outcome outcome) {
+    if (!enabled) {
+      return;
+    }
+    long waitNanos = System.nanoTime() - startNanos;
+    Stats stat = stats(lockKey);
+    stat.acquireTimer(outcome).record(waitNanos, TimeUnit.NANOSECONDS);
+    stat.totalWaitNanos.add(waitNanos);
+    stat.maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    if (outcome == Outcome.ACQUIRED) {
+      stat.acquisitions.increment();
+      if (waitNanos >= CONTENDED_NANOS) {
+        stat.contended.increment();
+      }
+    } else {
+      stat.failures(outcome).increment();
+      stat.contended.increment();
+      if (outcome == Outcome.TIMEOUT) {
+        stat.timeouts.increment();
+      }
+    }
+  }
+
+  /**
+   * 记录一次持有
+   *
+   * @param lockKey 业务锁键
+   * @param acquiredNanos 获取成功的时间（{@link System#nanoTime()}）
+   */
+  public void recordHold(@NonNull String lockKey, long acquiredNanos) {
+    if (!enabled) {
+      return;
+    }
+    long holdNanos = System.nanoTime() - acquiredNanos;
+    Stats stat = stats(lockKey);
+    stat.hold.record(holdNanos, TimeUnit.NANOSECONDS);
+    stat.holds.increment();
+    stat.totalHoldNanos.add(holdNanos);
+  }
+
+  /**
+   * 竞争最激烈的锁
+   *
+   * @param limit 返回数量
+   * @return 按发生竞争的次数、总等待时间降序
+   */
+  public List<Contention> topContended(int limit) {
+    List<Contention> result = new ArrayList<>(stats.size());
+    stats.values().forEach(stat -> result.add(stat.toContention()));
+    result.sort(Comparator.comparingLong(Contention::contended)
+        .thenComparingDouble(Contention::totalWaitMillis)
+        .reversed());
+    return result.size() > limit ? List.copyOf(result.subList(0, limit)) : result;
+  }
+
+  /**
+   * 指标中的锁名称
+   *
+   * @param lockKey 业务锁键
+   * @return 匹配的最长前缀，未匹配时为锁键模板
+   */
+  String name(@NonNull String lockKey) {
+    String prefix = keyPrefixes.classify(lockKey);
+    return KeyPrefixes.OTHER.equals(prefix) ? normalize(lockKey) : prefix;
+  }
+
+  private Stats stats(String lockKey) {
+    String name = name(lockKey);
+    Stats stat = stats.get(name);
+    if (stat != null) {
+      return stat;
+    }
+    if (stats.size() >= MAX_TEMPLATES) {
+      name = OTHER;
+    }
+    return stats.computeIfAbsent(name, Stats::new);
+  }
+
+  /** 获取结果 */
+  public enum Outcome {
+    ACQUIRED("acquired"),
+    TIMEOUT("timeout"),
+    INTERRUPTED("interrupted"),
+    ERROR("error");
+
+    private final String tag;
+
+    Outcome(String tag) {
+      this.tag = tag;
+    }
+  }
+
+  /** 单个模板的累计数据与计量器 */
+  private final class Stats {
+
+    private final String name;
+    private final Map<Outcome, Timer> acquire = new ConcurrentHashMap<>();
+    private final Map<Outcome, Counter> failures = new ConcurrentHashMap<>();
+    private final Timer hold;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder holds = new LongAdder();
+    private final LongAdder totalHoldNanos = new LongAdder();
+
+    Stats(String name) {
+      this.name = name;
+      this.hold = Timer.builder("lock.hold")
+          .description("分布式锁持有时间")
+          .tag("name", name)
+          .publishPercentileHistogram(percentileHistogram)
+          .register(meterRegistry);
+    }
+
+    Timer acquireTimer(Outcome outcome) {
+      return acquire.computeIfAbsent(outcome, o -> Timer.builder("lock.acquire")
+          .description("分布式锁获取等待时间")
+          .tag("name", name)
+          .tag("outcome", o.tag)
+          .publishPercentileHistogram(percentileHistogram)
+          .register(meterRegistry));
+    }
+
+    Counter failures(Outcome outcome) {
+      return failures.computeIfAbsent(outcome, o -> Counter.builder("lock.acquire.failures")
+          .description("分布式锁获取失败次数")
+          .tag("name", name)
+          .tag("reason", o.tag)
+          .register(meterRegistry));
+    }
+
+    Contention toContention() {
+      long acquired = acquisitions.sum();
+      long held = holds.sum();
+      return new Contention(
+          name,
+          acquired,
+          contended.sum(),
+          timeouts.sum(),
+          toMillis(totalWaitNanos.sum()),
+          toMillis(maxWaitNanos.get()),
+          held == 0 ? 0 : toMillis(totalHoldNanos.sum()) / held);
+    }
+
+    private static double toMillis(long nanos) {
+      return nanos / 1_000_000.0;
+    }
+  }
+
+  /**
+   * 单个锁模板的竞争情况
+   *
+   * @param name 锁键前缀或模板
+   * @param acquisitions 成功获取次数
+   * @param contended 等待超过 1ms 或获取失败的次数
+   * @param timeouts 等待超时次数
+   * @param totalWaitMillis 累计等待毫秒数（含失败）
+   * @param maxWaitMillis 最长一次等待毫秒数
+   * @param avgHoldMillis 平均持有毫秒数
+   */
+  public record Contention(
+      String name,
+      long acquisitions,
+      long contended,
+      long timeouts,
+      double totalWaitMillis,
+      double maxWaitMillis,
+      double avgHoldMillis) {}
+}
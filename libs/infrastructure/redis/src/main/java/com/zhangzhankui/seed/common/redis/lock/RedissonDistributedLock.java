@@ -1,12 +1,23 @@
 package com.zhangzhankui.seed.common.redis.lock;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.zhangzhankui.seed.common.core.lock.IDistributedLock;
+import com.zhangzhankui.seed.common.redis.utils.RedisCommandMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RFencedLock;
+import org.redisson.api.RFuture;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 /**
@@ -19,67 +30,442 @@ import org.springframework.stereotype.Component;
  *   <li>自动续期（看门狗机制）
  *   <li>RedLock 算法支持
  * </ul>
+ *
+ * <p>加锁与解锁的耗时记录到 redis.commands（client=redisson），获取等待、持有时间与失败次数
+ * 按锁键模板记录到 {@link LockMetrics}
+ *
+ * <p>{@link #tryLock}、{@link #lock} 向 Redis 申请期间持有本节点内该 key 的本地锁，同一节点同一时刻只有一个线程
+ * 向 Redis 申请，其余线程在本地排队，不产生 Redis 流量；申请结束即释放本地锁，持有 Redis 锁期间不阻塞本地线程，
+ * 持有者的租约过期后由 Redis 把锁交给等待者。重入不经过本地排队。排队与持有期间复用同一个 RLock 实例，
+ * 没有线程排队且没有租约未过期的持有者时释放。公平锁与读写锁不经过本地排队。
+ *
+ * <p>{@link #tryLockAll} 在无竞争时一次往返获取全部 key，获取后各 key 也可以单独 {@link #unlock}。
+ * {@link #tryLockWithToken} 基于 RFencedLock 返回单调递增的防护令牌，令牌计数器常驻 Redis。
+ *
+ * <p>seed.lock.mode=local 时不注册，由 common-core 的 LocalDistributedLock 代替。
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "seed.lock", name = "mode", havingValue = "redisson", matchIfMissing = true)
 public class RedissonDistributedLock implements IDistributedLock {
 
   private static final String LOCK_PREFIX = "lock:";
 
   private final RedissonClient redissonClient;
+  private final RedisCommandMetrics commandMetrics;
+  private final LockMetrics lockMetrics;
+
+  /** 本节点持有或等待中的锁，key 为完整锁键 */
+  private final Map<String, LocalLock> localLocks = new ConcurrentHashMap<>();
 
   @Override
   public boolean tryLock(String lockKey, long waitTime, long leaseTime, TimeUnit unit) {
+    Long acquired = acquire(lockKey, waitTime, leaseTime, unit, (local, key, remainingNanos) ->
+        tryRemoteLock(local.rLock, "tryLock", key, remainingNanos, leaseTime, unit) ? 0L : null);
+    return acquired != null;
+  }
+
+  /**
+   * 基于 RFencedLock 获取锁，令牌保存在 {@code redisson_lock_token:{lock:key}} 中
+   *
+   * <p>RFencedLock 与普通锁使用相同的数据结构，可与 {@link #tryLock} 互斥，并通过 {@link #unlock} 释放。
+   * 令牌只在 RFencedLock 加锁（含重入）时 INCR，{@link #tryLock} 获取同一把锁不会递增，
+   * 所以同一锁键的所有获取方都必须使用本方法。令牌计数器没有过期时间，每个用过令牌的锁键在 Redis 中
+   * 常驻一个 key，锁键中的业务标识应有界；这些 key 在 key 空间分析中归入 {@code redisson_lock_token:}
+   */
+  @Override
+  public Long tryLockWithToken(String lockKey, long waitTime, long leaseTime, TimeUnit unit) {
+    return acquire(lockKey, waitTime, leaseTime, unit, (local, key, remainingNanos) -> {
+      long start = System.nanoTime();
+      Throwable error = null;
+      try {
+        long leaseMillis = leaseTime < 0 ? -1 : unit.toMillis(leaseTime);
+        return local.fencedLock(redissonClient, key).tryLockAndGetToken(
+            TimeUnit.NANOSECONDS.toMillis(Math.max(remainingNanos, 0)),
+            leaseMillis,
+            TimeUnit.MILLISECONDS);
+      } catch (RuntimeException e) {
+        error = e;
+        throw e;
+      } finally {
+        commandMetrics.record(
+            RedisCommandMetrics.REDISSON, "tryLockAndGetToken", key, start, error);
+      }
+    });
+  }
+
+  @Override
+  public boolean isTokenValid(String lockKey, long token) {
+    Long current = redissonClient.getFencedLock(buildLockKey(lockKey)).getToken();
+    return current != null && token >= current;
+  }
+
+  /**
+   * 先在本地排队，再在剩余等待时间内获取 Redis 锁
+   *
+   * @return Redis 加锁结果，失败返回 null
+   */
+  private Long acquire(
+      String lockKey, long waitTime, long leaseTime, TimeUnit unit, RemoteAcquire remote) {
     String key = buildLockKey(lockKey);
-    RLock lock = redissonClient.getLock(key);
+    long start = System.nanoTime();
+    long deadline = start + unit.toNanos(Math.max(waitTime, 0));
+    LocalLock local = acquireLocal(key);
+    LockMetrics.Outcome outcome = LockMetrics.Outcome.TIMEOUT;
+    Long result = null;
     try {
-      boolean acquired = lock.tryLock(waitTime, leaseTime, unit);
-      if (acquired) {
+      // 重入时 Redis 锁已由本线程持有，不等待正在向 Redis 申请的其他线程
+      boolean queued = !local.isHeldBy(Thread.currentThread());
+      if (queued && !local.inFlight.tryLock(waitTime, unit)) {
+        log.debug("获取分布式锁失败（本地排队超时）: {}", key);
+        return null;
+      }
+      try {
+        result = remote.acquire(local, key, deadline - System.nanoTime());
+      } finally {
+        if (queued) {
+          local.inFlight.unlock();
+        }
+      }
+      if (result != null) {
+        outcome = LockMetrics.Outcome.ACQUIRED;
+        markHeld(key, local, leaseTime, unit);
         log.debug("成功获取分布式锁: {}", key);
       } else {
         log.debug("获取分布式锁失败: {}", key);
       }
-      return acquired;
+      return result;
     } catch (InterruptedException e) {
+      outcome = LockMetrics.Outcome.INTERRUPTED;
       Thread.currentThread().interrupt();
       log.warn("获取分布式锁被中断: {}", key, e);
-      return false;
+      return null;
+    } catch (RuntimeException e) {
+      outcome = LockMetrics.Outcome.ERROR;
+      throw e;
+    } finally {
+      lockMetrics.recordAcquire(lockKey, start, outcome);
+      releaseLocal(key, local);
     }
   }
 
   @Override
   public void lock(String lockKey, long leaseTime, TimeUnit unit) {
     String key = buildLockKey(lockKey);
-    RLock lock = redissonClient.getLock(key);
-    lock.lock(leaseTime, unit);
+    long waitStart = System.nanoTime();
+    LocalLock local = acquireLocal(key);
+    boolean acquired = false;
+    try {
+      boolean queued = !local.isHeldBy(Thread.currentThread());
+      if (queued) {
+        local.inFlight.lock();
+      }
+      long start = System.nanoTime();
+      Throwable error = null;
+      try {
+        local.rLock.lock(leaseTime, unit);
+        acquired = true;
+      } catch (RuntimeException e) {
+        error = e;
+        throw e;
+      } finally {
+        commandMetrics.record(RedisCommandMetrics.REDISSON, "lock", key, start, error);
+        if (queued) {
+          local.inFlight.unlock();
+        }
+      }
+      markHeld(key, local, leaseTime, unit);
+    } finally {
+      lockMetrics.recordAcquire(
+          lockKey, waitStart, acquired ? LockMetrics.Outcome.ACQUIRED : LockMetrics.Outcome.ERROR);
+      releaseLocal(key, local);
+    }
     log.debug("成功获取分布式锁（阻塞）: {}", key);
   }
 
   @Override
   public void unlock(String lockKey) {
     String key = buildLockKey(lockKey);
-    RLock lock = redissonClient.getLock(key);
-    if (lock.isHeldByCurrentThread()) {
-      lock.unlock();
-      log.debug("释放分布式锁: {}", key);
-    } else {
-      log.warn("尝试释放非当前线程持有的锁: {}", key);
+    LocalLock local = localLocks.get(key);
+    if (local == null || local.owner != Thread.currentThread()) {
+      log.warn("尝试释放非当前线程持有（或租约过期后已被其他线程获取）的锁: {}", key);
+      return;
+    }
+    try {
+      if (local.rLock.isHeldByCurrentThread()) {
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+          local.rLock.unlock();
+        } catch (RuntimeException e) {
+          error = e;
+          throw e;
+        } finally {
+          commandMetrics.record(RedisCommandMetrics.REDISSON, "unlock", key, start, error);
+        }
+        log.debug("释放分布式锁: {}", key);
+      } else {
+        log.warn("分布式锁已过期自动释放: {}", key);
+      }
+    } finally {
+      // 无论 Redis 中的锁是否仍持有，本地持有记录都必须释放
+      releaseHeld(lockKey, key, local);
     }
   }
 
   @Override
   public boolean isLocked(String lockKey) {
-    String key = buildLockKey(lockKey);
-    RLock lock = redissonClient.getLock(key);
-    return lock.isLocked();
+    return rLockOf(buildLockKey(lockKey)).isLocked();
   }
 
   @Override
   public boolean isHeldByCurrentThread(String lockKey) {
-    String key = buildLockKey(lockKey);
-    RLock lock = redissonClient.getLock(key);
-    return lock.isHeldByCurrentThread();
+    return rLockOf(buildLockKey(lockKey)).isHeldByCurrentThread();
+  }
+
+  /**
+   * 在剩余等待时间内获取 Redis 锁
+   *
+   * @param remainingNanos 剩余等待时间，不大于 0 时只尝试一次
+   */
+  private boolean tryRemoteLock(
+      RLock lock, String command, String key, long remainingNanos, long leaseTime, TimeUnit unit)
+      throws InterruptedException {
+    long start = System.nanoTime();
+    Throwable error = null;
+    try {
+      // leaseTime 为 -1 时由看门狗续期，需原样传入
+      long leaseMillis = leaseTime < 0 ? -1 : unit.toMillis(leaseTime);
+      return lock.tryLock(
+          TimeUnit.NANOSECONDS.toMillis(Math.max(remainingNanos, 0)),
+          leaseMillis,
+          TimeUnit.MILLISECONDS);
+    } catch (InterruptedException | RuntimeException e) {
+      error = e;
+      throw e;
+    } finally {
+      commandMetrics.record(RedisCommandMetrics.REDISSON, command, key, start, error);
+    }
+  }
+
+  /**
+   * 一次性获取多个锁
+   *
+   * <p>先按字典序获取各 key 的本地锁，再并发发送全部 Redis 加锁命令（不等待），无竞争时一次往返完成；
+   * 任一 key 已被其他节点持有时释放本次获取的 Redis 锁，改为按字典序逐个等待，避免与其他节点相互死锁
+   */
+  @Override
+  public boolean tryLockAll(
+      Collection<String> lockKeys, long waitTime, long leaseTime, TimeUnit unit) {
+    List<String> names = IDistributedLock.sortedKeys(lockKeys);
+    List<String> keys = names.stream().map(this::buildLockKey).toList();
+    if (keys.isEmpty()) {
+      return true;
+    }
+    long start = System.nanoTime();
+    long deadline = start + unit.toNanos(Math.max(waitTime, 0));
+    List<LocalLock> locals = new ArrayList<>(keys.size());
+    LockMetrics.Outcome outcome = LockMetrics.Outcome.TIMEOUT;
+    boolean acquired = false;
+    try {
+      for (String key : keys) {
+        LocalLock local = acquireLocal(key);
+        locals.add(local);
+        if (!local.isHeldBy(Thread.currentThread())
+            && !local.inFlight.tryLock(
+                Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS)) {
+          log.debug("批量获取分布式锁失败（本地排队超时）: {}", key);
+          return false;
+        }
+      }
+      acquired = tryRemoteLockAll(keys, locals, deadline, leaseTime, unit);
+      if (acquired) {
+        outcome = LockMetrics.Outcome.ACQUIRED;
+        for (int i = 0; i < keys.size(); i++) {
+          markHeld(keys.get(i), locals.get(i), leaseTime, unit);
+        }
+      }
+      log.debug("批量获取分布式锁{}: {}", acquired ? "成功" : "失败", keys);
+      return acquired;
+    } catch (InterruptedException e) {
+      outcome = LockMetrics.Outcome.INTERRUPTED;
+      Thread.currentThread().interrupt();
+      log.warn("批量获取分布式锁被中断: {}", keys, e);
+      return false;
+    } catch (RuntimeException e) {
+      outcome = LockMetrics.Outcome.ERROR;
+      throw e;
+    } finally {
+      for (String name : names) {
+        lockMetrics.recordAcquire(name, start, outcome);
+      }
+      for (int i = locals.size() - 1; i >= 0; i--) {
+        LocalLock local = locals.get(i);
+        if (local.inFlight.isHeldByCurrentThread()) {
+          local.inFlight.unlock();
+        }
+        releaseLocal(keys.get(i), local);
+      }
+    }
+  }
+
+  /**
+   * 释放多个锁
+   *
+   * <p>并发发送全部 Redis 解锁命令后等待完成，已过期的锁只记录警告
+   */
+  @Override
+  public void unlockAll(Collection<String> lockKeys) {
+    List<String> names = IDistributedLock.sortedKeys(lockKeys);
+    List<String> heldNames = new ArrayList<>(names.size());
+    List<String> heldKeys = new ArrayList<>(names.size());
+    List<LocalLock> held = new ArrayList<>(names.size());
+    for (String name : names) {
+      String key = buildLockKey(name);
+      LocalLock local = localLocks.get(key);
+      if (local != null && local.owner == Thread.currentThread()) {
+        heldNames.add(name);
+        heldKeys.add(key);
+        held.add(local);
+      } else {
+        log.warn("尝试释放非当前线程持有的锁: {}", key);
+      }
+    }
+    if (held.isEmpty()) {
+      return;
+    }
+    long threadId = Thread.currentThread().threadId();
+    long start = System.nanoTime();
+    try {
+      List<RFuture<Void>> futures = new ArrayList<>(held.size());
+      for (LocalLock local : held) {
+        futures.add(local.rLock.unlockAsync(threadId));
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          futures.get(i).toCompletableFuture().join();
+        } catch (CompletionException e) {
+          log.warn("释放分布式锁失败（可能已过期）: {}", heldKeys.get(i), e.getCause());
+        }
+      }
+      commandMetrics.record(RedisCommandMetrics.REDISSON, "unlockAll", heldKeys.get(0), start, null);
+      log.debug("批量释放分布式锁: {}", heldKeys);
+    } finally {
+      for (int i = held.size() - 1; i >= 0; i--) {
+        releaseHeld(heldNames.get(i), heldKeys.get(i), held.get(i));
+      }
+    }
+  }
+
+  /** 先并发无等待加锁，失败后回滚并按顺序逐个等待 */
+  private boolean tryRemoteLockAll(
+      List<String> keys, List<LocalLock> locals, long deadline, long leaseTime, TimeUnit unit)
+      throws InterruptedException {
+    long threadId = Thread.currentThread().threadId();
+    long leaseMillis = leaseTime < 0 ? -1 : unit.toMillis(leaseTime);
+    long start = System.nanoTime();
+    List<RFuture<Boolean>> futures = new ArrayList<>(locals.size());
+    for (LocalLock local : locals) {
+      futures.add(local.rLock.tryLockAsync(0, leaseMillis, TimeUnit.MILLISECONDS, threadId));
+    }
+    List<LocalLock> acquired = new ArrayList<>(locals.size());
+    Throwable error = null;
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        if (Boolean.TRUE.equals(futures.get(i).toCompletableFuture().join())) {
+          acquired.add(locals.get(i));
+        }
+      } catch (CompletionException e) {
+        error = e.getCause();
+      }
+    }
+    commandMetrics.record(RedisCommandMetrics.REDISSON, "tryLockAll", keys.get(0), start, error);
+    if (acquired.size() == locals.size()) {
+      return true;
+    }
+    unlockRemote(acquired, threadId);
+    if (error instanceof RuntimeException e) {
+      throw e;
+    }
+    // 有竞争：按字典序逐个等待，持有较小 key 的一方总能继续推进
+    acquired.clear();
+    for (int i = 0; i < locals.size(); i++) {
+      LocalLock local = locals.get(i);
+      long remaining = deadline - System.nanoTime();
+      if (!tryRemoteLock(local.rLock, "tryLock", keys.get(i), remaining, leaseTime, unit)) {
+        unlockRemote(acquired, threadId);
+        return false;
+      }
+      acquired.add(local);
+    }
+    return true;
+  }
+
+  /** 回滚已获取的 Redis 锁，只释放一层重入计数 */
+  private void unlockRemote(List<LocalLock> acquired, long threadId) {
+    List<RFuture<Void>> futures = new ArrayList<>(acquired.size());
+    for (LocalLock local : acquired) {
+      futures.add(local.rLock.unlockAsync(threadId));
+    }
+    for (RFuture<Void> future : futures) {
+      try {
+        future.toCompletableFuture().join();
+      } catch (CompletionException e) {
+        log.warn("回滚分布式锁失败", e.getCause());
+      }
+    }
+  }
+
+  /** 记录当前线程已持有 Redis 锁及租约截止时间，调用方持有本地锁引用 */
+  private void markHeld(String key, LocalLock local, long leaseTime, TimeUnit unit) {
+    long leaseNanos = leaseTime < 0 ? -1 : unit.toNanos(leaseTime);
+    localLocks.computeIfPresent(key, (k, current) -> {
+      if (current == local) {
+        current.hold(leaseNanos);
+      }
+      return current;
+    });
+  }
+
+  /** 释放一层持有记录，最外层释放时记录持有时间，条目空闲时移除 */
+  private void releaseHeld(String lockKey, String key, LocalLock local) {
+    Thread thread = Thread.currentThread();
+    localLocks.computeIfPresent(key, (k, current) -> {
+      if (current != local) {
+        return current;
+      }
+      // 租约过期后可能已被其他线程获取，此时不再改动新持有者的记录
+      if (current.owner == thread && current.release()) {
+        lockMetrics.recordHold(lockKey, current.acquiredAt);
+      }
+      return current.isIdle() ? null : current;
+    });
+  }
+
+  /** 引用本地锁，不存在时创建并缓存 RLock */
+  private LocalLock acquireLocal(String key) {
+    return localLocks.compute(key, (k, local) -> {
+      LocalLock current = local != null ? local : new LocalLock(redissonClient.getLock(k));
+      current.refs++;
+      return current;
+    });
+  }
+
+  /** 释放本地锁引用，没有线程排队且没有租约未过期的持有者时移除 */
+  private void releaseLocal(String key, LocalLock local) {
+    localLocks.computeIfPresent(key, (k, current) -> {
+      if (current != local) {
+        return current;
+      }
+      current.refs--;
+      return current.isIdle() ? null : current;
+    });
+  }
+
+  private RLock rLockOf(String key) {
+    LocalLock local = localLocks.get(key);
+    return local != null ? local.rLock : redissonClient.getLock(key);
   }
 
   /**
@@ -92,7 +478,98 @@ public class RedissonDistributedLock implements IDistributedLock {
     return LOCK_PREFIX + lockKey;
   }
 
-  // ========== 扩展方法（Redisson 特有）==========
+  /**
+   * 本地排队锁
+   *
+   * <p>inFlight 只在向 Redis 申请期间持有；refs 为排队或申请中的线程数。持有者、重入次数与租约截止时间
+   * 在获取成功后记录，租约过期后持有记录失效，条目可被移除。refs 与持有记录只在
+   * {@link ConcurrentHashMap#compute} 中修改
+   */
+  private static final class LocalLock {
+
+    private final ReentrantLock inFlight = new ReentrantLock();
+    private final RLock rLock;
+    private int refs;
+
+    /** 持有 Redis 锁的线程，可在 compute 之外读取 */
+    private volatile Thread owner;
+    private int holds;
+
+    /** 最外层获取成功的时间 */
+    private long acquiredAt;
+
+    /** Redis 租约截止时间（nanoTime），看门狗续期时没有截止时间 */
+    private long leaseDeadline;
+    private boolean watchdog;
+
+    /** 带令牌的锁，首次使用时创建；重入线程与申请中的线程可能同时创建，二者等价 */
+    private volatile RFencedLock fencedLock;
+
+    LocalLock(RLock rLock) {
+      this.rLock = rLock;
+    }
+
+    RFencedLock fencedLock(RedissonClient redissonClient, String key) {
+      RFencedLock current = fencedLock;
+      if (current == null) {
+        current = redissonClient.getFencedLock(key);
+        fencedLock = current;
+      }
+      return current;
+    }
+
+    /** 指定线程持有 Redis 锁且租约未过期 */
+    boolean isHeldBy(Thread thread) {
+      return owner == thread && !leaseExpired();
+    }
+
+    boolean leaseExpired() {
+      return !watchdog && System.nanoTime() - leaseDeadline >= 0;
+    }
+
+    /** 获取成功后记录持有者，重入时保留最外层的时间；Redisson 重入加锁会按新的 leaseTime 重置过期时间 */
+    void hold(long leaseNanos) {
+      Thread thread = Thread.currentThread();
+      long now = System.nanoTime();
+      if (isHeldBy(thread)) {
+        holds++;
+      } else {
+        holds = 1;
+        acquiredAt = now;
+      }
+      watchdog = leaseNanos < 0;
+      leaseDeadline = now + Math.max(leaseNanos, 0);
+      owner = thread;
+    }
+
+    /**
+     * 释放一层持有记录
+     *
+     * @return 是否为最外层
+     */
+    boolean release() {
+      if (--holds > 0) {
+        return false;
+      }
+      owner = null;
+      return true;
+    }
+
+    boolean isIdle() {
+      return refs == 0 && (owner == null || leaseExpired());
+    }
+  }
+
+  /** 持有本地锁后在 Redis 上加锁 */
+  @FunctionalInterface
+  private interface RemoteAcquire {
+
+    /**
+     * @param remainingNanos 剩余等待时间
+     * @return 加锁结果，失败返回 null
+     */
+    Long acquire(LocalLock local, String key, long remainingNanos) throws InterruptedException;
+  }
 
   /**
    * 获取公平锁
@@ -105,6 +582,7 @@ public class RedissonDistributedLock implements IDistributedLock {
    * @param unit 时间单位
    * @return 是否获取成功
    */
+  @Override
   public boolean tryFairLock(String lockKey, long waitTime, long leaseTime, TimeUnit unit) {
     String key = buildLockKey(lockKey);
     RLock lock = redissonClient.getFairLock(key);
@@ -126,6 +604,7 @@ public class RedissonDistributedLock implements IDistributedLock {
    *
    * @param lockKey 锁键
    */
+  @Override
   public void unlockFairLock(String lockKey) {
     String key = buildLockKey(lockKey);
     RLock lock = redissonClient.getFairLock(key);
@@ -144,6 +623,7 @@ public class RedissonDistributedLock implements IDistributedLock {
    * @param unit 时间单位
    * @return 是否获取成功
    */
+  @Override
   public boolean tryReadLock(String lockKey, long waitTime, long leaseTime, TimeUnit unit) {
     String key = buildLockKey(lockKey);
     RLock readLock = redissonClient.getReadWriteLock(key).readLock();
@@ -164,6 +644,7 @@ public class RedissonDistributedLock implements IDistributedLock {
    * @param unit 时间单位
    * @return 是否获取成功
    */
+  @Override
   public boolean tryWriteLock(String lockKey, long waitTime, long leaseTime, TimeUnit unit) {
     String key = buildLockKey(lockKey);
     RLock writeLock = redissonClient.getReadWriteLock(key).writeLock();
@@ -180,6 +661,7 @@ public class RedissonDistributedLock implements IDistributedLock {
    *
    * @param lockKey 锁键
    */
+  @Override
   public void unlockReadLock(String lockKey) {
     String key = buildLockKey(lockKey);
     RLock readLock = redissonClient.getReadWriteLock(key).readLock();
@@ -193,6 +675,7 @@ public class RedissonDistributedLock implements IDistributedLock {
    *
    * @param lockKey 锁键
    */
+  @Override
   public void unlockWriteLock(String lockKey) {
     String key = buildLockKey(lockKey);
     RLock writeLock = redissonClient.getReadWriteLock(key).writeLock();
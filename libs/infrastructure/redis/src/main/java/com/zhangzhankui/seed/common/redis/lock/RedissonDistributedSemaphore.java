@@ -0,0 +1,364 @@
+package com.zhangzhankui.seed.common.redis.lock;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.zhangzhankui.seed.common.core.lock.IDistributedSemaphore;
+import com.zhangzhankui.seed.common.core.lock.SemaphorePermits;
+import com.zhangzhankui.seed.common.redis.config.LockProperties;
+import com.zhangzhankui.seed.common.redis.utils.RedisCommandMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RPermitExpirableSemaphore;
+import org.redisson.api.RedissonClient;
+import org.springframework.stereotype.Component;
+
+/**
+ * 基于 Redisson RPermitExpirableSemaphore 的分布式信号量实现
+ *
+ * <p>每个许可都有独立的租约，持有节点崩溃后许可在租约到期时由 Redis 回收。
+ *
+ * <p>释放的许可先在本节点保留 {@code seed.lock.semaphore.idle-timeout}（每个信号量至多
+ * {@code max-idle-permits} 个），期间同一信号量的 {@link #tryAcquire} 直接复用，不访问 Redis；
+ * 空闲许可的租约在放入时异步延长到「上次租约 + 空闲时间」，复用时剩余租约不短于本次申请的租约。
+ * 超过空闲时间或剩余租约不足的许可归还 Redis。空闲许可计入已占用，{@link #availablePermits} 不包含它们。
+ */
+@Slf4j
+@Component
+public class RedissonDistributedSemaphore implements IDistributedSemaphore, AutoCloseable {
+
+  private static final String SEMAPHORE_PREFIX = "semaphore:";
+
+  /** 空闲许可的最短扫描间隔 */
+  private static final long MIN_SWEEP_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final RedissonClient redissonClient;
+  private final RedisCommandMetrics commandMetrics;
+  private final long idleTimeoutNanos;
+  private final int maxIdlePermits;
+  private final ScheduledExecutorService sweeper;
+
+  /** 已发放、尚未释放的许可，key 为许可 ID */
+  private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+  /** 本地保留的空闲许可，key 为完整信号量键，队首为最近放入的许可 */
+  private final Map<String, Deque<Lease>> idlePermits = new ConcurrentHashMap<>();
+
+  public RedissonDistributedSemaphore(
+      RedissonClient redissonClient,
+      RedisCommandMetrics commandMetrics,
+      LockProperties lockProperties) {
+    this.redissonClient = redissonClient;
+    this.commandMetrics = commandMetrics;
+    LockProperties.Semaphore semaphore = lockProperties.getSemaphore();
+    this.idleTimeoutNanos = Math.max(semaphore.getIdleTimeout().toNanos(), 0);
+    this.maxIdlePermits = Math.max(semaphore.getMaxIdlePermits(), 0);
+    if (idleTimeoutNanos > 0 && maxIdlePermits > 0) {
+      long period = Math.max(idleTimeoutNanos / 2, MIN_SWEEP_NANOS);
+      this.sweeper = Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("redis-semaphore-sweeper").daemon().factory());
+      sweeper.scheduleWithFixedDelay(this::sweepQuietly, period, period, TimeUnit.NANOSECONDS);
+    } else {
+      this.sweeper = null;
+    }
+  }
+
+  @Override
+  public boolean trySetPermits(String name, int permits) {
+    String key = buildSemaphoreKey(name);
+    long start = System.nanoTime();
+    Throwable error = null;
+    try {
+      return semaphore(key).trySetPermits(permits);
+    } catch (RuntimeException e) {
+      error = e;
+      throw e;
+    } finally {
+      commandMetrics.record(RedisCommandMetrics.REDISSON, "trySetPermits", key, start, error);
+    }
+  }
+
+  @Override
+  public SemaphorePermits tryAcquire(
+      String name, int permits, long waitTime, long leaseTime, TimeUnit unit) {
+    if (permits <= 0) {
+      throw new IllegalArgumentException("permits must be positive");
+    }
+    if (leaseTime <= 0) {
+      throw new IllegalArgumentException("leaseTime must be positive");
+    }
+    String key = buildSemaphoreKey(name);
+    long leaseNanos = unit.toNanos(leaseTime);
+    List<Lease> acquired = takeIdle(key, permits, leaseNanos);
+    int missing = permits - acquired.size();
+    if (missing > 0) {
+      List<Lease> remote;
+      try {
+        remote = tryAcquireRemote(key, missing, waitTime, leaseNanos, unit);
+      } catch (RuntimeException e) {
+        returnIdle(key, acquired);
+        throw e;
+      }
+      if (remote == null) {
+        returnIdle(key, acquired);
+        log.debug("获取信号量许可失败: {}, permits: {}", key, permits);
+        return null;
+      }
+      acquired.addAll(remote);
+    } else {
+      log.debug("复用本地空闲许可: {}, permits: {}", key, permits);
+    }
+    List<String> ids = new ArrayList<>(acquired.size());
+    for (Lease lease : acquired) {
+      lease.leaseNanos = leaseNanos;
+      leases.put(lease.id, lease);
+      ids.add(lease.id);
+    }
+    return new SemaphorePermits(name, ids);
+  }
+
+  @Override
+  public void release(SemaphorePermits permits) {
+    if (permits == null || permits.ids().isEmpty()) {
+      return;
+    }
+    String key = buildSemaphoreKey(permits.name());
+    List<String> toRelease = new ArrayList<>();
+    long now = System.nanoTime();
+    for (String id : permits.ids()) {
+      Lease lease = leases.remove(id);
+      if (lease == null || lease.remainingNanos(now) <= 0 || !keepIdle(key, lease, now)) {
+        toRelease.add(id);
+      }
+    }
+    if (!toRelease.isEmpty()) {
+      releaseRemote(key, toRelease);
+    }
+  }
+
+  @Override
+  public int availablePermits(String name) {
+    return semaphore(buildSemaphoreKey(name)).availablePermits();
+  }
+
+  /** 停止扫描并把全部空闲许可归还 Redis */
+  @Override
+  public void close() {
+    if (sweeper != null) {
+      sweeper.shutdownNow();
+    }
+    idlePermits.forEach((key, deque) -> {
+      List<String> ids = new ArrayList<>();
+      Lease lease;
+      while ((lease = deque.pollFirst()) != null) {
+        ids.add(lease.id);
+      }
+      if (!ids.isEmpty()) {
+        try {
+          releaseRemote(key, ids);
+        } catch (RuntimeException e) {
+          log.error("归还空闲信号量许可失败: {}", key, e);
+        }
+      }
+    });
+  }
+
+  /** 归还超过空闲时间或已过期的许可，并清理持有者未释放且已过期的发放记录 */
+  void sweep() {
+    long now = System.nanoTime();
+    idlePermits.forEach((key, deque) -> {
+      List<String> expired = new ArrayList<>();
+      for (Lease lease : deque) {
+        if (now - lease.idleSince >= idleTimeoutNanos || lease.remainingNanos(now) <= 0) {
+          if (deque.remove(lease)) {
+            expired.add(lease.id);
+          }
+        }
+      }
+      if (!expired.isEmpty()) {
+        releaseRemoteAsync(key, expired);
+      }
+    });
+    leases.values().removeIf(lease -> lease.remainingNanos(now) <= 0);
+  }
+
+  private void sweepQuietly() {
+    try {
+      sweep();
+    } catch (Exception e) {
+      log.error("扫描空闲信号量许可失败", e);
+    }
+  }
+
+  /** 取出剩余租约不短于本次租约的空闲许可；租约正在延长的留在本地，其余不足的归还 Redis */
+  private List<Lease> takeIdle(String key, int permits, long leaseNanos) {
+    List<Lease> reused = new ArrayList<>(permits);
+    Deque<Lease> deque = idlePermits.get(key);
+    if (deque == null) {
+      return reused;
+    }
+    List<String> stale = new ArrayList<>();
+    List<Lease> extending = new ArrayList<>();
+    long now = System.nanoTime();
+    Lease lease;
+    while (reused.size() < permits && (lease = deque.pollFirst()) != null) {
+      if (lease.remainingNanos(now) >= leaseNanos) {
+        reused.add(lease);
+      } else if (lease.extending) {
+        extending.add(lease);
+      } else {
+        stale.add(lease.id);
+      }
+    }
+    extending.forEach(deque::offerLast);
+    if (!stale.isEmpty()) {
+      releaseRemoteAsync(key, stale);
+    }
+    return reused;
+  }
+
+  /** 获取失败时把复用的许可放回本地 */
+  private void returnIdle(String key, List<Lease> reused) {
+    if (reused.isEmpty()) {
+      return;
+    }
+    Deque<Lease> deque = idlePermits.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+    reused.forEach(deque::offerFirst);
+  }
+
+  /**
+   * 放入空闲队列，租约不足「上次租约 + 空闲时间」时异步延长
+   *
+   * @return 是否保留在本地，队列已满或未开启时为 false
+   */
+  private boolean keepIdle(String key, Lease lease, long now) {
+    if (sweeper == null) {
+      return false;
+    }
+    Deque<Lease> deque = idlePermits.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+    if (deque.size() >= maxIdlePermits) {
+      return false;
+    }
+    long extendNanos = lease.leaseNanos + idleTimeoutNanos;
+    if (lease.remainingNanos(now) < extendNanos) {
+      // 延长成功前按原到期时间判断，失败时许可随原租约过期
+      lease.extending = true;
+      semaphore(key)
+          .updateLeaseTimeAsync(lease.id, TimeUnit.NANOSECONDS.toMillis(extendNanos), TimeUnit.MILLISECONDS)
+          .whenComplete((updated, error) -> {
+            lease.extending = false;
+            if (Boolean.TRUE.equals(updated)) {
+              lease.expiresAt = now + extendNanos;
+            } else if (error != null) {
+              log.error("延长空闲信号量许可租约失败: {}", key, error);
+            }
+          });
+    }
+    lease.idleSince = now;
+    deque.offerFirst(lease);
+    return true;
+  }
+
+  /**
+   * 在等待时间内从 Redis 获取许可
+   *
+   * @return 获取到的许可，失败或被中断时返回 null
+   */
+  private List<Lease> tryAcquireRemote(
+      String key, int permits, long waitTime, long leaseNanos, TimeUnit unit) {
+    long start = System.nanoTime();
+    Throwable error = null;
+    try {
+      List<String> ids = semaphore(key).tryAcquire(
+          permits,
+          unit.toMillis(Math.max(waitTime, 0)),
+          TimeUnit.NANOSECONDS.toMillis(leaseNanos),
+          TimeUnit.MILLISECONDS);
+      if (ids == null || ids.isEmpty()) {
+        return null;
+      }
+      // 以发出请求的时间计算到期时间，本地判断不晚于 Redis
+      long expiresAt = start + leaseNanos;
+      List<Lease> acquired = new ArrayList<>(ids.size());
+      ids.forEach(id -> acquired.add(new Lease(id, leaseNanos, expiresAt)));
+      return acquired;
+    } catch (InterruptedException e) {
+      error = e;
+      Thread.currentThread().interrupt();
+      log.warn("获取信号量许可被中断: {}", key, e);
+      return null;
+    } catch (RuntimeException e) {
+      error = e;
+      throw e;
+    } finally {
+      commandMetrics.record(RedisCommandMetrics.REDISSON, "tryAcquire", key, start, error);
+    }
+  }
+
+  private void releaseRemote(String key, List<String> ids) {
+    long start = System.nanoTime();
+    Throwable error = null;
+    try {
+      int released = semaphore(key).tryRelease(ids);
+      if (released < ids.size()) {
+        log.warn("信号量许可已过期自动归还: {}, expired: {}", key, ids.size() - released);
+      }
+    } catch (RuntimeException e) {
+      error = e;
+      throw e;
+    } finally {
+      commandMetrics.record(RedisCommandMetrics.REDISSON, "tryRelease", key, start, error);
+    }
+  }
+
+  private void releaseRemoteAsync(String key, List<String> ids) {
+    long start = System.nanoTime();
+    semaphore(key).tryReleaseAsync(ids).whenComplete((released, error) -> {
+      commandMetrics.record(RedisCommandMetrics.REDISSON, "tryRelease", key, start, error);
+      if (error != null) {
+        log.error("归还信号量许可失败: {}", key, error);
+      }
+    });
+  }
+
+  private RPermitExpirableSemaphore semaphore(String key) {
+    return redissonClient.getPermitExpirableSemaphore(key);
+  }
+
+  private String buildSemaphoreKey(String name) {
+    return SEMAPHORE_PREFIX + name;
+  }
+
+  /** 本节点发放或保留的许可 */
+  private static final class Lease {
+
+    private final String id;
+
+    /** 最近一次申请的租约，延长空闲许可时使用 */
+    private volatile long leaseNanos;
+
+    /** 本地估计的到期时间（{@link System#nanoTime()}），不晚于 Redis 中的到期时间 */
+    private volatile long expiresAt;
+
+    private volatile long idleSince;
+
+    /** 租约延长请求尚未返回 */
+    private volatile boolean extending;
+
+    Lease(String id, long leaseNanos, long expiresAt) {
+      this.id = id;
+      this.leaseNanos = leaseNanos;
+      this.expiresAt = expiresAt;
+    }
+
+    long remainingNanos(long now) {
+      return expiresAt - now;
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.zhangzhankui.seed.common.redis.serializer;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Redis 值序列化使用的 ObjectMapper 工厂
+ *
+ * <p>JSON 与 Smile 共用同一套类型白名单，避免切换编码格式时放宽反序列化的类型范围
+ */
+public final class RedisObjectMappers {
+
+  private RedisObjectMappers() {}
+
+  /** 创建 JSON ObjectMapper */
+  public static ObjectMapper json() {
+    return configure(new ObjectMapper());
+  }
+
+  /** 创建 Smile ObjectMapper */
+  public static ObjectMapper smile() {
+    return configure(new SmileMapper());
+  }
+
+  /**
+   * 多态类型白名单
+   *
+   * <p>仅允许项目自身类型与 JDK 常用集合、包装类型、时间类型
+   */
+  public static PolymorphicTypeValidator typeValidator() {
+    return BasicPolymorphicTypeValidator.builder()
+        .allowIfBaseType("com.zhangzhankui.seed.")
+        .allowIfBaseType("java.util.")
+        .allowIfBaseType("java.lang.")
+        .allowIfBaseType("java.time.")
+        .build();
+  }
+
+  private static ObjectMapper configure(ObjectMapper mapper) {
+    mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+    mapper.activateDefaultTyping(
+        typeValidator(),
+        ObjectMapper.DefaultTyping.NON_FINAL,
+        JsonTypeInfo.As.PROPERTY);
+    mapper.registerModule(new JavaTimeModule());
+    return mapper;
+  }
+}
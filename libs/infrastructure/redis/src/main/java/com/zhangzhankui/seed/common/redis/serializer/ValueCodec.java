@@ -0,0 +1,15 @@
+package com.zhangzhankui.seed.common.redis.serializer;
+
+/**
+ * Redis 值编码格式
+ *
+ * <p>两种格式均使用相同的类型白名单，读取时根据版本头自动识别，写入格式可随时切换
+ */
+public enum ValueCodec {
+
+  /** JSON 文本（无版本头，与历史数据格式一致） */
+  JSON,
+
+  /** Jackson Smile 二进制 JSON，体积更小、编解码更快 */
+  SMILE
+}
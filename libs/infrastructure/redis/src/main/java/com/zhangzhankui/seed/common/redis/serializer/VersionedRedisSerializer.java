@@ -0,0 +1,165 @@
+package com.zhangzhankui.seed.common.redis.serializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * 带版本头的 Redis 值序列化器
+ *
+ * <p>数据格式：
+ *
+ * <pre>
+ * 无版本头：原始 JSON 文本（历史格式，ValueCodec.JSON 且未触发压缩时写出）
+ * 有版本头：[魔数 0xC5][版本 1][编码 ID][标志位][原始长度 4 字节，仅压缩时][负载]
+ * </pre>
+ *
+ * <p>读取时先检查魔数：JSON 文本不可能以 0xC5 开头，因此无版本头的数据按历史 JSON 解析。
+ * 滚动升级时先以 {@code codec=json} 发布新版本（可读两种格式），全部节点升级后再切换到 {@code smile}。
+ */
+public class VersionedRedisSerializer implements RedisSerializer<Object> {
+
+  private static final byte MAGIC = (byte) 0xC5;
+  private static final byte VERSION = 1;
+  private static final byte CODEC_JSON = 1;
+  private static final byte CODEC_SMILE = 2;
+  private static final byte FLAG_LZ4 = 1;
+  private static final int HEADER_LENGTH = 4;
+  private static final int COMPRESSED_OFFSET = HEADER_LENGTH + Integer.BYTES;
+
+  /** 解压后长度上限，与 Redis 单个字符串值的上限（proto-max-bulk-len 默认 512MB）一致 */
+  private static final int MAX_ORIGINAL_LENGTH = 512 * 1024 * 1024;
+
+  /** LZ4 的最大压缩比约为 255:1，原始长度超过压缩数据的 255 倍说明头部已损坏 */
+  private static final int LZ4_MAX_RATIO = 255;
+  private static final byte[] EMPTY = new byte[0];
+
+  private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+  private static final LZ4SafeDecompressor DECOMPRESSOR =
+      LZ4Factory.fastestInstance().safeDecompressor();
+
+  private final ObjectMapper jsonMapper;
+  private final ObjectMapper smileMapper;
+  private final ValueCodec codec;
+  private final int compressionThreshold;
+
+  /**
+   * @param codec 写入使用的编码格式
+   * @param compressionThreshold 负载超过该字节数时使用 LZ4 压缩，小于等于 0 表示不压缩
+   */
+  public VersionedRedisSerializer(@NonNull ValueCodec codec, int compressionThreshold) {
+    this(RedisObjectMappers.json(), RedisObjectMappers.smile(), codec, compressionThreshold);
+  }
+
+  VersionedRedisSerializer(
+      ObjectMapper jsonMapper, ObjectMapper smileMapper, ValueCodec codec, int compressionThreshold) {
+    this.jsonMapper = jsonMapper;
+    this.smileMapper = smileMapper;
+    this.codec = codec;
+    this.compressionThreshold = compressionThreshold;
+  }
+
+  @Override
+  @NonNull
+  public byte[] serialize(@Nullable Object value) throws SerializationException {
+    if (value == null) {
+      return EMPTY;
+    }
+    try {
+      byte[] payload = codec == ValueCodec.SMILE
+          ? smileMapper.writeValueAsBytes(value)
+          : jsonMapper.writeValueAsBytes(value);
+      boolean compress = compressionThreshold > 0 && payload.length > compressionThreshold;
+      if (codec == ValueCodec.JSON && !compress) {
+        return payload;
+      }
+      return compress ? compressed(payload) : withHeader(payload, (byte) 0);
+    } catch (IOException e) {
+      throw new SerializationException("Could not write value: " + e.getMessage(), e);
+    }
+  }
+
+  @Override
+  @Nullable
+  public Object deserialize(@Nullable byte[] bytes) throws SerializationException {
+    if (bytes == null || bytes.length == 0) {
+      return null;
+    }
+    try {
+      if (bytes[0] != MAGIC) {
+        return jsonMapper.readValue(bytes, Object.class);
+      }
+      if (bytes.length < HEADER_LENGTH) {
+        throw new SerializationException("Truncated value header: " + bytes.length + " bytes");
+      }
+      if (bytes[1] != VERSION) {
+        throw new SerializationException("Unsupported value header version: " + bytes[1]);
+      }
+      ObjectMapper mapper = bytes[2] == CODEC_SMILE ? smileMapper : jsonMapper;
+      if ((bytes[3] & FLAG_LZ4) == 0) {
+        return mapper.readValue(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, Object.class);
+      }
+      return mapper.readValue(decompress(bytes), Object.class);
+    } catch (SerializationException e) {
+      throw e;
+    } catch (IOException | RuntimeException e) {
+      // 损坏的数据可能引发 LZ4Exception、BufferUnderflowException 等运行时异常
+      throw new SerializationException("Could not read value: " + e.getMessage(), e);
+    }
+  }
+
+  /** 校验原始长度后解压，损坏的头部不会触发超大数组分配 */
+  private static byte[] decompress(byte[] bytes) {
+    if (bytes.length < COMPRESSED_OFFSET) {
+      throw new SerializationException("Truncated compressed value: " + bytes.length + " bytes");
+    }
+    int compressedLength = bytes.length - COMPRESSED_OFFSET;
+    int originalLength = ByteBuffer.wrap(bytes, HEADER_LENGTH, Integer.BYTES).getInt();
+    if (originalLength < 0
+        || originalLength > MAX_ORIGINAL_LENGTH
+        || originalLength > (long) compressedLength * LZ4_MAX_RATIO) {
+      throw new SerializationException("Invalid original length " + originalLength
+          + " for " + compressedLength + " compressed bytes");
+    }
+    byte[] payload = new byte[originalLength];
+    int length = DECOMPRESSOR.decompress(
+        bytes, COMPRESSED_OFFSET, compressedLength, payload, 0);
+    if (length != originalLength) {
+      throw new SerializationException(
+          "Decompressed " + length + " bytes, expected " + originalLength);
+    }
+    return payload;
+  }
+
+  private byte[] withHeader(byte[] payload, byte flags) {
+    byte[] result = new byte[HEADER_LENGTH + payload.length];
+    writeHeader(result, flags);
+    System.arraycopy(payload, 0, result, HEADER_LENGTH, payload.length);
+    return result;
+  }
+
+  private byte[] compressed(byte[] payload) {
+    byte[] buffer = new byte[COMPRESSED_OFFSET + COMPRESSOR.maxCompressedLength(payload.length)];
+    writeHeader(buffer, FLAG_LZ4);
+    ByteBuffer.wrap(buffer, HEADER_LENGTH, Integer.BYTES).putInt(payload.length);
+    int length = COMPRESSOR.compress(payload, 0, payload.length, buffer, COMPRESSED_OFFSET);
+    byte[] result = new byte[COMPRESSED_OFFSET + length];
+    System.arraycopy(buffer, 0, result, 0, result.length);
+    return result;
+  }
+
+  private void writeHeader(byte[] target, byte flags) {
+    target[0] = MAGIC;
+    target[1] = VERSION;
+    target[2] = codec == ValueCodec.SMILE ? CODEC_SMILE : CODEC_JSON;
+    target[3] = flags;
+  }
+}
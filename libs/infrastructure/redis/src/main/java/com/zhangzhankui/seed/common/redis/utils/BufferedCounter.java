@@ -0,0 +1,246 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.lang.NonNull;
+
+/**
+ * 写回式计数器
+ *
+ * <p>增量先累加到每个 key 的 {@link LongAdder}（分段计数，高并发下无竞争），
+ * 每隔刷新间隔或累计事件数达到阈值时，通过一次 Pipeline 往返把各 key 的增量以 INCRBY 写入 Redis。
+ * 适用于统计、活跃度等允许短暂延迟的高频计数；应用关闭时会刷新剩余增量。
+ *
+ * <p>刷新失败时增量保留在本地，下次刷新重试；若 Redis 已执行但响应丢失，重试会导致重复计数。
+ * 严格模式下不做缓冲，每次调用直接执行 INCRBY。
+ */
+@Slf4j
+public class BufferedCounter implements AutoCloseable {
+
+  private final RedisTemplate<String, Object> redisTemplate;
+  private final boolean strict;
+  private final long flushThreshold;
+  private final int idleFlushes;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicLong pendingEvents = new AtomicLong();
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private final ScheduledExecutorService scheduler;
+
+  /**
+   * @param redisTemplate Redis 模板
+   * @param flushInterval 刷新间隔
+   * @param flushThreshold 累计事件数达到该值时立即触发刷新
+   * @param idleFlushes 连续多少次刷新没有增量后移除该 key 的本地计数器
+   * @param strict 严格模式，不缓冲直接写入 Redis
+   */
+  public BufferedCounter(
+      @NonNull RedisTemplate<String, Object> redisTemplate,
+      @NonNull Duration flushInterval,
+      long flushThreshold,
+      int idleFlushes,
+      boolean strict) {
+    this.redisTemplate = redisTemplate;
+    this.strict = strict;
+    this.flushThreshold = flushThreshold;
+    this.idleFlushes = idleFlushes;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("redis-counter-flush").daemon().factory());
+    if (!strict) {
+      long millis = flushInterval.toMillis();
+      scheduler.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * 计数加一
+   *
+   * @param key 键
+   */
+  public void increment(@NonNull String key) {
+    add(key, 1);
+  }
+
+  /**
+   * 累加增量
+   *
+   * @param key 键
+   * @param delta 增量
+   */
+  public void add(@NonNull String key, long delta) {
+    if (strict) {
+      redisTemplate.opsForValue().increment(key, delta);
+      return;
+    }
+    accumulate(key, delta);
+    if (pendingEvents.incrementAndGet() >= flushThreshold) {
+      pendingEvents.set(0);
+      scheduler.execute(this::flushQuietly);
+    }
+  }
+
+  /**
+   * 获取计数（Redis 中的值加上本地尚未刷新的增量）
+   *
+   * @param key 键
+   * @return 计数
+   */
+  public long get(@NonNull String key) {
+    Object value = redisTemplate.opsForValue().get(key);
+    long stored = value instanceof Number number ? number.longValue() : 0L;
+    Entry entry = entries.get(key);
+    return entry != null ? stored + entry.pending() : stored;
+  }
+
+  /**
+   * 立即把本地增量写入 Redis
+   *
+   * @return 本次写入的 key 数量
+   */
+  public int flush() {
+    flushLock.lock();
+    try {
+      return doFlush();
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /** 停止定时刷新并写入剩余增量 */
+  @Override
+  public void close() {
+    scheduler.shutdown();
+    try {
+      if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+        scheduler.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flushQuietly();
+  }
+
+  private int doFlush() {
+    List<String> keys = new ArrayList<>();
+    List<Long> deltas = new ArrayList<>();
+    List<Entry> flushed = new ArrayList<>();
+    List<Long> totals = new ArrayList<>();
+    List<String> idleKeys = new ArrayList<>();
+    for (Map.Entry<String, Entry> item : entries.entrySet()) {
+      Entry entry = item.getValue();
+      long total = entry.adder.sum();
+      long delta = total - entry.flushed;
+      if (delta != 0) {
+        keys.add(item.getKey());
+        deltas.add(delta);
+        flushed.add(entry);
+        totals.add(total);
+        entry.idle = 0;
+      } else if (++entry.idle >= idleFlushes) {
+        idleKeys.add(item.getKey());
+      }
+    }
+    if (!keys.isEmpty()) {
+      redisTemplate.executePipelined(new SessionCallback<Object>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <K, V> Object execute(@NonNull RedisOperations<K, V> operations)
+            throws DataAccessException {
+          RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+          for (int i = 0; i < keys.size(); i++) {
+            ops.opsForValue().increment(keys.get(i), deltas.get(i));
+          }
+          return null;
+        }
+      });
+      for (int i = 0; i < flushed.size(); i++) {
+        flushed.get(i).flushed = totals.get(i);
+      }
+    }
+    // Pipeline 成功后才移除空闲 key，失败时所有计数器原样保留
+    idleKeys.forEach(this::retire);
+    return keys.size();
+  }
+
+  /**
+   * 累加到 key 的本地计数器
+   *
+   * <p>{@link #retire} 先标记 retired 再读取 sum：累加后未看到标记的，一定已计入移除前的判断；
+   * 看到标记的，等待移除结束后确认计数器是否仍在表中，已被移除则把其中未刷新的增量转入新的计数器
+   */
+  private void accumulate(String key, long delta) {
+    Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+    entry.adder.add(delta);
+    while (entry.retired) {
+      // compute 与 retire 的 computeIfPresent 互斥，返回时移除已经完成
+      if (entries.compute(key, (k, current) -> current) == entry) {
+        return;
+      }
+      long unflushed = entry.drain();
+      if (unflushed == 0) {
+        return;
+      }
+      entry = entries.computeIfAbsent(key, k -> new Entry());
+      entry.adder.add(unflushed);
+    }
+  }
+
+  /** 移除长时间无增量的 key，移除前再次确认所有增量均已写入 Redis */
+  private void retire(String key) {
+    entries.computeIfPresent(key, (k, entry) -> {
+      entry.retired = true;
+      if (entry.adder.sum() == entry.flushed) {
+        return null;
+      }
+      entry.retired = false;
+      return entry;
+    });
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (Exception e) {
+      // 增量保留在本地，下次刷新重试
+      log.error("刷新计数器失败", e);
+    }
+  }
+
+  /**
+   * 单个 key 的本地计数
+   *
+   * <p>flushed 与 idle 在计数器仍在表中时只由持有刷新锁的线程访问，移除后由 {@link #drain()} 在对象锁内修改
+   */
+  private static final class Entry {
+
+    private final LongAdder adder = new LongAdder();
+    private long flushed;
+    private int idle;
+    private volatile boolean retired;
+
+    long pending() {
+      return adder.sum() - flushed;
+    }
+
+    /** 取出已移除计数器中未刷新的增量，多个线程并发取出时每份增量只被取出一次 */
+    synchronized long drain() {
+      long unflushed = adder.sum() - flushed;
+      flushed += unflushed;
+      return unflushed;
+    }
+  }
+}
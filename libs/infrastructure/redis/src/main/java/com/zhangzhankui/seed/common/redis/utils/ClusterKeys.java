@@ -0,0 +1,88 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.lang.NonNull;
+
+/**
+ * Redis Cluster key 工具
+ *
+ * <p>Redis Cluster 只对 key 中第一对花括号内的内容（hash tag）计算槽位，
+ * 需要在同一条多 key 命令、事务或 Lua 脚本中访问的 key 应使用相同的 hash tag，例如：
+ *
+ * <pre>
+ * ClusterKeys.tagged(CacheConstants.PWD_ERR_CNT_KEY, username)  // pwd_err_cnt:{admin}
+ * ClusterKeys.tagged(CacheConstants.LOGIN_ERROR_KEY, username)  // login_error:{admin}
+ * </pre>
+ *
+ * <p>hash tag 会把同一 tag 的全部 key 固定到一个分片，tag 应选择区分度高的业务 ID，避免形成热点分片。
+ */
+public final class ClusterKeys {
+
+  private ClusterKeys() {}
+
+  /**
+   * hash tag
+   *
+   * @param tag 标签，如用户 ID
+   * @return {@code {tag}}
+   */
+  public static String hashTag(@NonNull String tag) {
+    if (tag.indexOf('{') >= 0 || tag.indexOf('}') >= 0) {
+      throw new IllegalArgumentException("hash tag must not contain braces: " + tag);
+    }
+    return "{" + tag + "}";
+  }
+
+  /**
+   * 带 hash tag 的 key
+   *
+   * @param prefix key 前缀
+   * @param tag 标签
+   * @return {@code prefix{tag}}
+   */
+  public static String tagged(@NonNull String prefix, @NonNull String tag) {
+    return prefix + hashTag(tag);
+  }
+
+  /**
+   * 带 hash tag 的 key
+   *
+   * @param prefix key 前缀
+   * @param tag 标签
+   * @param suffix 标签之后的部分
+   * @return {@code prefix{tag}suffix}
+   */
+  public static String tagged(@NonNull String prefix, @NonNull String tag, @NonNull String suffix) {
+    return prefix + hashTag(tag) + suffix;
+  }
+
+  /**
+   * key 所在的槽位（CRC16，遵循 hash tag 规则）
+   *
+   * @param key key
+   * @return 0 ~ 16383
+   */
+  public static int slot(@NonNull String key) {
+    return ClusterSlotHashUtil.calculateSlot(key);
+  }
+
+  /**
+   * 按槽位分组，组内保持原有顺序
+   *
+   * @param keys key 集合
+   * @return 槽位到 key 列表的映射，按首次出现的顺序
+   */
+  public static Map<Integer, List<String>> groupBySlot(@NonNull Collection<String> keys) {
+    Map<Integer, List<String>> groups = new LinkedHashMap<>();
+    for (String key : keys) {
+      groups.computeIfAbsent(slot(key), ignored -> new ArrayList<>()).add(key);
+    }
+    return groups;
+  }
+}
@@ -0,0 +1,212 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 记录命令指标的 RedisTemplate
+ *
+ * <p>执行回调前把连接包装为代理，连接及其 {@code xxxCommands()} 返回的命令接口上的每次调用
+ * 都按命令名与 key 前缀记录到 {@link RedisCommandMetrics}；连接工厂同样被包装，记录获取连接的等待时间。
+ *
+ * <p>Pipeline 与事务中的命令只是入队，不单独计时。
+ */
+public class InstrumentedRedisTemplate<K, V> extends RedisTemplate<K, V> {
+
+  /** 连接管理方法，不是 Redis 命令 */
+  private static final Set<String> NON_COMMANDS = Set.of(
+      "close", "isClosed", "getNativeConnection", "isQueueing", "isPipelined",
+      "openPipeline", "closePipeline", "getSentinelConnection", "multi", "exec", "discard");
+
+  private final RedisCommandMetrics metrics;
+
+  public InstrumentedRedisTemplate(@NonNull RedisCommandMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @Override
+  public void setConnectionFactory(@Nullable RedisConnectionFactory connectionFactory) {
+    super.setConnectionFactory(connectionFactory != null && metrics.isEnabled()
+        ? new TimedConnectionFactory(connectionFactory, metrics)
+        : connectionFactory);
+  }
+
+  @Override
+  protected RedisConnection preProcessConnection(
+      RedisConnection connection, boolean existingConnection) {
+    RedisConnection target = super.preProcessConnection(connection, existingConnection);
+    if (!metrics.isEnabled()
+        || (Proxy.isProxyClass(target.getClass())
+            && Proxy.getInvocationHandler(target) instanceof CommandHandler)) {
+      return target;
+    }
+    ClassLoader classLoader = target.getClass().getClassLoader();
+    return (RedisConnection) Proxy.newProxyInstance(
+        classLoader,
+        ClassUtils.getAllInterfacesForClass(target.getClass(), classLoader),
+        new CommandHandler(target, target, metrics));
+  }
+
+  /**
+   * 提取命令的第一个 key
+   *
+   * <p>EVAL/EVALSHA 的第一个参数是脚本，key 位于 keysAndArgs 的开头
+   */
+  @Nullable
+  static byte[] keyOf(Method method, @Nullable Object[] args) {
+    if (args == null || args.length == 0) {
+      return null;
+    }
+    if (method.getName().startsWith("eval")) {
+      return args.length >= 4 && args[2] instanceof Integer numKeys && numKeys > 0
+          && args[3] instanceof byte[][] keysAndArgs && keysAndArgs.length > 0
+          ? keysAndArgs[0]
+          : null;
+    }
+    Object first = args[0];
+    if (first instanceof byte[] key) {
+      return key;
+    }
+    if (first instanceof byte[][] keys && keys.length > 0) {
+      return keys[0];
+    }
+    if (first instanceof Map<?, ?> map && !map.isEmpty()
+        && map.keySet().iterator().next() instanceof byte[] key) {
+      return key;
+    }
+    return null;
+  }
+
+  private static String commandOf(Method method, @Nullable Object[] args) {
+    // execute(String command, byte[]... args) 为任意命令
+    if ("execute".equals(method.getName()) && args != null && args.length > 0
+        && args[0] instanceof String command) {
+      return command.toLowerCase(Locale.ROOT);
+    }
+    return method.getName();
+  }
+
+  /** 为连接及其命令接口计时 */
+  private static final class CommandHandler implements InvocationHandler {
+
+    private final Object target;
+    private final RedisConnection connection;
+    private final RedisCommandMetrics metrics;
+
+    CommandHandler(Object target, RedisConnection connection, RedisCommandMetrics metrics) {
+      this.target = target;
+      this.connection = connection;
+      this.metrics = metrics;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      Class<?> returnType = method.getReturnType();
+      if (method.getDeclaringClass() == Object.class) {
+        return switch (method.getName()) {
+          case "equals" -> proxy == args[0];
+          case "hashCode" -> System.identityHashCode(proxy);
+          default -> invokeTarget(method, args);
+        };
+      }
+      if ((args == null || args.length == 0) && returnType.isInterface()
+          && method.getName().endsWith("Commands")) {
+        Object commands = invokeTarget(method, args);
+        return commands == null ? null : Proxy.newProxyInstance(
+            returnType.getClassLoader(),
+            new Class<?>[] {returnType},
+            new CommandHandler(commands, connection, metrics));
+      }
+      if (NON_COMMANDS.contains(method.getName())
+          || connection.isPipelined()
+          || connection.isQueueing()) {
+        return invokeTarget(method, args);
+      }
+      long start = System.nanoTime();
+      Throwable error = null;
+      try {
+        return invokeTarget(method, args);
+      } catch (Throwable e) {
+        error = e;
+        throw e;
+      } finally {
+        metrics.record(
+            RedisCommandMetrics.TEMPLATE, commandOf(method, args), keyOf(method, args), start, error);
+      }
+    }
+
+    private Object invokeTarget(Method method, Object[] args) throws Throwable {
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getTargetException();
+      }
+    }
+  }
+
+  /**
+   * 记录获取连接等待时间的连接工厂
+   *
+   * <p>Lettuce 共享连接模式下 getConnection 不占用连接池，池化连接只在阻塞命令与事务中按需获取
+   */
+  private static final class TimedConnectionFactory implements RedisConnectionFactory {
+
+    private final RedisConnectionFactory delegate;
+    private final RedisCommandMetrics metrics;
+
+    TimedConnectionFactory(RedisConnectionFactory delegate, RedisCommandMetrics metrics) {
+      this.delegate = delegate;
+      this.metrics = metrics;
+    }
+
+    @Override
+    public boolean getConvertPipelineAndTxResults() {
+      return delegate.getConvertPipelineAndTxResults();
+    }
+
+    @Override
+    public RedisConnection getConnection() {
+      long start = System.nanoTime();
+      try {
+        return delegate.getConnection();
+      } finally {
+        metrics.recordAcquire(start);
+      }
+    }
+
+    @Override
+    public RedisClusterConnection getClusterConnection() {
+      long start = System.nanoTime();
+      try {
+        return delegate.getClusterConnection();
+      } finally {
+        metrics.recordAcquire(start);
+      }
+    }
+
+    @Override
+    public RedisSentinelConnection getSentinelConnection() {
+      return delegate.getSentinelConnection();
+    }
+
+    @Override
+    public DataAccessException translateExceptionIfPossible(RuntimeException ex) {
+      return delegate.translateExceptionIfPossible(ex);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * key 前缀归类
+ *
+ * <p>按最长前缀匹配（保证 {@code user:login:} 不会被归入 {@code user:}），未匹配的 key 归入 {@link #OTHER}。
+ * 归类结果只可能是配置的前缀之一，可安全用作指标标签。
+ */
+public final class KeyPrefixes {
+
+  /** 未匹配任何前缀的 key 的归类名称 */
+  public static final String OTHER = "other";
+
+  private final List<String> prefixes;
+  private final byte[][] rawPrefixes;
+
+  public KeyPrefixes(@NonNull Collection<String> prefixes) {
+    this.prefixes = prefixes.stream()
+        .sorted(Comparator.comparingInt(String::length).reversed())
+        .toList();
+    this.rawPrefixes = new byte[this.prefixes.size()][];
+    for (int i = 0; i < rawPrefixes.length; i++) {
+      rawPrefixes[i] = this.prefixes.get(i).getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * 归类
+   *
+   * @param key Redis key，可为 null
+   * @return 匹配的最长前缀，未匹配返回 {@link #OTHER}
+   */
+  public String classify(@Nullable String key) {
+    if (key != null) {
+      for (String prefix : prefixes) {
+        if (key.startsWith(prefix)) {
+          return prefix;
+        }
+      }
+    }
+    return OTHER;
+  }
+
+  /**
+   * 按序列化后的 key 归类，不解码为字符串
+   *
+   * @param rawKey UTF-8 编码的 key，可为 null
+   * @return 匹配的最长前缀，未匹配返回 {@link #OTHER}
+   */
+  public String classify(@Nullable byte[] rawKey) {
+    if (rawKey != null) {
+      for (int i = 0; i < rawPrefixes.length; i++) {
+        byte[] prefix = rawPrefixes[i];
+        if (rawKey.length >= prefix.length
+            && Arrays.equals(rawKey, 0, prefix.length, prefix, 0, prefix.length)) {
+          return prefixes.get(i);
+        }
+      }
+    }
+    return OTHER;
+  }
+
+  /** 全部前缀，按长度降序 */
+  public List<String> prefixes() {
+    return prefixes;
+  }
+}
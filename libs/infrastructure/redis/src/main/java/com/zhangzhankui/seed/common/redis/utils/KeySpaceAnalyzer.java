@@ -0,0 +1,386 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import com.zhangzhankui.seed.common.redis.config.CacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Redis key 空间内存分析
+ *
+ * <p>通过 SCAN 遍历全部 key 并按 {@link KeyPrefixes} 归类，
+ * 按采样比例对部分 key 执行 {@code MEMORY USAGE} 与 {@code PTTL}（Pipeline 批量发送），
+ * 以采样均值估算各前缀的总字节数与 TTL 分布，并记录采样到的最大 key。报告中的 key 只保留匹配的前缀，
+ * 其余部分替换为 SHA-256 摘要（如 {@code Authorization:#3f2a…}），不暴露令牌、用户名等 key 中携带的值。
+ *
+ * <p>{@code MEMORY USAGE} 通过单行 Lua 脚本按整数回复执行：Spring Data Redis 未声明该命令的回复类型，
+ * 直接 {@code execute} 时 Lettuce 按字节数组解析整数回复会失败，整个 Pipeline 随之报错。
+ *
+ * <p>分析在后台单线程中按间隔执行，遍历速度受每秒 key 数上限约束，不会对 Redis 造成突发压力。
+ * 同一时刻最多只有一次分析在运行，结果在整轮结束后替换上一次的报告。
+ */
+@Slf4j
+public class KeySpaceAnalyzer implements AutoCloseable {
+
+  /** KEYS[1] 为 key，ARGV[1] 为嵌套类型的采样数；key 不存在时返回 nil */
+  private static final byte[] MEMORY_USAGE_SCRIPT =
+      "return redis.call('MEMORY', 'USAGE', KEYS[1], 'SAMPLES', ARGV[1])"
+          .getBytes(StandardCharsets.UTF_8);
+  private static final int SAMPLE_BATCH_SIZE = 100;
+
+  /** 脱敏 key 中保留的摘要十六进制位数 */
+  private static final int DIGEST_HEX_LENGTH = 12;
+
+  private final RedisKeyScanner keyScanner;
+  private final RedisTemplate<String, ?> redisTemplate;
+  private final CacheProperties.KeySpace properties;
+  private final KeyPrefixes keyPrefixes;
+  private final ScheduledExecutorService executor;
+  private final AtomicBoolean running = new AtomicBoolean();
+  private final AtomicLong progress = new AtomicLong();
+
+  private volatile Report report;
+
+  public KeySpaceAnalyzer(
+      @NonNull RedisKeyScanner keyScanner,
+      @NonNull RedisTemplate<String, ?> redisTemplate,
+      @NonNull KeyPrefixes keyPrefixes,
+      @NonNull CacheProperties.KeySpace properties) {
+    this.keyScanner = keyScanner;
+    this.redisTemplate = redisTemplate;
+    this.keyPrefixes = keyPrefixes;
+    this.properties = properties;
+    this.executor = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("redis-keyspace-analyzer").daemon().factory());
+  }
+
+  /** 按 seed.cache.key-space.interval 定时分析，未启用时不调度 */
+  public void start() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    long interval = properties.getInterval().toMillis();
+    executor.scheduleWithFixedDelay(
+        this::analyzeQuietly, properties.getInitialDelay().toMillis(), interval,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * 立即在后台开始一次分析
+   *
+   * @return 是否已提交，已有分析在运行时返回 false
+   */
+  public boolean trigger() {
+    if (running.get()) {
+      return false;
+    }
+    executor.execute(this::analyzeQuietly);
+    return true;
+  }
+
+  /**
+   * 最近一次完成的分析报告
+   *
+   * @return 报告，尚未完成过分析时返回 null
+   */
+  @Nullable
+  public Report report() {
+    return report;
+  }
+
+  /** 是否正在分析 */
+  public boolean isRunning() {
+    return running.get();
+  }
+
+  /** 当前分析已遍历的 key 数量 */
+  public long progress() {
+    return progress.get();
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * 同步执行一次完整分析
+   *
+   * @return 报告，已有分析在运行时返回 null
+   */
+  @Nullable
+  Report analyze() {
+    if (!running.compareAndSet(false, true)) {
+      return null;
+    }
+    try {
+      progress.set(0);
+      Instant startedAt = Instant.now();
+      Map<String, Usage> usages = new LinkedHashMap<>();
+      for (String prefix : keyPrefixes.prefixes()) {
+        usages.put(prefix, new Usage(prefix, properties.getTopN()));
+      }
+      usages.put(KeyPrefixes.OTHER, new Usage(KeyPrefixes.OTHER, properties.getTopN()));
+      try (Stream<String> keys = keyScanner.scan("*")) {
+        scan(keys.iterator(), usages);
+      }
+      List<PrefixUsage> result = new ArrayList<>(usages.size());
+      for (Usage usage : usages.values()) {
+        result.add(usage.toPrefixUsage());
+      }
+      result.sort(Comparator.comparingLong(PrefixUsage::estimatedBytes).reversed());
+      Report completed = new Report(startedAt, Instant.now(), progress.get(), result);
+      report = completed;
+      return completed;
+    } finally {
+      running.set(false);
+    }
+  }
+
+  private void scan(Iterator<String> keys, Map<String, Usage> usages) {
+    double sampleRatio = properties.getSampleRatio();
+    long start = System.nanoTime();
+    List<String> batch = new ArrayList<>(SAMPLE_BATCH_SIZE);
+    List<Usage> batchUsages = new ArrayList<>(SAMPLE_BATCH_SIZE);
+    while (keys.hasNext()) {
+      String key = keys.next();
+      Usage usage = usages.get(keyPrefixes.classify(key));
+      usage.keys++;
+      long scanned = progress.incrementAndGet();
+      if (ThreadLocalRandom.current().nextDouble() < sampleRatio) {
+        batch.add(key);
+        batchUsages.add(usage);
+        if (batch.size() >= SAMPLE_BATCH_SIZE) {
+          sample(batch, batchUsages);
+        }
+      }
+      if (!throttle(start, scanned)) {
+        log.warn("Redis key 空间分析被中断, 已遍历: {}", scanned);
+        break;
+      }
+    }
+    if (!batch.isEmpty()) {
+      sample(batch, batchUsages);
+    }
+  }
+
+  /** MEMORY USAGE 与 PTTL 成对发送，一次往返取回整批结果 */
+  private void sample(List<String> batch, List<Usage> batchUsages) {
+    byte[] samples = String.valueOf(properties.getMemoryUsageSamples())
+        .getBytes(StandardCharsets.UTF_8);
+    List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      for (String key : batch) {
+        byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+        connection.scriptingCommands()
+            .eval(MEMORY_USAGE_SCRIPT, ReturnType.INTEGER, 1, rawKey, samples);
+        connection.keyCommands().pTtl(rawKey);
+      }
+      return null;
+    });
+    for (int i = 0; i < batch.size(); i++) {
+      Long bytes = toLong(results.get(i * 2));
+      Long pttl = toLong(results.get(i * 2 + 1));
+      // 遍历与采样之间 key 已过期或被删除
+      if (bytes != null && pttl != null && pttl != -2) {
+        batchUsages.get(i).sample(batch.get(i), bytes, pttl);
+      }
+    }
+    batch.clear();
+    batchUsages.clear();
+  }
+
+  /** 按已遍历的 key 数量限速等待，被中断时返回 false 以终止分析 */
+  private boolean throttle(long start, long scanned) {
+    double rate = properties.getMaxKeysPerSecond();
+    if (rate <= 0) {
+      return true;
+    }
+    long expected = (long) (scanned / rate * TimeUnit.SECONDS.toNanos(1));
+    long waitNanos = expected - (System.nanoTime() - start);
+    if (waitNanos <= 0) {
+      return true;
+    }
+    try {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private void analyzeQuietly() {
+    try {
+      Report completed = analyze();
+      if (completed != null) {
+        log.info("Redis key 空间分析完成, 遍历: {}, 耗时: {}",
+            completed.scannedKeys(), Duration.between(completed.startedAt(), completed.finishedAt()));
+      }
+    } catch (Exception e) {
+      log.error("Redis key 空间分析失败", e);
+    }
+  }
+
+  @Nullable
+  private static Long toLong(@Nullable Object value) {
+    if (value instanceof Number number) {
+      return number.longValue();
+    }
+    String text = value instanceof byte[] bytes
+        ? new String(bytes, StandardCharsets.UTF_8)
+        : value instanceof String string ? string : null;
+    if (text == null) {
+      return null;
+    }
+    try {
+      return Long.parseLong(text.trim());
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /** TTL 分布区间 */
+  /**
+   * 脱敏 key：保留匹配的前缀，其余部分替换为摘要；同一 key 的结果相同，可与日志或 Redis 中的 key 比对
+   *
+   * @param prefix 匹配的前缀，未匹配时为 {@link KeyPrefixes#OTHER}
+   * @param key 完整 key
+   * @return 如 {@code Authorization:#3f2a9c01b7de}
+   */
+  static String redact(String prefix, String key) {
+    String retained = KeyPrefixes.OTHER.equals(prefix) ? "" : prefix;
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(key.substring(retained.length()).getBytes(StandardCharsets.UTF_8));
+      return retained + "#" + HexFormat.of().formatHex(digest).substring(0, DIGEST_HEX_LENGTH);
+    } catch (NoSuchAlgorithmException e) {
+      // SHA-256 是 JDK 必须提供的算法
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String ttlBucket(long pttl) {
+    if (pttl < 0) {
+      return "persistent";
+    }
+    if (pttl < TimeUnit.MINUTES.toMillis(1)) {
+      return "<1m";
+    }
+    if (pttl < TimeUnit.HOURS.toMillis(1)) {
+      return "<1h";
+    }
+    if (pttl < TimeUnit.DAYS.toMillis(1)) {
+      return "<1d";
+    }
+    return ">=1d";
+  }
+
+  /** 单个前缀的累计统计，仅由分析线程访问 */
+  private static final class Usage {
+
+    private final String prefix;
+    private final int topN;
+    private final Map<String, Long> ttl = new LinkedHashMap<>();
+    private final PriorityQueue<KeyUsage> largest =
+        new PriorityQueue<>(Comparator.comparingLong(KeyUsage::bytes));
+    private long keys;
+    private long sampledKeys;
+    private long sampledBytes;
+
+    Usage(String prefix, int topN) {
+      this.prefix = prefix;
+      this.topN = topN;
+      for (String bucket : List.of("persistent", "<1m", "<1h", "<1d", ">=1d")) {
+        ttl.put(bucket, 0L);
+      }
+    }
+
+    void sample(String key, long bytes, long pttl) {
+      sampledKeys++;
+      sampledBytes += bytes;
+      ttl.merge(ttlBucket(pttl), 1L, Long::sum);
+      if (topN <= 0) {
+        return;
+      }
+      largest.offer(new KeyUsage(key, bytes, pttl < 0 ? pttl : pttl / 1000));
+      if (largest.size() > topN) {
+        largest.poll();
+      }
+    }
+
+    PrefixUsage toPrefixUsage() {
+      // 采样均值按遍历到的 key 数量放大
+      double scale = sampledKeys == 0 ? 0 : (double) keys / sampledKeys;
+      Map<String, Long> ttlEstimate = new LinkedHashMap<>();
+      ttl.forEach((bucket, count) -> ttlEstimate.put(bucket, Math.round(count * scale)));
+      List<KeyUsage> top = new ArrayList<>(largest.size());
+      largest.forEach(usage ->
+          top.add(new KeyUsage(redact(prefix, usage.key()), usage.bytes(), usage.ttlSeconds())));
+      top.sort(Comparator.comparingLong(KeyUsage::bytes).reversed());
+      return new PrefixUsage(
+          prefix, keys, sampledKeys, Math.round(sampledBytes * scale), ttlEstimate, top);
+    }
+  }
+
+  /**
+   * 分析报告
+   *
+   * @param startedAt 开始时间
+   * @param finishedAt 完成时间
+   * @param scannedKeys 遍历的 key 数量（SCAN 可能重复返回同一 key，为估算值）
+   * @param prefixes 各前缀的用量，按估算字节数降序
+   */
+  public record Report(
+      Instant startedAt, Instant finishedAt, long scannedKeys, List<PrefixUsage> prefixes) {}
+
+  /**
+   * 单个前缀的用量
+   *
+   * @param prefix 前缀
+   * @param keys key 数量
+   * @param sampledKeys 执行了 MEMORY USAGE 的 key 数量
+   * @param estimatedBytes 估算总字节数
+   * @param ttl 估算的 TTL 分布（persistent 表示永不过期）
+   * @param largestKeys 采样到的最大 key（已脱敏）
+   */
+  public record PrefixUsage(
+      String prefix,
+      long keys,
+      long sampledKeys,
+      long estimatedBytes,
+      Map<String, Long> ttl,
+      List<KeyUsage> largestKeys) {}
+
+  /**
+   * 单个 key 的用量
+   *
+   * @param key 脱敏后的 key，见 {@link KeySpaceAnalyzer#redact}
+   * @param bytes MEMORY USAGE 返回的字节数
+   * @param ttlSeconds 剩余过期秒数，-1 表示永不过期
+   */
+  public record KeyUsage(String key, long bytes, long ttlSeconds) {}
+}
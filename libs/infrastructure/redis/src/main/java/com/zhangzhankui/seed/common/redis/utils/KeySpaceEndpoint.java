@@ -0,0 +1,44 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.NonNull;
+
+/**
+ * Redis key 空间内存分析 Actuator 端点
+ *
+ * <p>{@code GET /actuator/keyspace} 返回最近一次分析报告与当前进度，
+ * {@code POST /actuator/keyspace} 立即在后台开始一次分析，
+ * 需在 management.endpoints.web.exposure.include 中开放
+ */
+@Endpoint(id = "keyspace")
+public class KeySpaceEndpoint {
+
+  private final KeySpaceAnalyzer keySpaceAnalyzer;
+
+  public KeySpaceEndpoint(@NonNull KeySpaceAnalyzer keySpaceAnalyzer) {
+    this.keySpaceAnalyzer = keySpaceAnalyzer;
+  }
+
+  @ReadOperation
+  public State state() {
+    return new State(
+        keySpaceAnalyzer.isRunning(), keySpaceAnalyzer.progress(), keySpaceAnalyzer.report());
+  }
+
+  @WriteOperation
+  public State analyze() {
+    keySpaceAnalyzer.trigger();
+    return state();
+  }
+
+  /**
+   * 分析状态
+   *
+   * @param running 是否正在分析
+   * @param scannedKeys 当前（或最近一次）分析已遍历的 key 数量
+   * @param report 最近一次完成的报告，尚未完成过分析时为 null
+   */
+  public record State(boolean running, long scannedKeys, KeySpaceAnalyzer.Report report) {}
+}
@@ -0,0 +1,264 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.zhangzhankui.seed.common.redis.config.CacheProperties;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisKeyAsyncCommands;
+import io.lettuce.core.api.async.RedisStringAsyncCommands;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.lang.NonNull;
+
+/**
+ * 自动 Pipeline 写入
+ *
+ * <p>在一条独立的 Lettuce 连接上关闭自动刷新，命令写入发送缓冲后立即返回 {@link CompletableFuture}，
+ * 首条命令入队后经过 {@code window} 或累计达到 {@code batchSize} 条时一次性刷新到网络，
+ * 同一窗口内的写入共用一次往返。每条命令的结果仍单独完成各自的 future，顺序与发出顺序一致。
+ *
+ * <p>适用于结果不参与后续判断的写入（EXPIRE、SET、DEL 等）；需要立即读取结果的命令应直接使用 RedisTemplate。
+ * key 按 UTF-8 编码、值使用与 RedisTemplate 相同的序列化器，可与其混用。
+ * 支持单机、哨兵与 Cluster 的 Lettuce 连接；未启用或条件不满足时 {@link #isActive()} 为 false，
+ * 由调用方退化为同步写入。
+ */
+@Slf4j
+public class PipelinedWriter implements AutoCloseable {
+
+  private static final String OK = "OK";
+
+  private final boolean enabled;
+  private final long windowNanos;
+  private final int batchSize;
+  private final RedisSerializer<Object> valueSerializer;
+  private final RedisCommandMetrics metrics;
+  private final AtomicInteger pending = new AtomicInteger();
+  private final ScheduledExecutorService scheduler;
+
+  private volatile StatefulConnection<byte[], byte[]> connection;
+  private RedisStringAsyncCommands<byte[], byte[]> strings;
+  private RedisKeyAsyncCommands<byte[], byte[]> keys;
+
+  public PipelinedWriter(
+      @NonNull CacheProperties.Pipelining properties,
+      @NonNull RedisSerializer<Object> valueSerializer,
+      @NonNull RedisCommandMetrics metrics) {
+    this.enabled = properties.isEnabled();
+    this.windowNanos = Math.max(properties.getWindow().toNanos(), 0);
+    this.batchSize = Math.max(properties.getBatchSize(), 1);
+    this.valueSerializer = valueSerializer;
+    this.metrics = metrics;
+    this.scheduler = enabled
+        ? Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("redis-pipeline-flush").daemon().factory())
+        : null;
+  }
+
+  /**
+   * 建立独立连接并关闭自动刷新
+   *
+   * @param connectionFactory 连接工厂，仅支持 Lettuce
+   */
+  public void start(@NonNull RedisConnectionFactory connectionFactory) {
+    if (!enabled) {
+      return;
+    }
+    if (!(connectionFactory instanceof LettuceConnectionFactory lettuce)) {
+      log.warn("自动 Pipeline 仅支持 Lettuce 连接，已禁用");
+      return;
+    }
+    try {
+      if (lettuce.getNativeClient() instanceof RedisClusterClient client) {
+        StatefulRedisClusterConnection<byte[], byte[]> cluster = client.connect(ByteArrayCodec.INSTANCE);
+        start(cluster, cluster.async(), cluster.async());
+      } else if (lettuce.getNativeClient() instanceof RedisClient client) {
+        StatefulRedisConnection<byte[], byte[]> standalone = client.connect(ByteArrayCodec.INSTANCE);
+        start(standalone, standalone.async(), standalone.async());
+      } else {
+        log.warn("自动 Pipeline 无法获取 Lettuce 客户端，已禁用");
+        return;
+      }
+      log.info("Redis 自动 Pipeline 已开启, window: {}, batchSize: {}",
+          Duration.ofNanos(windowNanos), batchSize);
+    } catch (Exception e) {
+      log.warn("开启 Redis 自动 Pipeline 失败，已禁用", e);
+      close();
+    }
+  }
+
+  /** 使用已建立的连接，命令接口取自该连接 */
+  void start(
+      StatefulConnection<byte[], byte[]> connection,
+      RedisStringAsyncCommands<byte[], byte[]> strings,
+      RedisKeyAsyncCommands<byte[], byte[]> keys) {
+    connection.setAutoFlushCommands(false);
+    this.strings = strings;
+    this.keys = keys;
+    this.connection = connection;
+  }
+
+  /** 连接已建立，命令走自动 Pipeline */
+  public boolean isActive() {
+    return connection != null;
+  }
+
+  /**
+   * 设置值并指定过期时间
+   *
+   * @return 是否写入成功
+   */
+  public CompletableFuture<Boolean> set(
+      @NonNull String key, @NonNull Object value, long timeout, @NonNull TimeUnit unit) {
+    byte[] rawKey = rawKey(key);
+    SetArgs args = SetArgs.Builder.px(unit.toMillis(timeout));
+    return submit("set", rawKey, () -> strings.set(rawKey, rawValue(value), args))
+        .thenApply(OK::equals);
+  }
+
+  /**
+   * 如果不存在则设置（SET NX PX）
+   *
+   * @return 是否写入，key 已存在时为 false
+   */
+  public CompletableFuture<Boolean> setIfAbsent(
+      @NonNull String key, @NonNull Object value, long timeout, @NonNull TimeUnit unit) {
+    byte[] rawKey = rawKey(key);
+    SetArgs args = SetArgs.Builder.nx().px(unit.toMillis(timeout));
+    return submit("set", rawKey, () -> strings.set(rawKey, rawValue(value), args))
+        .thenApply(OK::equals);
+  }
+
+  /**
+   * 递增
+   *
+   * @return 递增后的值
+   */
+  public CompletableFuture<Long> increment(@NonNull String key) {
+    byte[] rawKey = rawKey(key);
+    return submit("incr", rawKey, () -> strings.incr(rawKey));
+  }
+
+  /**
+   * 设置过期时间
+   *
+   * @return key 存在且设置成功时为 true
+   */
+  public CompletableFuture<Boolean> expire(
+      @NonNull String key, long timeout, @NonNull TimeUnit unit) {
+    byte[] rawKey = rawKey(key);
+    return submit("pExpire", rawKey, () -> keys.pexpire(rawKey, unit.toMillis(timeout)))
+        .thenApply(Boolean.TRUE::equals);
+  }
+
+  /**
+   * 删除 key
+   *
+   * @return 是否删除了 key
+   */
+  public CompletableFuture<Boolean> delete(@NonNull String key) {
+    byte[] rawKey = rawKey(key);
+    return submit("del", rawKey, () -> keys.del(rawKey))
+        .thenApply(deleted -> deleted != null && deleted > 0);
+  }
+
+  /**
+   * 立即把缓冲中的命令发送到网络
+   *
+   * @return 本次发送的命令数量（计数在命令入队后累加，可能略小于实际发送数）
+   */
+  public int flush() {
+    int count = pending.getAndSet(0);
+    StatefulConnection<byte[], byte[]> current = connection;
+    if (count > 0 && current != null) {
+      current.flushCommands();
+    }
+    return count;
+  }
+
+  /** 发送剩余命令并关闭连接 */
+  @Override
+  public void close() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+    StatefulConnection<byte[], byte[]> current = connection;
+    connection = null;
+    if (current != null) {
+      current.flushCommands();
+      current.closeAsync();
+    }
+  }
+
+  /**
+   * 命令写入发送缓冲后累加计数；窗口内首条命令负责调度刷新，达到批大小时立即刷新。
+   * 计数在入队之后累加，刷新清零与入队交错时最多多刷新一次，不会遗漏命令
+   */
+  private <T> CompletableFuture<T> submit(
+      String command, byte[] rawKey, CommandSupplier<T> dispatch) {
+    if (connection == null) {
+      return CompletableFuture.failedFuture(new IllegalStateException("pipelining is not active"));
+    }
+    long start = System.nanoTime();
+    CompletableFuture<T> future = dispatch.get().toCompletableFuture();
+    int count = pending.incrementAndGet();
+    if (count >= batchSize) {
+      flush();
+    } else if (count == 1) {
+      scheduleFlush();
+    }
+    future.whenComplete((result, error) -> {
+      metrics.record(RedisCommandMetrics.PIPELINE, command, rawKey, start, error);
+      if (error != null) {
+        log.error("自动 Pipeline 命令执行失败, command: {}, key: {}",
+            command, new String(rawKey, StandardCharsets.UTF_8), error);
+      }
+    });
+    return future;
+  }
+
+  private void scheduleFlush() {
+    try {
+      scheduler.schedule(this::flushQuietly, windowNanos, TimeUnit.NANOSECONDS);
+    } catch (Exception e) {
+      // 已关闭，close 时已刷新
+      flushQuietly();
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (Exception e) {
+      log.error("刷新自动 Pipeline 失败", e);
+    }
+  }
+
+  private static byte[] rawKey(String key) {
+    return key.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private byte[] rawValue(Object value) {
+    return valueSerializer.serialize(value);
+  }
+
+  @FunctionalInterface
+  private interface CommandSupplier<T> {
+
+    CompletionStage<T> get();
+  }
+}
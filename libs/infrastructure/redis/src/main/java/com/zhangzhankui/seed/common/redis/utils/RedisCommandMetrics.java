@@ -0,0 +1,124 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Redis 命令指标
+ *
+ * <ul>
+ *   <li>{@code redis.commands}：命令耗时与次数，标签 client（template/redisson/pipeline）、command、
+ *       prefix（按 {@link KeyPrefixes} 归类，无 key 的命令为 none）、outcome（success/error）
+ *   <li>{@code redis.connection.acquire}：从连接工厂（连接池）获取连接的等待时间
+ * </ul>
+ *
+ * <p>prefix 标签只取配置的前缀，command 标签只取命令方法名，标签组合数量有限。
+ */
+public class RedisCommandMetrics {
+
+  /** RedisTemplate 发出的命令 */
+  public static final String TEMPLATE = "template";
+
+  /** Redisson 发出的命令 */
+  public static final String REDISSON = "redisson";
+
+  /** 自动 Pipeline 发出的命令，耗时包含在发送缓冲中等待刷新的时间 */
+  public static final String PIPELINE = "pipeline";
+
+  /** 不含 key 的命令的 prefix 标签 */
+  public static final String NONE = "none";
+
+  private static final String COMMANDS = "redis.commands";
+
+  private final MeterRegistry meterRegistry;
+  private final KeyPrefixes keyPrefixes;
+  private final boolean enabled;
+  private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+  private final Timer acquire;
+
+  public RedisCommandMetrics(
+      @NonNull MeterRegistry meterRegistry, @NonNull KeyPrefixes keyPrefixes, boolean enabled) {
+    this.meterRegistry = meterRegistry;
+    this.keyPrefixes = keyPrefixes;
+    this.enabled = enabled;
+    this.acquire = Timer.builder("redis.connection.acquire")
+        .description("获取 Redis 连接的等待时间")
+        .register(meterRegistry);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * 记录一条命令
+   *
+   * @param client 客户端，{@link #TEMPLATE}、{@link #REDISSON} 或 {@link #PIPELINE}
+   * @param command 命令名
+   * @param key key，null 表示命令不含 key
+   * @param startNanos 开始时间（{@link System#nanoTime()}）
+   * @param error 命令抛出的异常，成功时为 null
+   */
+  public void record(
+      @NonNull String client,
+      @NonNull String command,
+      @Nullable String key,
+      long startNanos,
+      @Nullable Throwable error) {
+    if (enabled) {
+      String prefix = key == null ? NONE : keyPrefixes.classify(key);
+      timer(client, command, prefix, error).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * 记录一条命令（key 为序列化后的字节）
+   *
+   * @param client 客户端
+   * @param command 命令名
+   * @param rawKey UTF-8 编码的 key，null 表示命令不含 key
+   * @param startNanos 开始时间（{@link System#nanoTime()}）
+   * @param error 命令抛出的异常，成功时为 null
+   */
+  public void record(
+      @NonNull String client,
+      @NonNull String command,
+      @Nullable byte[] rawKey,
+      long startNanos,
+      @Nullable Throwable error) {
+    if (enabled) {
+      String prefix = rawKey == null ? NONE : keyPrefixes.classify(rawKey);
+      timer(client, command, prefix, error).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * 记录获取连接的等待时间
+   *
+   * @param startNanos 开始时间（{@link System#nanoTime()}）
+   */
+  public void recordAcquire(long startNanos) {
+    if (enabled) {
+      acquire.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private Timer timer(String client, String command, String prefix, @Nullable Throwable error) {
+    String outcome = error == null ? "success" : "error";
+    return timers.computeIfAbsent(
+        client + '|' + command + '|' + prefix + '|' + outcome,
+        ignored -> Timer.builder(COMMANDS)
+            .description("Redis 命令耗时")
+            .tag("client", client)
+            .tag("command", command)
+            .tag("prefix", prefix)
+            .tag("outcome", outcome)
+            .register(meterRegistry));
+  }
+}
@@ -0,0 +1,228 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Redis key 流式扫描与批量删除
+ *
+ * <p>基于 SCAN 游标按需拉取 key，不使用会阻塞 Redis 的 KEYS，也不把全部 key 收集到内存。
+ * 批量删除按固定大小分批 UNLINK（后台线程释放内存），多批通过 Pipeline 一次往返发送，
+ * 内存占用只与批大小有关，与匹配的 key 数量无关。
+ *
+ * <p>Redis Cluster 中依次扫描每个主节点，删除时按槽位拆分（Cluster 不允许跨槽位的多 key UNLINK），
+ * 由 {@link SlotBatchExecutor} 把同一主节点的 UNLINK 合并为一次 Pipeline，各节点并行发送。Lettuce 的 Cluster 连接仍支持
+ * Pipeline，单 key 命令按槽位路由到各自分片，因此单 key 写入（如 putAll、BufferedCounter）照常使用 Pipeline。
+ */
+@Slf4j
+public class RedisKeyScanner {
+
+  /** 每次 Pipeline 往返包含的 UNLINK 批数 */
+  private static final int PIPELINE_DEPTH = 4;
+
+  private final RedisTemplate<String, ?> redisTemplate;
+  private final int scanCount;
+  private final int unlinkBatchSize;
+  private final double maxUnlinkRate;
+  private final SlotBatchExecutor slotBatchExecutor;
+
+  /**
+   * 单机模式
+   *
+   * @param redisTemplate Redis 模板（key 为 String 序列化）
+   * @param scanCount SCAN 的 COUNT 提示
+   * @param unlinkBatchSize 每条 UNLINK 命令的 key 数量
+   * @param maxUnlinkRate 每秒最多删除的 key 数量，小于等于 0 表示不限速
+   */
+  public RedisKeyScanner(
+      @NonNull RedisTemplate<String, ?> redisTemplate,
+      int scanCount,
+      int unlinkBatchSize,
+      double maxUnlinkRate) {
+    this(redisTemplate, scanCount, unlinkBatchSize, maxUnlinkRate, new SlotBatchExecutor());
+  }
+
+  /**
+   * @param redisTemplate Redis 模板（key 为 String 序列化）
+   * @param scanCount SCAN 的 COUNT 提示
+   * @param unlinkBatchSize 每条 UNLINK 命令的 key 数量
+   * @param maxUnlinkRate 每秒最多删除的 key 数量，小于等于 0 表示不限速
+   * @param slotBatchExecutor 槽位拆分执行器，决定是否按 Cluster 方式扫描与删除
+   */
+  public RedisKeyScanner(
+      @NonNull RedisTemplate<String, ?> redisTemplate,
+      int scanCount,
+      int unlinkBatchSize,
+      double maxUnlinkRate,
+      @NonNull SlotBatchExecutor slotBatchExecutor) {
+    this.redisTemplate = redisTemplate;
+    this.scanCount = scanCount;
+    this.unlinkBatchSize = unlinkBatchSize;
+    this.maxUnlinkRate = maxUnlinkRate;
+    this.slotBatchExecutor = slotBatchExecutor;
+  }
+
+  /**
+   * 流式扫描匹配的 key
+   *
+   * <p>返回的 Stream 持有 Redis 连接，使用完毕必须关闭（try-with-resources）。
+   * Cluster 模式下依次扫描每个主节点，上一个节点扫描完毕后才打开下一个节点的游标
+   *
+   * @param pattern 模式，如 "user:*"
+   * @return 惰性拉取的 key 流，同一 key 可能出现多次（SCAN 语义）
+   */
+  public Stream<String> scan(@NonNull String pattern) {
+    ScanOptions options = ScanOptions.scanOptions().match(pattern).count(scanCount).build();
+    if (slotBatchExecutor.isCluster()) {
+      return scanCluster(options);
+    }
+    Cursor<String> cursor = redisTemplate.scan(options);
+    return cursor.stream().onClose(cursor::close);
+  }
+
+  private Stream<String> scanCluster(ScanOptions options) {
+    RedisClusterConnection connection =
+        redisTemplate.getRequiredConnectionFactory().getClusterConnection();
+    try {
+      List<RedisClusterNode> masters = new ArrayList<>();
+      for (RedisClusterNode node : connection.clusterGetNodes()) {
+        if (node.isMaster()) {
+          masters.add(node);
+        }
+      }
+      return masters.stream()
+          .flatMap(node -> {
+            Cursor<byte[]> cursor = connection.scan(node, options);
+            return cursor.stream().onClose(cursor::close);
+          })
+          .map(rawKey -> new String(rawKey, StandardCharsets.UTF_8))
+          .onClose(connection::close);
+    } catch (RuntimeException e) {
+      connection.close();
+      throw e;
+    }
+  }
+
+  /**
+   * 扫描并删除匹配的 key
+   *
+   * @param pattern 模式，如 "user:*"
+   * @param progress 进度回调，参数为已删除的 key 数量，可为 null
+   * @return 删除数量
+   */
+  public long unlink(@NonNull String pattern, @Nullable LongConsumer progress) {
+    try (Stream<String> keys = scan(pattern)) {
+      return unlink(keys.iterator(), progress);
+    }
+  }
+
+  /**
+   * 分批删除 key
+   *
+   * @param keys key 迭代器
+   * @param progress 进度回调，参数为已删除的 key 数量，可为 null
+   * @return 删除数量
+   */
+  public long unlink(@NonNull Iterator<String> keys, @Nullable LongConsumer progress) {
+    long deleted = 0;
+    long processed = 0;
+    long start = System.nanoTime();
+    List<List<String>> batches = new ArrayList<>(PIPELINE_DEPTH);
+    List<String> batch = new ArrayList<>(unlinkBatchSize);
+    while (keys.hasNext()) {
+      batch.add(keys.next());
+      processed++;
+      if (batch.size() >= unlinkBatchSize) {
+        batches.add(batch);
+        batch = new ArrayList<>(unlinkBatchSize);
+      }
+      if (batches.size() >= PIPELINE_DEPTH) {
+        deleted += flush(batches);
+        report(progress, deleted);
+        if (!throttle(start, processed)) {
+          log.warn("批量删除 key 被中断, 已删除: {}", deleted);
+          return deleted;
+        }
+      }
+    }
+    if (!batch.isEmpty()) {
+      batches.add(batch);
+    }
+    if (!batches.isEmpty()) {
+      deleted += flush(batches);
+      report(progress, deleted);
+    }
+    return deleted;
+  }
+
+  private long flush(List<List<String>> batches) {
+    if (slotBatchExecutor.isCluster()) {
+      List<String> keys = new ArrayList<>();
+      batches.forEach(keys::addAll);
+      batches.clear();
+      return slotBatchExecutor.sum(redisTemplate, keys, RedisOperations::unlink);
+    }
+    List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public <K, V> Object execute(@NonNull RedisOperations<K, V> operations)
+          throws DataAccessException {
+        RedisOperations<String, ?> ops = (RedisOperations<String, ?>) operations;
+        for (List<String> keys : batches) {
+          ops.unlink(keys);
+        }
+        return null;
+      }
+    });
+    batches.clear();
+    long deleted = 0;
+    for (Object result : results) {
+      if (result instanceof Number count) {
+        deleted += count.longValue();
+      }
+    }
+    return deleted;
+  }
+
+  /** 按已处理的 key 数量限速等待，被中断时返回 false 以终止删除 */
+  private boolean throttle(long start, long processed) {
+    if (maxUnlinkRate <= 0) {
+      return true;
+    }
+    long expected = (long) (processed / maxUnlinkRate * TimeUnit.SECONDS.toNanos(1));
+    long waitNanos = expected - (System.nanoTime() - start);
+    if (waitNanos <= 0) {
+      return true;
+    }
+    try {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static void report(@Nullable LongConsumer progress, long deleted) {
+    if (progress != null) {
+      progress.accept(deleted);
+    }
+  }
+}
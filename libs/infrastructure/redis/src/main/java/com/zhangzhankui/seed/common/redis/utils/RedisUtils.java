@@ -4,24 +4,61 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
 
+import com.zhangzhankui.seed.common.redis.cache.ClientSideCache;
+import com.zhangzhankui.seed.common.redis.cache.HotKeyDetector;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 
-/** Redis 工具类 */
+/**
+ * Redis 工具类
+ *
+ * <p>启用 seed.cache.hot-key 时，{@link #get(String)} 的热点 key 从本地短期副本读取，
+ * 启用 seed.cache.tracking 时，跟踪前缀下的 {@link #get(String)}、{@link #hGet(String, String)}
+ * 由 Redis 服务端辅助的 {@link ClientSideCache} 在本地缓存。本实例经此类修改 key 时同步丢弃本地值
+ *
+ * <p>{@code xxxAsync} 写入在启用 seed.cache.pipelining 时经 {@link PipelinedWriter} 与同一窗口内的写入合并发送，
+ * 未启用时同步执行并返回已完成的 future。
+ * {@code xxxAsync} 读取经 {@link ReactiveRedisTemplate} 以非阻塞命令执行，直接读取 Redis，
+ * 不经过热点副本与客户端缓存，多个读取可以同时发出再组合结果
+ */
 @Component
 @RequiredArgsConstructor
 public class RedisUtils {
 
+  /** 递增并在首次写入（或 key 没有过期时间）时设置过期时间，ARGV[1] 为毫秒数 */
+  private static final RedisScript<Long> INCREMENT_WITH_EXPIRE = RedisScript.of(
+      "local count = redis.call('incr', KEYS[1])\n"
+          + "if count == 1 or redis.call('pttl', KEYS[1]) == -1 then\n"
+          + "  redis.call('pexpire', KEYS[1], ARGV[1])\n"
+          + "end\n"
+          + "return count",
+      Long.class);
+
   private final RedisTemplate<String, Object> redisTemplate;
+  private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+  private final RedisKeyScanner keyScanner;
+  private final HotKeyDetector hotKeyDetector;
+  private final ClientSideCache clientSideCache;
+  private final SlotBatchExecutor slotBatchExecutor;
+  private final PipelinedWriter pipelinedWriter;
 
   // ========== 通用操作 ==========
 
   /** 设置过期时间 */
   public boolean expire(@NonNull String key, long timeout, @NonNull TimeUnit unit) {
+    evictLocal(key);
     return Boolean.TRUE.equals(redisTemplate.expire(key, timeout, unit));
   }
 
@@ -42,24 +79,29 @@ public class RedisUtils {
 
   /** 删除 key */
   public boolean delete(@NonNull String key) {
+    evictLocal(key);
     return Boolean.TRUE.equals(redisTemplate.delete(key));
   }
 
-  /** 批量删除 key */
+  /** 批量删除 key（Cluster 模式下按槽位拆分，按主节点 Pipeline 并行删除） */
   public Long delete(@NonNull Collection<String> keys) {
     if (keys == null) {
       throw new IllegalArgumentException("keys cannot be null");
     }
-    return redisTemplate.delete(keys);
+    keys.forEach(this::evictLocal);
+    return slotBatchExecutor.sum(redisTemplate, keys, RedisOperations::delete);
   }
 
-  /** 按模式删除 key */
+  /** 按模式删除 key（SCAN 流式扫描，分批 UNLINK，不阻塞 Redis） */
   public Long deleteByPattern(@NonNull String pattern) {
-    Set<String> keys = redisTemplate.keys(pattern);
-    if (keys != null && !keys.isEmpty()) {
-      return redisTemplate.delete(keys);
-    }
-    return 0L;
+    evictAllLocal();
+    return keyScanner.unlink(pattern, null);
+  }
+
+  /** 按模式删除 key，并回调已删除数量 */
+  public Long deleteByPattern(@NonNull String pattern, @NonNull LongConsumer progress) {
+    evictAllLocal();
+    return keyScanner.unlink(pattern, progress);
   }
 
   // ========== String 操作 ==========
@@ -67,7 +109,10 @@ public class RedisUtils {
   /** 获取值 */
   @SuppressWarnings("unchecked")
   public <T> T get(@NonNull String key) {
-    return (T) redisTemplate.opsForValue().get(key);
+    Supplier<Object> remote = () -> redisTemplate.opsForValue().get(key);
+    return (T) (clientSideCache.tracks(key)
+        ? clientSideCache.get(key, remote)
+        : hotKeyDetector.read(key, remote));
   }
 
   /** 设置值 */
@@ -76,12 +121,14 @@ public class RedisUtils {
       throw new IllegalArgumentException("key cannot be null");
     }
     redisTemplate.opsForValue().set(key, value);
+    evictLocal(key);
   }
 
   /** 设置值并指定过期时间 */
   public void set(
       @NonNull String key, @NonNull Object value, long timeout, @NonNull TimeUnit unit) {
     redisTemplate.opsForValue().set(key, value, timeout, unit);
+    evictLocal(key);
   }
 
   /** 如果不存在则设置 */
@@ -90,18 +137,37 @@ public class RedisUtils {
     return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, timeout, unit));
   }
 
-  /** 递增 */
+  /** 递增，可容忍短暂延迟的高频计数使用 {@link BufferedCounter} */
   public Long increment(@NonNull String key) {
+    evictLocal(key);
     return redisTemplate.opsForValue().increment(key);
   }
 
   /** 递增指定步长 */
   public Long increment(@NonNull String key, long delta) {
+    evictLocal(key);
     return redisTemplate.opsForValue().increment(key, delta);
   }
 
+  /**
+   * 递增并设置过期时间
+   *
+   * <p>INCR 与 PEXPIRE 在同一 Lua 脚本中原子执行，计数 key 不会因过期时间写入失败而永久存在。
+   * 过期时间只在计数从 0 开始或 key 没有过期时间时设置，不会随每次递增顺延
+   */
+  public Long increment(@NonNull String key, long timeout, @NonNull TimeUnit unit) {
+    evictLocal(key);
+    return redisTemplate.execute(
+        INCREMENT_WITH_EXPIRE,
+        RedisSerializer.string(),
+        new GenericToStringSerializer<>(Long.class),
+        List.of(key),
+        String.valueOf(unit.toMillis(timeout)));
+  }
+
   /** 递减 */
   public Long decrement(@NonNull String key) {
+    evictLocal(key);
     return redisTemplate.opsForValue().decrement(key);
   }
 
@@ -112,15 +178,81 @@ public class RedisUtils {
    */
   @SuppressWarnings("unchecked")
   public <T> T getAndDelete(@NonNull String key) {
+    evictLocal(key);
     return (T) redisTemplate.opsForValue().getAndDelete(key);
   }
 
+  // ========== 异步写入 ==========
+
+  /** 异步设置值并指定过期时间 */
+  public CompletableFuture<Boolean> setAsync(
+      @NonNull String key, @NonNull Object value, long timeout, @NonNull TimeUnit unit) {
+    return submit(key, () -> pipelinedWriter.set(key, value, timeout, unit), () -> {
+      set(key, value, timeout, unit);
+      return true;
+    });
+  }
+
+  /** 异步设置值（如果不存在） */
+  public CompletableFuture<Boolean> setIfAbsentAsync(
+      @NonNull String key, @NonNull Object value, long timeout, @NonNull TimeUnit unit) {
+    return submit(key, () -> pipelinedWriter.setIfAbsent(key, value, timeout, unit),
+        () -> setIfAbsent(key, value, timeout, unit));
+  }
+
+  /** 异步递增 */
+  public CompletableFuture<Long> incrementAsync(@NonNull String key) {
+    return submit(key, () -> pipelinedWriter.increment(key), () -> increment(key));
+  }
+
+  /** 异步设置过期时间 */
+  public CompletableFuture<Boolean> expireAsync(
+      @NonNull String key, long timeout, @NonNull TimeUnit unit) {
+    return submit(key, () -> pipelinedWriter.expire(key, timeout, unit),
+        () -> expire(key, timeout, unit));
+  }
+
+  /** 异步删除 key */
+  public CompletableFuture<Boolean> deleteAsync(@NonNull String key) {
+    return submit(key, () -> pipelinedWriter.delete(key), () -> delete(key));
+  }
+
+  // ========== 异步读取 ==========
+
+  /** 异步获取值 */
+  @SuppressWarnings("unchecked")
+  public <T> CompletableFuture<T> getAsync(@NonNull String key) {
+    return reactiveRedisTemplate.opsForValue().get(key).map(value -> (T) value).toFuture();
+  }
+
+  /** 异步判断 key 是否存在 */
+  public CompletableFuture<Boolean> hasKeyAsync(@NonNull String key) {
+    return reactiveRedisTemplate.hasKey(key).toFuture();
+  }
+
+  /** 异步获取过期时间（秒），与 {@link #getExpire(String)} 一致：永不过期返回 -1，不存在返回 -2 */
+  public CompletableFuture<Long> getExpireAsync(@NonNull String key) {
+    return reactiveRedisTemplate.getExpire(key)
+        .map(ttl -> ttl.isZero() ? -1L : ttl.toSeconds())
+        .defaultIfEmpty(-2L)
+        .toFuture();
+  }
+
+  /** 异步获取 Hash 值 */
+  @SuppressWarnings("unchecked")
+  public <T> CompletableFuture<T> hGetAsync(@NonNull String key, @NonNull String hashKey) {
+    return reactiveRedisTemplate.<Object, Object>opsForHash().get(key, hashKey)
+        .map(value -> (T) value)
+        .toFuture();
+  }
+
   // ========== Hash 操作 ==========
 
   /** 获取 Hash 值 */
   @SuppressWarnings("unchecked")
   public <T> T hGet(@NonNull String key, @NonNull String hashKey) {
-    return (T) redisTemplate.opsForHash().get(key, hashKey);
+    return (T) clientSideCache.hGet(
+        key, hashKey, () -> redisTemplate.opsForHash().get(key, hashKey));
   }
 
   /** 设置 Hash 值 */
@@ -129,11 +261,13 @@ public class RedisUtils {
       throw new IllegalArgumentException("key cannot be null");
     }
     redisTemplate.opsForHash().put(key, hashKey, value);
+    evictLocal(key);
   }
 
   /** 批量设置 Hash 值 */
   public void hSetAll(@NonNull String key, @NonNull Map<String, Object> map) {
     redisTemplate.opsForHash().putAll(key, map);
+    evictLocal(key);
   }
 
   /** 获取整个 Hash */
@@ -145,6 +279,7 @@ public class RedisUtils {
 
   /** 删除 Hash 中的值 */
   public Long hDelete(@NonNull String key, @NonNull Object... hashKeys) {
+    evictLocal(key);
     return redisTemplate.opsForHash().delete(key, hashKeys);
   }
 
@@ -205,4 +340,28 @@ public class RedisUtils {
   public Long sRemove(@NonNull String key, @NonNull Object... values) {
     return redisTemplate.opsForSet().remove(key, values);
   }
+
+  /** 自动 Pipeline 可用时异步发送并在完成后丢弃本地值，否则同步执行 */
+  private <T> CompletableFuture<T> submit(
+      String key, Supplier<CompletableFuture<T>> pipelined, Supplier<T> sync) {
+    if (pipelinedWriter.isActive()) {
+      return pipelined.get().whenComplete((result, error) -> evictLocal(key));
+    }
+    try {
+      return CompletableFuture.completedFuture(sync.get());
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /** 丢弃本实例持有的本地值（热点副本与客户端缓存） */
+  private void evictLocal(String key) {
+    hotKeyDetector.invalidate(key);
+    clientSideCache.invalidate(key);
+  }
+
+  private void evictAllLocal() {
+    hotKeyDetector.invalidateAll();
+    clientSideCache.invalidateAll();
+  }
 }
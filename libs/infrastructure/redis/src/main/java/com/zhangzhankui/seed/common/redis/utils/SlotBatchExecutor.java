@@ -0,0 +1,179 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * 按槽位拆分的多 key 命令执行器
+ *
+ * <p>Redis Cluster 中多 key 命令（DEL、UNLINK、MGET、EXISTS、多 key Lua）要求全部 key 位于同一槽位。
+ * 集群模式下先按槽位分组，再按槽位所属的主节点归并：每个主节点的全部槽位命令放在一次 Pipeline 中发送，
+ * 一个节点一次往返；各节点的 Pipeline 在虚拟线程中并行执行，同时执行的节点数不超过 maxParallelism。
+ * 单机模式下不拆分，直接以全部 key 执行一次。
+ *
+ * <p>命令在 Pipeline 中执行时返回值为 null，结果由 Pipeline 收集后按模板的序列化器反序列化，
+ * 因此每次调用 command 必须恰好发送一条 Redis 命令。
+ */
+public class SlotBatchExecutor {
+
+  @Nullable private final RedisConnectionFactory clusterConnectionFactory;
+  private final int maxParallelism;
+
+  /** 单机模式 */
+  public SlotBatchExecutor() {
+    this(null, 1);
+  }
+
+  /**
+   * @param clusterConnectionFactory Redis Cluster 连接工厂，用于查询槽位所属的主节点，为 null 表示单机模式
+   * @param maxParallelism 同时执行 Pipeline 的主节点数上限
+   */
+  public SlotBatchExecutor(
+      @Nullable RedisConnectionFactory clusterConnectionFactory, int maxParallelism) {
+    if (maxParallelism < 1) {
+      throw new IllegalArgumentException("maxParallelism must be positive: " + maxParallelism);
+    }
+    this.clusterConnectionFactory = clusterConnectionFactory;
+    this.maxParallelism = maxParallelism;
+  }
+
+  public boolean isCluster() {
+    return clusterConnectionFactory != null;
+  }
+
+  /**
+   * 按槽位分组、按主节点 Pipeline 执行
+   *
+   * @param redisOperations 执行命令的模板，Pipeline 结果按其序列化器反序列化
+   * @param keys key 集合
+   * @param command 以同一槽位的 key 发送一条命令，单机模式下返回值即结果
+   * @param consumer 在调用线程中依次接收每组 key 及其命令结果；单机模式总是执行一次，只回调一次
+   */
+  @SuppressWarnings("unchecked")
+  public <T> void execute(
+      @NonNull RedisOperations<String, ?> redisOperations,
+      @NonNull Collection<String> keys,
+      @NonNull BiFunction<RedisOperations<String, ?>, List<String>, T> command,
+      @NonNull BiConsumer<List<String>, T> consumer) {
+    if (!isCluster()) {
+      List<String> all = keys instanceof List<String> list ? list : new ArrayList<>(keys);
+      consumer.accept(all, command.apply(redisOperations, all));
+      return;
+    }
+    if (keys.isEmpty()) {
+      return;
+    }
+    List<List<List<String>>> nodeBatches = new ArrayList<>(groupByNode(keys).values());
+    List<List<Object>> nodeResults = new ArrayList<>(nodeBatches.size());
+    if (nodeBatches.size() == 1) {
+      nodeResults.add(pipelined(redisOperations, nodeBatches.getFirst(), command));
+    } else {
+      int threads = Math.min(nodeBatches.size(), maxParallelism);
+      try (ExecutorService executor =
+          Executors.newFixedThreadPool(threads, Thread.ofVirtual().factory())) {
+        List<Future<List<Object>>> futures = new ArrayList<>(nodeBatches.size());
+        for (List<List<String>> groups : nodeBatches) {
+          futures.add(executor.submit(() -> pipelined(redisOperations, groups, command)));
+        }
+        for (Future<List<Object>> future : futures) {
+          nodeResults.add(await(future));
+        }
+      }
+    }
+    for (int i = 0; i < nodeBatches.size(); i++) {
+      List<List<String>> groups = nodeBatches.get(i);
+      List<Object> results = nodeResults.get(i);
+      for (int j = 0; j < groups.size(); j++) {
+        consumer.accept(groups.get(j), (T) results.get(j));
+      }
+    }
+  }
+
+  /**
+   * 按槽位分组执行并累加各组返回的数量
+   *
+   * @param redisOperations 执行命令的模板
+   * @param keys key 集合
+   * @param command 以同一槽位的 key 发送一条返回数量的命令
+   * @return 数量之和
+   */
+  public long sum(
+      @NonNull RedisOperations<String, ?> redisOperations,
+      @NonNull Collection<String> keys,
+      @NonNull BiFunction<RedisOperations<String, ?>, List<String>, Long> command) {
+    AtomicLong total = new AtomicLong();
+    execute(redisOperations, keys, command, (group, count) -> {
+      if (count != null) {
+        total.addAndGet(count);
+      }
+    });
+    return total.get();
+  }
+
+  /** 按槽位分组后，以槽位所属主节点归并，保持首次出现的顺序 */
+  private Map<RedisClusterNode, List<List<String>>> groupByNode(Collection<String> keys) {
+    Map<RedisClusterNode, List<List<String>>> nodes = new LinkedHashMap<>();
+    try (RedisClusterConnection connection = clusterConnectionFactory.getClusterConnection()) {
+      ClusterKeys.groupBySlot(keys).forEach((slot, group) -> nodes
+          .computeIfAbsent(connection.clusterGetNodeForSlot(slot), ignored -> new ArrayList<>())
+          .add(group));
+    }
+    return nodes;
+  }
+
+  private static <T> List<Object> pipelined(
+      RedisOperations<String, ?> redisOperations,
+      List<List<String>> groups,
+      BiFunction<RedisOperations<String, ?>, List<String>, T> command) {
+    List<Object> results = redisOperations.executePipelined(new SessionCallback<Object>() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public <K, V> Object execute(@NonNull RedisOperations<K, V> operations)
+          throws DataAccessException {
+        RedisOperations<String, ?> ops = (RedisOperations<String, ?>) operations;
+        for (List<String> group : groups) {
+          command.apply(ops, group);
+        }
+        return null;
+      }
+    });
+    if (results.size() != groups.size()) {
+      throw new IllegalStateException("expected one reply per slot group, got "
+          + results.size() + " for " + groups.size());
+    }
+    return results;
+  }
+
+  private static <T> T await(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("slot batch interrupted", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException("slot batch failed", e.getCause());
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.zhangzhankui.seed.common.core.lock.IDistributedLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * CacheLoadCoordinator 单元测试
+ *
+ * <p>验证进程内并发回源被合并，未获得租约时等待其他节点写入的新值
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheLoadCoordinator 单元测试")
+class CacheLoadCoordinatorTest {
+
+  @Mock private IDistributedLock distributedLock;
+
+  private CacheLoadCoordinator coordinator;
+
+  private final Map<String, Object> store = new ConcurrentHashMap<>();
+
+  @BeforeEach
+  void setUp() {
+    coordinator = new CacheLoadCoordinator(distributedLock);
+  }
+
+  @Test
+  @DisplayName("同一 key 的并发调用只应回源一次")
+  void shouldLoadOnceForConcurrentCallers() throws Exception {
+    given(distributedLock.tryLock(anyString(), eq(0L), anyLong(), eq(TimeUnit.MILLISECONDS)))
+        .willReturn(true);
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Object>> results = new ArrayList<>();
+      results.add(executor.submit(() -> coordinator.load("stats", () -> store.get("stats"), () -> {
+        loads.incrementAndGet();
+        started.countDown();
+        await(release);
+        return "value";
+      }, value -> store.put("stats", value))));
+      started.await();
+      for (int i = 0; i < 7; i++) {
+        results.add(executor.submit(() -> coordinator.load(
+            "stats", () -> null, () -> "other-" + loads.incrementAndGet(), value -> { })));
+      }
+      Thread.sleep(100);
+      release.countDown();
+
+      for (Future<Object> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+      }
+      assertThat(loads).hasValue(1);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("未获得租约时应复用其他节点写入的值")
+  void shouldWaitForValueLoadedByLeaseHolder() {
+    given(distributedLock.tryLock(anyString(), eq(0L), anyLong(), eq(TimeUnit.MILLISECONDS)))
+        .willReturn(false);
+    AtomicInteger lookups = new AtomicInteger();
+
+    Object value = coordinator.load(
+        "stats",
+        () -> lookups.incrementAndGet() >= 2 ? "remote" : null,
+        () -> "local",
+        loaded -> { });
+
+    assertThat(value).isEqualTo("remote");
+    verify(distributedLock, never()).unlock(anyString());
+  }
+
+  @Test
+  @DisplayName("获得租约后应回源写入并释放租约")
+  void shouldLoadAndReleaseLease() {
+    given(distributedLock.tryLock(anyString(), eq(0L), anyLong(), eq(TimeUnit.MILLISECONDS)))
+        .willReturn(true);
+
+    Object value = coordinator.load(
+        "stats", () -> store.get("stats"), () -> "value", loaded -> store.put("stats", loaded));
+
+    assertThat(value).isEqualTo("value");
+    assertThat(store).containsEntry("stats", "value");
+    verify(distributedLock).unlock("cache:load:stats");
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
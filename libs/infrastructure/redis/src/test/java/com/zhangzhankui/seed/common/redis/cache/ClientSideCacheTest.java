@@ -0,0 +1,126 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.zhangzhankui.seed.common.redis.config.CacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ClientSideCache 单元测试")
+class ClientSideCacheTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private ClientSideCache clientSideCache;
+
+  @BeforeEach
+  void setUp() {
+    CacheProperties.Tracking properties = new CacheProperties.Tracking();
+    properties.setEnabled(true);
+    properties.getPrefixes().add("user:login:");
+    meterRegistry = new SimpleMeterRegistry();
+    clientSideCache = new ClientSideCache(properties, meterRegistry);
+    clientSideCache.activate();
+  }
+
+  private double count(String name, String result) {
+    return result == null
+        ? meterRegistry.counter(name).count()
+        : meterRegistry.counter(name, "result", result).count();
+  }
+
+  @Nested
+  @DisplayName("本地读取")
+  class ReadTests {
+
+    @Test
+    @DisplayName("跟踪前缀下的 key 第二次读取应命中本地")
+    void shouldHitLocalOnSecondRead() {
+      AtomicInteger remoteReads = new AtomicInteger();
+
+      clientSideCache.get("user:login:admin", () -> "v" + remoteReads.incrementAndGet());
+      Object value =
+          clientSideCache.get("user:login:admin", () -> "v" + remoteReads.incrementAndGet());
+
+      assertThat(value).isEqualTo("v1");
+      assertThat(remoteReads.get()).isEqualTo(1);
+      assertThat(count("redis.client.cache.requests", "hit")).isEqualTo(1);
+      assertThat(count("redis.client.cache.requests", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("未跟踪的 key 应直接读取 Redis")
+    void shouldPassThroughUntrackedKey() {
+      AtomicInteger remoteReads = new AtomicInteger();
+
+      clientSideCache.get("captcha:1", remoteReads::incrementAndGet);
+      clientSideCache.get("captcha:1", remoteReads::incrementAndGet);
+
+      assertThat(clientSideCache.tracks("captcha:1")).isFalse();
+      assertThat(remoteReads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Hash 字段应按 key 缓存")
+    void shouldCacheHashFields() {
+      AtomicInteger remoteReads = new AtomicInteger();
+
+      clientSideCache.hGet("user:login:h", "a", () -> "a" + remoteReads.incrementAndGet());
+      clientSideCache.hGet("user:login:h", "b", () -> "b" + remoteReads.incrementAndGet());
+      Object value =
+          clientSideCache.hGet("user:login:h", "a", () -> "a" + remoteReads.incrementAndGet());
+
+      assertThat(value).isEqualTo("a1");
+      assertThat(remoteReads.get()).isEqualTo(2);
+    }
+  }
+
+  @Nested
+  @DisplayName("失效推送")
+  class InvalidationTests {
+
+    @Test
+    @DisplayName("收到失效推送后应重新读取 Redis")
+    void shouldReloadAfterInvalidation() {
+      clientSideCache.get("user:login:admin", () -> "old");
+      clientSideCache.hGet("user:login:admin", "f", () -> "old");
+
+      clientSideCache.onInvalidate(new ArrayList<>(List.of("user:login:admin")));
+
+      assertThat((Object) clientSideCache.get("user:login:admin", () -> "new")).isEqualTo("new");
+      assertThat((Object) clientSideCache.hGet("user:login:admin", "f", () -> "new"))
+          .isEqualTo("new");
+      assertThat(count("redis.client.cache.invalidations", null)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("回源期间到达的失效推送应使本次结果不被缓存")
+    void shouldDiscardValueInvalidatedDuringLoad() {
+      clientSideCache.get("user:login:admin", () -> {
+        clientSideCache.onInvalidate(List.of("user:login:admin"));
+        return "stale";
+      });
+
+      assertThat((Object) clientSideCache.get("user:login:admin", () -> "fresh"))
+          .isEqualTo("fresh");
+    }
+
+    @Test
+    @DisplayName("FLUSHDB 推送应清空全部本地值")
+    void shouldClearAllOnFlush() {
+      clientSideCache.get("user:login:a", () -> "a");
+      clientSideCache.get("user:login:b", () -> "b");
+
+      clientSideCache.onInvalidate(null);
+
+      assertThat((Object) clientSideCache.get("user:login:a", () -> "a2")).isEqualTo("a2");
+      assertThat((Object) clientSideCache.get("user:login:b", () -> "b2")).isEqualTo("b2");
+    }
+  }
+}
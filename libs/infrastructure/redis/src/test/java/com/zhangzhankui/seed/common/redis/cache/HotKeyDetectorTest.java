@@ -0,0 +1,157 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.zhangzhankui.seed.common.redis.config.CacheProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("HotKeyDetector 单元测试")
+class HotKeyDetectorTest {
+
+  private static CacheProperties.HotKey properties(long threshold) {
+    CacheProperties.HotKey properties = new CacheProperties.HotKey();
+    properties.setEnabled(true);
+    properties.setThreshold(threshold);
+    properties.setSampleRate(1.0);
+    properties.setWindow(Duration.ofMinutes(1));
+    properties.setLocalTtl(Duration.ofMinutes(1));
+    return properties;
+  }
+
+  @Nested
+  @DisplayName("热点探测")
+  class DetectionTests {
+
+    @Test
+    @DisplayName("访问次数达到阈值后应使用本地副本")
+    void shouldServeReplicaAfterThreshold() {
+      HotKeyDetector detector = new HotKeyDetector(properties(5));
+      AtomicInteger remoteReads = new AtomicInteger();
+
+      for (int i = 0; i < 20; i++) {
+        Object value = detector.read("dashboard::stats", () -> {
+          remoteReads.incrementAndGet();
+          return "stats";
+        });
+        assertThat(value).isEqualTo("stats");
+      }
+
+      assertThat(remoteReads.get()).isEqualTo(5);
+      assertThat(detector.hotKeys())
+          .singleElement()
+          .satisfies(hotKey -> {
+            assertThat(hotKey.key()).isEqualTo("dashboard::stats");
+            assertThat(hotKey.replicated()).isTrue();
+          });
+    }
+
+    @Test
+    @DisplayName("未达阈值的 key 每次都应读取 Redis")
+    void shouldReadRemoteBelowThreshold() {
+      HotKeyDetector detector = new HotKeyDetector(properties(100));
+      AtomicInteger remoteReads = new AtomicInteger();
+
+      for (int i = 0; i < 10; i++) {
+        detector.read("cold", () -> remoteReads.incrementAndGet());
+      }
+
+      assertThat(remoteReads.get()).isEqualTo(10);
+      assertThat(detector.hotKeys()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("null 值不应保留副本")
+    void shouldNotReplicateNull() {
+      HotKeyDetector detector = new HotKeyDetector(properties(1));
+      AtomicInteger remoteReads = new AtomicInteger();
+
+      for (int i = 0; i < 3; i++) {
+        detector.read("missing", () -> {
+          remoteReads.incrementAndGet();
+          return null;
+        });
+      }
+
+      assertThat(remoteReads.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("不匹配前缀的 key 不参与探测")
+    void shouldIgnoreUnmatchedPrefix() {
+      CacheProperties.HotKey properties = properties(1);
+      properties.setKeyPrefixes(Set.of("user:login:"));
+      HotKeyDetector detector = new HotKeyDetector(properties);
+
+      detector.read("captcha:1", () -> "a");
+      detector.read("user:login:admin", () -> "b");
+
+      assertThat(detector.hotKeys()).extracting(HotKeyDetector.HotKey::key)
+          .containsExactly("user:login:admin");
+    }
+  }
+
+  @Nested
+  @DisplayName("副本失效")
+  class InvalidationTests {
+
+    @Test
+    @DisplayName("失效后应重新读取 Redis")
+    void shouldReadRemoteAfterInvalidate() {
+      HotKeyDetector detector = new HotKeyDetector(properties(1));
+      detector.read("k", () -> "v1");
+
+      detector.invalidate("k");
+
+      assertThat((Object) detector.read("k", () -> "v2")).isEqualTo("v2");
+    }
+
+    @Test
+    @DisplayName("未启用时直接读取 Redis")
+    void shouldPassThroughWhenDisabled() {
+      HotKeyDetector detector = new HotKeyDetector(new CacheProperties.HotKey());
+      AtomicInteger remoteReads = new AtomicInteger();
+
+      for (int i = 0; i < 5000; i++) {
+        detector.read("k", () -> remoteReads.incrementAndGet());
+      }
+
+      assertThat(remoteReads.get()).isEqualTo(5000);
+      assertThat(detector.hotKeys()).isEmpty();
+    }
+  }
+
+  @Nested
+  @DisplayName("Count-Min Sketch")
+  class SketchTests {
+
+    @Test
+    @DisplayName("hashCode 相同的 key 不应在全部行上碰撞")
+    void shouldSeparateKeysWithSameHashCode() {
+      assertThat("user:Aa".hashCode()).isEqualTo("user:BB".hashCode());
+      HotKeyDetector.CountMinSketch sketch = new HotKeyDetector.CountMinSketch(4096);
+
+      for (int i = 0; i < 100; i++) {
+        sketch.increment("user:Aa");
+      }
+
+      assertThat(sketch.estimate("user:Aa")).isEqualTo(100);
+      assertThat(sketch.estimate("user:BB")).isZero();
+    }
+
+    @Test
+    @DisplayName("不同种子应得到不同的哈希值")
+    void shouldHashIndependentlyPerSeed() {
+      long first = HotKeyDetector.CountMinSketch.hash("user:login:1", 1L);
+      long second = HotKeyDetector.CountMinSketch.hash("user:login:1", 2L);
+
+      assertThat(first).isNotEqualTo(second);
+      assertThat(HotKeyDetector.CountMinSketch.hash("user:login:1", 1L)).isEqualTo(first);
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import com.zhangzhankui.seed.common.redis.utils.RedisKeyScanner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * NamespaceGenerations 单元测试
+ *
+ * <p>验证代数在刷新间隔内只读取一次，递增后立即生效并提交旧代数回收任务
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NamespaceGenerations 单元测试")
+class NamespaceGenerationsTest {
+
+  @Mock private StringRedisTemplate redisTemplate;
+
+  @Mock private ValueOperations<String, String> valueOperations;
+
+  @Mock private ReactiveStringRedisTemplate reactiveRedisTemplate;
+
+  @Mock private ReactiveValueOperations<String, String> reactiveValueOperations;
+
+  @Mock private RedisKeyScanner keyScanner;
+
+  private final List<Runnable> reclaimTasks = new ArrayList<>();
+
+  private NamespaceGenerations generations;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    lenient().when(reactiveRedisTemplate.opsForValue()).thenReturn(reactiveValueOperations);
+    generations = new NamespaceGenerations(
+        redisTemplate, reactiveRedisTemplate, keyScanner, Duration.ofMinutes(1), reclaimTasks::add);
+  }
+
+  @Test
+  @DisplayName("刷新间隔内应复用本地缓存的代数")
+  void shouldCacheGenerationLocally() {
+    given(valueOperations.get("cache:gen:sys:dept:")).willReturn("3");
+
+    assertThat(generations.versionedPrefix("sys:dept:")).isEqualTo("sys:dept:v3:");
+    assertThat(generations.versionedPrefix("sys:dept:")).isEqualTo("sys:dept:v3:");
+
+    verify(valueOperations, times(1)).get("cache:gen:sys:dept:");
+  }
+
+  @Test
+  @DisplayName("未清空过的命名空间代数应为 0 并沿用原始前缀")
+  void shouldDefaultToZero() {
+    assertThat(generations.current("sys:dept:")).isZero();
+    assertThat(generations.versionedPrefix("sys:dept:")).isEqualTo("sys:dept:");
+    assertThat(generations.versionedKey("sys:dept:1", List.of("sys:dept:"))).isEqualTo("sys:dept:1");
+  }
+
+  @Test
+  @DisplayName("从代数 0 递增时回收应跳过新代数的 key")
+  @SuppressWarnings("unchecked")
+  void shouldKeepVersionedKeysWhenReclaimingGenerationZero() {
+    given(valueOperations.increment("cache:gen:sys:dept:")).willReturn(1L);
+    given(keyScanner.scan("sys:dept:*"))
+        .willReturn(Stream.of("sys:dept:1", "sys:dept:v1:1", "sys:dept:v12:2", "sys:dept:vip"));
+    List<String> unlinked = new ArrayList<>();
+    given(keyScanner.unlink(any(Iterator.class), isNull())).willAnswer(invocation -> {
+      invocation.<Iterator<String>>getArgument(0).forEachRemaining(unlinked::add);
+      return (long) unlinked.size();
+    });
+
+    generations.bump("sys:dept:");
+    reclaimTasks.get(0).run();
+
+    assertThat(unlinked).containsExactly("sys:dept:1", "sys:dept:vip");
+  }
+
+  @Test
+  @DisplayName("递增代数后应立即使用新代数并提交回收任务")
+  void shouldSwitchPrefixOnBump() {
+    given(valueOperations.increment("cache:gen:sys:dept:")).willReturn(4L);
+
+    assertThat(generations.bump("sys:dept:")).isEqualTo(4);
+
+    assertThat(generations.versionedPrefix("sys:dept:")).isEqualTo("sys:dept:v4:");
+    assertThat(reclaimTasks).hasSize(1);
+    reclaimTasks.get(0).run();
+    verify(keyScanner).unlink("sys:dept:v3:*", null);
+  }
+
+  @Test
+  @DisplayName("非阻塞读取应合并并发请求并写入本地缓存")
+  void shouldLoadGenerationAsync() {
+    Sinks.One<String> reply = Sinks.one();
+    given(reactiveValueOperations.get("cache:gen:sys:dept:")).willReturn(reply.asMono());
+
+    CompletableFuture<String> first =
+        generations.versionedKeyAsync("sys:dept:1", List.of("sys:dept:")).toFuture();
+    CompletableFuture<String> second =
+        generations.versionedKeyAsync("sys:dept:2", List.of("sys:dept:")).toFuture();
+    reply.tryEmitValue("5");
+
+    assertThat(first.join()).isEqualTo("sys:dept:v5:1");
+    assertThat(second.join()).isEqualTo("sys:dept:v5:2");
+    assertThat(generations.current("sys:dept:")).isEqualTo(5);
+    verify(reactiveValueOperations, times(1)).get("cache:gen:sys:dept:");
+    verify(valueOperations, never()).get("cache:gen:sys:dept:");
+  }
+
+  @Test
+  @DisplayName("不在命名空间内的 key 应原样返回且不访问 Redis")
+  void shouldSkipUnversionedKeyAsync() {
+    assertThat(generations.versionedKeyAsync("user:1", List.of("sys:dept:")).block())
+        .isEqualTo("user:1");
+
+    verify(reactiveRedisTemplate, never()).opsForValue();
+  }
+
+  @Test
+  @DisplayName("非阻塞读取失败时应沿用默认代数")
+  void shouldFallBackOnAsyncFailure() {
+    given(reactiveValueOperations.get("cache:gen:sys:dept:"))
+        .willReturn(Mono.error(new RedisConnectionFailureException("down")));
+
+    assertThat(generations.currentAsync("sys:dept:").block()).isZero();
+  }
+
+  @Test
+  @DisplayName("glob 特殊字符应被转义")
+  void shouldEscapeGlobCharacters() {
+    assertThat(NamespaceGenerations.escape("a*b?[c]")).isEqualTo("a\\*b\\?\\[c\\]");
+  }
+}
@@ -0,0 +1,143 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * NearCacheImpl 单元测试
+ *
+ * <p>验证 L1 命中不回源 Redis，写入与失效操作同步更新 L1 并广播失效消息
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NearCacheImpl 单元测试")
+class NearCacheImplTest {
+
+  @Mock private RedisCacheImpl redisCache;
+
+  @Mock private CacheInvalidationBus invalidationBus;
+
+  private NearCacheImpl nearCache;
+
+  @BeforeEach
+  void setUp() {
+    nearCache = new NearCacheImpl(
+        redisCache, invalidationBus, Set.of("user:login:"), 100, Duration.ofMinutes(1));
+  }
+
+  @Nested
+  @DisplayName("读取测试")
+  class ReadTests {
+
+    @Test
+    @DisplayName("L1 命中时不应回源 Redis")
+    void shouldServeRepeatedReadsFromLocalCache() {
+      given(redisCache.get("user:login:admin")).willReturn("admin");
+
+      assertThat(nearCache.get("user:login:admin")).isEqualTo("admin");
+      assertThat(nearCache.get("user:login:admin")).isEqualTo("admin");
+
+      verify(redisCache, times(1)).get("user:login:admin");
+    }
+
+    @Test
+    @DisplayName("未匹配前缀的 key 应直接访问 Redis")
+    void shouldBypassLocalCacheForOtherPrefixes() {
+      given(redisCache.get("rate_limit:x")).willReturn(1);
+
+      nearCache.get("rate_limit:x");
+      nearCache.get("rate_limit:x");
+
+      verify(redisCache, times(2)).get("rate_limit:x");
+    }
+
+    @Test
+    @DisplayName("getAll 应只对 L1 未命中的 key 发起一次批量读取")
+    void shouldBatchLoadOnlyLocalMisses() {
+      nearCache.put("user:login:admin", "admin");
+      given(redisCache.getAll(List.of("user:login:guest")))
+          .willReturn(Map.of("user:login:guest", "guest"));
+
+      Map<String, Object> result = nearCache.getAll(List.of("user:login:admin", "user:login:guest"));
+
+      assertThat(result)
+          .containsEntry("user:login:admin", "admin")
+          .containsEntry("user:login:guest", "guest");
+      verify(redisCache).getAll(List.of("user:login:guest"));
+    }
+
+    @Test
+    @DisplayName("Redis 中不存在的值不应写入 L1")
+    void shouldNotCacheMissingValues() {
+      nearCache.get("user:login:ghost");
+      nearCache.get("user:login:ghost");
+
+      verify(redisCache, times(2)).get("user:login:ghost");
+    }
+  }
+
+  @Nested
+  @DisplayName("写入与失效测试")
+  class WriteTests {
+
+    @Test
+    @DisplayName("put 应写入 Redis 与 L1 并广播失效")
+    void shouldWriteThroughAndPublish() {
+      nearCache.put("user:login:admin", "admin", 10, TimeUnit.MINUTES);
+
+      assertThat(nearCache.get("user:login:admin")).isEqualTo("admin");
+      verify(redisCache).put("user:login:admin", "admin", 10, TimeUnit.MINUTES);
+      verify(redisCache, never()).get(anyString());
+      verify(invalidationBus).publishEvict(NearCacheImpl.REGION, "user:login:admin");
+    }
+
+    @Test
+    @DisplayName("remove 应丢弃 L1 条目并广播失效")
+    void shouldEvictLocalEntryOnRemove() {
+      nearCache.put("user:login:admin", "admin");
+
+      nearCache.remove("user:login:admin");
+      nearCache.get("user:login:admin");
+
+      verify(redisCache).remove("user:login:admin");
+      verify(redisCache).get("user:login:admin");
+      verify(invalidationBus, times(2)).publishEvict(NearCacheImpl.REGION, "user:login:admin");
+    }
+
+    @Test
+    @DisplayName("expire 应丢弃 L1 条目")
+    void shouldEvictLocalEntryOnExpire() {
+      nearCache.put("user:login:admin", "admin");
+
+      nearCache.expire("user:login:admin", 1, TimeUnit.SECONDS);
+      nearCache.get("user:login:admin");
+
+      verify(redisCache).get("user:login:admin");
+    }
+
+    @Test
+    @DisplayName("未匹配前缀的写入不应广播")
+    void shouldNotPublishForOtherPrefixes() {
+      nearCache.put("rate_limit:x", 1);
+
+      verify(invalidationBus, never()).publishEvict(anyString(), anyString());
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.zhangzhankui.seed.common.redis.config.CacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReactiveRedisCacheImpl 单元测试")
+class ReactiveRedisCacheImplTest {
+
+  @Mock private ReactiveRedisTemplate<String, Object> redisTemplate;
+  @Mock private ReactiveValueOperations<String, Object> valueOperations;
+  @Mock private NamespaceGenerations namespaceGenerations;
+  @Mock private HotKeyDetector hotKeyDetector;
+  @Mock private ClientSideCache clientSideCache;
+
+  private ReactiveRedisCacheImpl cache;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    lenient().when(namespaceGenerations.versionedKeyAsync(anyString(), anyCollection()))
+        .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    cache = new ReactiveRedisCacheImpl(
+        redisTemplate, namespaceGenerations, new CacheProperties(), hotKeyDetector, clientSideCache);
+  }
+
+  @Nested
+  @DisplayName("读取")
+  class ReadTests {
+
+    @Test
+    @DisplayName("并发发出的读取应可组合")
+    void shouldComposeConcurrentReads() {
+      given(valueOperations.get("a")).willReturn(Mono.just(1));
+      given(valueOperations.get("b")).willReturn(Mono.just(2));
+
+      CompletableFuture<Object> a = cache.get("a").toCompletableFuture();
+      CompletableFuture<Object> b = cache.get("b").toCompletableFuture();
+
+      assertThat(a.thenCombine(b, (x, y) -> (Integer) x + (Integer) y).join()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Redis 异常时应以 null 完成")
+    void shouldCompleteWithNullOnError() {
+      given(valueOperations.get("a"))
+          .willReturn(Mono.error(new RedisConnectionFailureException("down")));
+
+      assertThat(cache.get("a").toCompletableFuture().join()).isNull();
+    }
+
+    @Test
+    @DisplayName("getAll 应使用 MGET 并跳过不存在的 key")
+    void shouldGetAllWithMget() {
+      given(valueOperations.multiGet(List.of("a", "b", "c")))
+          .willReturn(Mono.just(new ArrayList<>(Arrays.asList(1, null, 3))));
+
+      Map<String, Object> result =
+          cache.getAll(List.of("a", "b", "c")).toCompletableFuture().join();
+
+      assertThat(result).containsOnlyKeys("a", "c");
+    }
+
+    @Test
+    @DisplayName("代数应在订阅时解析，不在调用线程上读取")
+    void shouldResolveGenerationOnSubscribe() {
+      Sinks.One<String> generation = Sinks.one();
+      given(namespaceGenerations.versionedKeyAsync(eq("sys:dept:1"), anyCollection()))
+          .willReturn(generation.asMono());
+      given(valueOperations.get("sys:dept:v2:1")).willReturn(Mono.just("dept"));
+
+      CompletableFuture<Object> result = cache.get("sys:dept:1").toCompletableFuture();
+      assertThat(result).isNotDone();
+
+      generation.tryEmitValue("sys:dept:v2:1");
+      assertThat(result.join()).isEqualTo("dept");
+      verify(namespaceGenerations, never()).versionedKey(anyString(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("getExpire 应区分永不过期与不存在")
+    void shouldMapExpire() {
+      given(redisTemplate.getExpire("persistent")).willReturn(Mono.just(Duration.ZERO));
+      given(redisTemplate.getExpire("missing")).willReturn(Mono.empty());
+      given(redisTemplate.getExpire("ttl")).willReturn(Mono.just(Duration.ofSeconds(90)));
+
+      assertThat(cache.getExpire("persistent", TimeUnit.SECONDS).toCompletableFuture().join())
+          .isEqualTo(-1L);
+      assertThat(cache.getExpire("missing", TimeUnit.SECONDS).toCompletableFuture().join())
+          .isEqualTo(-2L);
+      assertThat(cache.getExpire("ttl", TimeUnit.SECONDS).toCompletableFuture().join())
+          .isEqualTo(90L);
+    }
+  }
+
+  @Nested
+  @DisplayName("写入")
+  class WriteTests {
+
+    @Test
+    @DisplayName("写入成功后应丢弃本地值")
+    void shouldEvictLocalAfterPut() {
+      given(valueOperations.set("a", "v", Duration.ofSeconds(10))).willReturn(Mono.just(true));
+
+      cache.put("a", "v", 10, TimeUnit.SECONDS).toCompletableFuture().join();
+
+      verify(hotKeyDetector).invalidate("a");
+      verify(clientSideCache).invalidate("a");
+    }
+
+    @Test
+    @DisplayName("删除失败时应以 false 完成")
+    void shouldCompleteWithFalseOnDeleteError() {
+      given(redisTemplate.delete("a"))
+          .willReturn(Mono.error(new RedisConnectionFailureException("down")));
+
+      assertThat(cache.remove("a").toCompletableFuture().join()).isFalse();
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package com.zhangzhankui.seed.common.redis.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+/**
+ * RefreshAheadCache 单元测试
+ *
+ * <p>验证条目以包装形式存储、读取时解包，接近过期的命中经注册的回源函数在后台刷新、
+ * 经最外层缓存写入，且调用方拿到当前值
+ */
+@DisplayName("RefreshAheadCache 单元测试")
+class RefreshAheadCacheTest {
+
+  private ConcurrentMapCache store;
+
+  private RefreshAheadCache cache;
+
+  @BeforeEach
+  void setUp() {
+    store = new ConcurrentMapCache("dashboard");
+    cache = refreshAheadCache(null);
+  }
+
+  private RefreshAheadCache refreshAheadCache(CacheReloader reloader) {
+    return new RefreshAheadCache(
+        store, new JitteredTtlFunction(Duration.ofHours(1), 0), 1.0, reloader);
+  }
+
+  private static CacheReloader reloader(Callable<Object> loader) {
+    return new CacheReloader() {
+      @Override
+      public String cacheName() {
+        return "dashboard";
+      }
+
+      @Override
+      public Object reload(Object key) throws Exception {
+        return loader.call();
+      }
+    };
+  }
+
+  @Test
+  @DisplayName("未命中时应回源并以包装形式存储")
+  void shouldWrapLoadedValue() {
+    Object value = cache.get("stats", () -> "v1");
+
+    assertThat(value).isEqualTo("v1");
+    assertThat(store.get("stats").get()).isInstanceOf(CacheEntry.class);
+    assertThat(cache.get("stats").get()).isEqualTo("v1");
+  }
+
+  @Test
+  @DisplayName("远未过期的命中不应触发刷新")
+  void shouldNotRefreshFreshEntries() {
+    AtomicInteger loads = new AtomicInteger();
+    cache.get("stats", loads::incrementAndGet);
+
+    Object value = cache.get("stats", loads::incrementAndGet);
+
+    assertThat(value).isEqualTo(1);
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("已到期的命中应返回当前值并经注册的回源函数在后台刷新")
+  void shouldRefreshExpiringEntriesInBackground() throws InterruptedException {
+    store.put("stats", new CacheEntry("old", 10, System.currentTimeMillis()));
+    CountDownLatch refreshed = new CountDownLatch(1);
+    cache = refreshAheadCache(reloader(() -> {
+      refreshed.countDown();
+      return "new";
+    }));
+
+    Object value = cache.get("stats", () -> "from-request");
+
+    assertThat(value).isEqualTo("old");
+    assertThat(refreshed.await(5, TimeUnit.SECONDS)).isTrue();
+    awaitValue(cache, "new");
+    assertThat(cache.get("stats").get()).isEqualTo("new");
+    assertThat(((CacheEntry) store.get("stats").get()).getDelta()).isNotNegative();
+  }
+
+  @Test
+  @DisplayName("未注册回源函数时不应在后台重放调用方的回源函数")
+  void shouldNotReplayRequestLoader() throws InterruptedException {
+    store.put("stats", new CacheEntry("old", 10, System.currentTimeMillis()));
+    AtomicInteger loads = new AtomicInteger();
+
+    Object value = cache.get("stats", loads::incrementAndGet);
+    Thread.sleep(100);
+
+    assertThat(value).isEqualTo("old");
+    assertThat(loads).hasValue(0);
+    assertThat(cache.get("stats").get()).isEqualTo("old");
+  }
+
+  @Test
+  @DisplayName("刷新结果应经最外层缓存写入")
+  void shouldRouteRefreshThroughOuterCache() throws InterruptedException {
+    store.put("stats", new CacheEntry("old", 10, System.currentTimeMillis()));
+    cache = refreshAheadCache(reloader(() -> "new"));
+    List<Object> outerPuts = new CopyOnWriteArrayList<>();
+    Cache outer = new ConcurrentMapCache("dashboard") {
+      @Override
+      public void put(Object key, Object value) {
+        outerPuts.add(value);
+        cache.put(key, value);
+      }
+    };
+    cache.setRefreshTarget(outer);
+
+    cache.get("stats", () -> "from-request");
+
+    awaitValue(cache, "new");
+    assertThat(outerPuts).containsExactly("new");
+  }
+
+  private static void awaitValue(Cache cache, Object expected) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (!expected.equals(cache.get("stats").get()) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  @DisplayName("抖动后的过期时间应落在配置范围内")
+  void shouldJitterTtlWithinRange() {
+    JitteredTtlFunction ttlFunction = new JitteredTtlFunction(Duration.ofMinutes(60), 0.1);
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(ttlFunction.getTimeToLive("key", "value"))
+          .isBetween(Duration.ofMinutes(54), Duration.ofMinutes(60));
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.zhangzhankui.seed.common.redis.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+
+import com.zhangzhankui.seed.common.redis.serializer.ValueCodec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+/**
+ * CacheProperties 单元测试
+ *
+ * <p>验证 specs 按缓存名称绑定，未配置的项回退到全局配置
+ */
+@DisplayName("CacheProperties 单元测试")
+class CachePropertiesTest {
+
+  @Test
+  @DisplayName("specs 应按缓存名称覆盖全局配置")
+  void shouldResolveSpecOverrides() {
+    CacheProperties properties = bind(Map.of(
+        "seed.cache.ttl", "1h",
+        "seed.cache.specs.dashboard.ttl", "10m",
+        "seed.cache.specs.dashboard.refresh-ahead", "true",
+        "seed.cache.specs.dashboard.codec", "smile",
+        "seed.cache.specs.[user:login:].near-maximum-size", "500",
+        "seed.cache.specs.[user:login:].cache-null-values", "true"));
+
+    assertThat(properties.ttlOf("dashboard")).isEqualTo(Duration.ofMinutes(10));
+    assertThat(properties.isRefreshAhead("dashboard")).isTrue();
+    assertThat(properties.getSpecs().get("dashboard").getCodec()).isEqualTo(ValueCodec.SMILE);
+    assertThat(properties.isNear("user:login:")).isTrue();
+    assertThat(properties.nearMaximumSizeOf("user:login:")).isEqualTo(500);
+    assertThat(properties.getSpecs().get("user:login:").isCacheNullValues()).isTrue();
+  }
+
+  @Test
+  @DisplayName("未配置 spec 的缓存应沿用全局配置")
+  void shouldFallBackToGlobalSettings() {
+    CacheProperties properties = bind(Map.of(
+        "seed.cache.ttl", "2h",
+        "seed.cache.near.maximum-size", "100",
+        "seed.cache.near.cache-names", "menus",
+        "seed.cache.refresh-ahead.cache-names", "roles"));
+
+    assertThat(properties.ttlOf("menus")).isEqualTo(Duration.ofHours(2));
+    assertThat(properties.isNear("menus")).isTrue();
+    assertThat(properties.nearMaximumSizeOf("menus")).isEqualTo(100);
+    assertThat(properties.isRefreshAhead("roles")).isTrue();
+    assertThat(properties.isRefreshAhead("menus")).isFalse();
+    assertThat(properties.isNear("roles")).isFalse();
+  }
+
+  private static CacheProperties bind(Map<String, String> source) {
+    return new Binder(new MapConfigurationPropertySource(source))
+        .bind("seed.cache", CacheProperties.class)
+        .get();
+  }
+}
@@ -0,0 +1,130 @@
+package com.zhangzhankui.seed.common.redis.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.zhangzhankui.seed.common.redis.utils.KeyPrefixes;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("LockMetrics 单元测试")
+class LockMetricsTest {
+
+  @Nested
+  @DisplayName("锁键模板")
+  class NormalizeTests {
+
+    @Test
+    @DisplayName("数字、UUID 与长十六进制段应替换为 {id}")
+    void shouldReplaceIdentifiers() {
+      assertThat(LockMetrics.normalize("order:123")).isEqualTo("order:{id}");
+      assertThat(LockMetrics.normalize("user:42:role:7")).isEqualTo("user:{id}:role:{id}");
+      assertThat(LockMetrics.normalize("task:3f2b8c1e-9a4d-4e6f-8b7a-1c2d3e4f5a6b"))
+          .isEqualTo("task:{id}");
+      assertThat(LockMetrics.normalize("file:0123456789abcdef0123")).isEqualTo("file:{id}");
+      assertThat(LockMetrics.normalize("batch_2024_import")).isEqualTo("batch_{id}_import");
+    }
+
+    @Test
+    @DisplayName("名称中的数字与短十六进制词应保留")
+    void shouldKeepNames() {
+      assertThat(LockMetrics.normalize("cache:v2:dept")).isEqualTo("cache:v2:dept");
+      assertThat(LockMetrics.normalize("job:cafe")).isEqualTo("job:cafe");
+    }
+  }
+
+  @Nested
+  @DisplayName("指标名称")
+  class NameTests {
+
+    @Test
+    @DisplayName("匹配前缀的锁键应按最长前缀归类")
+    void shouldUsePrefix() {
+      LockMetrics metrics = new LockMetrics(
+          new SimpleMeterRegistry(),
+          new KeyPrefixes(List.of("cache:load:", "cache:load:user:login:")),
+          true,
+          false);
+
+      assertThat(metrics.name("cache:load:user:login:alice")).isEqualTo("cache:load:user:login:");
+      assertThat(metrics.name("cache:load:dept:tree")).isEqualTo("cache:load:");
+      assertThat(metrics.name("order:123")).isEqualTo("order:{id}");
+    }
+
+    @Test
+    @DisplayName("名称数量超过上限后应归入 other")
+    void shouldCapNames() {
+      SimpleMeterRegistry registry = new SimpleMeterRegistry();
+      LockMetrics metrics = new LockMetrics(registry, true);
+      for (int i = 0; i < LockMetrics.MAX_TEMPLATES + 10; i++) {
+        String name = "job:" + (char) ('a' + i % 26) + (char) ('a' + i / 26);
+        metrics.recordHold(name, System.nanoTime());
+      }
+
+      assertThat(registry.find("lock.hold").timers()).hasSize(LockMetrics.MAX_TEMPLATES + 1);
+      assertThat(registry.find("lock.hold").tag("name", LockMetrics.OTHER).timer()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("默认不应发布百分位直方图")
+    void shouldNotPublishHistogramByDefault() {
+      SimpleMeterRegistry registry = new SimpleMeterRegistry();
+      Map<String, Boolean> histograms = new HashMap<>();
+      registry.config().meterFilter(new MeterFilter() {
+        @Override
+        public DistributionStatisticConfig configure(
+            Meter.Id id, DistributionStatisticConfig config) {
+          histograms.put(id.getTag("name"), config.isPercentileHistogram());
+          return config;
+        }
+      });
+
+      new LockMetrics(registry, true).recordHold("order:1", System.nanoTime());
+      new LockMetrics(registry, new KeyPrefixes(List.of()), true, true)
+          .recordHold("user:1", System.nanoTime());
+
+      assertThat(histograms).containsEntry("order:{id}", false).containsEntry("user:{id}", true);
+    }
+  }
+
+  @Nested
+  @DisplayName("竞争排行")
+  class TopContendedTests {
+
+    @Test
+    @DisplayName("应按竞争次数降序并受数量限制")
+    void shouldRankByContention() {
+      LockMetrics metrics = new LockMetrics(new SimpleMeterRegistry(), true);
+      long longAgo = System.nanoTime() - LockMetrics.CONTENDED_NANOS * 10;
+      metrics.recordAcquire("order:1", longAgo, LockMetrics.Outcome.ACQUIRED);
+      metrics.recordAcquire("order:2", longAgo, LockMetrics.Outcome.TIMEOUT);
+      metrics.recordAcquire("user:1", longAgo, LockMetrics.Outcome.ACQUIRED);
+      metrics.recordAcquire("dept:1", System.nanoTime(), LockMetrics.Outcome.ACQUIRED);
+
+      List<LockMetrics.Contention> top = metrics.topContended(2);
+
+      assertThat(top).extracting(LockMetrics.Contention::name)
+          .containsExactly("order:{id}", "user:{id}");
+      assertThat(top.get(0).acquisitions()).isEqualTo(1);
+      assertThat(top.get(0).contended()).isEqualTo(2);
+      assertThat(top.get(0).timeouts()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("未启用时不应记录")
+    void shouldIgnoreWhenDisabled() {
+      LockMetrics metrics = new LockMetrics(new SimpleMeterRegistry(), false);
+      metrics.recordAcquire("order:1", 0, LockMetrics.Outcome.TIMEOUT);
+
+      assertThat(metrics.topContended(10)).isEmpty();
+    }
+  }
+}
@@ -0,0 +1,433 @@
+package com.zhangzhankui.seed.common.redis.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.zhangzhankui.seed.common.core.exception.FencingTokenException;
+import com.zhangzhankui.seed.common.redis.utils.KeyPrefixes;
+import com.zhangzhankui.seed.common.redis.utils.RedisCommandMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RFencedLock;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.misc.CompletableFutureWrapper;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RedissonDistributedLock 单元测试")
+class RedissonDistributedLockTest {
+
+  @Mock private RedissonClient redissonClient;
+  @Mock private RLock rLock;
+
+  private SimpleMeterRegistry meterRegistry;
+  private RedissonDistributedLock distributedLock;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(redissonClient.getLock(anyString())).thenReturn(rLock);
+    meterRegistry = new SimpleMeterRegistry();
+    distributedLock = new RedissonDistributedLock(
+        redissonClient,
+        new RedisCommandMetrics(meterRegistry, new KeyPrefixes(List.of()), true),
+        new LockMetrics(meterRegistry, true));
+  }
+
+  @Nested
+  @DisplayName("本地排队")
+  class LocalQueueTests {
+
+    @Test
+    @DisplayName("同一 key 的本地竞争者应依次向 Redis 申请并复用 RLock")
+    void shouldSerializeLocalContenders() throws Exception {
+      AtomicInteger inFlight = new AtomicInteger();
+      AtomicInteger maxInFlight = new AtomicInteger();
+      given(rLock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).willAnswer(invocation -> {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        Thread.sleep(5);
+        inFlight.decrementAndGet();
+        return true;
+      });
+      given(rLock.isHeldByCurrentThread()).willReturn(true);
+
+      int threads = 8;
+      CountDownLatch ready = new CountDownLatch(threads);
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try {
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+          results.add(executor.submit(() -> {
+            ready.countDown();
+            ready.await();
+            if (!distributedLock.tryLock("order:1", 5, 30, TimeUnit.SECONDS)) {
+              return false;
+            }
+            distributedLock.unlock("order:1");
+            return true;
+          }));
+        }
+        for (Future<Boolean> result : results) {
+          assertThat(result.get(10, TimeUnit.SECONDS)).isTrue();
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+
+      assertThat(maxInFlight.get()).isEqualTo(1);
+      verify(rLock, times(threads)).tryLock(anyLong(), eq(30_000L), eq(TimeUnit.MILLISECONDS));
+      verify(redissonClient, atMost(threads)).getLock("lock:order:1");
+    }
+
+    @Test
+    @DisplayName("其他线程向 Redis 申请期间本地排队超时时不应访问 Redis")
+    void shouldNotContactRedisWhenLocalWaitTimesOut() throws Exception {
+      CountDownLatch requested = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      given(rLock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).willAnswer(invocation -> {
+        requested.countDown();
+        release.await();
+        return false;
+      });
+
+      ExecutorService executor = Executors.newFixedThreadPool(2);
+      try {
+        Future<Boolean> first =
+            executor.submit(() -> distributedLock.tryLock("order:1", 5, 30, TimeUnit.SECONDS));
+        assertThat(requested.await(5, TimeUnit.SECONDS)).isTrue();
+        boolean acquired = executor
+            .submit(() -> distributedLock.tryLock("order:1", 20, 30, TimeUnit.MILLISECONDS))
+            .get(5, TimeUnit.SECONDS);
+        assertThat(acquired).isFalse();
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isFalse();
+      } finally {
+        executor.shutdownNow();
+      }
+
+      verify(rLock, times(1)).tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("持有 Redis 锁期间不应阻塞本地其他线程向 Redis 申请")
+    void shouldNotHoldLocalQueueWhileHoldingRedisLock() throws Exception {
+      given(rLock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).willReturn(true, false);
+      assertThat(distributedLock.tryLock("order:1", 0, 30, TimeUnit.SECONDS)).isTrue();
+
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+        assertThat(executor
+            .submit(() -> distributedLock.tryLock("order:1", 0, 30, TimeUnit.SECONDS))
+            .get(5, TimeUnit.SECONDS)).isFalse();
+      } finally {
+        executor.shutdownNow();
+      }
+
+      verify(rLock, times(2)).tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("重入时不应等待正在向 Redis 申请的其他线程")
+    void shouldBypassQueueWhenReentering() throws Exception {
+      CountDownLatch requested = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      Thread holder = Thread.currentThread();
+      given(rLock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).willAnswer(invocation -> {
+        if (Thread.currentThread() == holder) {
+          return true;
+        }
+        requested.countDown();
+        release.await();
+        return false;
+      });
+      assertThat(distributedLock.tryLock("order:1", 0, 30, TimeUnit.SECONDS)).isTrue();
+
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+        Future<Boolean> waiter =
+            executor.submit(() -> distributedLock.tryLock("order:1", 5, 30, TimeUnit.SECONDS));
+        assertThat(requested.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(distributedLock.tryLock("order:1", 0, 30, TimeUnit.SECONDS)).isTrue();
+
+        release.countDown();
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isFalse();
+      } finally {
+        release.countDown();
+        executor.shutdownNow();
+      }
+    }
+
+    @Test
+    @DisplayName("租约过期后持有记录应失效，其他线程获取并释放后丢弃缓存的 RLock")
+    void shouldExpireHolderAfterLease() throws Exception {
+      given(rLock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).willReturn(true);
+      given(rLock.isHeldByCurrentThread()).willReturn(true);
+      assertThat(distributedLock.tryLock("order:1", 0, 20, TimeUnit.MILLISECONDS)).isTrue();
+      Thread.sleep(50);
+
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+        executor.submit(() -> {
+          assertThat(distributedLock.tryLock("order:1", 0, 30, TimeUnit.SECONDS)).isTrue();
+          distributedLock.unlock("order:1");
+          return null;
+        }).get(5, TimeUnit.SECONDS);
+      } finally {
+        executor.shutdownNow();
+      }
+      // 原持有者的释放不应再访问 Redis
+      distributedLock.unlock("order:1");
+      distributedLock.tryLock("order:1", 0, 30, TimeUnit.SECONDS);
+
+      verify(rLock, times(1)).unlock();
+      verify(redissonClient, times(2)).getLock("lock:order:1");
+    }
+
+    @Test
+    @DisplayName("释放后没有等待者时应丢弃缓存的 RLock")
+    void shouldDropCachedLockWhenIdle() throws Exception {
+      given(rLock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).willReturn(true);
+      given(rLock.isHeldByCurrentThread()).willReturn(true);
+
+      distributedLock.tryLock("order:1", 0, 30, TimeUnit.SECONDS);
+      distributedLock.unlock("order:1");
+      distributedLock.tryLock("order:1", 0, 30, TimeUnit.SECONDS);
+      distributedLock.unlock("order:1");
+
+      verify(redissonClient, times(2)).getLock("lock:order:1");
+    }
+
+    @Test
+    @DisplayName("看门狗模式的 leaseTime 应原样传给 Redisson")
+    void shouldKeepWatchdogLease() throws Exception {
+      given(rLock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).willReturn(true);
+
+      distributedLock.tryLock("order:1", 0, -1, TimeUnit.SECONDS);
+
+      verify(rLock).tryLock(0L, -1L, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Nested
+  @DisplayName("释放")
+  class UnlockTests {
+
+    @Test
+    @DisplayName("Redis 锁已过期时仍应释放本地锁")
+    void shouldReleaseLocalLockWhenLeaseExpired() throws Exception {
+      given(rLock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).willReturn(true);
+      given(rLock.isHeldByCurrentThread()).willReturn(false);
+
+      distributedLock.tryLock("order:1", 0, 30, TimeUnit.SECONDS);
+      distributedLock.unlock("order:1");
+
+      verify(rLock, never()).unlock();
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+        assertThat(executor
+            .submit(() -> distributedLock.tryLock("order:1", 0, 30, TimeUnit.SECONDS))
+            .get(5, TimeUnit.SECONDS)).isTrue();
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+
+    @Test
+    @DisplayName("未持有锁的线程释放时不应访问 Redis")
+    void shouldIgnoreUnlockWithoutOwnership() {
+      distributedLock.unlock("order:1");
+
+      verify(rLock, never()).unlock();
+      verify(redissonClient, never()).getLock(anyString());
+    }
+  }
+
+  @Nested
+  @DisplayName("竞争指标")
+  class MetricsTests {
+
+    @Test
+    @DisplayName("获取与释放应按锁键模板记录等待与持有时间")
+    void shouldRecordWaitAndHoldByTemplate() throws Exception {
+      given(rLock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).willReturn(true, false);
+      given(rLock.isHeldByCurrentThread()).willReturn(true);
+
+      distributedLock.tryLock("order:1", 0, 30, TimeUnit.SECONDS);
+      distributedLock.unlock("order:1");
+      distributedLock.tryLock("order:2", 0, 30, TimeUnit.SECONDS);
+
+      assertThat(meterRegistry.get("lock.acquire")
+          .tags("name", "order:{id}", "outcome", "acquired").timer().count()).isEqualTo(1);
+      assertThat(meterRegistry.get("lock.hold").tag("name", "order:{id}").timer().count())
+          .isEqualTo(1);
+      assertThat(meterRegistry.get("lock.acquire.failures")
+          .tags("name", "order:{id}", "reason", "timeout").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("重入时只记录最外层的持有时间")
+    void shouldRecordOuterHoldOnly() throws Exception {
+      given(rLock.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).willReturn(true);
+      given(rLock.isHeldByCurrentThread()).willReturn(true);
+
+      distributedLock.tryLock("order:1", 0, 30, TimeUnit.SECONDS);
+      distributedLock.tryLock("order:1", 0, 30, TimeUnit.SECONDS);
+      distributedLock.unlock("order:1");
+      distributedLock.unlock("order:1");
+
+      assertThat(meterRegistry.get("lock.hold").tag("name", "order:{id}").timer().count())
+          .isEqualTo(1);
+    }
+  }
+
+  @Nested
+  @DisplayName("防护令牌")
+  class FencingTokenTests {
+
+    @Mock private RFencedLock fencedLock;
+
+    @BeforeEach
+    void setUp() {
+      given(redissonClient.getFencedLock("lock:order:1")).willReturn(fencedLock);
+    }
+
+    @Test
+    @DisplayName("应返回令牌并可通过 unlock 释放")
+    void shouldReturnTokenAndUnlock() {
+      given(fencedLock.tryLockAndGetToken(0L, 5_000L, TimeUnit.MILLISECONDS)).willReturn(7L);
+      given(rLock.isHeldByCurrentThread()).willReturn(true);
+
+      Long token = distributedLock.tryLockWithToken("order:1", 0, 5, TimeUnit.SECONDS);
+      distributedLock.unlock("order:1");
+
+      assertThat(token).isEqualTo(7L);
+      verify(rLock).unlock();
+    }
+
+    @Test
+    @DisplayName("获取失败时应返回 null 且不执行操作")
+    void shouldReturnNullWhenNotAcquired() {
+      given(fencedLock.tryLockAndGetToken(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS)))
+          .willReturn(null);
+
+      String result = distributedLock.executeWithToken(
+          "order:1", 0, 5, TimeUnit.SECONDS, token -> "written");
+
+      assertThat(result).isNull();
+    }
+
+    @Test
+    @DisplayName("令牌小于最新令牌时校验应失败")
+    void shouldRejectStaleToken() {
+      given(fencedLock.getToken()).willReturn(8L);
+
+      assertThat(distributedLock.isTokenValid("order:1", 8)).isTrue();
+      assertThat(distributedLock.isTokenValid("order:1", 9)).isTrue();
+      assertThatThrownBy(() -> distributedLock.checkToken("order:1", 7))
+          .isInstanceOf(FencingTokenException.class);
+    }
+  }
+
+  @Nested
+  @DisplayName("批量加锁")
+  class MultiKeyTests {
+
+    @Mock private RLock lockA;
+    @Mock private RLock lockB;
+
+    @BeforeEach
+    void setUp() {
+      given(redissonClient.getLock("lock:a")).willReturn(lockA);
+      given(redissonClient.getLock("lock:b")).willReturn(lockB);
+    }
+
+    @Test
+    @DisplayName("无竞争时应并发发送加锁命令并一次完成")
+    void shouldAcquireAllInOneRound() throws Exception {
+      given(lockA.tryLockAsync(eq(0L), eq(30_000L), eq(TimeUnit.MILLISECONDS), anyLong()))
+          .willReturn(new CompletableFutureWrapper<>(true));
+      given(lockB.tryLockAsync(eq(0L), eq(30_000L), eq(TimeUnit.MILLISECONDS), anyLong()))
+          .willReturn(new CompletableFutureWrapper<>(true));
+      given(lockA.unlockAsync(anyLong())).willReturn(new CompletableFutureWrapper<>((Void) null));
+      given(lockB.unlockAsync(anyLong())).willReturn(new CompletableFutureWrapper<>((Void) null));
+
+      String result = distributedLock.executeWithLocks(
+          List.of("b", "a", "a"), 1, 30, TimeUnit.SECONDS, () -> "done");
+
+      assertThat(result).isEqualTo("done");
+      verify(lockA, never()).tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS));
+      verify(lockA).unlockAsync(anyLong());
+      verify(lockB).unlockAsync(anyLong());
+    }
+
+    @Test
+    @DisplayName("有竞争时应回滚并按字典序逐个等待")
+    void shouldFallBackToOrderedAcquisition() throws Exception {
+      given(lockA.tryLockAsync(eq(0L), anyLong(), eq(TimeUnit.MILLISECONDS), anyLong()))
+          .willReturn(new CompletableFutureWrapper<>(true));
+      given(lockB.tryLockAsync(eq(0L), anyLong(), eq(TimeUnit.MILLISECONDS), anyLong()))
+          .willReturn(new CompletableFutureWrapper<>(false));
+      given(lockA.unlockAsync(anyLong())).willReturn(new CompletableFutureWrapper<>((Void) null));
+      given(lockA.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).willReturn(true);
+      given(lockB.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).willReturn(true);
+
+      assertThat(distributedLock.tryLockAll(List.of("a", "b"), 1, 30, TimeUnit.SECONDS)).isTrue();
+
+      InOrder inOrder = inOrder(lockA, lockB);
+      inOrder.verify(lockA).unlockAsync(anyLong());
+      inOrder.verify(lockA).tryLock(anyLong(), eq(30_000L), eq(TimeUnit.MILLISECONDS));
+      inOrder.verify(lockB).tryLock(anyLong(), eq(30_000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("任一 key 获取失败时不应持有任何锁")
+    void shouldReleaseEverythingOnFailure() throws Exception {
+      given(lockA.tryLockAsync(eq(0L), anyLong(), eq(TimeUnit.MILLISECONDS), anyLong()))
+          .willReturn(new CompletableFutureWrapper<>(true));
+      given(lockB.tryLockAsync(eq(0L), anyLong(), eq(TimeUnit.MILLISECONDS), anyLong()))
+          .willReturn(new CompletableFutureWrapper<>(false));
+      given(lockA.unlockAsync(anyLong())).willReturn(new CompletableFutureWrapper<>((Void) null));
+      given(lockA.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).willReturn(true);
+      given(lockB.tryLock(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).willReturn(false);
+
+      assertThat(distributedLock.tryLockAll(List.of("a", "b"), 0, 30, TimeUnit.SECONDS)).isFalse();
+
+      verify(lockA, times(2)).unlockAsync(anyLong());
+      // 本地锁已释放，其他线程无需排队
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+        assertThat(executor
+            .submit(() -> distributedLock.tryLock("a", 0, 30, TimeUnit.SECONDS))
+            .get(5, TimeUnit.SECONDS)).isTrue();
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+  }
+}
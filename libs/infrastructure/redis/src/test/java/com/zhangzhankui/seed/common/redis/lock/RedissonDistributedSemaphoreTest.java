@@ -0,0 +1,193 @@
+package com.zhangzhankui.seed.common.redis.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.zhangzhankui.seed.common.core.lock.SemaphorePermits;
+import com.zhangzhankui.seed.common.redis.config.LockProperties;
+import com.zhangzhankui.seed.common.redis.utils.KeyPrefixes;
+import com.zhangzhankui.seed.common.redis.utils.RedisCommandMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RPermitExpirableSemaphore;
+import org.redisson.api.RedissonClient;
+import org.redisson.misc.CompletableFutureWrapper;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RedissonDistributedSemaphore 单元测试")
+class RedissonDistributedSemaphoreTest {
+
+  @Mock private RedissonClient redissonClient;
+  @Mock private RPermitExpirableSemaphore rSemaphore;
+
+  private RedissonDistributedSemaphore semaphore;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(redissonClient.getPermitExpirableSemaphore(anyString())).thenReturn(rSemaphore);
+    lenient().when(rSemaphore.updateLeaseTimeAsync(anyString(), anyLong(), eq(TimeUnit.MILLISECONDS)))
+        .thenReturn(new CompletableFutureWrapper<>(true));
+    lenient().when(rSemaphore.tryReleaseAsync(anyList()))
+        .thenReturn(new CompletableFutureWrapper<>(1));
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (semaphore != null) {
+      semaphore.close();
+    }
+  }
+
+  private RedissonDistributedSemaphore create(Duration idleTimeout, int maxIdlePermits) {
+    LockProperties properties = new LockProperties();
+    properties.getSemaphore().setIdleTimeout(idleTimeout);
+    properties.getSemaphore().setMaxIdlePermits(maxIdlePermits);
+    semaphore = new RedissonDistributedSemaphore(
+        redissonClient,
+        new RedisCommandMetrics(new SimpleMeterRegistry(), new KeyPrefixes(List.of()), true),
+        properties);
+    return semaphore;
+  }
+
+  @Test
+  @DisplayName("释放后再次获取应复用本地许可，不访问 Redis")
+  void shouldReuseIdlePermits() throws InterruptedException {
+    given(rSemaphore.tryAcquire(2, 0L, 10_000L, TimeUnit.MILLISECONDS))
+        .willReturn(List.of("p1", "p2"));
+    create(Duration.ofHours(1), 8);
+
+    SemaphorePermits first = semaphore.tryAcquire("sync", 2, 0, 10, TimeUnit.SECONDS);
+    semaphore.release(first);
+    SemaphorePermits second = semaphore.tryAcquire("sync", 2, 0, 10, TimeUnit.SECONDS);
+
+    assertThat(second.ids()).containsExactlyInAnyOrder("p1", "p2");
+    verify(rSemaphore, times(1)).tryAcquire(2, 0L, 10_000L, TimeUnit.MILLISECONDS);
+    verify(rSemaphore, never()).tryRelease(anyList());
+    // 放入空闲队列时租约延长到「租约 + 空闲时间」
+    verify(rSemaphore).updateLeaseTimeAsync("p1", 10_000L + 3_600_000L, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  @DisplayName("本地许可不足时只向 Redis 申请缺少的部分")
+  void shouldAcquireOnlyMissingPermits() throws InterruptedException {
+    given(rSemaphore.tryAcquire(1, 0L, 10_000L, TimeUnit.MILLISECONDS))
+        .willReturn(List.of("p1"))
+        .willReturn(List.of("p2"));
+    create(Duration.ofHours(1), 8);
+
+    semaphore.release(semaphore.tryAcquire("sync", 0, 10, TimeUnit.SECONDS));
+    SemaphorePermits permits = semaphore.tryAcquire("sync", 2, 0, 10, TimeUnit.SECONDS);
+
+    assertThat(permits.ids()).containsExactlyInAnyOrder("p1", "p2");
+    verify(rSemaphore, times(2)).tryAcquire(1, 0L, 10_000L, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  @DisplayName("获取失败时应返回 null 并保留已复用的本地许可")
+  void shouldReturnNullAndKeepIdleWhenAcquireFails() throws InterruptedException {
+    given(rSemaphore.tryAcquire(1, 0L, 10_000L, TimeUnit.MILLISECONDS))
+        .willReturn(List.of("p1"))
+        .willReturn(List.of());
+    create(Duration.ofHours(1), 8);
+
+    semaphore.release(semaphore.tryAcquire("sync", 0, 10, TimeUnit.SECONDS));
+
+    assertThat(semaphore.tryAcquire("sync", 2, 0, 10, TimeUnit.SECONDS)).isNull();
+    assertThat(semaphore.tryAcquire("sync", 0, 10, TimeUnit.SECONDS).ids()).containsExactly("p1");
+  }
+
+  @Test
+  @DisplayName("空闲时间为 0 时应立即归还 Redis")
+  void shouldReleaseImmediatelyWithoutIdleTimeout() throws InterruptedException {
+    given(rSemaphore.tryAcquire(1, 0L, 10_000L, TimeUnit.MILLISECONDS))
+        .willReturn(List.of("p1"));
+    given(rSemaphore.tryRelease(List.of("p1"))).willReturn(1);
+    create(Duration.ZERO, 8);
+
+    semaphore.release(semaphore.tryAcquire("sync", 0, 10, TimeUnit.SECONDS));
+
+    verify(rSemaphore).tryRelease(List.of("p1"));
+  }
+
+  @Test
+  @DisplayName("超过空闲许可上限的部分应归还 Redis")
+  void shouldReleaseBeyondMaxIdlePermits() throws InterruptedException {
+    given(rSemaphore.tryAcquire(3, 0L, 10_000L, TimeUnit.MILLISECONDS))
+        .willReturn(List.of("p1", "p2", "p3"));
+    given(rSemaphore.tryRelease(anyList())).willReturn(1);
+    create(Duration.ofHours(1), 2);
+
+    semaphore.release(semaphore.tryAcquire("sync", 3, 0, 10, TimeUnit.SECONDS));
+
+    verify(rSemaphore).tryRelease(List.of("p3"));
+  }
+
+  @Test
+  @DisplayName("超过空闲时间的许可应由扫描归还")
+  void shouldSweepExpiredIdlePermits() throws InterruptedException {
+    given(rSemaphore.tryAcquire(1, 0L, 10_000L, TimeUnit.MILLISECONDS))
+        .willReturn(List.of("p1"));
+    create(Duration.ofNanos(1), 8);
+
+    semaphore.release(semaphore.tryAcquire("sync", 0, 10, TimeUnit.SECONDS));
+    semaphore.sweep();
+
+    verify(rSemaphore).tryReleaseAsync(List.of("p1"));
+  }
+
+  @Test
+  @DisplayName("关闭时应归还全部空闲许可")
+  void shouldReleaseIdlePermitsOnClose() throws InterruptedException {
+    given(rSemaphore.tryAcquire(1, 0L, 10_000L, TimeUnit.MILLISECONDS))
+        .willReturn(List.of("p1"));
+    given(rSemaphore.tryRelease(List.of("p1"))).willReturn(1);
+    create(Duration.ofHours(1), 8);
+
+    semaphore.release(semaphore.tryAcquire("sync", 0, 10, TimeUnit.SECONDS));
+    semaphore.close();
+
+    verify(rSemaphore).tryRelease(List.of("p1"));
+  }
+
+  @Test
+  @DisplayName("executeWithPermits 应在执行后释放许可")
+  void shouldReleaseAfterExecute() throws InterruptedException {
+    given(rSemaphore.tryAcquire(1, 0L, 10_000L, TimeUnit.MILLISECONDS))
+        .willReturn(List.of("p1"));
+    given(rSemaphore.tryRelease(List.of("p1"))).willReturn(1);
+    create(Duration.ZERO, 0);
+
+    String result = semaphore.executeWithPermits("sync", 1, 0, 10, TimeUnit.SECONDS, () -> "done");
+
+    assertThat(result).isEqualTo("done");
+    verify(rSemaphore).tryRelease(List.of("p1"));
+  }
+
+  @Test
+  @DisplayName("租约必须大于 0")
+  void shouldRejectNonPositiveLease() {
+    create(Duration.ZERO, 0);
+
+    assertThatThrownBy(() -> semaphore.tryAcquire("sync", 0, -1, TimeUnit.SECONDS))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,118 @@
+package com.zhangzhankui.seed.common.redis.serializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * VersionedRedisSerializer 单元测试
+ *
+ * <p>验证各编码格式往返一致，并兼容读取无版本头的历史 JSON 数据
+ */
+@DisplayName("VersionedRedisSerializer 单元测试")
+class VersionedRedisSerializerTest {
+
+  @Test
+  @DisplayName("JSON 格式未压缩时应写出无版本头的原始 JSON")
+  void shouldWriteLegacyJsonWithoutHeader() {
+    VersionedRedisSerializer serializer = new VersionedRedisSerializer(ValueCodec.JSON, 0);
+
+    byte[] bytes = serializer.serialize("admin");
+
+    assertThat(new String(bytes, StandardCharsets.UTF_8)).isEqualTo("\"admin\"");
+    assertThat(serializer.deserialize(bytes)).isEqualTo("admin");
+  }
+
+  @Test
+  @DisplayName("Smile 格式应往返一致")
+  void shouldRoundTripSmile() {
+    VersionedRedisSerializer serializer = new VersionedRedisSerializer(ValueCodec.SMILE, 0);
+    Map<String, Object> value = new HashMap<>(Map.of("id", 1L, "name", "admin"));
+
+    assertThat(serializer.deserialize(serializer.serialize(value))).isEqualTo(value);
+  }
+
+  @Test
+  @DisplayName("超过阈值的值应压缩并可正确读取")
+  void shouldCompressLargeValues() {
+    VersionedRedisSerializer serializer = new VersionedRedisSerializer(ValueCodec.SMILE, 64);
+    List<String> value = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      value.add("user:login:" + i);
+    }
+
+    byte[] compressed = serializer.serialize(value);
+    byte[] plain = new VersionedRedisSerializer(ValueCodec.SMILE, 0).serialize(value);
+
+    assertThat(compressed.length).isLessThan(plain.length);
+    assertThat(serializer.deserialize(compressed)).isEqualTo(value);
+  }
+
+  @Test
+  @DisplayName("切换为 Smile 后仍应能读取历史 JSON 数据")
+  void shouldReadLegacyJsonAfterSwitchingCodec() {
+    byte[] legacy = new VersionedRedisSerializer(ValueCodec.JSON, 0).serialize(new ArrayList<>(List.of(1, 2, 3)));
+
+    Object value = new VersionedRedisSerializer(ValueCodec.SMILE, 0).deserialize(legacy);
+
+    assertThat(value).isEqualTo(List.of(1, 2, 3));
+  }
+
+  @Test
+  @DisplayName("null 与空字节应互相转换")
+  void shouldHandleNull() {
+    VersionedRedisSerializer serializer = new VersionedRedisSerializer(ValueCodec.SMILE, 0);
+
+    assertThat(serializer.serialize(null)).isEmpty();
+    assertThat(serializer.deserialize(new byte[0])).isNull();
+  }
+
+  @Test
+  @DisplayName("压缩数据缺少长度字段时应抛出 SerializationException")
+  void shouldRejectTruncatedCompressedValue() {
+    VersionedRedisSerializer serializer = new VersionedRedisSerializer(ValueCodec.SMILE, 0);
+    byte[] truncated = {(byte) 0xC5, 1, 2, 1, 0, 0};
+
+    assertThatThrownBy(() -> serializer.deserialize(truncated))
+        .isInstanceOf(SerializationException.class);
+  }
+
+  @Test
+  @DisplayName("原始长度异常时应拒绝而不分配超大数组")
+  void shouldRejectInvalidOriginalLength() {
+    VersionedRedisSerializer serializer = new VersionedRedisSerializer(ValueCodec.SMILE, 64);
+    byte[] bytes = serializer.serialize(Collections.nCopies(100, "user:login:"));
+
+    for (int originalLength : new int[] {-1, Integer.MAX_VALUE, bytes.length * 1000}) {
+      byte[] corrupted = bytes.clone();
+      ByteBuffer.wrap(corrupted, 4, Integer.BYTES).putInt(originalLength);
+
+      assertThatThrownBy(() -> serializer.deserialize(corrupted))
+          .isInstanceOf(SerializationException.class)
+          .hasMessageContaining("Invalid original length");
+    }
+  }
+
+  @Test
+  @DisplayName("压缩数据损坏时应包装为 SerializationException")
+  void shouldWrapCorruptedCompressedValue() {
+    VersionedRedisSerializer serializer = new VersionedRedisSerializer(ValueCodec.SMILE, 64);
+    byte[] bytes = serializer.serialize(Collections.nCopies(100, "user:login:"));
+    byte[] corrupted = Arrays.copyOf(bytes, bytes.length - 4);
+
+    assertThatThrownBy(() -> serializer.deserialize(corrupted))
+        .isInstanceOf(SerializationException.class);
+  }
+}
@@ -0,0 +1,234 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BufferedCounter 单元测试")
+class BufferedCounterTest {
+
+  @Mock private RedisTemplate<String, Object> redisTemplate;
+  @Mock private ValueOperations<String, Object> valueOperations;
+  @Mock private RedisOperations<String, Object> pipeline;
+  @Mock private ValueOperations<String, Object> pipelineValueOperations;
+
+  private BufferedCounter counter;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    lenient().when(pipeline.opsForValue()).thenReturn(pipelineValueOperations);
+    // Pipeline 回调在 pipeline mock 上执行，以便校验其中的 INCRBY
+    lenient().when(redisTemplate.executePipelined(any(SessionCallback.class)))
+        .thenAnswer(invocation -> {
+          invocation.<SessionCallback<Object>>getArgument(0).execute(pipeline);
+          return List.of();
+        });
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (counter != null) {
+      counter.close();
+    }
+  }
+
+  @Nested
+  @DisplayName("缓冲模式")
+  class BufferedTests {
+
+    @BeforeEach
+    void setUp() {
+      counter = new BufferedCounter(redisTemplate, Duration.ofHours(1), 1_000_000, 2, false);
+    }
+
+    @Test
+    @DisplayName("多线程累加应在一次 Pipeline 中按 key 合并写入")
+    void shouldAggregateConcurrentIncrements() throws InterruptedException {
+      ExecutorService executor = Executors.newFixedThreadPool(8);
+      for (int i = 0; i < 8; i++) {
+        executor.execute(() -> {
+          for (int j = 0; j < 1000; j++) {
+            counter.increment("stat:a");
+            counter.add("stat:b", 2);
+          }
+        });
+      }
+      executor.shutdown();
+      assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+      assertThat(counter.flush()).isEqualTo(2);
+
+      verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+      verify(pipelineValueOperations).increment("stat:a", 8000L);
+      verify(pipelineValueOperations).increment("stat:b", 16000L);
+      verify(valueOperations, never()).increment(any(), any(Long.class));
+    }
+
+    @Test
+    @DisplayName("没有新增量时不应访问 Redis")
+    void shouldSkipFlushWithoutDelta() {
+      counter.increment("stat:a");
+      counter.flush();
+
+      assertThat(counter.flush()).isZero();
+      verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    @DisplayName("刷新失败时增量应保留到下次刷新")
+    @SuppressWarnings("unchecked")
+    void shouldRetainDeltaOnFailure() {
+      counter.add("stat:a", 5);
+      willThrow(new RedisConnectionFailureException("down"))
+          .given(redisTemplate).executePipelined(any(SessionCallback.class));
+      assertThatThrownBy(counter::flush).isInstanceOf(RedisConnectionFailureException.class);
+
+      willAnswer(invocation -> {
+        invocation.<SessionCallback<Object>>getArgument(0).execute(pipeline);
+        return List.of();
+      }).given(redisTemplate).executePipelined(any(SessionCallback.class));
+      counter.add("stat:a", 1);
+      counter.flush();
+
+      verify(pipelineValueOperations).increment("stat:a", 6L);
+    }
+
+    @Test
+    @DisplayName("读取应包含尚未刷新的增量")
+    void shouldIncludePendingDeltaInGet() {
+      given(valueOperations.get("stat:a")).willReturn(10);
+      counter.add("stat:a", 3);
+
+      assertThat(counter.get("stat:a")).isEqualTo(13L);
+    }
+
+    @Test
+    @DisplayName("关闭时应写入剩余增量")
+    void shouldFlushOnClose() {
+      counter.add("stat:a", 7);
+
+      counter.close();
+      counter = null;
+
+      verify(pipelineValueOperations).increment("stat:a", 7L);
+    }
+
+    @Test
+    @DisplayName("长时间无增量的 key 应释放本地计数器，之后的累加重新计数")
+    void shouldRetireIdleKeys() {
+      counter.add("stat:a", 1);
+      counter.flush();
+      counter.flush();
+      counter.flush();
+
+      counter.add("stat:a", 4);
+      counter.flush();
+
+      verify(pipelineValueOperations).increment("stat:a", 1L);
+      verify(pipelineValueOperations).increment("stat:a", 4L);
+    }
+
+    @Test
+    @DisplayName("刷新失败时不应移除空闲 key")
+    @SuppressWarnings("unchecked")
+    void shouldKeepIdleKeysOnFailure() {
+      counter.add("stat:a", 1);
+      counter.flush();
+      counter.flush();
+      counter.add("stat:b", 1);
+      // 写入 Redis 期间 stat:a 有新增量，随后 Pipeline 失败
+      willAnswer(invocation -> {
+        counter.add("stat:a", 4);
+        throw new RedisConnectionFailureException("down");
+      }).given(redisTemplate).executePipelined(any(SessionCallback.class));
+      assertThatThrownBy(counter::flush).isInstanceOf(RedisConnectionFailureException.class);
+
+      willAnswer(invocation -> {
+        invocation.<SessionCallback<Object>>getArgument(0).execute(pipeline);
+        return List.of();
+      }).given(redisTemplate).executePipelined(any(SessionCallback.class));
+      counter.flush();
+
+      verify(pipelineValueOperations).increment("stat:a", 4L);
+      verify(pipelineValueOperations).increment("stat:b", 1L);
+    }
+
+    @Test
+    @DisplayName("移除空闲 key 与并发累加交错时不应丢失增量")
+    void shouldNotLoseDeltaWhileRetiring() throws Exception {
+      counter.close();
+      counter = new BufferedCounter(redisTemplate, Duration.ofHours(1), 1_000_000, 1, false);
+      AtomicLong written = new AtomicLong();
+      lenient().when(pipelineValueOperations.increment(eq("stat:a"), anyLong()))
+          .thenAnswer(invocation -> written.addAndGet(invocation.getArgument(1)));
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      for (int i = 0; i < 4; i++) {
+        executor.execute(() -> {
+          for (int j = 0; j < 20_000; j++) {
+            counter.increment("stat:a");
+            if (j % 50 == 0) {
+              LockSupport.parkNanos(10_000);
+            }
+          }
+        });
+      }
+      executor.shutdown();
+      while (!executor.isTerminated()) {
+        counter.flush();
+      }
+      counter.flush();
+
+      assertThat(written).hasValue(80_000);
+    }
+  }
+
+  @Nested
+  @DisplayName("严格模式")
+  class StrictTests {
+
+    @Test
+    @DisplayName("每次累加应直接执行 INCRBY")
+    void shouldBypassBuffer() {
+      counter = new BufferedCounter(redisTemplate, Duration.ofHours(1), 1_000_000, 2, true);
+
+      counter.add("stat:a", 3);
+
+      verify(valueOperations).increment("stat:a", 3L);
+      assertThat(counter.flush()).isZero();
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * InstrumentedRedisTemplate 单元测试
+ *
+ * <p>验证命令按命令名与 key 前缀计时，并记录获取连接的耗时
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InstrumentedRedisTemplate 单元测试")
+class InstrumentedRedisTemplateTest {
+
+  @Mock private RedisConnectionFactory connectionFactory;
+  /** 默认方法（如 get、exists）按真实实现委托给 stringCommands()/keyCommands() */
+  @Mock(answer = Answers.CALLS_REAL_METHODS)
+  private RedisConnection connection;
+  @Mock private RedisStringCommands stringCommands;
+  @Mock private RedisKeyCommands keyCommands;
+
+  private SimpleMeterRegistry meterRegistry;
+  private InstrumentedRedisTemplate<String, String> template;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    RedisCommandMetrics metrics = new RedisCommandMetrics(
+        meterRegistry, new KeyPrefixes(Set.of("user:", "user:login:")), true);
+    lenient().when(connectionFactory.getConnection()).thenReturn(connection);
+    lenient().when(connection.stringCommands()).thenReturn(stringCommands);
+    lenient().when(connection.keyCommands()).thenReturn(keyCommands);
+    template = new InstrumentedRedisTemplate<>(metrics);
+    template.setConnectionFactory(connectionFactory);
+    template.setDefaultSerializer(new StringRedisSerializer());
+    template.afterPropertiesSet();
+  }
+
+  @Test
+  @DisplayName("命令应按命令名与最长前缀计时")
+  void shouldTimeCommandsByPrefix() {
+    byte[] raw = "user:login:1".getBytes(StandardCharsets.UTF_8);
+    given(stringCommands.get(raw)).willReturn("v".getBytes(StandardCharsets.UTF_8));
+
+    template.opsForValue().get("user:login:1");
+    template.opsForValue().get("user:login:1");
+    template.hasKey("other:1");
+
+    Timer get = meterRegistry.find("redis.commands")
+        .tags("client", "template", "command", "get", "prefix", "user:login:", "outcome", "success")
+        .timer();
+    assertThat(get).isNotNull();
+    assertThat(get.count()).isEqualTo(2);
+    assertThat(meterRegistry.find("redis.commands")
+        .tags("command", "exists", "prefix", KeyPrefixes.OTHER)
+        .timer()).isNotNull();
+    assertThat(meterRegistry.find("redis.connection.acquire").timer().count()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("命令失败时应以 error 结果计时")
+  void shouldTimeFailedCommands() {
+    given(keyCommands.exists(any(byte[].class)))
+        .willThrow(new RedisConnectionFailureException("down"));
+
+    assertThatThrownBy(() -> template.hasKey("user:1"))
+        .isInstanceOf(RedisConnectionFailureException.class);
+
+    assertThat(meterRegistry.find("redis.commands")
+        .tags("command", "exists", "prefix", "user:", "outcome", "error")
+        .timer()
+        .count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("EVALSHA 应取第一个 KEYS 作为 key")
+  void shouldExtractKeyFromScriptArgs() throws NoSuchMethodException {
+    byte[] key = "rate_limit:a".getBytes(StandardCharsets.UTF_8);
+    Object[] args = {"sha", ReturnType.INTEGER, 1, new byte[][] {key, "10".getBytes()}};
+
+    byte[] extracted = InstrumentedRedisTemplate.keyOf(
+        RedisScriptingCommands.class.getMethod(
+            "evalSha", String.class, ReturnType.class, int.class, byte[][].class),
+        args);
+
+    assertThat(extracted).isEqualTo(key);
+  }
+
+  @Test
+  @DisplayName("多 key 命令应取第一个 key")
+  void shouldExtractFirstOfMultipleKeys() throws NoSuchMethodException {
+    byte[] first = "user:1".getBytes(StandardCharsets.UTF_8);
+
+    byte[] extracted = InstrumentedRedisTemplate.keyOf(
+        RedisStringCommands.class.getMethod("mGet", byte[][].class),
+        new Object[] {new byte[][] {first, "user:2".getBytes()}});
+
+    assertThat(extracted).isEqualTo(first);
+    assertThat(InstrumentedRedisTemplate.keyOf(
+        RedisStringCommands.class.getMethod("mGet", byte[][].class), new Object[0])).isNull();
+  }
+}
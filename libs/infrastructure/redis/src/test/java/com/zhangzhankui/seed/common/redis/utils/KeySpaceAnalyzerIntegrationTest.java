@@ -0,0 +1,89 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Set;
+
+import com.zhangzhankui.seed.common.redis.config.CacheProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * KeySpaceAnalyzer 集成测试
+ *
+ * <p>在真实 Redis 上执行 Pipeline 中的 MEMORY USAGE 与 PTTL，验证回复类型能被正确解析
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@Tag("integration")
+@DisplayName("KeySpaceAnalyzer 集成测试")
+@SuppressWarnings("resource")
+class KeySpaceAnalyzerIntegrationTest {
+
+  /** 只需要 Redis，不复用同时启动 PostgreSQL 的 AbstractContainerTest */
+  @Container
+  private static final GenericContainer<?> REDIS_CONTAINER =
+      new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+  private LettuceConnectionFactory connectionFactory;
+  private StringRedisTemplate redisTemplate;
+  private KeySpaceAnalyzer analyzer;
+
+  @BeforeEach
+  void setUp() {
+    connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(
+        REDIS_CONTAINER.getHost(), REDIS_CONTAINER.getMappedPort(6379)));
+    connectionFactory.afterPropertiesSet();
+    connectionFactory.start();
+    redisTemplate = new StringRedisTemplate(connectionFactory);
+    redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushDb();
+
+    CacheProperties.KeySpace properties = new CacheProperties.KeySpace();
+    properties.setSampleRatio(1.0);
+    properties.setMaxKeysPerSecond(0);
+    properties.setTopN(1);
+    analyzer = new KeySpaceAnalyzer(
+        new RedisKeyScanner(redisTemplate, 100, 100, 0),
+        redisTemplate,
+        new KeyPrefixes(Set.of("user:")),
+        properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    analyzer.close();
+    connectionFactory.destroy();
+  }
+
+  @Test
+  @DisplayName("应从真实 Redis 读取 MEMORY USAGE 与 PTTL")
+  void shouldSampleRealKeys() {
+    redisTemplate.opsForValue().set("user:1", "a".repeat(1000));
+    redisTemplate.opsForValue().set("user:2", "b", Duration.ofMinutes(30));
+    redisTemplate.opsForValue().set("misc", "c");
+
+    KeySpaceAnalyzer.Report report = analyzer.analyze();
+
+    assertThat(report).isNotNull();
+    assertThat(report.scannedKeys()).isEqualTo(3);
+    KeySpaceAnalyzer.PrefixUsage user = report.prefixes().stream()
+        .filter(usage -> usage.prefix().equals("user:"))
+        .findFirst()
+        .orElseThrow();
+    assertThat(user.sampledKeys()).isEqualTo(2);
+    assertThat(user.estimatedBytes()).isGreaterThan(1000);
+    assertThat(user.ttl()).containsEntry("persistent", 1L).containsEntry("<1h", 1L);
+    assertThat(user.largestKeys()).extracting(KeySpaceAnalyzer.KeyUsage::key)
+        .containsExactly(KeySpaceAnalyzer.redact("user:", "user:1"));
+  }
+}
@@ -0,0 +1,140 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.zhangzhankui.seed.common.redis.config.CacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * KeySpaceAnalyzer 单元测试
+ *
+ * <p>验证按最长前缀归类、采样结果的放大估算与 TTL 分布
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("KeySpaceAnalyzer 单元测试")
+class KeySpaceAnalyzerTest {
+
+  @Mock private RedisKeyScanner keyScanner;
+  @Mock private RedisTemplate<String, Object> redisTemplate;
+
+  private KeySpaceAnalyzer analyzer;
+
+  @BeforeEach
+  void setUp() {
+    CacheProperties.KeySpace properties = new CacheProperties.KeySpace();
+    properties.setSampleRatio(1.0);
+    properties.setMaxKeysPerSecond(0);
+    properties.setTopN(1);
+    analyzer = new KeySpaceAnalyzer(
+        keyScanner, redisTemplate, new KeyPrefixes(Set.of("user:", "user:login:", "lock:")), properties);
+  }
+
+  @Test
+  @DisplayName("应按最长前缀归类并汇总字节数、TTL 分布与最大 key")
+  void shouldAggregateByLongestPrefix() {
+    given(keyScanner.scan("*"))
+        .willReturn(Stream.of("user:login:1", "user:login:2", "user:9", "lock:a", "misc"));
+    // 每个 key 依次返回 MEMORY USAGE 与 PTTL
+    given(redisTemplate.executePipelined(any(RedisCallback.class))).willReturn(List.of(
+        100L, -1L,
+        300L, 30_000L,
+        50L, 7_200_000L,
+        20L, 5_000L,
+        10L, -2L));
+
+    KeySpaceAnalyzer.Report report = analyzer.analyze();
+
+    assertThat(report).isNotNull();
+    assertThat(report.scannedKeys()).isEqualTo(5);
+    Map<String, KeySpaceAnalyzer.PrefixUsage> usages = report.prefixes().stream()
+        .collect(Collectors.toMap(KeySpaceAnalyzer.PrefixUsage::prefix, Function.identity()));
+    KeySpaceAnalyzer.PrefixUsage login = usages.get("user:login:");
+    assertThat(login.keys()).isEqualTo(2);
+    assertThat(login.estimatedBytes()).isEqualTo(400);
+    assertThat(login.ttl()).containsEntry("persistent", 1L).containsEntry("<1m", 1L);
+    assertThat(login.largestKeys()).extracting(KeySpaceAnalyzer.KeyUsage::key)
+        .containsExactly(KeySpaceAnalyzer.redact("user:login:", "user:login:2"));
+    assertThat(usages.get("user:").estimatedBytes()).isEqualTo(50);
+    assertThat(usages.get("user:").ttl()).containsEntry("<1d", 1L);
+    // 采样时已删除的 key 只计数不计字节
+    assertThat(usages.get(KeyPrefixes.OTHER).keys()).isEqualTo(1);
+    assertThat(usages.get(KeyPrefixes.OTHER).estimatedBytes()).isZero();
+    assertThat(report.prefixes().getFirst().prefix()).isEqualTo("user:login:");
+    assertThat(analyzer.report()).isSameAs(report);
+    assertThat(analyzer.isRunning()).isFalse();
+  }
+
+  @Test
+  @DisplayName("采样部分 key 时应按比例放大估算")
+  void shouldScaleSampledUsage() {
+    given(keyScanner.scan("*")).willReturn(Stream.of("lock:a", "lock:b"));
+    given(redisTemplate.executePipelined(any(RedisCallback.class)))
+        .willReturn(List.of(100L, -1L, "bad", -1L));
+
+    KeySpaceAnalyzer.Report report = analyzer.analyze();
+
+    KeySpaceAnalyzer.PrefixUsage lock = report.prefixes().stream()
+        .filter(usage -> usage.prefix().equals("lock:"))
+        .findFirst()
+        .orElseThrow();
+    assertThat(lock.sampledKeys()).isEqualTo(1);
+    assertThat(lock.estimatedBytes()).isEqualTo(200);
+    assertThat(lock.ttl()).containsEntry("persistent", 2L);
+  }
+
+  @Test
+  @DisplayName("MEMORY USAGE 应以整数回复类型执行")
+  @SuppressWarnings("unchecked")
+  void shouldReadMemoryUsageAsInteger() {
+    RedisConnection connection = mock(RedisConnection.class);
+    RedisScriptingCommands scriptingCommands = mock(RedisScriptingCommands.class);
+    given(connection.scriptingCommands()).willReturn(scriptingCommands);
+    given(connection.keyCommands()).willReturn(mock(RedisKeyCommands.class));
+    given(keyScanner.scan("*")).willReturn(Stream.of("lock:a"));
+    given(redisTemplate.executePipelined(any(RedisCallback.class))).willAnswer(invocation -> {
+      invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+      return List.of(100L, -1L);
+    });
+
+    analyzer.analyze();
+
+    verify(scriptingCommands).eval(
+        any(byte[].class), eq(ReturnType.INTEGER), eq(1), eq("lock:a".getBytes()), any(byte[].class));
+  }
+
+  @Test
+  @DisplayName("报告中的 key 应只保留前缀，其余部分替换为摘要")
+  void shouldRedactKeyNames() {
+    String redacted = KeySpaceAnalyzer.redact("Authorization:", "Authorization:login:token:secret");
+
+    assertThat(redacted).startsWith("Authorization:#").doesNotContain("secret").hasSize(27);
+    assertThat(KeySpaceAnalyzer.redact("Authorization:", "Authorization:login:token:secret"))
+        .isEqualTo(redacted);
+    assertThat(KeySpaceAnalyzer.redact(KeyPrefixes.OTHER, "session:secret"))
+        .startsWith("#")
+        .doesNotContain("session");
+  }
+}
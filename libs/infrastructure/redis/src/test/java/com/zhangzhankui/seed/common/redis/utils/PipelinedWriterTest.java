@@ -0,0 +1,160 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.zhangzhankui.seed.common.redis.config.CacheProperties;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.async.RedisKeyAsyncCommands;
+import io.lettuce.core.api.async.RedisStringAsyncCommands;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PipelinedWriter 单元测试")
+class PipelinedWriterTest {
+
+  @Mock private StatefulConnection<byte[], byte[]> connection;
+  @Mock private RedisStringAsyncCommands<byte[], byte[]> strings;
+  @Mock private RedisKeyAsyncCommands<byte[], byte[]> keys;
+
+  private PipelinedWriter writer;
+
+  @AfterEach
+  void tearDown() {
+    if (writer != null) {
+      writer.close();
+    }
+  }
+
+  private PipelinedWriter start(Duration window, int batchSize) {
+    CacheProperties.Pipelining properties = new CacheProperties.Pipelining();
+    properties.setEnabled(true);
+    properties.setWindow(window);
+    properties.setBatchSize(batchSize);
+    writer = new PipelinedWriter(
+        properties,
+        RedisSerializer.java(),
+        new RedisCommandMetrics(new SimpleMeterRegistry(), new KeyPrefixes(List.of()), true));
+    writer.start(connection, strings, keys);
+    return writer;
+  }
+
+  @Test
+  @DisplayName("启动时应关闭连接的自动刷新")
+  void shouldDisableAutoFlush() {
+    start(Duration.ofHours(1), 64);
+
+    assertThat(writer.isActive()).isTrue();
+    verify(connection).setAutoFlushCommands(false);
+  }
+
+  @Test
+  @DisplayName("达到批大小时应立即刷新一次")
+  void shouldFlushWhenBatchIsFull() {
+    given(keys.pexpire(any(byte[].class), anyLong())).willAnswer(invocation -> new TestFuture<>());
+    start(Duration.ofHours(1), 3);
+
+    writer.expire("a", 1, TimeUnit.SECONDS);
+    writer.expire("b", 1, TimeUnit.SECONDS);
+    verify(connection, never()).flushCommands();
+
+    writer.expire("c", 1, TimeUnit.SECONDS);
+    verify(connection, times(1)).flushCommands();
+  }
+
+  @Test
+  @DisplayName("未达到批大小时应在窗口结束后刷新")
+  void shouldFlushAfterWindow() {
+    given(keys.del(any(byte[].class))).willReturn(new TestFuture<>());
+    start(Duration.ofMillis(5), 64);
+
+    writer.delete("a");
+
+    verify(connection, timeout(1000).times(1)).flushCommands();
+  }
+
+  @Test
+  @DisplayName("每条命令的 future 应单独完成")
+  void shouldCompleteFuturesIndividually() {
+    TestFuture<String> first = new TestFuture<>();
+    TestFuture<String> second = new TestFuture<>();
+    TestFuture<Long> third = new TestFuture<>();
+    given(strings.set(any(byte[].class), any(byte[].class), any(SetArgs.class)))
+        .willReturn(first)
+        .willReturn(second);
+    given(strings.incr("counter".getBytes(StandardCharsets.UTF_8))).willReturn(third);
+    start(Duration.ofHours(1), 64);
+
+    CompletableFuture<Boolean> set = writer.set("a", "v", 10, TimeUnit.SECONDS);
+    CompletableFuture<Boolean> setIfAbsent = writer.setIfAbsent("b", "v", 10, TimeUnit.SECONDS);
+    CompletableFuture<Long> increment = writer.increment("counter");
+    first.complete("OK");
+    // SET NX 未写入时返回 null
+    second.complete(null);
+    third.completeExceptionally(new RedisSystemException("WRONGTYPE", null));
+
+    assertThat(set).isCompletedWithValue(true);
+    assertThat(setIfAbsent).isCompletedWithValue(false);
+    assertThat(increment).isCompletedExceptionally();
+  }
+
+  @Test
+  @DisplayName("关闭时应发送剩余命令")
+  void shouldFlushOnClose() {
+    start(Duration.ofHours(1), 64);
+
+    writer.close();
+
+    assertThat(writer.isActive()).isFalse();
+    verify(connection).flushCommands();
+    verify(connection).closeAsync();
+  }
+
+  @Test
+  @DisplayName("未启用时不应激活")
+  void shouldStayInactiveWhenDisabled() {
+    PipelinedWriter disabled = new PipelinedWriter(
+        new CacheProperties.Pipelining(),
+        RedisSerializer.java(),
+        new RedisCommandMetrics(new SimpleMeterRegistry(), new KeyPrefixes(List.of()), false));
+
+    assertThat(disabled.isActive()).isFalse();
+    assertThat(disabled.delete("a")).isCompletedExceptionally();
+  }
+
+  /** 可手动完成的 RedisFuture */
+  private static final class TestFuture<T> extends CompletableFuture<T> implements RedisFuture<T> {
+
+    @Override
+    public String getError() {
+      return null;
+    }
+
+    @Override
+    public boolean await(long timeout, TimeUnit unit) {
+      return isDone();
+    }
+  }
+}
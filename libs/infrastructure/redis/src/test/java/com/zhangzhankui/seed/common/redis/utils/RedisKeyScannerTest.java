@@ -0,0 +1,64 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+/**
+ * RedisKeyScanner 单元测试
+ *
+ * <p>验证删除按固定批大小分批，多批合并为一次 Pipeline，并回调进度
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RedisKeyScanner 单元测试")
+class RedisKeyScannerTest {
+
+  @Mock private RedisTemplate<String, Object> redisTemplate;
+
+  private RedisKeyScanner keyScanner;
+
+  @BeforeEach
+  void setUp() {
+    keyScanner = new RedisKeyScanner(redisTemplate, 1000, 500, 0);
+  }
+
+  @Test
+  @DisplayName("应按批大小分批并在 Pipeline 满时提交")
+  void shouldUnlinkInPipelinedBatches() {
+    given(redisTemplate.executePipelined(any(SessionCallback.class)))
+        .willReturn(List.of(500L, 500L, 500L, 500L))
+        .willReturn(List.of(100L));
+    List<String> keys = IntStream.range(0, 2100).mapToObj(i -> "user:" + i).toList();
+    List<Long> progress = new ArrayList<>();
+
+    long deleted = keyScanner.unlink(keys.iterator(), progress::add);
+
+    assertThat(deleted).isEqualTo(2100);
+    assertThat(progress).containsExactly(2000L, 2100L);
+    verify(redisTemplate, times(2)).executePipelined(any(SessionCallback.class));
+  }
+
+  @Test
+  @DisplayName("没有匹配的 key 时不应访问 Redis")
+  void shouldSkipEmptyInput() {
+    long deleted = keyScanner.unlink(List.<String>of().iterator(), null);
+
+    assertThat(deleted).isZero();
+    verify(redisTemplate, times(0)).executePipelined(any(SessionCallback.class));
+  }
+}
@@ -2,18 +2,30 @@ package com.zhangzhankui.seed.common.redis.utils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
+import com.zhangzhankui.seed.common.redis.cache.ClientSideCache;
+import com.zhangzhankui.seed.common.redis.cache.HotKeyDetector;
+import com.zhangzhankui.seed.common.redis.config.CacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -21,12 +33,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.SetOperations;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import reactor.core.publisher.Mono;
 
 /**
  * RedisUtils 单元测试
@@ -40,6 +59,10 @@ class RedisUtilsTest {
 
   @Mock private RedisTemplate<String, Object> redisTemplate;
 
+  @Mock private ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+
+  @Mock private ReactiveValueOperations<String, Object> reactiveValueOperations;
+
   @Mock private ValueOperations<String, Object> valueOperations;
 
   @Mock private HashOperations<String, Object, Object> hashOperations;
@@ -48,6 +71,20 @@ class RedisUtilsTest {
 
   @Mock private SetOperations<String, Object> setOperations;
 
+  @Mock private RedisKeyScanner keyScanner;
+
+  @Spy private HotKeyDetector hotKeyDetector = new HotKeyDetector(new CacheProperties.HotKey());
+
+  @Spy private ClientSideCache clientSideCache =
+      new ClientSideCache(new CacheProperties.Tracking(), new SimpleMeterRegistry());
+
+  @Spy private SlotBatchExecutor slotBatchExecutor = new SlotBatchExecutor();
+
+  @Spy private PipelinedWriter pipelinedWriter = new PipelinedWriter(
+      new CacheProperties.Pipelining(),
+      RedisSerializer.java(),
+      new RedisCommandMetrics(new SimpleMeterRegistry(), new KeyPrefixes(List.of()), false));
+
   @InjectMocks private RedisUtils redisUtils;
 
   @BeforeEach
@@ -111,6 +148,16 @@ class RedisUtilsTest {
 
       verify(redisTemplate).delete(keys);
     }
+
+    @Test
+    @DisplayName("deleteByPattern 应通过 SCAN + UNLINK 删除而非 KEYS")
+    void shouldDeleteByPatternWithScanner() {
+      given(keyScanner.unlink("user:*", null)).willReturn(3L);
+
+      assertThat(redisUtils.deleteByPattern("user:*")).isEqualTo(3L);
+
+      verify(redisTemplate, never()).keys(anyString());
+    }
   }
 
   @Nested
@@ -170,6 +217,22 @@ class RedisUtilsTest {
       verify(valueOperations).increment("counter", 3L);
     }
 
+    @Test
+    @DisplayName("increment 带过期时间应在一次脚本调用中执行")
+    @SuppressWarnings("unchecked")
+    void shouldIncrementWithExpireInScript() {
+      given(redisTemplate.execute(
+              any(RedisScript.class),
+              any(RedisSerializer.class),
+              any(RedisSerializer.class),
+              eq(List.of("counter")),
+              eq("60000")))
+          .willReturn(1L);
+
+      assertThat(redisUtils.increment("counter", 1, TimeUnit.MINUTES)).isEqualTo(1L);
+      verify(valueOperations, never()).increment(anyString());
+    }
+
     @Test
     @DisplayName("decrement 应委托给 valueOperations.decrement")
     void shouldDelegateDecrement() {
@@ -179,6 +242,75 @@ class RedisUtilsTest {
     }
   }
 
+  @Nested
+  @DisplayName("异步读取测试")
+  class AsyncReadTest {
+
+    @Test
+    @DisplayName("多个异步读取应可同时发出并组合结果")
+    void shouldComposeAsyncReads() {
+      given(reactiveRedisTemplate.opsForValue()).willReturn(reactiveValueOperations);
+      given(reactiveValueOperations.get("rate_limit:login")).willReturn(Mono.just(3));
+      given(reactiveRedisTemplate.hasKey("pwd_err_cnt:lock:admin")).willReturn(Mono.just(false));
+
+      CompletableFuture<Integer> count = redisUtils.getAsync("rate_limit:login");
+      CompletableFuture<Boolean> locked = redisUtils.hasKeyAsync("pwd_err_cnt:lock:admin");
+
+      assertThat(count.thenCombine(locked, (c, l) -> !l && c < 5).join()).isTrue();
+      verify(valueOperations, never()).get(anyString());
+    }
+
+    @Test
+    @DisplayName("getExpireAsync 应区分永不过期与不存在")
+    void shouldMapExpireAsync() {
+      given(reactiveRedisTemplate.getExpire("persistent")).willReturn(Mono.just(Duration.ZERO));
+      given(reactiveRedisTemplate.getExpire("missing")).willReturn(Mono.empty());
+
+      assertThat(redisUtils.getExpireAsync("persistent")).isCompletedWithValue(-1L);
+      assertThat(redisUtils.getExpireAsync("missing")).isCompletedWithValue(-2L);
+    }
+  }
+
+  @Nested
+  @DisplayName("异步写入测试")
+  class AsyncWriteTest {
+
+    @Test
+    @DisplayName("未启用自动 Pipeline 时 expireAsync 应同步执行并返回已完成的 future")
+    void shouldFallBackToSyncExpire() {
+      given(redisTemplate.expire("testKey", 60L, TimeUnit.SECONDS)).willReturn(true);
+
+      CompletableFuture<Boolean> result = redisUtils.expireAsync("testKey", 60L, TimeUnit.SECONDS);
+
+      assertThat(result).isCompletedWithValue(true);
+      verify(pipelinedWriter, never()).expire(anyString(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("同步执行失败时应返回异常完成的 future 而不是抛出")
+    void shouldCompleteExceptionallyOnSyncFailure() {
+      given(redisTemplate.delete("testKey"))
+          .willThrow(new RedisConnectionFailureException("down"));
+
+      assertThat(redisUtils.deleteAsync("testKey")).isCompletedExceptionally();
+    }
+
+    @Test
+    @DisplayName("自动 Pipeline 可用时应经 PipelinedWriter 发送并在完成后丢弃本地值")
+    void shouldUsePipelinedWriterWhenActive() {
+      CompletableFuture<Boolean> pending = new CompletableFuture<>();
+      doReturn(true).when(pipelinedWriter).isActive();
+      doReturn(pending).when(pipelinedWriter).set("testKey", "v", 10L, TimeUnit.SECONDS);
+
+      CompletableFuture<Boolean> result = redisUtils.setAsync("testKey", "v", 10L, TimeUnit.SECONDS);
+      pending.complete(true);
+
+      assertThat(result).isCompletedWithValue(true);
+      verify(clientSideCache).invalidate("testKey");
+      verify(valueOperations, never()).set(anyString(), any(), anyLong(), any());
+    }
+  }
+
   @Nested
   @DisplayName("哈希操作测试")
   class HashOperationsTest {
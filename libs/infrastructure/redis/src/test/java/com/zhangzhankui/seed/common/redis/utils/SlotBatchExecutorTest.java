@@ -0,0 +1,199 @@
+package com.zhangzhankui.seed.common.redis.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.InstanceOfAssertFactories.LIST;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SlotBatchExecutor 单元测试")
+class SlotBatchExecutorTest {
+
+  @Nested
+  @DisplayName("hash tag")
+  class HashTagTests {
+
+    @Test
+    @DisplayName("相同 hash tag 的 key 应位于同一槽位")
+    void shouldShareSlotForSameTag() {
+      String a = ClusterKeys.tagged("pwd_err_cnt:", "admin");
+      String b = ClusterKeys.tagged("login_error:", "admin", ":ip");
+
+      assertThat(a).isEqualTo("pwd_err_cnt:{admin}");
+      assertThat(b).isEqualTo("login_error:{admin}:ip");
+      assertThat(ClusterKeys.slot(a)).isEqualTo(ClusterKeys.slot(b));
+    }
+
+    @Test
+    @DisplayName("tag 含花括号时应拒绝")
+    void shouldRejectBraces() {
+      assertThatThrownBy(() -> ClusterKeys.hashTag("a{b}"))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  @Nested
+  @DisplayName("分组执行")
+  class ExecuteTests {
+
+    private static final int NODES = 3;
+
+    @Mock private RedisConnectionFactory connectionFactory;
+    @Mock private RedisClusterConnection clusterConnection;
+    @Mock private RedisTemplate<String, Object> redisTemplate;
+
+    /** 每个线程当前 Pipeline 中发送的槽位分组 */
+    private final ThreadLocal<List<List<String>>> pipeline = ThreadLocal.withInitial(ArrayList::new);
+    private final List<List<List<String>>> pipelines = new CopyOnWriteArrayList<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+      lenient().when(connectionFactory.getClusterConnection()).thenReturn(clusterConnection);
+      lenient().when(clusterConnection.clusterGetNodeForSlot(anyInt()))
+          .thenAnswer(invocation -> node(invocation.<Integer>getArgument(0) % NODES));
+      lenient().when(redisTemplate.executePipelined(any(SessionCallback.class)))
+          .thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+              invocation.<SessionCallback<?>>getArgument(0).execute(redisTemplate);
+              Thread.sleep(20);
+              List<List<String>> groups = new ArrayList<>(pipeline.get());
+              pipeline.remove();
+              pipelines.add(groups);
+              return groups.stream().<Object>map(group -> (long) group.size()).toList();
+            } finally {
+              running.decrementAndGet();
+            }
+          });
+    }
+
+    private Long record(List<String> group) {
+      pipeline.get().add(group);
+      return null;
+    }
+
+    private static RedisClusterNode node(int index) {
+      return RedisClusterNode.newRedisClusterNode()
+          .listeningAt("10.0.0." + index, 6379)
+          .withId("node-" + index)
+          .build();
+    }
+
+    @Test
+    @DisplayName("单机模式应以全部 key 直接执行一次")
+    void shouldExecuteOnceInStandalone() {
+      AtomicInteger calls = new AtomicInteger();
+
+      long total = new SlotBatchExecutor().sum(redisTemplate, List.of("a", "b", "c"),
+          (ops, keys) -> {
+            calls.incrementAndGet();
+            return (long) keys.size();
+          });
+
+      assertThat(total).isEqualTo(3);
+      assertThat(calls).hasValue(1);
+      verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    @DisplayName("Cluster 模式下每个主节点应只有一次 Pipeline，每组 key 位于同一槽位")
+    void shouldPipelinePerMasterNode() {
+      List<String> keys = IntStream.range(0, 200).mapToObj(i -> "user:" + i).toList();
+
+      long total = new SlotBatchExecutor(connectionFactory, NODES)
+          .sum(redisTemplate, keys, (ops, group) -> record(group));
+
+      assertThat(total).isEqualTo(200);
+      assertThat(pipelines).hasSize(NODES);
+      for (List<List<String>> groups : pipelines) {
+        Set<Integer> nodes = new HashSet<>();
+        for (List<String> group : groups) {
+          Set<Integer> slots = new HashSet<>();
+          group.forEach(key -> slots.add(ClusterKeys.slot(key)));
+          assertThat(slots).hasSize(1);
+          nodes.add(slots.iterator().next() % NODES);
+        }
+        assertThat(nodes).hasSize(1);
+      }
+      assertThat(pipelines.stream().flatMap(List::stream).flatMap(List::stream))
+          .containsExactlyInAnyOrderElementsOf(keys);
+    }
+
+    @Test
+    @DisplayName("同时执行的主节点数不应超过上限")
+    void shouldCapParallelism() {
+      List<String> keys = IntStream.range(0, 200).mapToObj(i -> "user:" + i).toList();
+
+      new SlotBatchExecutor(connectionFactory, 1)
+          .sum(redisTemplate, keys, (ops, group) -> record(group));
+
+      assertThat(pipelines).hasSize(NODES);
+      assertThat(maxRunning).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("结果应与发送命令的 key 分组对应")
+    void shouldPassResultWithGroup() {
+      List<String> keys = IntStream.range(0, 50).mapToObj(i -> "user:" + i).toList();
+      Map<List<String>, Long> results = new HashMap<>();
+
+      new SlotBatchExecutor(connectionFactory, NODES)
+          .execute(redisTemplate, keys, (ops, group) -> record(group), results::put);
+
+      assertThat(results).allSatisfy((group, size) -> assertThat(size).isEqualTo(group.size()));
+      assertThat(results.keySet().stream().flatMap(List::stream))
+          .containsExactlyInAnyOrderElementsOf(keys);
+    }
+
+    @Test
+    @DisplayName("同一 hash tag 的 key 应合并为一条命令")
+    void shouldMergeTaggedKeys() {
+      new SlotBatchExecutor(connectionFactory, NODES).sum(
+          redisTemplate,
+          List.of(ClusterKeys.tagged("a:", "1"), ClusterKeys.tagged("b:", "1")),
+          (ops, group) -> record(group));
+
+      assertThat(pipelines).singleElement().asInstanceOf(LIST).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("任一节点失败时应抛出原异常")
+    void shouldPropagateFailure() {
+      List<String> keys = IntStream.range(0, 20).mapToObj(i -> "k" + i).toList();
+
+      assertThatThrownBy(() -> new SlotBatchExecutor(connectionFactory, NODES)
+          .sum(redisTemplate, keys, (ops, group) -> {
+            throw new IllegalStateException("down");
+          })).isInstanceOf(IllegalStateException.class).hasMessage("down");
+    }
+  }
+}